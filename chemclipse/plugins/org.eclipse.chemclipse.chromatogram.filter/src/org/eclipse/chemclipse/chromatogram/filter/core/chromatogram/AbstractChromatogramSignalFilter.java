@@ -30,6 +30,7 @@ import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD
 import org.eclipse.chemclipse.processing.core.IProcessingInfo;
 import org.eclipse.chemclipse.wsd.model.core.IChromatogramWSD;
 import org.eclipse.chemclipse.wsd.model.core.IScanSignalWSD;
+import org.eclipse.chemclipse.wsd.model.core.IScanWSD;
 import org.eclipse.chemclipse.wsd.model.core.selection.IChromatogramSelectionWSD;
 import org.eclipse.chemclipse.wsd.model.xwc.ExtractedSingleWavelengthSignalExtractor;
 import org.eclipse.chemclipse.wsd.model.xwc.IExtractedSingleWavelengthSignal;
@@ -173,9 +174,11 @@ public abstract class AbstractChromatogramSignalFilter extends AbstractChromatog
 			double wavelength = totalSignals.getWavelength();
 			while(itScan.hasNext()) {
 				int scan = itScan.next();
-				IScanSignalWSD scanSignal = chromatogramWSD.getSupplierScan(scan).getScanSignal(wavelength).get();
+				IScanWSD scanWSD = chromatogramWSD.getSupplierScan(scan);
+				IScanSignalWSD scanSignal = scanWSD.getScanSignal(wavelength).get();
 				IExtractedSingleWavelengthSignal totalSignal = totalSignals.getTotalScanSignal(scan);
 				scanSignal.setAbundance(totalSignal.getTotalSignal());
+				scanWSD.setDirty(true);
 			}
 		}
 		return chromatogramFilterResultFinal;
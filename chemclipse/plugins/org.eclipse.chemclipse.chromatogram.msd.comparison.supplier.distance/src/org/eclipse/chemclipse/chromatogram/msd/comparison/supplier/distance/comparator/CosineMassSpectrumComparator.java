@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -20,8 +20,9 @@ import org.apache.commons.math3.exception.MathArithmeticException;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.eclipse.chemclipse.chromatogram.msd.comparison.massspectrum.AbstractMassSpectrumComparator;
 import org.eclipse.chemclipse.chromatogram.msd.comparison.massspectrum.IMassSpectrumComparator;
+import org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel.DistanceKernel;
+import org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel.SpectrumVectorCache;
 import org.eclipse.chemclipse.model.identifier.IComparisonResult;
-import org.eclipse.chemclipse.model.identifier.LazyComparisonResult;
 import org.eclipse.chemclipse.msd.model.core.IScanMSD;
 import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignal;
 import org.eclipse.chemclipse.processing.core.IProcessingInfo;
@@ -37,14 +38,8 @@ public class CosineMassSpectrumComparator extends AbstractMassSpectrumComparator
 			 * Get the match and reverse match factor.
 			 * Internally it's normalized to 1, but a percentage value is used by the MS methods.
 			 */
-			IExtractedIonSignal unknownSignal = unknown.getExtractedIonSignal();
-			IExtractedIonSignal referenceSignal = reference.getExtractedIonSignal();
-			IComparisonResult massSpectrumComparisonResult = new LazyComparisonResult( //
-					() -> calculateCosinePhi(unknownSignal, referenceSignal), //
-					() -> calculateCosinePhi(referenceSignal, unknownSignal), //
-					() -> calculateCosinePhiDirect(unknownSignal, referenceSignal), //
-					() -> calculateCosinePhiDirect(referenceSignal, unknownSignal) //
-			);
+			SpectrumVectorCache spectrumVectorCache = SpectrumVectorCache.getInstance();
+			IComparisonResult massSpectrumComparisonResult = DistanceKernel.calculateCosine(spectrumVectorCache.getVector(unknown), spectrumVectorCache.getVector(reference), isIonOccurrence());
 			processingInfo.setProcessingResult(massSpectrumComparisonResult);
 		}
 		return processingInfo;
@@ -87,6 +82,17 @@ public class CosineMassSpectrumComparator extends AbstractMassSpectrumComparator
 		return signal.getAbundance(i);
 	}
 
+	/**
+	 * If true, the match and reverse match are calculated on the
+	 * ion occurrence (1/0) instead of the abundance values.
+	 * 
+	 * @return boolean
+	 */
+	protected boolean isIonOccurrence() {
+
+		return false;
+	}
+
 	public double calculateCosinePhiDirect(IExtractedIonSignal unknownSignal, IExtractedIonSignal referenceSignal) {
 
 		List<Integer> ionList = new ArrayList<Integer>();
@@ -22,4 +22,10 @@ public class CosineUnitMassSpectrumComparator extends CosineMassSpectrumComparat
 		double signalAbundance = signal.getAbundance(i);
 		return signalAbundance > 0 ? 1 : 0;
 	}
+
+	@Override
+	protected boolean isIonOccurrence() {
+
+		return true;
+	}
 };
\ No newline at end of file
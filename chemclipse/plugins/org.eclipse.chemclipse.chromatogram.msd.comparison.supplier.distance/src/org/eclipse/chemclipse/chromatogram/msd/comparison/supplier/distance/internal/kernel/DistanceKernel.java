@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel;
+
+import org.eclipse.chemclipse.model.identifier.ComparisonResult;
+import org.eclipse.chemclipse.model.identifier.IComparisonResult;
+
+/**
+ * Calculates the match, reverse match and the direct match factors of two
+ * spectrum vectors in merge passes without creating temporary arrays.
+ * The sums are accumulated in ascending m/z order, hence the results
+ * are identical to the calculations on the extracted ion signal vectors.
+ * <br/>
+ * Match: unknown range, reverse match: reference range,
+ * match direct: unknown ions, reverse match direct: reference ions.
+ */
+public class DistanceKernel {
+
+	/**
+	 * Only static methods.
+	 */
+	private DistanceKernel() {
+	}
+
+	/**
+	 * Calculates the cosine phi (0 - 100).
+	 * If binary is true, the match and reverse match are calculated
+	 * on the ion occurrence (1/0) instead of the abundances.
+	 *
+	 * @param unknown
+	 * @param reference
+	 * @param binary
+	 * @return {@link IComparisonResult}
+	 */
+	public static IComparisonResult calculateCosine(SpectrumVector unknown, SpectrumVector reference, boolean binary) {
+
+		double dot = 0; // abundances
+		double dotBinary = 0;
+		double unknownInReference = 0;
+		double referenceInUnknown = 0;
+		double unknownAtReference = 0;
+		double referenceAtUnknown = 0;
+		double unknownInReferenceBinary = 0;
+		double referenceInUnknownBinary = 0;
+		//
+		int sizeUnknown = unknown.size();
+		int sizeReference = reference.size();
+		int i = 0;
+		int j = 0;
+		while(i < sizeUnknown || j < sizeReference) {
+			int ionUnknown = (i < sizeUnknown) ? unknown.getIon(i) : Integer.MAX_VALUE;
+			int ionReference = (j < sizeReference) ? reference.getIon(j) : Integer.MAX_VALUE;
+			if(ionUnknown == ionReference) {
+				double a = unknown.getAbundance(i++);
+				double b = reference.getAbundance(j++);
+				dot += a * b;
+				dotBinary += 1;
+				unknownInReference += a * a;
+				referenceInUnknown += b * b;
+				unknownAtReference += a * a;
+				referenceAtUnknown += b * b;
+				unknownInReferenceBinary += 1;
+				referenceInUnknownBinary += 1;
+			} else if(ionUnknown < ionReference) {
+				double a = unknown.getAbundance(i++);
+				if(reference.isInRange(ionUnknown)) {
+					unknownInReference += a * a;
+					unknownInReferenceBinary += 1;
+				}
+			} else {
+				double b = reference.getAbundance(j++);
+				if(unknown.isInRange(ionReference)) {
+					referenceInUnknown += b * b;
+					referenceInUnknownBinary += 1;
+				}
+			}
+		}
+		//
+		double matchFactor;
+		double reverseMatchFactor;
+		if(binary) {
+			matchFactor = cosine(dotBinary, sizeUnknown, referenceInUnknownBinary);
+			reverseMatchFactor = cosine(dotBinary, sizeReference, unknownInReferenceBinary);
+		} else {
+			matchFactor = cosine(dot, unknown.getSquaredNorm(), referenceInUnknown);
+			reverseMatchFactor = cosine(dot, reference.getSquaredNorm(), unknownInReference);
+		}
+		double matchFactorDirect = cosine(dot, unknown.getSquaredNorm(), referenceAtUnknown);
+		double reverseMatchFactorDirect = cosine(dot, reference.getSquaredNorm(), unknownAtReference);
+		return new ComparisonResult((float)matchFactor, (float)reverseMatchFactor, (float)matchFactorDirect, (float)reverseMatchFactorDirect);
+	}
+
+	/**
+	 * Calculates the match factors (0 - 100) based on the euclidean distance of the unit vectors.
+	 * Only positive values are used, hence both vectors are located in quadrant I only.
+	 * The distance is weighted by 0.5 like in the former vector calculation.
+	 *
+	 * @param unknown
+	 * @param reference
+	 * @return {@link IComparisonResult}
+	 */
+	public static IComparisonResult calculateEuclidean(SpectrumVector unknown, SpectrumVector reference) {
+
+		/*
+		 * The norms of the restricted vectors are required first.
+		 */
+		double unknownInReference = 0;
+		double referenceInUnknown = 0;
+		double unknownAtReference = 0;
+		double referenceAtUnknown = 0;
+		int sizeUnknown = unknown.size();
+		int sizeReference = reference.size();
+		int i = 0;
+		int j = 0;
+		while(i < sizeUnknown || j < sizeReference) {
+			int ionUnknown = (i < sizeUnknown) ? unknown.getIon(i) : Integer.MAX_VALUE;
+			int ionReference = (j < sizeReference) ? reference.getIon(j) : Integer.MAX_VALUE;
+			if(ionUnknown == ionReference) {
+				double a = unknown.getAbundance(i++);
+				double b = reference.getAbundance(j++);
+				unknownInReference += a * a;
+				referenceInUnknown += b * b;
+				unknownAtReference += a * a;
+				referenceAtUnknown += b * b;
+			} else if(ionUnknown < ionReference) {
+				double a = unknown.getAbundance(i++);
+				if(reference.isInRange(ionUnknown)) {
+					unknownInReference += a * a;
+				}
+			} else {
+				double b = reference.getAbundance(j++);
+				if(unknown.isInRange(ionReference)) {
+					referenceInUnknown += b * b;
+				}
+			}
+		}
+		//
+		double normUnknown = Math.sqrt(unknown.getSquaredNorm());
+		double normReference = Math.sqrt(reference.getSquaredNorm());
+		double normUnknownInReference = Math.sqrt(unknownInReference);
+		double normReferenceInUnknown = Math.sqrt(referenceInUnknown);
+		double normUnknownAtReference = Math.sqrt(unknownAtReference);
+		double normReferenceAtUnknown = Math.sqrt(referenceAtUnknown);
+		/*
+		 * Sum up the squared differences of the unit vectors.
+		 */
+		double match = 0;
+		double reverseMatch = 0;
+		double matchDirect = 0;
+		double reverseMatchDirect = 0;
+		i = 0;
+		j = 0;
+		while(i < sizeUnknown || j < sizeReference) {
+			int ionUnknown = (i < sizeUnknown) ? unknown.getIon(i) : Integer.MAX_VALUE;
+			int ionReference = (j < sizeReference) ? reference.getIon(j) : Integer.MAX_VALUE;
+			if(ionUnknown == ionReference) {
+				double a = unknown.getAbundance(i++);
+				double b = reference.getAbundance(j++);
+				match += square(a / normUnknown - b / normReferenceInUnknown);
+				reverseMatch += square(b / normReference - a / normUnknownInReference);
+				matchDirect += square(a / normUnknown - b / normReferenceAtUnknown);
+				reverseMatchDirect += square(b / normReference - a / normUnknownAtReference);
+			} else if(ionUnknown < ionReference) {
+				double a = unknown.getAbundance(i++);
+				match += square(a / normUnknown);
+				if(reference.isInRange(ionUnknown)) {
+					reverseMatch += square(a / normUnknownInReference);
+				}
+				matchDirect += square(a / normUnknown);
+			} else {
+				double b = reference.getAbundance(j++);
+				if(unknown.isInRange(ionReference)) {
+					match += square(b / normReferenceInUnknown);
+				}
+				reverseMatch += square(b / normReference);
+				reverseMatchDirect += square(b / normReference);
+			}
+		}
+		//
+		float matchFactor = euclideanMatch(match, normUnknown, normReferenceInUnknown);
+		float reverseMatchFactor = euclideanMatch(reverseMatch, normReference, normUnknownInReference);
+		float matchFactorDirect = euclideanMatch(matchDirect, normUnknown, normReferenceAtUnknown);
+		float reverseMatchFactorDirect = euclideanMatch(reverseMatchDirect, normReference, normUnknownAtReference);
+		return new ComparisonResult(matchFactor, reverseMatchFactor, matchFactorDirect, reverseMatchFactorDirect);
+	}
+
+	private static double cosine(double dot, double squaredNorm, double squaredNormOther) {
+
+		double norm = Math.sqrt(squaredNorm);
+		double normOther = Math.sqrt(squaredNormOther);
+		if(norm == 0 || normOther == 0) {
+			return 0;
+		}
+		return dot / (norm * normOther) * 100;
+	}
+
+	private static float euclideanMatch(double sum, double norm, double normOther) {
+
+		float match;
+		if(norm == 0 || normOther == 0) {
+			match = 1; // No match.
+		} else {
+			float distance = (float)Math.sqrt(sum);
+			match = 0.5f * distance;
+		}
+		return (1 - match) * 100;
+	}
+
+	private static double square(double value) {
+
+		return value * value;
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel;
+
+import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignal;
+
+/**
+ * The nominal (binned) ions of a mass spectrum.
+ * Only ions with an abundance > 0 are stored, sorted ascending by m/z.
+ * The range is the range of the extracted ion signal, which is used
+ * by the match factor to restrict the vector of the other mass spectrum.
+ */
+public final class SpectrumVector {
+
+	private final int startIon;
+	private final int stopIon;
+	private final int[] ions;
+	private final float[] abundances;
+	private final double squaredNorm;
+
+	private SpectrumVector(int startIon, int stopIon, int[] ions, float[] abundances) {
+		this.startIon = startIon;
+		this.stopIon = stopIon;
+		this.ions = ions;
+		this.abundances = abundances;
+		/*
+		 * Summed up in ascending order like in the vector calculations.
+		 */
+		double sum = 0;
+		for(float abundance : abundances) {
+			sum += (double)abundance * abundance;
+		}
+		this.squaredNorm = sum;
+	}
+
+	public static SpectrumVector create(IExtractedIonSignal extractedIonSignal) {
+
+		int startIon = extractedIonSignal.getStartIon();
+		int stopIon = extractedIonSignal.getStopIon();
+		int size = 0;
+		for(int ion = startIon; ion <= stopIon; ion++) {
+			if(extractedIonSignal.getAbundance(ion) > 0.0f) {
+				size++;
+			}
+		}
+		//
+		int[] ions = new int[size];
+		float[] abundances = new float[size];
+		int index = 0;
+		for(int ion = startIon; ion <= stopIon; ion++) {
+			float abundance = extractedIonSignal.getAbundance(ion);
+			if(abundance > 0.0f) {
+				ions[index] = ion;
+				abundances[index] = abundance;
+				index++;
+			}
+		}
+		return new SpectrumVector(startIon, stopIon, ions, abundances);
+	}
+
+	public int getStartIon() {
+
+		return startIon;
+	}
+
+	public int getStopIon() {
+
+		return stopIon;
+	}
+
+	public boolean isInRange(int ion) {
+
+		return ion >= startIon && ion <= stopIon;
+	}
+
+	public int size() {
+
+		return ions.length;
+	}
+
+	public int getIon(int index) {
+
+		return ions[index];
+	}
+
+	public float getAbundance(int index) {
+
+		return abundances[index];
+	}
+
+	/**
+	 * Returns the sum of the squared abundances.
+	 *
+	 * @return double
+	 */
+	public double getSquaredNorm() {
+
+		return squaredNorm;
+	}
+}
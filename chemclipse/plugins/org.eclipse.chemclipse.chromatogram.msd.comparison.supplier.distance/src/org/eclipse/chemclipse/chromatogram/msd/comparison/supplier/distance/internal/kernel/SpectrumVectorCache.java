@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+
+/**
+ * Caches the vectors of the compared mass spectra, hence a reference
+ * is binned only once while it is searched by many unknowns.
+ * The mass spectra are identified by object identity and a fingerprint
+ * (number of ions, total signal) to detect modifications.
+ * The cache is bounded and split into LRU segments to be used by several threads.
+ */
+public class SpectrumVectorCache {
+
+	public static final int DEFAULT_CAPACITY = 131072;
+	//
+	private static final int SEGMENTS = 16;
+	private static final SpectrumVectorCache INSTANCE = new SpectrumVectorCache(DEFAULT_CAPACITY);
+	//
+	private final List<Map<CacheKey, CacheEntry>> segments;
+
+	public SpectrumVectorCache(int capacity) {
+		int segmentCapacity = Math.max(1, capacity / SEGMENTS);
+		segments = new ArrayList<>(SEGMENTS);
+		for(int i = 0; i < SEGMENTS; i++) {
+			segments.add(new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = 2962180547311864032L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+
+					return size() > segmentCapacity || eldest.getKey().get() == null;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the shared cache instance.
+	 *
+	 * @return {@link SpectrumVectorCache}
+	 */
+	public static SpectrumVectorCache getInstance() {
+
+		return INSTANCE;
+	}
+
+	public SpectrumVector getVector(IScanMSD massSpectrum) {
+
+		CacheKey key = new CacheKey(massSpectrum);
+		long fingerprint = ((long)massSpectrum.getNumberOfIons() << 32) | (Float.floatToIntBits(massSpectrum.getTotalSignal()) & 0xFFFFFFFFL);
+		Map<CacheKey, CacheEntry> segment = segments.get((key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1));
+		synchronized(segment) {
+			CacheEntry entry = segment.get(key);
+			if(entry != null && entry.fingerprint == fingerprint) {
+				return entry.vector;
+			}
+		}
+		//
+		SpectrumVector vector = SpectrumVector.create(massSpectrum.getExtractedIonSignal());
+		synchronized(segment) {
+			segment.put(key, new CacheEntry(fingerprint, vector));
+		}
+		return vector;
+	}
+
+	public int size() {
+
+		int size = 0;
+		for(Map<CacheKey, CacheEntry> segment : segments) {
+			synchronized(segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public void clear() {
+
+		for(Map<CacheKey, CacheEntry> segment : segments) {
+			synchronized(segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	private static final class CacheKey extends WeakReference<IScanMSD> {
+
+		private final int hash;
+
+		public CacheKey(IScanMSD massSpectrum) {
+			super(massSpectrum);
+			hash = System.identityHashCode(massSpectrum);
+		}
+
+		@Override
+		public int hashCode() {
+
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof CacheKey) {
+				Object referent = get();
+				return referent != null && referent == ((CacheKey)obj).get();
+			}
+			return false;
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final long fingerprint;
+		private final SpectrumVector vector;
+
+		public CacheEntry(long fingerprint, SpectrumVector vector) {
+			this.fingerprint = fingerprint;
+			this.vector = vector;
+		}
+	}
+}
@@ -1,52 +1,91 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Lablicate GmbH.
+ * Copyright (c) 2016, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
  * http://www.eclipse.org/legal/epl-v10.html
- * 
+ *
  * Contributors:
  * Dr. Philip Wenig - initial API and implementation
  *******************************************************************************/
 package org.eclipse.chemclipse.chromatogram.msd.comparison.internal.massspectrum;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.chemclipse.chromatogram.msd.comparison.massspectrum.ComparatorCacheStatistics;
 import org.eclipse.chemclipse.msd.model.core.AbstractIon;
 import org.eclipse.chemclipse.msd.model.core.IIon;
 import org.eclipse.chemclipse.msd.model.core.IScanMSD;
 import org.eclipse.chemclipse.msd.model.core.comparator.IonAbundanceComparator;
 import org.eclipse.chemclipse.support.comparator.SortOrder;
 
+/**
+ * Caches the top ions of the unknown and reference mass spectra as bit sets.
+ * The mass spectra are identified by object identity. A fingerprint
+ * (number of ions, total signal) is stored additionally to detect
+ * modifications, e.g. if a peak mass spectrum has been filtered.
+ * The cache is bounded. It is split into segments which are
+ * evicted in LRU order, hence it can be used by several threads.
+ */
 public class ComparatorCache {
 
+	public static final int DEFAULT_CAPACITY = 65536;
+	//
 	private static final int NUMBER_TOP_IONS = 12;
-	private static Map<Integer, Set<Integer>> unknownTopIons = null;
-	private static Map<Integer, Set<Integer>> referenceTopIons = null;
+	private static final int SEGMENTS = 16;
 	//
-	private IonAbundanceComparator ionAbundanceComparator;
+	private final IonAbundanceComparator ionAbundanceComparator;
+	private final List<Map<CacheKey, CacheEntry>> segments;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
 
 	public ComparatorCache() {
-		/*
-		 * Initialize the static maps once.
-		 */
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * The capacity is the max number of cached mass spectra.
+	 *
+	 * @param capacity
+	 */
+	public ComparatorCache(int capacity) {
 		ionAbundanceComparator = new IonAbundanceComparator(SortOrder.DESC);
-		initializeDatabaseMaps();
+		int segmentCapacity = Math.max(1, capacity / SEGMENTS);
+		segments = new ArrayList<>(SEGMENTS);
+		for(int i = 0; i < SEGMENTS; i++) {
+			segments.add(new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+
+				private static final long serialVersionUID = -7325208126853470342L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+
+					if(size() > segmentCapacity || eldest.getKey().get() == null) {
+						evictions.incrementAndGet();
+						return true;
+					}
+					return false;
+				}
+			});
+		}
 	}
 
 	/**
-	 * If sorted is false, the ion list will be sorted descending - m/z values with highest abundance first.
-	 * 
-	 * @param ions
-	 * @param referenceIons
+	 * Returns true if the share of the reference top ions which are contained
+	 * in the unknown top ions is >= the given threshold.
+	 *
+	 * @param unknown
+	 * @param reference
+	 * @param thresholdPreOptimization
 	 * @return boolean
 	 */
 	public boolean useReferenceForComparison(IScanMSD unknown, IScanMSD reference, double thresholdPreOptimization) {
@@ -54,49 +93,79 @@ public class ComparatorCache {
 		if(unknown == null || reference == null) {
 			return false;
 		}
-		/*
-		 * Warm up the cache.
-		 */
-		int keyUnknown = unknown.getIons().hashCode();
-		if(!unknownTopIons.containsKey(keyUnknown)) {
-			unknownTopIons.put(keyUnknown, extractTopIons(unknown));
+		//
+		BitSet unknownIons = getTopIons(unknown);
+		BitSet referenceIons = getTopIons(reference);
+		return useReferenceForComparison(unknownIons, referenceIons, thresholdPreOptimization);
+	}
+
+	/**
+	 * Returns the cached top ions (nominal m/z) of the given mass spectrum.
+	 *
+	 * @param massSpectrum
+	 * @return {@link BitSet}
+	 */
+	public BitSet getTopIons(IScanMSD massSpectrum) {
+
+		CacheKey key = new CacheKey(massSpectrum);
+		long fingerprint = getFingerprint(massSpectrum);
+		Map<CacheKey, CacheEntry> segment = getSegment(key);
+		synchronized(segment) {
+			CacheEntry entry = segment.get(key);
+			if(entry != null && entry.fingerprint == fingerprint) {
+				hits.incrementAndGet();
+				return entry.topIons;
+			}
 		}
 		/*
-		 * It is assumed that the reference is not modified.
+		 * Extract the ions outside of the lock.
 		 */
-		int keyReference = unknown.getIons().hashCode();
-		if(!referenceTopIons.containsKey(reference)) {
-			referenceTopIons.put(keyReference, extractTopIons(reference));
+		misses.incrementAndGet();
+		BitSet topIons = extractTopIons(massSpectrum);
+		synchronized(segment) {
+			segment.put(key, new CacheEntry(fingerprint, topIons));
 		}
-		/*
-		 * Make the comparison.
-		 */
-		Set<Integer> unknownIons = unknownTopIons.get(keyUnknown);
-		Set<Integer> referenceIons = referenceTopIons.get(keyReference);
-		return useReferenceForComparison(unknownIons, referenceIons, thresholdPreOptimization);
+		return topIons;
+	}
+
+	public ComparatorCacheStatistics getStatistics() {
+
+		int size = 0;
+		for(Map<CacheKey, CacheEntry> segment : segments) {
+			synchronized(segment) {
+				size += segment.size();
+			}
+		}
+		return new ComparatorCacheStatistics(hits.get(), misses.get(), evictions.get(), size);
 	}
 
 	/**
-	 * The ion list must be sorted descending - m/z values with highest abundance first.
-	 * 
-	 * @param ions
-	 * @param referenceIons
-	 * @return
+	 * Removes all entries and resets the statistics.
 	 */
-	private boolean useReferenceForComparison(Set<Integer> unknownIons, Set<Integer> referenceIons, double thresholdPreOptimization) {
-
-		int hits = 0;
-		int size = unknownIons.size();
-		if(size > 0) {
-			Iterator<Integer> iterator = unknownIons.iterator();
-			while(iterator.hasNext()) {
-				int mz = iterator.next();
-				if(referenceIons.contains(mz)) {
+	public void clear() {
+
+		for(Map<CacheKey, CacheEntry> segment : segments) {
+			synchronized(segment) {
+				segment.clear();
+			}
+		}
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+	private boolean useReferenceForComparison(BitSet unknownIons, BitSet referenceIons, double thresholdPreOptimization) {
+
+		int size = referenceIons.cardinality();
+		if(size > 0 && !unknownIons.isEmpty()) {
+			int hits = 0;
+			for(int mz = unknownIons.nextSetBit(0); mz >= 0; mz = unknownIons.nextSetBit(mz + 1)) {
+				if(referenceIons.get(mz)) {
 					hits++;
 				}
 			}
 			//
-			double percentageHits = hits / (double)referenceIons.size();
+			double percentageHits = hits / (double)size;
 			if(percentageHits >= thresholdPreOptimization) {
 				return true;
 			}
@@ -105,29 +174,76 @@ public class ComparatorCache {
 		return false;
 	}
 
-	private Set<Integer> extractTopIons(IScanMSD massSpectrum) {
+	private BitSet extractTopIons(IScanMSD massSpectrum) {
 
 		/*
 		 * Extract the list of n top ions.
 		 */
 		List<IIon> ions = new ArrayList<>(massSpectrum.getIons());
 		Collections.sort(ions, ionAbundanceComparator);
-		Set<Integer> topIons = new HashSet<Integer>();
+		BitSet topIons = new BitSet();
 		int size = (ions.size() < NUMBER_TOP_IONS) ? ions.size() : NUMBER_TOP_IONS;
 		for(int i = 0; i < size; i++) {
-			topIons.add(AbstractIon.getIon(ions.get(i).getIon()));
+			int ion = AbstractIon.getIon(ions.get(i).getIon());
+			if(ion >= 0) {
+				topIons.set(ion);
+			}
 		}
 		//
 		return topIons;
 	}
 
-	private void initializeDatabaseMaps() {
+	private long getFingerprint(IScanMSD massSpectrum) {
+
+		return ((long)massSpectrum.getNumberOfIons() << 32) | (Float.floatToIntBits(massSpectrum.getTotalSignal()) & 0xFFFFFFFFL);
+	}
+
+	private Map<CacheKey, CacheEntry> getSegment(CacheKey key) {
+
+		return segments.get((key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1));
+	}
+
+	/**
+	 * The key compares the mass spectra by identity and
+	 * doesn't prevent them from being garbage collected.
+	 */
+	private static final class CacheKey extends WeakReference<IScanMSD> {
 
-		if(unknownTopIons == null) {
-			unknownTopIons = new HashMap<Integer, Set<Integer>>();
+		private final int hash;
+
+		public CacheKey(IScanMSD massSpectrum) {
+			super(massSpectrum);
+			hash = System.identityHashCode(massSpectrum);
+		}
+
+		@Override
+		public int hashCode() {
+
+			return hash;
 		}
-		if(referenceTopIons == null) {
-			referenceTopIons = new HashMap<Integer, Set<Integer>>();
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof CacheKey) {
+				Object referent = get();
+				return referent != null && referent == ((CacheKey)obj).get();
+			}
+			return false;
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final long fingerprint;
+		private final BitSet topIons;
+
+		public CacheEntry(long fingerprint, BitSet topIons) {
+			this.fingerprint = fingerprint;
+			this.topIons = topIons;
 		}
 	}
 }
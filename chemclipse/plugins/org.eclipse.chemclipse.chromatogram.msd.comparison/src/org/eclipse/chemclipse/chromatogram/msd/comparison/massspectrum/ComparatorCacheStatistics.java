@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.comparison.massspectrum;
+
+/**
+ * A snapshot of the pre-optimization cache statistics.
+ */
+public class ComparatorCacheStatistics {
+
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final int size;
+
+	public ComparatorCacheStatistics(long hits, long misses, long evictions, int size) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+	}
+
+	public long getHits() {
+
+		return hits;
+	}
+
+	public long getMisses() {
+
+		return misses;
+	}
+
+	public long getEvictions() {
+
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of cached mass spectra.
+	 *
+	 * @return int
+	 */
+	public int getSize() {
+
+		return size;
+	}
+
+	/**
+	 * Returns the hit ratio 0.0 - 1.0.
+	 *
+	 * @return double
+	 */
+	public double getHitRatio() {
+
+		long requests = hits + misses;
+		return (requests > 0) ? hits / (double)requests : 0.0d;
+	}
+
+	@Override
+	public String toString() {
+
+		return "ComparatorCacheStatistics [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size=" + size + "]";
+	}
+}
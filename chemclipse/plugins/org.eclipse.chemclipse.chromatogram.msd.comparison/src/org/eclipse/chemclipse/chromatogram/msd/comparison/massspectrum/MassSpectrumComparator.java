@@ -126,6 +126,24 @@ public class MassSpectrumComparator {
 		return processingInfo;
 	}
 
+	/**
+	 * Returns the statistics of the cache, which is used by the pre-optimization.
+	 *
+	 * @return {@link ComparatorCacheStatistics}
+	 */
+	public static ComparatorCacheStatistics getComparatorCacheStatistics() {
+
+		return comparatorCache.getStatistics();
+	}
+
+	/**
+	 * Clears the cache, which is used by the pre-optimization, e.g. after a batch run.
+	 */
+	public static void clearComparatorCache() {
+
+		comparatorCache.clear();
+	}
+
 	/**
 	 * Calculates the purity of the extracted mass spectrum in comparison to the genuine.
 	 *
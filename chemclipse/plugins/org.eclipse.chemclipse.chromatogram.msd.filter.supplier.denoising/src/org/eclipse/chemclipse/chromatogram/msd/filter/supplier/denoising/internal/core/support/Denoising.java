@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2019 Lablicate GmbH.
+ * Copyright (c) 2010, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This
  * program and the accompanying materials are made available under the terms of
@@ -12,8 +12,10 @@
 package org.eclipse.chemclipse.chromatogram.msd.filter.supplier.denoising.internal.core.support;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
@@ -36,15 +38,12 @@ import org.eclipse.chemclipse.msd.model.xic.ExtractedIonSignalsModifier;
 import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignal;
 import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignalExtractor;
 import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignals;
-import org.eclipse.chemclipse.numeric.statistics.Calculations;
-import org.eclipse.chemclipse.support.comparator.SortOrder;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 
 public class Denoising {
 
 	private static final Logger logger = Logger.getLogger(Denoising.class);
-	private static IonNoiseAbundanceComparator ionNoiseAbundanceComparator = new IonNoiseAbundanceComparator(SortOrder.DESC);
 
 	/**
 	 * Use only static methods.
@@ -172,53 +171,93 @@ public class Denoising {
 	}
 
 	/**
-	 * Subtracts the noise mass spectrum from the given scan range.
+	 * Subtracts the noise mass spectra from the scans. The scans are processed in parallel,
+	 * as each scan depends only on its own signal and the noise mass spectra of its segments.
+	 * If the scan ranges of the segments overlap, the noise mass spectra are subtracted in
+	 * the order of the segments, like in a sequential run.
 	 * 
 	 * @param extractedIonSignals
-	 * @param noiseMassSpectrum
-	 * @param startScan
-	 * @param stopScan
-	 * @param monitor
+	 * @param noiseProfiles
+	 * @param startScans
+	 * @param stopScans
+	 * @param numberOfUsedIonsForCoefficient
 	 */
-	private static void subtractNoiseMassSpectrumFromScanRange(IExtractedIonSignals extractedIonSignals, ICombinedMassSpectrum noiseMassSpectrum, int startScan, int stopScan, int numberOfUsedIonsForCoefficient, IProgressMonitor monitor) {
+	private static void subtractNoiseMassSpectraFromScans(IExtractedIonSignals extractedIonSignals, List<NoiseProfile> noiseProfiles, List<Integer> startScans, List<Integer> stopScans, int numberOfUsedIonsForCoefficient) {
 
-		IExtractedIonSignal extractedIonSignal;
-		for(int scan = startScan; scan <= stopScan; scan++) {
-			try {
-				extractedIonSignal = extractedIonSignals.getExtractedIonSignal(scan);
-				subtractNoiseMassSpectrumFromScan(extractedIonSignal, noiseMassSpectrum, numberOfUsedIonsForCoefficient, monitor);
-			} catch(NoExtractedIonSignalStoredException e) {
-				logger.warn(e);
+		if(noiseProfiles.isEmpty()) {
+			return;
+		}
+		/*
+		 * Assign the noise profiles to the scans.
+		 */
+		int firstScan = Integer.MAX_VALUE;
+		int lastScan = Integer.MIN_VALUE;
+		for(int i = 0; i < noiseProfiles.size(); i++) {
+			firstScan = Math.min(firstScan, startScans.get(i));
+			lastScan = Math.max(lastScan, stopScans.get(i));
+		}
+		if(firstScan > lastScan) {
+			return;
+		}
+		//
+		int offset = firstScan;
+		List<List<NoiseProfile>> scanNoiseProfiles = new ArrayList<>(Collections.nCopies(lastScan - firstScan + 1, null));
+		for(int i = 0; i < noiseProfiles.size(); i++) {
+			NoiseProfile noiseProfile = noiseProfiles.get(i);
+			for(int scan = startScans.get(i); scan <= stopScans.get(i); scan++) {
+				List<NoiseProfile> profiles = scanNoiseProfiles.get(scan - offset);
+				if(profiles == null) {
+					profiles = new ArrayList<>(1);
+					scanNoiseProfiles.set(scan - offset, profiles);
+				}
+				profiles.add(noiseProfile);
 			}
 		}
+		/*
+		 * The scan range is split into chunks by the fork-join pool.
+		 */
+		IntStream.rangeClosed(firstScan, lastScan).parallel().forEach(scan -> {
+			List<NoiseProfile> profiles = scanNoiseProfiles.get(scan - offset);
+			if(profiles != null) {
+				try {
+					IExtractedIonSignal extractedIonSignal = extractedIonSignals.getExtractedIonSignal(scan);
+					for(NoiseProfile noiseProfile : profiles) {
+						subtractNoiseMassSpectrumFromScan(extractedIonSignal, noiseProfile, numberOfUsedIonsForCoefficient);
+					}
+				} catch(NoExtractedIonSignalStoredException e) {
+					for(int i = 0; i < profiles.size(); i++) {
+						logger.warn(e);
+					}
+				}
+			}
+		});
 	}
 
 	/**
 	 * Subtracts the noise mass spectrum from the scan.
 	 * 
 	 * @param extractedIonSignal
-	 * @param noiseMassSpectrum
-	 * @param monitor
+	 * @param noiseProfile
+	 * @param numberOfUsedIonsForCoefficient
 	 */
-	private static void subtractNoiseMassSpectrumFromScan(IExtractedIonSignal extractedIonSignal, ICombinedMassSpectrum noiseMassSpectrum, int numberOfUsedIonsForCoefficient, IProgressMonitor monitor) {
+	private static void subtractNoiseMassSpectrumFromScan(IExtractedIonSignal extractedIonSignal, NoiseProfile noiseProfile, int numberOfUsedIonsForCoefficient) {
 
-		IExtractedIonSignal noiseSignal = noiseMassSpectrum.getExtractedIonSignal();
-		float correlationFactor = calculateCoefficient(extractedIonSignal, noiseSignal, numberOfUsedIonsForCoefficient);
+		float correlationFactor = calculateCoefficient(extractedIonSignal, noiseProfile, numberOfUsedIonsForCoefficient);
 		/*
 		 * Avoid a DivideByZero exception.
 		 */
 		if(correlationFactor <= 0) {
 			return;
 		}
-		int startIon = noiseSignal.getStartIon();
-		int stopIon = noiseSignal.getStopIon();
+		int startIon = noiseProfile.startIon;
+		int stopIon = noiseProfile.stopIon;
 		float abundance;
 		float subtractAbundance;
 		float newAbundance;
 		for(int ion = startIon; ion <= stopIon; ion++) {
 			abundance = extractedIonSignal.getAbundance(ion);
 			if(abundance > 0) {
-				subtractAbundance = correlationFactor * noiseSignal.getAbundance(ion);
+				subtractAbundance = correlationFactor * noiseProfile.getAbundance(ion);
 				newAbundance = abundance - subtractAbundance;
 				if(newAbundance <= 0.0f) {
 					extractedIonSignal.setAbundance(ion, 0.0f, true);
@@ -230,96 +269,63 @@ public class Denoising {
 	}
 
 	/**
-	 * Calculates a noise coefficient.
+	 * Calculates a noise coefficient. It's the mean of the ratios of the scan and
+	 * the noise abundances. The ions with the highest noise abundances are used.
 	 * 
 	 * @param extractedIonSignal
-	 * @param noiseSignal
+	 * @param noiseProfile
 	 * @return float
 	 */
-	private static float calculateCoefficient(IExtractedIonSignal extractedIonSignal, IExtractedIonSignal noiseSignal, int numberOfUsedIonsForCoefficient) {
+	private static float calculateCoefficient(IExtractedIonSignal extractedIonSignal, NoiseProfile noiseProfile, int numberOfUsedIonsForCoefficient) {
 
-		int startIon = noiseSignal.getStartIon();
-		int stopIon = noiseSignal.getStopIon();
-		float abundanceNoise;
-		float abundanceScan;
-		float coefficient = 0.0f;
-		/*
-		 * Get the noise ions. The compareTo method allows to sort by
-		 * abundance descending.
-		 */
-		List<IonNoise> entries = new ArrayList<IonNoise>();
-		for(int ion = startIon; ion <= stopIon; ion++) {
-			entries.add(new IonNoise(ion, noiseSignal.getAbundance(ion)));
-		}
-		/*
-		 * Sort by abundance descending.
-		 */
-		Collections.sort(entries, ionNoiseAbundanceComparator);
-		/*
-		 * The correlation factors. The number of used ions tells how
-		 * many ions shall be taken into account.
-		 */
-		List<Float> coefficients = new ArrayList<Float>();
+		int[] ions = noiseProfile.ionsByAbundance;
+		float[] abundances = noiseProfile.abundancesByAbundance;
+		float sum = 0.0f;
 		int counter = 0;
-		exitfor:
-		for(IonNoise entry : entries) {
-			abundanceNoise = noiseSignal.getAbundance(entry.getIon());
+		for(int i = 0; i < ions.length; i++) {
 			/*
-			 * The noise signal abundance must be > 0. It will be in most cases,
-			 * as the entries are sorted descending (ion 56 - 1000, ion 43 - 998
-			 * ....)
+			 * Check if there is an appropriate extracted ion signal
+			 * abundance for the given ion. If "yes", then calculate the
+			 * correlation factor. If "no", move on.
 			 */
-			if(abundanceNoise > 0.0f) {
+			float abundanceScan = extractedIonSignal.getAbundance(ions[i]);
+			if(abundanceScan > 0.0f) {
+				sum += abundanceScan / abundances[i];
+				counter++;
 				/*
-				 * Then, check if there is an appropriate extracted ion signal
-				 * abundance for the given ion. If "yes", then calculate the
-				 * correlation factor. If "no", move on.
+				 * If still the number of used ions have been
+				 * taken, skip the for loop.
 				 */
-				abundanceScan = extractedIonSignal.getAbundance(entry.getIon());
-				if(abundanceScan > 0.0f) {
-					coefficient = abundanceScan / abundanceNoise;
-					coefficients.add(coefficient);
-					counter++;
-					/*
-					 * If still the number of used ions have been
-					 * taken, skip the for loop.
-					 */
-					if(counter > numberOfUsedIonsForCoefficient) {
-						break exitfor;
-					}
+				if(counter > numberOfUsedIonsForCoefficient) {
+					break;
 				}
 			}
 		}
 		/*
-		 * Transform the correlation factors.
+		 * The mean, calculated like Calculations.getMean(float[]).
 		 */
-		int size = coefficients.size();
-		float[] values = new float[size];
-		for(int i = 0; i < size; i++) {
-			values[i] = coefficients.get(i);
-		}
-		return Calculations.getMean(values);
+		return (counter == 0) ? 0.0f : sum / counter;
 	}
 
 	/**
 	 * Writes the results back to the chromatogram.
+	 * The scans are replaced sequentially, as replacing the ions modifies
+	 * the scan proxies and the modification count of the chromatogram.
 	 * 
 	 * @param chromatogram
 	 * @param extractedIonSignals
-	 * @param startScan
-	 * @param stopScan
 	 * @param monitor
 	 */
 	private static void writeExtractedIonSignalsBackToChromatogram(IChromatogramMSD chromatogram, IExtractedIonSignals extractedIonSignals, IProgressMonitor monitor) {
 
 		int startScan = extractedIonSignals.getStartScan();
 		int stopScan = extractedIonSignals.getStopScan();
-		IExtractedIonSignal extractedIonSignal;
-		IVendorMassSpectrum supplierMassSpectrum;
 		/*
 		 * Write the values from the extracted ion signals back to the
 		 * chromatogram.
 		 */
+		IExtractedIonSignal extractedIonSignal;
+		IVendorMassSpectrum supplierMassSpectrum;
 		for(int scan = startScan; scan <= stopScan; scan++) {
 			try {
 				extractedIonSignal = extractedIonSignals.getExtractedIonSignal(scan);
@@ -342,6 +348,8 @@ public class Denoising {
 
 		int startIon = extractedIonSignal.getStartIon();
 		int stopIon = extractedIonSignal.getStopIon();
+		int maxPossibleIons = supplierMassSpectrum.getMaxPossibleIons();
+		int numberOfIons = 0;
 		float abundance;
 		/*
 		 * Remove all ions.
@@ -350,13 +358,16 @@ public class Denoising {
 		IIon defaultIon;
 		/*
 		 * Add the new ion values if abundance > 0.0f.
+		 * The nominal ions are unique, hence they are added without checking the
+		 * ions stored before. The supplier ion limit is still respected.
 		 */
-		for(int ion = startIon; ion <= stopIon; ion++) {
+		for(int ion = startIon; ion <= stopIon && numberOfIons < maxPossibleIons; ion++) {
 			abundance = extractedIonSignal.getAbundance(ion);
 			if(abundance > 0.0f) {
 				try {
 					defaultIon = new Ion(ion, abundance);
-					supplierMassSpectrum.addIon(defaultIon);
+					supplierMassSpectrum.addIon(defaultIon, false);
+					numberOfIons++;
 				} catch(AbundanceLimitExceededException e) {
 					logger.warn(e);
 				} catch(IonLimitExceededException e) {
@@ -374,6 +385,9 @@ public class Denoising {
 	private static List<ICombinedMassSpectrum> subtractNoiseMassSpectraFromSegments(IExtractedIonSignals extractedIonSignals, List<INoiseSegment> noiseSegments, IMarkedIons ionsToPreserve, int numberOfUsedIonsForCoefficient, IProgressMonitor monitor) {
 
 		List<ICombinedMassSpectrum> noiseMassSpectra = new ArrayList<ICombinedMassSpectrum>();
+		List<NoiseProfile> noiseProfiles = new ArrayList<>();
+		List<Integer> startScans = new ArrayList<>();
+		List<Integer> stopScans = new ArrayList<>();
 		Calculator calculator = new Calculator();
 		int segments = noiseSegments.size();
 		int startScan;
@@ -444,8 +458,15 @@ public class Denoising {
 			noiseMassSpectrum.setStartRetentionTime(extractedIonSignals.getChromatogram().getScan(startScan).getRetentionTime());
 			noiseMassSpectrum.setStopRetentionTime(extractedIonSignals.getChromatogram().getScan(stopScan).getRetentionTime());
 			noiseMassSpectra.add(noiseMassSpectrum);
-			subtractNoiseMassSpectrumFromScanRange(extractedIonSignals, noiseMassSpectrum, startScan, stopScan, numberOfUsedIonsForCoefficient, monitor);
+			noiseProfiles.add(new NoiseProfile(noiseMassSpectrum.getExtractedIonSignal()));
+			startScans.add(startScan);
+			stopScans.add(stopScan);
 		}
+		/*
+		 * The noise mass spectra depend on the noise segments only, hence
+		 * they are subtracted afterwards.
+		 */
+		subtractNoiseMassSpectraFromScans(extractedIonSignals, noiseProfiles, startScans, stopScans, numberOfUsedIonsForCoefficient);
 		return noiseMassSpectra;
 	}
 
@@ -490,4 +511,52 @@ public class Denoising {
 		return result;
 	}
 	// ---------------------------------------------------------private methods
+
+	/**
+	 * The abundances of a noise mass spectrum. The ions with a noise abundance > 0
+	 * are sorted by abundance descending (ties by ion ascending), like the stable
+	 * sort of the ions by abundance which has been used before for each scan.
+	 */
+	private static final class NoiseProfile {
+
+		private final int startIon;
+		private final int stopIon;
+		private final float[] abundances;
+		private final int[] ionsByAbundance;
+		private final float[] abundancesByAbundance;
+
+		public NoiseProfile(IExtractedIonSignal noiseSignal) {
+			startIon = noiseSignal.getStartIon();
+			stopIon = noiseSignal.getStopIon();
+			int size = Math.max(0, stopIon - startIon + 1);
+			abundances = new float[size];
+			/*
+			 * Positive floats have the same order as their bits, hence the
+			 * abundance (descending) and the ion (ascending) are combined to one key.
+			 */
+			long[] keys = new long[size];
+			int count = 0;
+			for(int i = 0; i < size; i++) {
+				float abundance = noiseSignal.getAbundance(startIon + i);
+				abundances[i] = abundance;
+				if(abundance > 0.0f) {
+					keys[count++] = ((long)(Integer.MAX_VALUE - Float.floatToIntBits(abundance)) << 32) | i;
+				}
+			}
+			Arrays.sort(keys, 0, count);
+			ionsByAbundance = new int[count];
+			abundancesByAbundance = new float[count];
+			for(int i = 0; i < count; i++) {
+				int index = (int)keys[i];
+				ionsByAbundance[i] = startIon + index;
+				abundancesByAbundance[i] = abundances[index];
+			}
+		}
+
+		public float getAbundance(int ion) {
+
+			int index = ion - startIon;
+			return (index >= 0 && index < abundances.length) ? abundances[index] : 0.0f;
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -15,6 +15,8 @@ import org.eclipse.chemclipse.chromatogram.filter.result.ChromatogramFilterResul
 import org.eclipse.chemclipse.chromatogram.filter.result.ResultStatus;
 import org.eclipse.chemclipse.chromatogram.filter.settings.IChromatogramFilterSettings;
 import org.eclipse.chemclipse.chromatogram.msd.filter.core.chromatogram.AbstractChromatogramFilterMSD;
+import org.eclipse.chemclipse.chromatogram.msd.filter.core.stream.IScanOperator;
+import org.eclipse.chemclipse.chromatogram.msd.filter.core.stream.IStreamingChromatogramFilter;
 import org.eclipse.chemclipse.chromatogram.msd.filter.supplier.ionremover.exceptions.FilterException;
 import org.eclipse.chemclipse.chromatogram.msd.filter.supplier.ionremover.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.chromatogram.msd.filter.supplier.ionremover.settings.ChromatogramFilterSettings;
@@ -27,7 +29,7 @@ import org.eclipse.chemclipse.processing.core.IProcessingInfo;
 import org.eclipse.chemclipse.support.util.IonSettingUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
 
-public class ChromatogramFilter extends AbstractChromatogramFilterMSD {
+public class ChromatogramFilter extends AbstractChromatogramFilterMSD implements IStreamingChromatogramFilter {
 
 	@Override
 	public IProcessingInfo applyFilter(IChromatogramSelectionMSD chromatogramSelection, IChromatogramFilterSettings chromatogramFilterSettings, IProgressMonitor monitor) {
@@ -37,9 +39,7 @@ public class ChromatogramFilter extends AbstractChromatogramFilterMSD {
 			if(chromatogramFilterSettings instanceof ChromatogramFilterSettings) {
 				try {
 					ChromatogramFilterSettings filterSettings = (ChromatogramFilterSettings)chromatogramFilterSettings;
-					IonSettingUtil ionSettingUtil = new IonSettingUtil();
-					IMarkedIons ionsToRemove = new MarkedIons(ionSettingUtil.extractIons(ionSettingUtil.deserialize(filterSettings.getIonsToRemove())), IMarkedIons.IonMarkMode.INCLUDE);
-					applyIonRemoverFilter(chromatogramSelection, ionsToRemove, monitor);
+					applyIonRemoverFilter(chromatogramSelection, getIonsToRemove(filterSettings), monitor);
 					processingInfo.setProcessingResult(new ChromatogramFilterResult(ResultStatus.OK, "Mass fragments have been removed successfully."));
 				} catch(FilterException e) {
 					processingInfo.setProcessingResult(new ChromatogramFilterResult(ResultStatus.EXCEPTION, e.getMessage()));
@@ -57,6 +57,27 @@ public class ChromatogramFilter extends AbstractChromatogramFilterMSD {
 		return applyFilter(chromatogramSelection, filterSettings, monitor);
 	}
 
+	/**
+	 * Each scan is processed independently, hence no window is required.
+	 */
+	@Override
+	public IScanOperator getScanOperator(IChromatogramFilterSettings chromatogramFilterSettings) {
+
+		if(chromatogramFilterSettings instanceof ChromatogramFilterSettings) {
+			IMarkedIons ionsToRemove = getIonsToRemove((ChromatogramFilterSettings)chromatogramFilterSettings);
+			if(ionsToRemove.getIonsNominal().size() > 0) {
+				return window -> window.getCurrent().removeIons(ionsToRemove);
+			}
+		}
+		return null;
+	}
+
+	private IMarkedIons getIonsToRemove(ChromatogramFilterSettings filterSettings) {
+
+		IonSettingUtil ionSettingUtil = new IonSettingUtil();
+		return new MarkedIons(ionSettingUtil.extractIons(ionSettingUtil.deserialize(filterSettings.getIonsToRemove())), IMarkedIons.IonMarkMode.INCLUDE);
+	}
+
 	/**
 	 * Removes the given ions stored in the excludedIons
 	 * instance from the chromatogram selection.
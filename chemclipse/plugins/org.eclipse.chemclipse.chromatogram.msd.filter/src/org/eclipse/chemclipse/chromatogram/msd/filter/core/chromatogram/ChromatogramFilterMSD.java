@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  *
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -12,8 +12,15 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.chromatogram.msd.filter.core.chromatogram;
 
+import java.util.List;
+
+import org.eclipse.chemclipse.chromatogram.filter.result.ChromatogramFilterResult;
 import org.eclipse.chemclipse.chromatogram.filter.result.IChromatogramFilterResult;
+import org.eclipse.chemclipse.chromatogram.filter.result.ResultStatus;
 import org.eclipse.chemclipse.chromatogram.filter.settings.IChromatogramFilterSettings;
+import org.eclipse.chemclipse.chromatogram.msd.filter.core.stream.IScanOperator;
+import org.eclipse.chemclipse.chromatogram.msd.filter.core.stream.IStreamingChromatogramFilter;
+import org.eclipse.chemclipse.chromatogram.msd.filter.core.stream.ScanPipeline;
 import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
 import org.eclipse.chemclipse.processing.core.IProcessingInfo;
@@ -95,6 +102,94 @@ public class ChromatogramFilterMSD {
 		return processingInfo;
 	}
 
+	/**
+	 * Applies the filters (filterIds) with the given settings in the given order.<br/>
+	 * If all filters implement {@link IStreamingChromatogramFilter}, the scans are streamed
+	 * through the chain in one pass. Otherwise, the filters are applied one after another.
+	 *
+	 * @param chromatogramSelection
+	 * @param chromatogramFilterSettings
+	 * @param filterIds
+	 * @param monitor
+	 * @return {@link IProcessingInfo}
+	 */
+	public static IProcessingInfo<IChromatogramFilterResult> applyFilterChain(IChromatogramSelectionMSD chromatogramSelection, List<IChromatogramFilterSettings> chromatogramFilterSettings, List<String> filterIds, IProgressMonitor monitor) {
+
+		IProcessingInfo<IChromatogramFilterResult> processingInfo = new ProcessingInfo<>();
+		if(chromatogramFilterSettings.size() != filterIds.size()) {
+			processingInfo.addErrorMessage(PROCESSING_DESCRIPTION, "Each filter requires its settings.");
+			return processingInfo;
+		}
+		//
+		ScanPipeline scanPipeline = getScanPipeline(chromatogramFilterSettings, filterIds);
+		if(scanPipeline != null) {
+			/*
+			 * The filters are validated before the scans are streamed,
+			 * as each filter does when it is applied on its own.
+			 */
+			for(int i = 0; i < filterIds.size(); i++) {
+				processingInfo.addMessages(getChromatogramFilter(filterIds.get(i)).validate(chromatogramSelection, chromatogramFilterSettings.get(i)));
+			}
+			if(processingInfo.hasErrorMessages()) {
+				return processingInfo;
+			}
+			int scans = scanPipeline.apply(chromatogramSelection, monitor);
+			processingInfo.setProcessingResult(new ChromatogramFilterResult(ResultStatus.OK, scans + " scans have been streamed through the filter chain."));
+		} else {
+			for(int i = 0; i < filterIds.size(); i++) {
+				IChromatogramFilterSettings filterSettings = chromatogramFilterSettings.get(i);
+				IProcessingInfo<?> processingInfoFilter = (filterSettings != null) ? applyFilter(chromatogramSelection, filterSettings, filterIds.get(i), monitor) : applyFilter(chromatogramSelection, filterIds.get(i), monitor);
+				processingInfo.addMessages(processingInfoFilter);
+				Object processingResult = processingInfoFilter.getProcessingResult();
+				if(processingResult instanceof IChromatogramFilterResult) {
+					processingInfo.setProcessingResult((IChromatogramFilterResult)processingResult);
+				}
+				if(processingInfo.hasErrorMessages()) {
+					break;
+				}
+			}
+		}
+		return processingInfo;
+	}
+
+	/**
+	 * Returns the scan pipeline of the given filters or null
+	 * if at least one filter can't be streamed.
+	 *
+	 * @param chromatogramFilterSettings
+	 * @param filterIds
+	 * @return {@link ScanPipeline}
+	 */
+	public static ScanPipeline getScanPipeline(List<IChromatogramFilterSettings> chromatogramFilterSettings, List<String> filterIds) {
+
+		ScanPipeline scanPipeline = new ScanPipeline();
+		for(int i = 0; i < filterIds.size(); i++) {
+			IScanOperator scanOperator = getScanOperator(chromatogramFilterSettings.get(i), filterIds.get(i));
+			if(scanOperator == null) {
+				return null;
+			}
+			scanPipeline.addOperator(scanOperator);
+		}
+		return scanPipeline;
+	}
+
+	/**
+	 * Returns the scan operator of the filter or null if the filter
+	 * can't be streamed with the given settings.
+	 *
+	 * @param chromatogramFilterSettings
+	 * @param filterId
+	 * @return {@link IScanOperator}
+	 */
+	public static IScanOperator getScanOperator(IChromatogramFilterSettings chromatogramFilterSettings, String filterId) {
+
+		IChromatogramFilterMSD chromatogramFilter = getChromatogramFilter(filterId);
+		if(chromatogramFilter instanceof IStreamingChromatogramFilter) {
+			return ((IStreamingChromatogramFilter)chromatogramFilter).getScanOperator(chromatogramFilterSettings);
+		}
+		return null;
+	}
+
 	public static IChromatogramFilterSupportMSD getChromatogramFilterSupport() {
 
 		ChromatogramFilterSupplierMSD supplier;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Lablicate GmbH.
+ * Copyright (c) 2019, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.chromatogram.msd.filter.core.chromatogram;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -19,6 +20,7 @@ import java.util.List;
 import org.eclipse.chemclipse.chromatogram.filter.core.chromatogram.IChromatogramFilterSupplier;
 import org.eclipse.chemclipse.chromatogram.filter.exceptions.NoChromatogramFilterSupplierAvailableException;
 import org.eclipse.chemclipse.chromatogram.filter.settings.IChromatogramFilterSettings;
+import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.model.selection.IChromatogramSelection;
 import org.eclipse.chemclipse.model.supplier.ChromatogramSelectionProcessorSupplier;
 import org.eclipse.chemclipse.model.types.DataType;
@@ -26,12 +28,18 @@ import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD
 import org.eclipse.chemclipse.processing.core.MessageConsumer;
 import org.eclipse.chemclipse.processing.supplier.IProcessSupplier;
 import org.eclipse.chemclipse.processing.supplier.IProcessTypeSupplier;
+import org.eclipse.chemclipse.processing.supplier.ProcessChainExecutor;
+import org.eclipse.chemclipse.processing.supplier.ProcessExecutionConsumer;
+import org.eclipse.chemclipse.processing.supplier.ProcessExecutionContext;
+import org.eclipse.chemclipse.processing.supplier.ProcessorPreferences;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.osgi.service.component.annotations.Component;
 
 @Component(service = {IProcessTypeSupplier.class})
 public class ChromatogramFilterMSDProcessSupplier implements IProcessTypeSupplier {
 
+	private static final Logger logger = Logger.getLogger(ChromatogramFilterMSDProcessSupplier.class);
+
 	@Override
 	public String getCategory() {
 
@@ -53,7 +61,11 @@ public class ChromatogramFilterMSDProcessSupplier implements IProcessTypeSupplie
 		}
 	}
 
-	private static final class ChromatogramFilterMSDProcessorSupplier extends ChromatogramSelectionProcessorSupplier<IChromatogramFilterSettings> {
+	/**
+	 * Consecutive filters of a process method which can be streamed are applied in one pass,
+	 * see {@link ChromatogramFilterMSD#applyFilterChain(IChromatogramSelectionMSD, List, List, IProgressMonitor)}.
+	 */
+	private static final class ChromatogramFilterMSDProcessorSupplier extends ChromatogramSelectionProcessorSupplier<IChromatogramFilterSettings> implements ProcessChainExecutor {
 
 		private IChromatogramFilterSupplier supplier;
 
@@ -79,10 +91,44 @@ public class ChromatogramFilterMSDProcessSupplier implements IProcessTypeSupplie
 			return chromatogramSelection;
 		}
 
+		@Override
+		public <X, T> boolean isChainable(ProcessorPreferences<X> preferences, ProcessExecutionConsumer<T> consumer) {
+
+			if(consumer.getResult() instanceof IChromatogramSelectionMSD && preferences.getSupplier() instanceof ChromatogramFilterMSDProcessorSupplier) {
+				try {
+					Object settings = preferences.getSettings();
+					if(settings == null || settings instanceof IChromatogramFilterSettings) {
+						return ChromatogramFilterMSD.getScanOperator((IChromatogramFilterSettings)settings, getFilterId(preferences)) != null;
+					}
+				} catch(IOException e) {
+					logger.warn(e);
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public <T> void executeChain(List<ProcessorPreferences<?>> chain, ProcessExecutionConsumer<T> consumer, ProcessExecutionContext context) throws Exception {
+
+			List<IChromatogramFilterSettings> chromatogramFilterSettings = new ArrayList<>();
+			List<String> filterIds = new ArrayList<>();
+			for(ProcessorPreferences<?> preferences : chain) {
+				chromatogramFilterSettings.add((IChromatogramFilterSettings)preferences.getSettings());
+				filterIds.add(getFilterId(preferences));
+			}
+			IChromatogramSelectionMSD chromatogramSelection = (IChromatogramSelectionMSD)consumer.getResult();
+			context.addMessages(ChromatogramFilterMSD.applyFilterChain(chromatogramSelection, chromatogramFilterSettings, filterIds, context.getProgressMonitor()));
+		}
+
 		@Override
 		public boolean matchesId(String id) {
 
 			return super.matchesId(id) || supplier.getId().equals(id);
 		}
+
+		private String getFilterId(ProcessorPreferences<?> preferences) {
+
+			return ((ChromatogramFilterMSDProcessorSupplier)preferences.getSupplier()).supplier.getId();
+		}
 	}
 }
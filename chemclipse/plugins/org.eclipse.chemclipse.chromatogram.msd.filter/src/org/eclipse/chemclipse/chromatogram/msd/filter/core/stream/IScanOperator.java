@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.filter.core.stream;
+
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+
+/**
+ * Processes one scan at a time in a {@link ScanPipeline}.
+ * The operator declares how many previous (look-behind) and following (look-ahead)
+ * scans are required to process the current scan.
+ * Only these scans are kept in memory.
+ */
+public interface IScanOperator {
+
+	/**
+	 * Returns the number of previous scans required to process the current scan.
+	 *
+	 * @return int
+	 */
+	default int getLookBehind() {
+
+		return 0;
+	}
+
+	/**
+	 * Returns the number of following scans required to process the current scan.
+	 *
+	 * @return int
+	 */
+	default int getLookAhead() {
+
+		return 0;
+	}
+
+	/**
+	 * Processes the current scan of the window and returns the result, which must not be null.
+	 * The window contains the unprocessed input scans of this operator, hence
+	 * operators with a window must not modify them. They return a new scan or
+	 * one of the window, which is then copied by the pipeline before it is passed on.
+	 * Operators without a window may modify and return the current scan.
+	 *
+	 * @param window
+	 * @return {@link IScanMSD}
+	 */
+	IScanMSD process(ScanWindow window);
+}
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.filter.core.stream;
+
+import org.eclipse.chemclipse.chromatogram.filter.settings.IChromatogramFilterSettings;
+
+/**
+ * Implemented by chromatogram filters which can be applied scan by scan
+ * in a {@link ScanPipeline}.
+ */
+public interface IStreamingChromatogramFilter {
+
+	/**
+	 * Returns the scan operator for the given settings or null
+	 * if the filter can't be streamed with these settings.
+	 *
+	 * @param chromatogramFilterSettings
+	 * @return {@link IScanOperator}
+	 */
+	IScanOperator getScanOperator(IChromatogramFilterSettings chromatogramFilterSettings);
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.filter.core.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.chemclipse.model.core.IScan;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Streams the scans through a chain of {@link IScanOperator}s.
+ * Each operator has its own {@link ScanWindow}, hence only the sum of the
+ * windows is kept in memory instead of the whole run. A scan is passed to the
+ * next operator as soon as its look-ahead scans are available.
+ * The scans leave the pipeline in the order they have been read.
+ * A scan which is passed on is never held by a window, hence the operators
+ * may modify the scans they get in place.
+ */
+public class ScanPipeline {
+
+	private final List<IScanOperator> operators = new ArrayList<>();
+
+	public ScanPipeline addOperator(IScanOperator operator) {
+
+		operators.add(operator);
+		return this;
+	}
+
+	public List<IScanOperator> getOperators() {
+
+		return Collections.unmodifiableList(operators);
+	}
+
+	/**
+	 * Returns the maximum number of scans which are held by the pipeline.
+	 *
+	 * @return int
+	 */
+	public int getWindowSize() {
+
+		int size = 0;
+		for(IScanOperator operator : operators) {
+			size += operator.getLookBehind() + 1 + operator.getLookAhead();
+		}
+		return size;
+	}
+
+	/**
+	 * Reads the scans, processes them by all operators and passes the results to the consumer,
+	 * e.g. a writer. Returns the number of scans passed to the consumer.
+	 * If the monitor is canceled, the remaining scans are not processed.
+	 *
+	 * @param scans
+	 * @param consumer
+	 * @param monitor
+	 * @return int
+	 */
+	public int process(Iterator<? extends IScanMSD> scans, Consumer<IScanMSD> consumer, IProgressMonitor monitor) {
+
+		int size = operators.size();
+		ScanWindow[] windows = new ScanWindow[size];
+		for(int i = 0; i < size; i++) {
+			IScanOperator operator = operators.get(i);
+			windows[i] = new ScanWindow(operator.getLookBehind(), operator.getLookAhead());
+		}
+		//
+		int[] counter = new int[1];
+		Consumer<IScanMSD> sink = scan -> {
+			consumer.accept(scan);
+			counter[0]++;
+		};
+		//
+		while(scans.hasNext()) {
+			if(monitor.isCanceled()) {
+				return counter[0];
+			}
+			push(windows, 0, scans.next(), sink);
+		}
+		/*
+		 * Process the last scans of each operator. The missing
+		 * look-ahead scans at the end of the run are null.
+		 */
+		for(int i = 0; i < size; i++) {
+			for(int j = 0; j < windows[i].getLookAhead(); j++) {
+				push(windows, i, null, sink);
+			}
+		}
+		return counter[0];
+	}
+
+	/**
+	 * Streams the scans of the selection through the pipeline and replaces them by the results.
+	 * The results are marked as dirty and the signal statistics of the chromatogram are invalidated.
+	 *
+	 * @param chromatogramSelection
+	 * @param monitor
+	 * @return int
+	 */
+	public int apply(IChromatogramSelectionMSD chromatogramSelection, IProgressMonitor monitor) {
+
+		IChromatogramMSD chromatogram = chromatogramSelection.getChromatogramMSD();
+		int startScan = chromatogram.getScanNumber(chromatogramSelection.getStartRetentionTime());
+		int stopScan = chromatogram.getScanNumber(chromatogramSelection.getStopRetentionTime());
+		List<IScan> scans = chromatogram.getScans();
+		if(startScan < 1 || stopScan < startScan) {
+			return 0;
+		}
+		/*
+		 * The results lag behind the input scans, hence
+		 * the scans are replaced after they have been read.
+		 */
+		Iterator<IScanMSD> selection = new Iterator<IScanMSD>() {
+
+			private int scan = startScan;
+
+			@Override
+			public boolean hasNext() {
+
+				return scan <= stopScan;
+			}
+
+			@Override
+			public IScanMSD next() {
+
+				/*
+				 * Not only vendor scans, the scans may have been replaced by a previous filter.
+				 */
+				return (IScanMSD)chromatogram.getScan(scan++);
+			}
+		};
+		//
+		int[] index = {startScan - 1};
+		int processed = process(selection, result -> {
+			IScan scan = scans.get(index[0]);
+			if(result != scan) {
+				result.setParentChromatogram(chromatogram);
+				result.setScanNumber(scan.getScanNumber());
+				scans.set(index[0], result);
+			}
+			/*
+			 * The operators may also have modified the scan in place.
+			 */
+			result.setDirty(true);
+			index[0]++;
+		}, monitor);
+		chromatogram.invalidateSignalStatistics();
+		return processed;
+	}
+
+	private void push(ScanWindow[] windows, int stage, IScanMSD scan, Consumer<IScanMSD> sink) {
+
+		if(stage == windows.length) {
+			sink.accept(scan);
+		} else {
+			ScanWindow window = windows[stage];
+			window.shift(scan);
+			if(window.getCurrent() != null) {
+				IScanMSD result = operators.get(stage).process(window);
+				/*
+				 * The following operators may modify the result in place.
+				 * Hence, a scan which is still held by the window is copied,
+				 * otherwise this stage would read already processed scans.
+				 */
+				if(window.size() > 1 && window.contains(result)) {
+					result = copy(result);
+				}
+				push(windows, stage + 1, result, sink);
+			}
+		}
+	}
+
+	private IScanMSD copy(IScanMSD scan) {
+
+		try {
+			return scan.makeDeepCopy();
+		} catch(CloneNotSupportedException e) {
+			throw new IllegalStateException("The scan " + scan.getScanNumber() + " can't be passed on from a window.", e);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.filter.core.stream;
+
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+
+/**
+ * A ring buffer which contains the current scan and its neighbours.
+ * At the start and the end of the run, the missing neighbours are null.
+ */
+public class ScanWindow {
+
+	private final int lookBehind;
+	private final int lookAhead;
+	private final IScanMSD[] scans;
+	private int head = -1; // Slot of the latest scan.
+
+	public ScanWindow(int lookBehind, int lookAhead) {
+		if(lookBehind < 0 || lookAhead < 0) {
+			throw new IllegalArgumentException("The window must not be negative.");
+		}
+		this.lookBehind = lookBehind;
+		this.lookAhead = lookAhead;
+		this.scans = new IScanMSD[lookBehind + 1 + lookAhead];
+	}
+
+	public int getLookBehind() {
+
+		return lookBehind;
+	}
+
+	public int getLookAhead() {
+
+		return lookAhead;
+	}
+
+	/**
+	 * Returns the current scan.
+	 *
+	 * @return {@link IScanMSD}
+	 */
+	public IScanMSD getCurrent() {
+
+		return get(0);
+	}
+
+	/**
+	 * Returns the scan relative to the current scan, e.g. -1 is the previous scan
+	 * and 1 the following scan. Null is returned at the borders of the run.
+	 *
+	 * @param offset
+	 * @return {@link IScanMSD}
+	 */
+	public IScanMSD get(int offset) {
+
+		if(offset < -lookBehind || offset > lookAhead) {
+			throw new IndexOutOfBoundsException("The offset " + offset + " is outside of the window [-" + lookBehind + ", " + lookAhead + "].");
+		}
+		int slot = Math.floorMod(head - lookAhead + offset, scans.length);
+		return scans[slot];
+	}
+
+	/**
+	 * Returns the number of scans of the window, including the current scan.
+	 *
+	 * @return int
+	 */
+	public int size() {
+
+		return scans.length;
+	}
+
+	/**
+	 * Returns true if the window holds the given scan (identity).
+	 *
+	 * @param scan
+	 * @return boolean
+	 */
+	boolean contains(IScanMSD scan) {
+
+		for(IScanMSD windowScan : scans) {
+			if(windowScan == scan) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Shifts the window by one scan. Null marks the end of the run.
+	 *
+	 * @param scan
+	 */
+	void shift(IScanMSD scan) {
+
+		head = (head + 1) % scans.length;
+		scans[head] = scan;
+	}
+}
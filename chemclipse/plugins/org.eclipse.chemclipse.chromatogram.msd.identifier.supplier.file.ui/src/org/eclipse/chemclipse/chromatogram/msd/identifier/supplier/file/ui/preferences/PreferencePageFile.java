@@ -72,6 +72,11 @@ public class PreferencePageFile extends FieldEditorPreferencePage implements IWo
 		addField(new BooleanFieldEditor(PreferenceSupplier.P_USE_PRE_OPTIMIZATION, "Use search pre-optimization", getFieldEditorParent()));
 		String labelTextThreshold = getDescription("Threshold pre-optimization", PreferenceSupplier.MIN_THRESHOLD_PRE_OPTIMIZATION, PreferenceSupplier.MAX_THRESHOLD_PRE_OPTIMIZATION);
 		addField(new DoubleFieldEditor(PreferenceSupplier.P_THRESHOLD_PRE_OPTIMIZATION, labelTextThreshold, PreferenceSupplier.MIN_THRESHOLD_PRE_OPTIMIZATION, PreferenceSupplier.MAX_THRESHOLD_PRE_OPTIMIZATION, getFieldEditorParent()));
+		String labelTextPreSearchIons = getDescription("Pre-Search Ions (0 = off)", PreferenceSupplier.MIN_PRE_SEARCH_IONS, PreferenceSupplier.MAX_PRE_SEARCH_IONS);
+		IntegerFieldEditor preSearchIonsFieldEditor = new IntegerFieldEditor(PreferenceSupplier.P_PRE_SEARCH_IONS, labelTextPreSearchIons, getFieldEditorParent(), 3);
+		preSearchIonsFieldEditor.setValidRange(PreferenceSupplier.MIN_PRE_SEARCH_IONS, PreferenceSupplier.MAX_PRE_SEARCH_IONS);
+		addField(preSearchIonsFieldEditor);
+		addField(new FloatFieldEditor(PreferenceSupplier.P_PRE_SEARCH_RETENTION_INDEX_WINDOW, "Pre-Search Retention Index Window (0 = off)", PreferenceSupplier.MIN_PRE_SEARCH_RETENTION_INDEX_WINDOW, PreferenceSupplier.MAX_PRE_SEARCH_RETENTION_INDEX_WINDOW, getFieldEditorParent()));
 		//
 		addField(new ComboFieldEditor(PreferenceSupplier.P_MASS_SPECTRUM_COMPARATOR_ID, "Mass Spectrum Comparator Id", MassSpectrumComparator.getAvailableComparatorIds(), getFieldEditorParent()));
 		String labelTextNumberOfTargets = getDescription("Number of Targets", PreferenceSupplier.MIN_NUMBER_OF_TARGETS, PreferenceSupplier.MAX_NUMBER_OF_TARGETS);
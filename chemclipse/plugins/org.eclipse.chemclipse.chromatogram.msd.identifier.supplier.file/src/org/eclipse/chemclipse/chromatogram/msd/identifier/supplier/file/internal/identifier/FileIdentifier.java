@@ -31,6 +31,7 @@ import org.eclipse.chemclipse.chromatogram.msd.identifier.supplier.file.settings
 import org.eclipse.chemclipse.chromatogram.msd.identifier.supplier.file.settings.MassSpectrumIdentifierSettings;
 import org.eclipse.chemclipse.chromatogram.msd.identifier.supplier.file.settings.PeakIdentifierSettings;
 import org.eclipse.chemclipse.chromatogram.msd.identifier.support.DatabasesCache;
+import org.eclipse.chemclipse.chromatogram.msd.identifier.support.MassSpectrumIndex;
 import org.eclipse.chemclipse.chromatogram.msd.identifier.support.PenaltyCalculationSupport;
 import org.eclipse.chemclipse.chromatogram.msd.identifier.support.TargetBuilder;
 import org.eclipse.chemclipse.model.identifier.IComparisonResult;
@@ -83,7 +84,8 @@ public class FileIdentifier {
 		Map<String, IMassSpectra> databases = databasesCache.getDatabases(fileListUtil.getFiles(fileIdentifierSettings.getMassSpectraFiles()), subMonitor.split(10));
 		subMonitor.setWorkRemaining(databases.size() * 100);
 		for(Map.Entry<String, IMassSpectra> database : databases.entrySet()) {
-			compareMassSpectraAgainstDatabase(massSpectra.getList(), database.getValue().getList(), fileIdentifierSettings, identifier, database.getKey(), subMonitor.split(100, SubMonitor.SUPPRESS_NONE));
+			MassSpectrumIndex massSpectrumIndex = getDatabaseIndex(database.getKey(), fileIdentifierSettings);
+			compareAgainstDatabase(massSpectra.getList(), scan -> scan, database.getValue().getList(), massSpectrumIndex, fileIdentifierSettings, identifier, database.getKey(), subMonitor.split(100, SubMonitor.SUPPRESS_NONE));
 		}
 		//
 		return massSpectra;
@@ -122,7 +124,8 @@ public class FileIdentifier {
 		Map<String, IMassSpectra> databases = databasesCache.getDatabases(files, subMonitor.split(10));
 		subMonitor.setWorkRemaining(databases.size() * 100);
 		for(Map.Entry<String, IMassSpectra> database : databases.entrySet()) {
-			comparePeaksAgainstDatabase(peaks, database.getValue().getList(), peakIdentifierSettings, identifier, database.getKey(), subMonitor.split(100, SubMonitor.SUPPRESS_NONE));
+			MassSpectrumIndex massSpectrumIndex = getDatabaseIndex(database.getKey(), peakIdentifierSettings);
+			compareAgainstDatabase(peaks, peak -> peak.getPeakModel().getPeakMassSpectrum(), database.getValue().getList(), massSpectrumIndex, peakIdentifierSettings, identifier, database.getKey(), subMonitor.split(100, SubMonitor.SUPPRESS_NONE));
 		}
 		//
 		return identificationResults;
@@ -166,15 +169,40 @@ public class FileIdentifier {
 
 	public static int compareMassSpectraAgainstDatabase(List<? extends IScanMSD> unknownList, List<? extends IScanMSD> references, MassSpectrumIdentifierSettings fileIdentifierSettings, String identifier, String databaseName, IProgressMonitor monitor) {
 
-		return compareAgainstDatabase(unknownList, scan -> scan, references, fileIdentifierSettings, identifier, databaseName, monitor);
+		return compareAgainstDatabase(unknownList, scan -> scan, references, createIndex(references, fileIdentifierSettings), fileIdentifierSettings, identifier, databaseName, monitor);
 	}
 
 	public static int comparePeaksAgainstDatabase(List<? extends IPeakMSD> unknownList, List<IScanMSD> references, PeakIdentifierSettings fileIdentifierSettings, String identifier, String databaseName, IProgressMonitor monitor) {
 
-		return compareAgainstDatabase(unknownList, peak -> peak.getPeakModel().getPeakMassSpectrum(), references, fileIdentifierSettings, identifier, databaseName, monitor);
+		return compareAgainstDatabase(unknownList, peak -> peak.getPeakModel().getPeakMassSpectrum(), references, createIndex(references, fileIdentifierSettings), fileIdentifierSettings, identifier, databaseName, monitor);
 	}
 
-	private static <T> int compareAgainstDatabase(Collection<T> unknownList, Function<T, IScanMSD> extractor, List<? extends IScanMSD> references, IFileIdentifierSettings fileIdentifierSettings, String identifier, String databaseName, IProgressMonitor monitor) {
+	/**
+	 * Returns the cached index of the database or null if the pre-search is disabled.
+	 *
+	 * @param databaseName
+	 * @param fileIdentifierSettings
+	 * @return {@link MassSpectrumIndex}
+	 */
+	private MassSpectrumIndex getDatabaseIndex(String databaseName, IFileIdentifierSettings fileIdentifierSettings) {
+
+		int preSearchIons = fileIdentifierSettings.getPreSearchIons();
+		if(preSearchIons > 0) {
+			return databasesCache.getDatabaseIndex(databaseName, preSearchIons);
+		}
+		return null;
+	}
+
+	private static MassSpectrumIndex createIndex(List<? extends IScanMSD> references, IFileIdentifierSettings fileIdentifierSettings) {
+
+		int preSearchIons = fileIdentifierSettings.getPreSearchIons();
+		if(preSearchIons > 0) {
+			return new MassSpectrumIndex(references, preSearchIons);
+		}
+		return null;
+	}
+
+	private static <T> int compareAgainstDatabase(Collection<T> unknownList, Function<T, IScanMSD> extractor, List<? extends IScanMSD> references, MassSpectrumIndex massSpectrumIndex, IFileIdentifierSettings fileIdentifierSettings, String identifier, String databaseName, IProgressMonitor monitor) {
 
 		int matched = 0;
 		long start = System.currentTimeMillis();
@@ -188,7 +216,15 @@ public class FileIdentifier {
 			}
 			subMonitor.subTask("Reference " + count + "/" + total + " (matches found: " + matched + ")");
 			IScanMSD unknown = extractor.apply(item);
-			Map<IComparisonResult, IScanMSD> matches = new FindMatchingSpectras(unknown, references, fileIdentifierSettings, massSpectrumComparator).invoke();
+			/*
+			 * Compare only the references which share a dominant ion
+			 * with the unknown if the pre-search is enabled.
+			 */
+			List<? extends IScanMSD> candidates = references;
+			if(massSpectrumIndex != null) {
+				candidates = massSpectrumIndex.getCandidates(unknown, fileIdentifierSettings.getPreSearchRetentionIndexWindow());
+			}
+			Map<IComparisonResult, IScanMSD> matches = new FindMatchingSpectras(unknown, candidates, fileIdentifierSettings, massSpectrumComparator).invoke();
 			if(matches.size() > 0) {
 				matched++;
 				List<IComparisonResult> resultList = new ArrayList<>(matches.keySet());
@@ -49,6 +49,14 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 	public static final double DEF_THRESHOLD_PRE_OPTIMIZATION = 0.1d;
 	public static final double MIN_THRESHOLD_PRE_OPTIMIZATION = 0.0d; // no restriction
 	public static final double MAX_THRESHOLD_PRE_OPTIMIZATION = 1.0d; // hardest restriction
+	public static final String P_PRE_SEARCH_IONS = "preSearchIons";
+	public static final int DEF_PRE_SEARCH_IONS = 0; // compare all references
+	public static final int MIN_PRE_SEARCH_IONS = 0;
+	public static final int MAX_PRE_SEARCH_IONS = 50;
+	public static final String P_PRE_SEARCH_RETENTION_INDEX_WINDOW = "preSearchRetentionIndexWindow";
+	public static final float DEF_PRE_SEARCH_RETENTION_INDEX_WINDOW = 0.0f; // no restriction
+	public static final float MIN_PRE_SEARCH_RETENTION_INDEX_WINDOW = 0.0f;
+	public static final float MAX_PRE_SEARCH_RETENTION_INDEX_WINDOW = 1000.0f;
 	//
 	public static final String P_NUMBER_OF_TARGETS = "numberOfTargets";
 	public static final int DEF_NUMBER_OF_TARGETS = 3;
@@ -120,6 +128,8 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 		defaultValues.put(P_MASS_SPECTRUM_COMPARATOR_ID, DEF_MASS_SPECTRUM_COMPARATOR_ID);
 		defaultValues.put(P_USE_PRE_OPTIMIZATION, Boolean.toString(DEF_USE_PRE_OPTIMIZATION));
 		defaultValues.put(P_THRESHOLD_PRE_OPTIMIZATION, Double.toString(DEF_THRESHOLD_PRE_OPTIMIZATION));
+		defaultValues.put(P_PRE_SEARCH_IONS, Integer.toString(DEF_PRE_SEARCH_IONS));
+		defaultValues.put(P_PRE_SEARCH_RETENTION_INDEX_WINDOW, Float.toString(DEF_PRE_SEARCH_RETENTION_INDEX_WINDOW));
 		defaultValues.put(P_NUMBER_OF_TARGETS, Integer.toString(DEF_NUMBER_OF_TARGETS));
 		defaultValues.put(P_MIN_MATCH_FACTOR, Float.toString(DEF_MIN_MATCH_FACTOR));
 		defaultValues.put(P_MIN_REVERSE_MATCH_FACTOR, Float.toString(DEF_MIN_REVERSE_MATCH_FACTOR));
@@ -147,6 +157,8 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 		settings.setMassSpectraFiles(preferences.get(P_MASS_SPECTRA_FILES, DEF_MASS_SPECTRA_FILES));
 		settings.setUsePreOptimization(preferences.getBoolean(P_USE_PRE_OPTIMIZATION, DEF_USE_PRE_OPTIMIZATION));
 		settings.setThresholdPreOptimization(preferences.getDouble(P_THRESHOLD_PRE_OPTIMIZATION, DEF_THRESHOLD_PRE_OPTIMIZATION));
+		settings.setPreSearchIons(preferences.getInt(P_PRE_SEARCH_IONS, DEF_PRE_SEARCH_IONS));
+		settings.setPreSearchRetentionIndexWindow(preferences.getFloat(P_PRE_SEARCH_RETENTION_INDEX_WINDOW, DEF_PRE_SEARCH_RETENTION_INDEX_WINDOW));
 		settings.setMassSpectrumComparatorId(preferences.get(P_MASS_SPECTRUM_COMPARATOR_ID, DEF_MASS_SPECTRUM_COMPARATOR_ID));
 		settings.setNumberOfTargets(preferences.getInt(P_NUMBER_OF_TARGETS, DEF_NUMBER_OF_TARGETS));
 		settings.setMinMatchFactor(preferences.getFloat(P_MIN_MATCH_FACTOR, DEF_MIN_MATCH_FACTOR));
@@ -168,6 +180,8 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 		settings.setMassSpectraFiles(preferences.get(P_MASS_SPECTRA_FILES, DEF_MASS_SPECTRA_FILES));
 		settings.setUsePreOptimization(preferences.getBoolean(P_USE_PRE_OPTIMIZATION, DEF_USE_PRE_OPTIMIZATION));
 		settings.setThresholdPreOptimization(preferences.getDouble(P_THRESHOLD_PRE_OPTIMIZATION, DEF_THRESHOLD_PRE_OPTIMIZATION));
+		settings.setPreSearchIons(preferences.getInt(P_PRE_SEARCH_IONS, DEF_PRE_SEARCH_IONS));
+		settings.setPreSearchRetentionIndexWindow(preferences.getFloat(P_PRE_SEARCH_RETENTION_INDEX_WINDOW, DEF_PRE_SEARCH_RETENTION_INDEX_WINDOW));
 		settings.setMassSpectrumComparatorId(preferences.get(P_MASS_SPECTRUM_COMPARATOR_ID, DEF_MASS_SPECTRUM_COMPARATOR_ID));
 		settings.setNumberOfTargets(preferences.getInt(P_NUMBER_OF_TARGETS, DEF_NUMBER_OF_TARGETS));
 		settings.setMinMatchFactor(preferences.getFloat(P_MIN_MATCH_FACTOR, DEF_MIN_MATCH_FACTOR));
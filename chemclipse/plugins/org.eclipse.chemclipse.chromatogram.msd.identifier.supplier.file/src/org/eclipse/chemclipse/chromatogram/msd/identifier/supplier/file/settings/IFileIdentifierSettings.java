@@ -32,6 +32,26 @@ public interface IFileIdentifierSettings extends IIdentifierSettingsMSD {
 
 	void setThresholdPreOptimization(double thresholdPreOptimization);
 
+	/**
+	 * The number of most abundant ions used to pre-select the references.
+	 * 0 disables the pre-selection.
+	 * 
+	 * @return int
+	 */
+	int getPreSearchIons();
+
+	void setPreSearchIons(int preSearchIons);
+
+	/**
+	 * The retention index window used to pre-select the references.
+	 * 0 disables the retention index pre-selection.
+	 * 
+	 * @return float
+	 */
+	float getPreSearchRetentionIndexWindow();
+
+	void setPreSearchRetentionIndexWindow(float preSearchRetentionIndexWindow);
+
 	int getNumberOfTargets();
 
 	void setNumberOfTargets(int numberOfTargets);
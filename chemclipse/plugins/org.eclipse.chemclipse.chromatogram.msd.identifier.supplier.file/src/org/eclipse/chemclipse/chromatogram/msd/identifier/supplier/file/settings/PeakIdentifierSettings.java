@@ -35,6 +35,14 @@ public class PeakIdentifierSettings extends AbstractPeakIdentifierSettingsMSD im
 	@JsonProperty(value = "Threshold Pre-Optimization", defaultValue = "0.12")
 	@DoubleSettingsProperty(minValue = PreferenceSupplier.MIN_THRESHOLD_PRE_OPTIMIZATION, maxValue = PreferenceSupplier.MAX_THRESHOLD_PRE_OPTIMIZATION, step = 0.1)
 	private double thresholdPreOptimization = 0.12;
+	@JsonProperty(value = "Pre-Search Ions", defaultValue = "0")
+	@JsonPropertyDescription(value = "Compare only references which share at least one of the n most abundant ions. 0 = compare all references.")
+	@IntSettingsProperty(minValue = PreferenceSupplier.MIN_PRE_SEARCH_IONS, maxValue = PreferenceSupplier.MAX_PRE_SEARCH_IONS)
+	private int preSearchIons = 0;
+	@JsonProperty(value = "Pre-Search Retention Index Window", defaultValue = "0.0")
+	@JsonPropertyDescription(value = "Skip references outside of the retention index window. 0 = no restriction.")
+	@FloatSettingsProperty(minValue = PreferenceSupplier.MIN_PRE_SEARCH_RETENTION_INDEX_WINDOW, maxValue = PreferenceSupplier.MAX_PRE_SEARCH_RETENTION_INDEX_WINDOW)
+	private float preSearchRetentionIndexWindow = 0.0f;
 	@JsonProperty(value = "Number of Targets", defaultValue = "15")
 	@IntSettingsProperty(minValue = PreferenceSupplier.MIN_NUMBER_OF_TARGETS, maxValue = PreferenceSupplier.MAX_NUMBER_OF_TARGETS)
 	private int numberOfTargets = 15;
@@ -83,6 +91,30 @@ public class PeakIdentifierSettings extends AbstractPeakIdentifierSettingsMSD im
 		this.thresholdPreOptimization = thresholdPreOptimization;
 	}
 
+	@Override
+	public int getPreSearchIons() {
+
+		return preSearchIons;
+	}
+
+	@Override
+	public void setPreSearchIons(int preSearchIons) {
+
+		this.preSearchIons = preSearchIons;
+	}
+
+	@Override
+	public float getPreSearchRetentionIndexWindow() {
+
+		return preSearchRetentionIndexWindow;
+	}
+
+	@Override
+	public void setPreSearchRetentionIndexWindow(float preSearchRetentionIndexWindow) {
+
+		this.preSearchRetentionIndexWindow = preSearchRetentionIndexWindow;
+	}
+
 	@Override
 	public int getNumberOfTargets() {
 
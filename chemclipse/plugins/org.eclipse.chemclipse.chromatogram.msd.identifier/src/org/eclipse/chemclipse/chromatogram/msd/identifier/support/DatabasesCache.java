@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Lablicate GmbH.
+ * Copyright (c) 2016, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.chemclipse.chromatogram.msd.identifier.Activator;
+import org.eclipse.chemclipse.converter.exceptions.NoConverterAvailableException;
 import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.model.identifier.IIdentificationTarget;
 import org.eclipse.chemclipse.model.identifier.ILibraryInformation;
@@ -35,10 +37,12 @@ import org.eclipse.chemclipse.processing.core.IProcessingInfo;
 import org.eclipse.chemclipse.processing.core.exceptions.TypeCastException;
 import org.eclipse.chemclipse.support.comparator.SortOrder;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.osgi.framework.BundleContext;
 
 public class DatabasesCache {
 
 	private static final Logger logger = Logger.getLogger(DatabasesCache.class);
+	private static final String LIBRARY_CACHE_DIRECTORY = "LibraryCache";
 	/*
 	 * Don't reload the database on each request, only if it is necessary.
 	 */
@@ -48,6 +52,11 @@ public class DatabasesCache {
 	private static Map<String, IMassSpectra> massSpectraDatabases;
 	private static Map<String, Map<String, IScanMSD>> allDatabaseNames = null;
 	private static Map<String, Map<String, IScanMSD>> allDatabaseCasNumbers = null;
+	private static Map<String, MassSpectrumIndex> allDatabaseIndices = null;
+	/*
+	 * Parsed libraries are persisted between the sessions.
+	 */
+	private static LibraryCache libraryCache = null;
 	//
 	private final IonAbundanceComparator ionAbundanceComparator;
 	private final List<String> massSpectraFiles;
@@ -115,6 +124,7 @@ public class DatabasesCache {
 				massSpectraDatabases.remove(databaseKey);
 				allDatabaseNames.remove(databaseKey);
 				allDatabaseCasNumbers.remove(databaseKey);
+				allDatabaseIndices.remove(databaseKey);
 			}
 		}
 		/*
@@ -180,6 +190,32 @@ public class DatabasesCache {
 		return massSpectra;
 	}
 
+	/**
+	 * Returns the inverted m/z index of the given database.
+	 * The index is created on demand and kept until the database is reloaded.
+	 * Returns null if the database is not loaded.
+	 *
+	 * @param databaseName
+	 * @param numberOfIons
+	 * @return {@link MassSpectrumIndex}
+	 */
+	public MassSpectrumIndex getDatabaseIndex(String databaseName, int numberOfIons) {
+
+		IMassSpectra massSpectra = massSpectraDatabases.get(databaseName);
+		if(massSpectra == null) {
+			return null;
+		}
+		//
+		synchronized(allDatabaseIndices) {
+			MassSpectrumIndex massSpectrumIndex = allDatabaseIndices.get(databaseName);
+			if(massSpectrumIndex == null || massSpectrumIndex.getNumberOfIons() != numberOfIons || massSpectrumIndex.getReferences() != massSpectra.getList()) {
+				massSpectrumIndex = new MassSpectrumIndex(massSpectra.getList(), numberOfIons);
+				allDatabaseIndices.put(databaseName, massSpectrumIndex);
+			}
+			return massSpectrumIndex;
+		}
+	}
+
 	public boolean isLoaded() {
 
 		return massSpectraDatabases != null;
@@ -197,13 +233,30 @@ public class DatabasesCache {
 		return allDatabaseCasNumbers;
 	}
 
+	/**
+	 * Sets the persistent library cache, e.g. to use another directory.
+	 * By default, the cache is stored in the data area of this bundle.
+	 *
+	 * @param libraryCache
+	 */
+	public static void setLibraryCache(LibraryCache libraryCache) {
+
+		DatabasesCache.libraryCache = libraryCache;
+	}
+
 	private void loadMassSpectraFromFile(File file, IProgressMonitor monitor) throws TypeCastException {
 
-		IProcessingInfo<IMassSpectra> processingInfo = DatabaseConverter.convert(file, monitor);
-		IMassSpectra massSpectraDatabase = processingInfo.getProcessingResult();
+		String parserKey = (libraryCache != null) ? getParserKey(file) : null;
+		IMassSpectra massSpectraDatabase = (parserKey != null) ? libraryCache.read(file, parserKey) : null;
 		if(massSpectraDatabase == null) {
-			massSpectraDatabase = new MassSpectra();
-			logger.error("Loading MassSpectraFromFile " + file + " failed (" + processingInfo.getMessages() + ")");
+			IProcessingInfo<IMassSpectra> processingInfo = DatabaseConverter.convert(file, monitor);
+			massSpectraDatabase = processingInfo.getProcessingResult();
+			if(massSpectraDatabase == null) {
+				massSpectraDatabase = new MassSpectra();
+				logger.error("Loading MassSpectraFromFile " + file + " failed (" + processingInfo.getMessages() + ")");
+			} else if(parserKey != null) {
+				libraryCache.write(file, parserKey, massSpectraDatabase);
+			}
 		}
 		/*
 		 * Add the database to databases.
@@ -213,6 +266,7 @@ public class DatabasesCache {
 		fileNames.add(databaseName);
 		fileSizes.put(databaseName, file.length());
 		fileModifications.put(databaseName, file.lastModified());
+		allDatabaseIndices.remove(databaseName);
 		/*
 		 * Initialize the reference maps.
 		 */
@@ -239,6 +293,32 @@ public class DatabasesCache {
 		}
 	}
 
+	/**
+	 * Returns the ids and bundle versions of the converters which are able to
+	 * parse the file, hence the cache is invalidated when a parser is updated.
+	 * Null is returned if no converter is available.
+	 *
+	 * @param file
+	 * @return String
+	 */
+	private static String getParserKey(File file) {
+
+		try {
+			StringBuilder builder = new StringBuilder();
+			for(String converterId : DatabaseConverter.getDatabaseConverterSupport().getAvailableConverterIds(file)) {
+				if(builder.length() > 0) {
+					builder.append(",");
+				}
+				builder.append(converterId);
+				builder.append("@");
+				builder.append(DatabaseConverter.getConverterVersion(converterId));
+			}
+			return builder.toString();
+		} catch(NoConverterAvailableException e) {
+			return null;
+		}
+	}
+
 	private static void initializeDatabaseMaps() {
 
 		if(fileSizes == null) {
@@ -264,5 +344,19 @@ public class DatabasesCache {
 		if(allDatabaseCasNumbers == null) {
 			allDatabaseCasNumbers = new HashMap<>();
 		}
+		//
+		if(allDatabaseIndices == null) {
+			allDatabaseIndices = new HashMap<>();
+		}
+		//
+		if(libraryCache == null) {
+			BundleContext bundleContext = Activator.getContext();
+			if(bundleContext != null) {
+				File directory = bundleContext.getDataFile(LIBRARY_CACHE_DIRECTORY);
+				if(directory != null) {
+					libraryCache = new LibraryCache(directory);
+				}
+			}
+		}
 	}
 }
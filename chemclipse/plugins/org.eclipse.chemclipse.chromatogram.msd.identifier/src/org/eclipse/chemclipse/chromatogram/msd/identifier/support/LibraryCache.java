@@ -0,0 +1,532 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.identifier.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.core.RetentionIndexType;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.model.identifier.ILibraryInformation;
+import org.eclipse.chemclipse.msd.model.core.AbstractRegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IMassSpectra;
+import org.eclipse.chemclipse.msd.model.core.IRegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.MassSpectra;
+import org.eclipse.chemclipse.support.files.FileStamp;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Persists parsed mass spectral libraries in a binary format, hence a library
+ * needs to be parsed only once and is restored in later sessions.
+ * The cache files are addressed by the SHA-256 hash of the library content
+ * and the parser key, e.g. the converter id and the version of its bundle.
+ * Hence, an updated parser doesn't get stale mass spectra from the cache.
+ * An index stores the size, modification date and hash of each library path,
+ * hence unchanged libraries aren't hashed again. A library which is only touched
+ * or copied to another location still uses the existing cache file.
+ * The mass spectra are restored with their concrete class, which is loaded
+ * from the bundle that provided it.
+ */
+public class LibraryCache {
+
+	private static final Logger logger = Logger.getLogger(LibraryCache.class);
+	//
+	private static final int MAGIC = 0x43434C43; // CCLC
+	private static final int VERSION = 3;
+	private static final String INDEX_FILE = "index.properties";
+	private static final String CACHE_FILE_EXTENSION = ".lib";
+	private static final String DELIMITER = ";";
+	private static final int BUFFER_SIZE = 65536;
+	//
+	private final File directory;
+	private final Properties index = new Properties();
+
+	public LibraryCache(File directory) {
+		this.directory = directory;
+		File file = new File(directory, INDEX_FILE);
+		if(file.exists()) {
+			try(InputStream inputStream = new FileInputStream(file)) {
+				index.load(inputStream);
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached mass spectra of the given library or null
+	 * if the library has not been cached yet with the given parser
+	 * or has been modified.
+	 *
+	 * @param library
+	 * @param parserKey
+	 * @return {@link IMassSpectra}
+	 */
+	public synchronized IMassSpectra read(File library, String parserKey) {
+
+		try {
+			File cacheFile = getCacheFile(getContentHash(library), parserKey);
+			if(cacheFile.exists()) {
+				try(DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile), BUFFER_SIZE))) {
+					return readMassSpectra(dataInputStream, parserKey);
+				} catch(IOException e) {
+					/*
+					 * The cache file is corrupt, it will be replaced.
+					 */
+					logger.warn(e);
+				}
+			}
+		} catch(IOException e) {
+			logger.warn(e);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the mass spectra of the given library. Libraries containing other mass
+	 * spectra than regular library mass spectra, mass spectra without a public default
+	 * constructor or ions with transitions are not cached, as they couldn't be restored completely.
+	 * Cache files of the library created by other parsers are deleted.
+	 *
+	 * @param library
+	 * @param parserKey
+	 * @param massSpectra
+	 * @return boolean
+	 */
+	public synchronized boolean write(File library, String parserKey, IMassSpectra massSpectra) {
+
+		if(!isCacheable(massSpectra)) {
+			return false;
+		}
+		//
+		try {
+			String hash = getContentHash(library);
+			File cacheFile = getCacheFile(hash, parserKey);
+			if(!cacheFile.exists()) {
+				deleteCacheFiles(hash);
+				File tempFile = new File(directory, hash + ".tmp");
+				try(DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE))) {
+					writeMassSpectra(dataOutputStream, parserKey, massSpectra);
+				}
+				Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch(IOException e) {
+			logger.warn(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes all cache files.
+	 */
+	public synchronized void clear() {
+
+		index.clear();
+		File[] files = directory.listFiles();
+		if(files != null) {
+			for(File file : files) {
+				if(file.getName().endsWith(CACHE_FILE_EXTENSION) || file.getName().equals(INDEX_FILE)) {
+					if(!file.delete()) {
+						logger.warn("The library cache file couldn't be deleted: " + file);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the content hash of the library. The hash is only calculated
+	 * if the size or modification date of the library has been changed.
+	 * Cache files which are not referenced anymore are deleted.
+	 *
+	 * @param library
+	 * @return String
+	 * @throws IOException
+	 */
+	private String getContentHash(File library) throws IOException {
+
+		String key = library.getCanonicalPath();
+		FileStamp fileStamp = new FileStamp(library);
+		String prefix = fileStamp.getLength() + DELIMITER + fileStamp.getLastModified() + DELIMITER;
+		String value = index.getProperty(key);
+		if(value != null && value.startsWith(prefix)) {
+			return value.substring(prefix.length());
+		}
+		//
+		String hash = calculateContentHash(library);
+		String hashPrevious = (value != null) ? value.substring(value.lastIndexOf(DELIMITER) + 1) : null;
+		index.setProperty(key, prefix + hash);
+		if(hashPrevious != null && !hashPrevious.equals(hash) && !isReferenced(hashPrevious)) {
+			deleteCacheFiles(hashPrevious);
+		}
+		saveIndex();
+		return hash;
+	}
+
+	private File getCacheFile(String hash, String parserKey) throws IOException {
+
+		String parserHash = calculateHash(parserKey.getBytes(StandardCharsets.UTF_8));
+		return new File(directory, hash + "_" + parserHash.substring(0, 16) + CACHE_FILE_EXTENSION);
+	}
+
+	/**
+	 * Deletes the cache files of the given content hash, independent of the parser.
+	 *
+	 * @param hash
+	 */
+	private void deleteCacheFiles(String hash) {
+
+		File[] files = directory.listFiles();
+		if(files != null) {
+			for(File file : files) {
+				String name = file.getName();
+				if(name.startsWith(hash + "_") && name.endsWith(CACHE_FILE_EXTENSION)) {
+					if(!file.delete()) {
+						logger.warn("The library cache file couldn't be deleted: " + file);
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isCacheable(IMassSpectra massSpectra) {
+
+		Set<Class<?>> classes = new HashSet<>();
+		for(IScanMSD massSpectrum : massSpectra.getList()) {
+			if(!(massSpectrum instanceof AbstractRegularLibraryMassSpectrum)) {
+				return false;
+			}
+			/*
+			 * The mass spectrum is restored via its default constructor.
+			 */
+			Class<?> massSpectrumClass = massSpectrum.getClass();
+			if(classes.add(massSpectrumClass)) {
+				try {
+					massSpectrumClass.getConstructor();
+				} catch(NoSuchMethodException e) {
+					return false;
+				}
+			}
+			/*
+			 * Only the m/z and abundance of the ions are stored.
+			 */
+			for(IIon ion : massSpectrum.getIons()) {
+				if(ion.getClass() != Ion.class || ion.getIonTransition() != null) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isReferenced(String hash) {
+
+		Set<String> hashes = new HashSet<>();
+		for(String key : index.stringPropertyNames()) {
+			String value = index.getProperty(key);
+			hashes.add(value.substring(value.lastIndexOf(DELIMITER) + 1));
+		}
+		return hashes.contains(hash);
+	}
+
+	private void saveIndex() throws IOException {
+
+		if(!directory.exists() && !directory.mkdirs()) {
+			throw new IOException("The library cache directory couldn't be created: " + directory);
+		}
+		try(OutputStream outputStream = new FileOutputStream(new File(directory, INDEX_FILE))) {
+			index.store(outputStream, "Library Cache");
+		}
+	}
+
+	private static String calculateContentHash(File library) throws IOException {
+
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[BUFFER_SIZE];
+			try(InputStream inputStream = new FileInputStream(library)) {
+				int length;
+				while((length = inputStream.read(buffer)) != -1) {
+					messageDigest.update(buffer, 0, length);
+				}
+			}
+			return toHex(messageDigest.digest());
+		} catch(NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String calculateHash(byte[] bytes) throws IOException {
+
+		try {
+			return toHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch(NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+
+		StringBuilder builder = new StringBuilder();
+		for(byte value : bytes) {
+			builder.append(String.format("%02x", value));
+		}
+		return builder.toString();
+	}
+
+	private static void writeMassSpectra(DataOutputStream dataOutputStream, String parserKey, IMassSpectra massSpectra) throws IOException {
+
+		dataOutputStream.writeInt(MAGIC);
+		dataOutputStream.writeInt(VERSION);
+		writeString(dataOutputStream, parserKey);
+		writeString(dataOutputStream, massSpectra.getName());
+		writeString(dataOutputStream, massSpectra.getConverterId());
+		dataOutputStream.writeInt(massSpectra.size());
+		for(IScanMSD massSpectrum : massSpectra.getList()) {
+			IRegularLibraryMassSpectrum libraryMassSpectrum = (IRegularLibraryMassSpectrum)massSpectrum;
+			Class<?> massSpectrumClass = libraryMassSpectrum.getClass();
+			Bundle bundle = FrameworkUtil.getBundle(massSpectrumClass);
+			writeString(dataOutputStream, massSpectrumClass.getName());
+			writeString(dataOutputStream, (bundle != null) ? bundle.getSymbolicName() : null);
+			dataOutputStream.writeInt(libraryMassSpectrum.getRetentionTime());
+			dataOutputStream.writeInt(libraryMassSpectrum.getRetentionTimeColumn1());
+			dataOutputStream.writeInt(libraryMassSpectrum.getRetentionTimeColumn2());
+			dataOutputStream.writeInt(libraryMassSpectrum.getRelativeRetentionTime());
+			dataOutputStream.writeFloat(libraryMassSpectrum.getRetentionIndex());
+			Map<RetentionIndexType, Float> retentionIndices = libraryMassSpectrum.getRetentionIndicesTyped();
+			dataOutputStream.writeInt(retentionIndices.size());
+			for(Map.Entry<RetentionIndexType, Float> retentionIndex : retentionIndices.entrySet()) {
+				writeString(dataOutputStream, retentionIndex.getKey().name());
+				dataOutputStream.writeFloat(retentionIndex.getValue());
+			}
+			dataOutputStream.writeInt(libraryMassSpectrum.getTimeSegmentId());
+			dataOutputStream.writeInt(libraryMassSpectrum.getCycleNumber());
+			writeString(dataOutputStream, libraryMassSpectrum.getIdentifier());
+			dataOutputStream.writeShort(libraryMassSpectrum.getMassSpectrometer());
+			dataOutputStream.writeShort(libraryMassSpectrum.getMassSpectrumType());
+			dataOutputStream.writeDouble(libraryMassSpectrum.getPrecursorIon());
+			writeString(dataOutputStream, libraryMassSpectrum.getPrecursorType());
+			/*
+			 * Library Information
+			 */
+			ILibraryInformation libraryInformation = libraryMassSpectrum.getLibraryInformation();
+			writeString(dataOutputStream, libraryInformation.getName());
+			writeString(dataOutputStream, libraryInformation.getCasNumber());
+			writeString(dataOutputStream, libraryInformation.getFormula());
+			writeString(dataOutputStream, libraryInformation.getSmiles());
+			writeString(dataOutputStream, libraryInformation.getInChI());
+			dataOutputStream.writeDouble(libraryInformation.getMolWeight());
+			writeString(dataOutputStream, libraryInformation.getComments());
+			writeString(dataOutputStream, libraryInformation.getReferenceIdentifier());
+			writeString(dataOutputStream, libraryInformation.getMiscellaneous());
+			writeString(dataOutputStream, libraryInformation.getDatabase());
+			writeString(dataOutputStream, libraryInformation.getContributor());
+			dataOutputStream.writeInt(libraryInformation.getRetentionTime());
+			dataOutputStream.writeFloat(libraryInformation.getRetentionIndex());
+			Set<String> synonyms = libraryInformation.getSynonyms();
+			dataOutputStream.writeInt(synonyms.size());
+			for(String synonym : synonyms) {
+				writeString(dataOutputStream, synonym);
+			}
+			/*
+			 * Ions
+			 */
+			dataOutputStream.writeInt(libraryMassSpectrum.getNumberOfIons());
+			for(IIon ion : libraryMassSpectrum.getIons()) {
+				dataOutputStream.writeDouble(ion.getIon());
+				dataOutputStream.writeFloat(ion.getAbundance());
+			}
+		}
+	}
+
+	private static IMassSpectra readMassSpectra(DataInputStream dataInputStream, String parserKey) throws IOException {
+
+		if(dataInputStream.readInt() != MAGIC || dataInputStream.readInt() != VERSION) {
+			throw new IOException("The library cache file has an unknown format.");
+		}
+		if(!parserKey.equals(readString(dataInputStream))) {
+			throw new IOException("The library cache file has been created by another parser.");
+		}
+		//
+		IMassSpectra massSpectra = new MassSpectra();
+		massSpectra.setName(readString(dataInputStream));
+		massSpectra.setConverterId(readString(dataInputStream));
+		Map<String, Class<?>> classes = new HashMap<>();
+		int size = dataInputStream.readInt();
+		for(int i = 0; i < size; i++) {
+			String className = readString(dataInputStream);
+			String bundleName = readString(dataInputStream);
+			Class<?> massSpectrumClass = classes.get(className);
+			if(massSpectrumClass == null) {
+				massSpectrumClass = loadClass(className, bundleName);
+				classes.put(className, massSpectrumClass);
+			}
+			AbstractRegularLibraryMassSpectrum libraryMassSpectrum = createMassSpectrum(massSpectrumClass);
+			libraryMassSpectrum.setRetentionTime(dataInputStream.readInt());
+			libraryMassSpectrum.setRetentionTimeColumn1(dataInputStream.readInt());
+			libraryMassSpectrum.setRetentionTimeColumn2(dataInputStream.readInt());
+			libraryMassSpectrum.setRelativeRetentionTime(dataInputStream.readInt());
+			libraryMassSpectrum.setRetentionIndex(dataInputStream.readFloat());
+			int retentionIndices = dataInputStream.readInt();
+			for(int j = 0; j < retentionIndices; j++) {
+				try {
+					libraryMassSpectrum.setRetentionIndex(RetentionIndexType.valueOf(readString(dataInputStream)), dataInputStream.readFloat());
+				} catch(IllegalArgumentException e) {
+					throw new IOException(e);
+				}
+			}
+			libraryMassSpectrum.setTimeSegmentId(dataInputStream.readInt());
+			libraryMassSpectrum.setCycleNumber(dataInputStream.readInt());
+			libraryMassSpectrum.setIdentifier(readString(dataInputStream));
+			libraryMassSpectrum.setMassSpectrometer(dataInputStream.readShort());
+			libraryMassSpectrum.setMassSpectrumType(dataInputStream.readShort());
+			libraryMassSpectrum.setPrecursorIon(dataInputStream.readDouble());
+			libraryMassSpectrum.setPrecursorType(readString(dataInputStream));
+			/*
+			 * Library Information
+			 */
+			ILibraryInformation libraryInformation = libraryMassSpectrum.getLibraryInformation();
+			libraryInformation.setName(readString(dataInputStream));
+			libraryInformation.setCasNumber(readString(dataInputStream));
+			libraryInformation.setFormula(readString(dataInputStream));
+			libraryInformation.setSmiles(readString(dataInputStream));
+			libraryInformation.setInChI(readString(dataInputStream));
+			libraryInformation.setMolWeight(dataInputStream.readDouble());
+			libraryInformation.setComments(readString(dataInputStream));
+			libraryInformation.setReferenceIdentifier(readString(dataInputStream));
+			libraryInformation.setMiscellaneous(readString(dataInputStream));
+			libraryInformation.setDatabase(readString(dataInputStream));
+			libraryInformation.setContributor(readString(dataInputStream));
+			libraryInformation.setRetentionTime(dataInputStream.readInt());
+			libraryInformation.setRetentionIndex(dataInputStream.readFloat());
+			int synonyms = dataInputStream.readInt();
+			Set<String> synonymSet = new HashSet<>();
+			for(int j = 0; j < synonyms; j++) {
+				synonymSet.add(readString(dataInputStream));
+			}
+			libraryInformation.setSynonyms(synonymSet);
+			/*
+			 * Ions
+			 * The ions have been validated when parsing the library,
+			 * hence the unchecked add is used.
+			 */
+			int ions = dataInputStream.readInt();
+			for(int j = 0; j < ions; j++) {
+				double mz = dataInputStream.readDouble();
+				float abundance = dataInputStream.readFloat();
+				try {
+					libraryMassSpectrum.addIon(new Ion(mz, abundance), false);
+				} catch(AbundanceLimitExceededException | IonLimitExceededException e) {
+					logger.warn(e);
+				}
+			}
+			massSpectra.addMassSpectrum(libraryMassSpectrum);
+		}
+		return massSpectra;
+	}
+
+	/**
+	 * Loads the class of the mass spectrum from the bundle that provided it.
+	 * Outside of an OSGi framework, the class is loaded by the default class loader.
+	 *
+	 * @param className
+	 * @param bundleName
+	 * @return {@link Class}
+	 * @throws IOException
+	 */
+	private static Class<?> loadClass(String className, String bundleName) throws IOException {
+
+		try {
+			Bundle bundle = getBundle(bundleName);
+			return (bundle != null) ? bundle.loadClass(className) : Class.forName(className);
+		} catch(ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static Bundle getBundle(String bundleName) {
+
+		Bundle bundle = FrameworkUtil.getBundle(LibraryCache.class);
+		if(bundleName != null && bundle != null) {
+			BundleContext bundleContext = bundle.getBundleContext();
+			if(bundleContext != null) {
+				for(Bundle candidate : bundleContext.getBundles()) {
+					if(bundleName.equals(candidate.getSymbolicName())) {
+						return candidate;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private static AbstractRegularLibraryMassSpectrum createMassSpectrum(Class<?> massSpectrumClass) throws IOException {
+
+		try {
+			Object massSpectrum = massSpectrumClass.getConstructor().newInstance();
+			if(massSpectrum instanceof AbstractRegularLibraryMassSpectrum) {
+				return (AbstractRegularLibraryMassSpectrum)massSpectrum;
+			}
+			throw new IOException("The class is not a library mass spectrum: " + massSpectrumClass.getName());
+		} catch(ReflectiveOperationException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static void writeString(DataOutputStream dataOutputStream, String value) throws IOException {
+
+		if(value == null) {
+			dataOutputStream.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			dataOutputStream.writeInt(bytes.length);
+			dataOutputStream.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream dataInputStream) throws IOException {
+
+		int length = dataInputStream.readInt();
+		if(length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		dataInputStream.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.identifier.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.chemclipse.msd.model.core.AbstractIon;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.core.comparator.IonAbundanceComparator;
+import org.eclipse.chemclipse.support.comparator.SortOrder;
+
+/**
+ * Inverted index from the nominal m/z values of the most abundant ions
+ * to the references which contain them.
+ * It is used to pre-select the references, which share at least one
+ * dominant ion with the unknown, before the full comparison is performed.
+ */
+public class MassSpectrumIndex {
+
+	private static final IonAbundanceComparator ION_ABUNDANCE_COMPARATOR = new IonAbundanceComparator(SortOrder.DESC);
+	//
+	private final List<? extends IScanMSD> references;
+	private final int numberOfIons;
+	private final Map<Integer, int[]> postings;
+
+	/**
+	 * Indexes the given number of most abundant ions of each reference.
+	 *
+	 * @param references
+	 * @param numberOfIons
+	 */
+	public MassSpectrumIndex(List<? extends IScanMSD> references, int numberOfIons) {
+		this.references = references;
+		this.numberOfIons = numberOfIons;
+		/*
+		 * Collect the reference positions per nominal ion.
+		 */
+		Map<Integer, int[]> entries = new HashMap<>();
+		Map<Integer, Integer> sizes = new HashMap<>();
+		for(int i = 0; i < references.size(); i++) {
+			for(int ion : getDominantIons(references.get(i), numberOfIons)) {
+				int[] positions = entries.get(ion);
+				int size = sizes.getOrDefault(ion, 0);
+				if(positions == null) {
+					positions = new int[16];
+				} else if(size == positions.length) {
+					positions = Arrays.copyOf(positions, size * 2);
+				}
+				positions[size] = i;
+				entries.put(ion, positions);
+				sizes.put(ion, size + 1);
+			}
+		}
+		//
+		postings = new HashMap<>(entries.size());
+		for(Map.Entry<Integer, int[]> entry : entries.entrySet()) {
+			postings.put(entry.getKey(), Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey())));
+		}
+	}
+
+	public int getNumberOfIons() {
+
+		return numberOfIons;
+	}
+
+	public List<? extends IScanMSD> getReferences() {
+
+		return references;
+	}
+
+	/**
+	 * Returns the references which share at least one dominant ion with the unknown.
+	 * If the retention index window is > 0, references with a retention index outside
+	 * of the window are skipped. Spectra without retention index are not filtered.
+	 * The order of the references is kept.
+	 *
+	 * @param unknown
+	 * @param retentionIndexWindow
+	 * @return List
+	 */
+	public List<IScanMSD> getCandidates(IScanMSD unknown, float retentionIndexWindow) {
+
+		BitSet candidates = new BitSet(references.size());
+		for(int ion : getDominantIons(unknown, numberOfIons)) {
+			int[] positions = postings.get(ion);
+			if(positions != null) {
+				for(int position : positions) {
+					candidates.set(position);
+				}
+			}
+		}
+		//
+		float retentionIndex = unknown.getRetentionIndex();
+		boolean useRetentionIndex = retentionIndexWindow > 0.0f && retentionIndex > 0.0f;
+		List<IScanMSD> selection = new ArrayList<>(candidates.cardinality());
+		for(int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			IScanMSD reference = references.get(i);
+			if(useRetentionIndex) {
+				float referenceIndex = reference.getRetentionIndex();
+				if(referenceIndex > 0.0f && Math.abs(referenceIndex - retentionIndex) > retentionIndexWindow) {
+					continue;
+				}
+			}
+			selection.add(reference);
+		}
+		return selection;
+	}
+
+	/**
+	 * Returns the nominal m/z values of the most abundant ions.
+	 *
+	 * @param massSpectrum
+	 * @param numberOfIons
+	 * @return int[]
+	 */
+	public static int[] getDominantIons(IScanMSD massSpectrum, int numberOfIons) {
+
+		List<IIon> ions = new ArrayList<>(massSpectrum.getIons());
+		Collections.sort(ions, ION_ABUNDANCE_COMPARATOR);
+		int size = Math.min(numberOfIons, ions.size());
+		int[] dominantIons = new int[size];
+		for(int i = 0; i < size; i++) {
+			dominantIons[i] = AbstractIon.getIon(ions.get(i).getIon());
+		}
+		return dominantIons;
+	}
+}
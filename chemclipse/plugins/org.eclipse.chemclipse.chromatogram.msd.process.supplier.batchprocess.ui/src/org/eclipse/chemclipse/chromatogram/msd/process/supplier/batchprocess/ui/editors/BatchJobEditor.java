@@ -184,6 +184,8 @@ public class BatchJobEditor extends EditorPart implements IRunnableWithProgress
 	public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
 
 		BatchProcess batchProcess = new BatchProcess(DATA_TYPES, supplierContext);
+		batchProcess.setNumberOfThreads(PreferenceSupplier.getNumberOfThreads());
+		batchProcess.setMaxInputMegabytes(PreferenceSupplier.getMaxInputMegabytes());
 		IProcessingInfo<?> processingInfo = batchProcess.execute(getBatchProcessJob(), monitor);
 		ProcessingInfoViewSupport.updateProcessingInfo(processingInfo);
 	}
@@ -13,8 +13,10 @@ package org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.ui
 
 import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.ui.Activator;
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.DirectoryFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 
@@ -35,6 +37,15 @@ public class PreferencePage extends FieldEditorPreferencePage implements IWorkbe
 	public void createFieldEditors() {
 
 		addField(new DirectoryFieldEditor(PreferenceSupplier.P_FILTER_PATH_IMPORT_RECORDS, "Path Import Records", getFieldEditorParent()));
+		//
+		IntegerFieldEditor numberOfThreads = new IntegerFieldEditor(PreferenceSupplier.P_NUMBER_OF_THREADS, "Number of Threads (parallel processing)", getFieldEditorParent());
+		numberOfThreads.setValidRange(PreferenceSupplier.MIN_NUMBER_OF_THREADS, PreferenceSupplier.MAX_NUMBER_OF_THREADS);
+		addField(numberOfThreads);
+		IntegerFieldEditor maxInputMegabytes = new IntegerFieldEditor(PreferenceSupplier.P_MAX_INPUT_MEGABYTES, "Max Input Size in Parallel [MB] (0 = no limit)", getFieldEditorParent());
+		maxInputMegabytes.setValidRange(PreferenceSupplier.MIN_MAX_INPUT_MEGABYTES, PreferenceSupplier.MAX_MAX_INPUT_MEGABYTES);
+		addField(maxInputMegabytes);
+		addField(new BooleanFieldEditor(PreferenceSupplier.P_RESUME_BATCH_PROCESS, "Resume interrupted batch jobs (command line)", getFieldEditorParent()));
+		addField(new BooleanFieldEditor(PreferenceSupplier.P_PROFILE_BATCH_PROCESS, "Write a profile report (time, allocation) of the process entries (command line)", getFieldEditorParent()));
 	}
 
 	/*
@@ -18,6 +18,7 @@ import java.io.IOException;
 import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.core.BatchProcess;
 import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.io.JobReader;
 import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.model.BatchProcessJob;
+import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
 import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
 import org.eclipse.chemclipse.logging.core.Logger;
@@ -47,6 +48,14 @@ public class Processor extends AbstractCommandLineProcessor implements ICommandL
 			BatchProcessJob batchProcessJob = reader.read(file, monitor);
 			logger.info("Execute batch process");
 			BatchProcess bp = new BatchProcess(new DataType[]{DataType.CSD, DataType.MSD, DataType.WSD}, new ProcessTypeSupport());
+			bp.setNumberOfThreads(PreferenceSupplier.getNumberOfThreads());
+			bp.setMaxInputMegabytes(PreferenceSupplier.getMaxInputMegabytes());
+			if(PreferenceSupplier.isResumeBatchProcess()) {
+				bp.setProgressFile(new File(file.getPath() + BatchProcess.PROGRESS_FILE_EXTENSION));
+			}
+			if(PreferenceSupplier.isProfileBatchProcess()) {
+				bp.setProfileReport(new File(file.getPath() + BatchProcess.PROFILE_FILE_EXTENSION));
+			}
 			bp.execute(batchProcessJob, monitor);
 		} catch(FileNotFoundException e) {
 			logger.warn(e);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2019 Lablicate GmbH.
+ * Copyright (c) 2010, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -12,10 +12,28 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.core;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.internal.support.BatchProgress;
 import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.model.BatchProcessJob;
+import org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.converter.model.IChromatogramInputEntry;
 import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.model.selection.IChromatogramSelection;
+import org.eclipse.chemclipse.model.supplier.ChromatogramProfileCounter;
 import org.eclipse.chemclipse.model.supplier.IChromatogramSelectionProcessSupplier;
 import org.eclipse.chemclipse.model.types.DataType;
 import org.eclipse.chemclipse.processing.core.IProcessingInfo;
@@ -23,18 +41,33 @@ import org.eclipse.chemclipse.processing.core.ProcessingInfo;
 import org.eclipse.chemclipse.processing.core.exceptions.TypeCastException;
 import org.eclipse.chemclipse.processing.methods.IProcessMethod;
 import org.eclipse.chemclipse.processing.methods.ProcessEntryContainer;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfile;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfileWriter;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfiler;
 import org.eclipse.chemclipse.processing.supplier.ProcessExecutionContext;
 import org.eclipse.chemclipse.processing.supplier.ProcessSupplierContext;
 import org.eclipse.chemclipse.xxd.process.support.ChromatogramTypeSupport;
 import org.eclipse.chemclipse.xxd.process.support.ProcessTypeSupport;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
 
 public class BatchProcess {
 
+	public static final String PROGRESS_FILE_EXTENSION = ".progress";
+	public static final String PROFILE_FILE_EXTENSION = ".profile.json";
+
 	private static final Logger logger = Logger.getLogger(BatchProcess.class);
 	private static final String DESCRIPTION = "Batch Processor";
+	private static final long MEGABYTE = 1024 * 1024;
 	private final ChromatogramTypeSupport chromatogramTypeSupport;
 	private final ProcessSupplierContext processSupplierContext;
+	private final Map<String, ProcessProfile> processProfiles = new ConcurrentHashMap<>();
+	//
+	private int numberOfThreads = PreferenceSupplier.DEF_NUMBER_OF_THREADS;
+	private int maxInputMegabytes = PreferenceSupplier.DEF_MAX_INPUT_MEGABYTES;
+	private File progressFile = null;
+	private File profileReport = null;
 
 	@Deprecated
 	public BatchProcess() {
@@ -46,6 +79,53 @@ public class BatchProcess {
 		chromatogramTypeSupport = new ChromatogramTypeSupport(dataTypes);
 	}
 
+	/**
+	 * Sets the number of chromatograms, which are processed in parallel.
+	 * Each chromatogram is processed with its own execution context.
+	 * Make sure that the used processors are thread-safe if a value > 1 is used.
+	 *
+	 * @param numberOfThreads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+
+		this.numberOfThreads = Math.max(PreferenceSupplier.MIN_NUMBER_OF_THREADS, numberOfThreads);
+	}
+
+	/**
+	 * Restricts the summed size of the input files, which are processed at the same time.
+	 * 0 means no restriction. A file, larger than the budget, is processed alone.
+	 *
+	 * @param maxInputMegabytes
+	 */
+	public void setMaxInputMegabytes(int maxInputMegabytes) {
+
+		this.maxInputMegabytes = Math.max(PreferenceSupplier.MIN_MAX_INPUT_MEGABYTES, maxInputMegabytes);
+	}
+
+	/**
+	 * If a progress file is set, the completed input files are stored in this file.
+	 * The batch job skips these files when it's executed again.
+	 * The file is deleted when all input files have been processed successfully.
+	 *
+	 * @param progressFile
+	 */
+	public void setProgressFile(File progressFile) {
+
+		this.progressFile = progressFile;
+	}
+
+	/**
+	 * If a profile report is set, each process entry is measured (time, CPU, allocation, scans, peaks)
+	 * and the profiles of all chromatograms are written to the report.
+	 * Files ending with *.csv are written as CSV, otherwise as JSON.
+	 *
+	 * @param profileReport
+	 */
+	public void setProfileReport(File profileReport) {
+
+		this.profileReport = profileReport;
+	}
+
 	public IProcessingInfo<?> execute(BatchProcessJob batchProcessJob, IProgressMonitor monitor) {
 
 		IProcessingInfo<?> processingInfo = new ProcessingInfo<>();
@@ -56,29 +136,211 @@ public class BatchProcess {
 			processingInfo.addErrorMessage(DESCRIPTION, "The batch job and/or process method was null.");
 		} else {
 			IProcessMethod processMethod = batchProcessJob.getProcessMethod();
+			BatchProgress batchProgress = new BatchProgress(progressFile);
+			List<String> inputFiles = new ArrayList<>();
 			for(IChromatogramInputEntry chromatogramInput : batchProcessJob.getChromatogramInputEntries()) {
 				String pathChromatogram = chromatogramInput.getInputFile();
-				IProcessingInfo<IChromatogramSelection<?, ?>> processingInfoX = chromatogramTypeSupport.getChromatogramSelection(pathChromatogram, monitor);
-				if(!processingInfoX.hasErrorMessages()) {
+				if(batchProgress.isCompleted(pathChromatogram)) {
+					processingInfo.addInfoMessage(DESCRIPTION, "Processing: " + pathChromatogram + " skipped (already completed)");
+				} else {
+					inputFiles.add(pathChromatogram);
+				}
+			}
+			//
+			boolean finished;
+			if(numberOfThreads > 1 && inputFiles.size() > 1) {
+				finished = executeParallel(processMethod, inputFiles, batchProgress, processingInfo, monitor);
+			} else {
+				finished = executeSequential(processMethod, inputFiles, batchProgress, processingInfo, monitor);
+			}
+			batchProgress.close(finished && !processingInfo.hasErrorMessages());
+			writeProfileReport(inputFiles, processingInfo);
+		}
+		return processingInfo;
+	}
+
+	private boolean executeSequential(IProcessMethod processMethod, List<String> inputFiles, BatchProgress batchProgress, IProcessingInfo<?> processingInfo, IProgressMonitor monitor) {
+
+		for(String pathChromatogram : inputFiles) {
+			if(monitor != null && monitor.isCanceled()) {
+				return false;
+			}
+			processingInfo.addMessages(process(processMethod, pathChromatogram, batchProgress, monitor));
+		}
+		return true;
+	}
+
+	/**
+	 * The chromatograms are processed concurrently, but the messages
+	 * are collected in the order of the input files.
+	 */
+	private boolean executeParallel(IProcessMethod processMethod, List<String> inputFiles, BatchProgress batchProgress, IProcessingInfo<?> processingInfo, IProgressMonitor monitor) {
+
+		int size = inputFiles.size();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, "Batch Process", size);
+		IProgressMonitor workerMonitor = new NullProgressMonitor() {
+
+			@Override
+			public boolean isCanceled() {
+
+				return super.isCanceled() || subMonitor.isCanceled();
+			}
+		};
+		//
+		int permits = (maxInputMegabytes > 0) ? maxInputMegabytes : Integer.MAX_VALUE;
+		Semaphore inputBudget = new Semaphore(permits);
+		AtomicInteger completed = new AtomicInteger();
+		int reported = 0;
+		ExecutorService executorService = Executors.newFixedThreadPool(Math.min(numberOfThreads, size));
+		List<Future<IProcessingInfo<?>>> futures = new ArrayList<>(size);
+		boolean finished = true;
+		try {
+			for(String pathChromatogram : inputFiles) {
+				/*
+				 * Wait until the memory budget allows to load the next chromatogram.
+				 */
+				int megabytes = (maxInputMegabytes > 0) ? getMegabytes(pathChromatogram, permits) : 0;
+				while(!inputBudget.tryAcquire(megabytes, 500, TimeUnit.MILLISECONDS)) {
+					reported = updateProgress(subMonitor, completed, reported, size);
+					if(subMonitor.isCanceled()) {
+						break;
+					}
+				}
+				if(subMonitor.isCanceled()) {
+					workerMonitor.setCanceled(true);
+					finished = false;
+					break;
+				}
+				//
+				futures.add(executorService.submit(() -> {
 					try {
-						IChromatogramSelection<?, ?> chromatogramSelection = processingInfoX.getProcessingResult();
-						ProcessingInfo<?> processorResult = new ProcessingInfo<>();
-						ProcessEntryContainer.applyProcessEntries(processMethod, new ProcessExecutionContext(monitor, processorResult, processSupplierContext), IChromatogramSelectionProcessSupplier.createConsumer(chromatogramSelection));
-						if(processorResult.hasErrorMessages()) {
-							processingInfo.addErrorMessage(DESCRIPTION, "Processing: " + pathChromatogram + " failed");
-						} else {
-							processingInfo.addInfoMessage(DESCRIPTION, "Processing: " + pathChromatogram + " completed");
+						return process(processMethod, pathChromatogram, batchProgress, workerMonitor);
+					} finally {
+						inputBudget.release(megabytes);
+						completed.incrementAndGet();
+					}
+				}));
+				reported = updateProgress(subMonitor, completed, reported, size);
+			}
+			/*
+			 * Collect the results in order.
+			 */
+			for(int i = 0; i < futures.size(); i++) {
+				Future<IProcessingInfo<?>> future = futures.get(i);
+				try {
+					while(!future.isDone()) {
+						reported = updateProgress(subMonitor, completed, reported, size);
+						if(subMonitor.isCanceled()) {
+							workerMonitor.setCanceled(true);
+							finished = false;
+						}
+						try {
+							future.get(500, TimeUnit.MILLISECONDS);
+						} catch(TimeoutException e) {
+							// Check the progress and cancel state again.
 						}
-						processingInfo.addMessages(processorResult);
-					} catch(TypeCastException e) {
-						logger.warn(e);
-						processingInfo.addErrorMessage(DESCRIPTION, "Failure to process: " + pathChromatogram);
 					}
+					processingInfo.addMessages(future.get());
+				} catch(ExecutionException e) {
+					logger.warn(e);
+					processingInfo.addErrorMessage(DESCRIPTION, "Failure to process: " + inputFiles.get(i));
+				}
+			}
+			updateProgress(subMonitor, completed, reported, size);
+		} catch(InterruptedException e) {
+			logger.warn(e);
+			Thread.currentThread().interrupt();
+			workerMonitor.setCanceled(true);
+			finished = false;
+		} finally {
+			executorService.shutdown();
+		}
+		return finished;
+	}
+
+	/**
+	 * Loads and processes a chromatogram with its own execution context and processing info.
+	 */
+	private IProcessingInfo<?> process(IProcessMethod processMethod, String pathChromatogram, BatchProgress batchProgress, IProgressMonitor monitor) {
+
+		IProcessingInfo<?> processingInfo = new ProcessingInfo<>();
+		IProcessingInfo<IChromatogramSelection<?, ?>> processingInfoX = chromatogramTypeSupport.getChromatogramSelection(pathChromatogram, monitor);
+		if(!processingInfoX.hasErrorMessages()) {
+			IChromatogramSelection<?, ?> chromatogramSelection = null;
+			try {
+				chromatogramSelection = processingInfoX.getProcessingResult();
+				ProcessingInfo<?> processorResult = new ProcessingInfo<>();
+				ProcessExecutionContext processExecutionContext = new ProcessExecutionContext(monitor, processorResult, processSupplierContext);
+				if(profileReport != null) {
+					ProcessProfiler processProfiler = new ProcessProfiler(new ChromatogramProfileCounter());
+					processExecutionContext.setContextObject(ProcessProfiler.class, processProfiler);
+					int errorMessages = processExecutionContext.getNumberOfErrorMessages();
+					ProcessProfile processProfile = processProfiler.start(pathChromatogram, processMethod.getName(), chromatogramSelection);
+					ProcessEntryContainer.applyProcessEntries(processMethod, processExecutionContext, IChromatogramSelectionProcessSupplier.createConsumer(chromatogramSelection));
+					processProfiler.stop(processProfile, chromatogramSelection, processExecutionContext.getNumberOfErrorMessages() > errorMessages);
+					processProfiler.addMessages(processorResult);
+					processProfiles.put(pathChromatogram, processProfile);
+				} else {
+					ProcessEntryContainer.applyProcessEntries(processMethod, processExecutionContext, IChromatogramSelectionProcessSupplier.createConsumer(chromatogramSelection));
+				}
+				if(processorResult.hasErrorMessages()) {
+					processingInfo.addErrorMessage(DESCRIPTION, "Processing: " + pathChromatogram + " failed");
 				} else {
-					processingInfo.addErrorMessage(DESCRIPTION, "Failure to process: " + pathChromatogram);
+					processingInfo.addInfoMessage(DESCRIPTION, "Processing: " + pathChromatogram + " completed");
+					batchProgress.setCompleted(pathChromatogram);
+				}
+				processingInfo.addMessages(processorResult);
+			} catch(TypeCastException e) {
+				logger.warn(e);
+				processingInfo.addErrorMessage(DESCRIPTION, "Failure to process: " + pathChromatogram);
+			} finally {
+				/*
+				 * Release the chromatogram before its memory budget is handed
+				 * to the next input file.
+				 */
+				if(chromatogramSelection != null) {
+					chromatogramSelection.getChromatogram().dispose();
 				}
 			}
+		} else {
+			processingInfo.addErrorMessage(DESCRIPTION, "Failure to process: " + pathChromatogram);
 		}
 		return processingInfo;
 	}
+
+	private void writeProfileReport(List<String> inputFiles, IProcessingInfo<?> processingInfo) {
+
+		if(profileReport != null) {
+			List<ProcessProfile> profiles = new ArrayList<>();
+			for(String pathChromatogram : inputFiles) {
+				ProcessProfile processProfile = processProfiles.remove(pathChromatogram);
+				if(processProfile != null) {
+					profiles.add(processProfile);
+				}
+			}
+			try {
+				new ProcessProfileWriter().write(profileReport, profiles);
+				processingInfo.addInfoMessage(DESCRIPTION, "Profile report: " + profileReport.getAbsolutePath());
+			} catch(IOException e) {
+				logger.warn(e);
+				processingInfo.addWarnMessage(DESCRIPTION, "Failed to write the profile report: " + profileReport.getAbsolutePath());
+			}
+		}
+	}
+
+	private int getMegabytes(String pathChromatogram, int maxPermits) {
+
+		long megabytes = new File(pathChromatogram).length() / MEGABYTE;
+		return (int)Math.max(1, Math.min(maxPermits, megabytes));
+	}
+
+	private int updateProgress(SubMonitor subMonitor, AtomicInteger completed, int reported, int size) {
+
+		int current = completed.get();
+		if(current > reported) {
+			subMonitor.worked(current - reported);
+			subMonitor.subTask("Processed " + current + "/" + size + " chromatograms");
+		}
+		return Math.max(current, reported);
+	}
 }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.internal.support;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.support.files.FileStamp;
+
+/**
+ * Stores the successfully processed input files, one per line: size, modification date and path.
+ * Each line is flushed immediately, hence a batch job can be resumed
+ * after a crash without processing the completed files again.
+ * A completed file is processed again if it has been replaced or modified in the meantime.
+ * If no file is given, the progress is not stored.
+ */
+public class BatchProgress {
+
+	private static final Logger logger = Logger.getLogger(BatchProgress.class);
+	//
+	private static final String DELIMITER = "\t";
+	//
+	private final File file;
+	private final Map<String, FileStamp> completed = new HashMap<>();
+	private PrintWriter printWriter = null;
+
+	public BatchProgress(File file) {
+		this.file = file;
+		if(file != null && file.exists()) {
+			try(BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+				String line;
+				while((line = bufferedReader.readLine()) != null) {
+					/*
+					 * length, last modified, path
+					 */
+					String[] values = line.split(DELIMITER, 3);
+					if(values.length == 3) {
+						try {
+							completed.put(values[2], new FileStamp(Long.parseLong(values[0]), Long.parseLong(values[1])));
+						} catch(NumberFormatException e) {
+							logger.warn(e);
+						}
+					}
+				}
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the input file has been processed and hasn't been modified since.
+	 *
+	 * @param path
+	 * @return boolean
+	 */
+	public synchronized boolean isCompleted(String path) {
+
+		FileStamp fileStamp = completed.get(path);
+		return fileStamp != null && fileStamp.isValid(new File(path));
+	}
+
+	/**
+	 * Marks the given input file as processed.
+	 *
+	 * @param path
+	 */
+	public synchronized void setCompleted(String path) {
+
+		FileStamp fileStamp = new FileStamp(new File(path));
+		if(!fileStamp.equals(completed.put(path, fileStamp)) && file != null) {
+			try {
+				if(printWriter == null) {
+					printWriter = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+				}
+				printWriter.println(fileStamp.getLength() + DELIMITER + fileStamp.getLastModified() + DELIMITER + path);
+				printWriter.flush();
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+		}
+	}
+
+	/**
+	 * Closes the progress file. It is deleted if the batch job has been completed.
+	 *
+	 * @param finished
+	 */
+	public synchronized void close(boolean finished) {
+
+		if(printWriter != null) {
+			printWriter.close();
+			printWriter = null;
+		}
+		if(finished && file != null && file.exists()) {
+			if(!file.delete()) {
+				logger.warn("The batch progress file couldn't be deleted: " + file);
+			}
+		}
+	}
+}
@@ -24,6 +24,18 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 
 	public static final String P_FILTER_PATH_IMPORT_RECORDS = "filterPathImportRecords";
 	public static final String DEF_FILTER_PATH_IMPORT_RECORDS = "";
+	public static final String P_NUMBER_OF_THREADS = "numberOfThreads";
+	public static final int DEF_NUMBER_OF_THREADS = 1; // sequential processing
+	public static final int MIN_NUMBER_OF_THREADS = 1;
+	public static final int MAX_NUMBER_OF_THREADS = 64;
+	public static final String P_MAX_INPUT_MEGABYTES = "maxInputMegabytes";
+	public static final int DEF_MAX_INPUT_MEGABYTES = 0; // no restriction
+	public static final int MIN_MAX_INPUT_MEGABYTES = 0;
+	public static final int MAX_MAX_INPUT_MEGABYTES = 1024 * 1024;
+	public static final String P_RESUME_BATCH_PROCESS = "resumeBatchProcess";
+	public static final boolean DEF_RESUME_BATCH_PROCESS = false;
+	public static final String P_PROFILE_BATCH_PROCESS = "profileBatchProcess";
+	public static final boolean DEF_PROFILE_BATCH_PROCESS = false;
 	//
 	private static IPreferenceSupplier preferenceSupplier;
 
@@ -52,6 +64,10 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 
 		Map<String, String> defaultValues = new HashMap<String, String>();
 		defaultValues.put(P_FILTER_PATH_IMPORT_RECORDS, DEF_FILTER_PATH_IMPORT_RECORDS);
+		defaultValues.put(P_NUMBER_OF_THREADS, Integer.toString(DEF_NUMBER_OF_THREADS));
+		defaultValues.put(P_MAX_INPUT_MEGABYTES, Integer.toString(DEF_MAX_INPUT_MEGABYTES));
+		defaultValues.put(P_RESUME_BATCH_PROCESS, Boolean.toString(DEF_RESUME_BATCH_PROCESS));
+		defaultValues.put(P_PROFILE_BATCH_PROCESS, Boolean.toString(DEF_PROFILE_BATCH_PROCESS));
 		return defaultValues;
 	}
 
@@ -60,4 +76,45 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 
 		return getScopeContext().getNode(getPreferenceNode());
 	}
+
+	/**
+	 * Returns the number of chromatograms which are processed in parallel.
+	 * 
+	 * @return int
+	 */
+	public static int getNumberOfThreads() {
+
+		IEclipsePreferences preferences = INSTANCE().getPreferences();
+		return preferences.getInt(P_NUMBER_OF_THREADS, DEF_NUMBER_OF_THREADS);
+	}
+
+	/**
+	 * Returns the max. summed size (MB) of the input files which are processed at the same time.
+	 * 0 means no restriction.
+	 * 
+	 * @return int
+	 */
+	public static int getMaxInputMegabytes() {
+
+		IEclipsePreferences preferences = INSTANCE().getPreferences();
+		return preferences.getInt(P_MAX_INPUT_MEGABYTES, DEF_MAX_INPUT_MEGABYTES);
+	}
+
+	public static boolean isResumeBatchProcess() {
+
+		IEclipsePreferences preferences = INSTANCE().getPreferences();
+		return preferences.getBoolean(P_RESUME_BATCH_PROCESS, DEF_RESUME_BATCH_PROCESS);
+	}
+
+	/**
+	 * If true, the time and allocation of each process entry is measured
+	 * and stored in a report next to the batch job.
+	 * 
+	 * @return boolean
+	 */
+	public static boolean isProfileBatchProcess() {
+
+		IEclipsePreferences preferences = INSTANCE().getPreferences();
+		return preferences.getBoolean(P_PROFILE_BATCH_PROCESS, DEF_PROFILE_BATCH_PROCESS);
+	}
 }
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.impl;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.io.CalibrationFileReader;
+import org.eclipse.chemclipse.model.columns.ISeparationColumnIndices;
+import org.eclipse.chemclipse.support.files.FileStamp;
+
+/**
+ * Caches the parsed calibration files, so that batch runs don't parse the
+ * same files for each chromatogram. A file is parsed again if its size or
+ * modification date has changed. The returned indices are shared and must not be modified.
+ */
+public final class CalibrationFileRegistry {
+
+	private static final Map<String, CacheEntry> cache = new HashMap<>();
+
+	private CalibrationFileRegistry() {
+	}
+
+	/**
+	 * Returns the parsed separation column indices of the calibration file.
+	 *
+	 * @param file
+	 * @return {@link ISeparationColumnIndices}
+	 */
+	public static ISeparationColumnIndices getSeparationColumnIndices(File file) {
+
+		String path = file.getAbsolutePath();
+		FileStamp fileStamp = new FileStamp(file);
+		synchronized(cache) {
+			CacheEntry cacheEntry = cache.get(path);
+			if(cacheEntry != null && cacheEntry.fileStamp.equals(fileStamp)) {
+				return cacheEntry.separationColumnIndices;
+			}
+		}
+		//
+		CalibrationFileReader calibrationFileReader = new CalibrationFileReader();
+		ISeparationColumnIndices separationColumnIndices = calibrationFileReader.parse(file);
+		synchronized(cache) {
+			cache.put(path, new CacheEntry(fileStamp, separationColumnIndices));
+		}
+		return separationColumnIndices;
+	}
+
+	/**
+	 * Discards the parsed calibration files.
+	 */
+	public static void clear() {
+
+		synchronized(cache) {
+			cache.clear();
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final FileStamp fileStamp;
+		private final ISeparationColumnIndices separationColumnIndices;
+
+		public CacheEntry(FileStamp fileStamp, ISeparationColumnIndices separationColumnIndices) {
+			this.fileStamp = fileStamp;
+			this.separationColumnIndices = separationColumnIndices;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,11 +13,11 @@
 package org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.impl;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.io.CalibrationFileReader;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.settings.CalculatorSettings;
 import org.eclipse.chemclipse.csd.model.core.IChromatogramCSD;
@@ -48,21 +48,29 @@ public class RetentionIndexCalculator {
 		if(chromatogramSelection != null) {
 			ISeparationColumnIndices separationColumnIndices = getSeparationColumnIndices(chromatogramSelection, calculatorSettings);
 			if(separationColumnIndices != null) {
+				/*
+				 * The calibration is compiled once for
+				 * the master and the references.
+				 */
+				RetentionIndexTable retentionIndexTable = new RetentionIndexTable(separationColumnIndices);
 				/*
 				 * Master
 				 */
-				calculateIndex(chromatogramSelection, separationColumnIndices);
+				calculateIndex(chromatogramSelection, retentionIndexTable);
 				if(PreferenceSupplier.isProcessReferencedChromatograms()) {
 					/*
 					 * References
+					 * They are independent of each other, hence they are processed in parallel.
 					 */
 					IChromatogram chromatogram = chromatogramSelection.getChromatogram();
+					List<IChromatogramSelection> chromatogramSelectionReferences = new ArrayList<>();
 					for(Object object : chromatogram.getReferencedChromatograms()) {
 						IChromatogramSelection chromatogramSelectionReference = getChromatogramSelection(object);
 						if(chromatogramSelectionReference != null) {
-							calculateIndex(chromatogramSelectionReference, separationColumnIndices);
+							chromatogramSelectionReferences.add(chromatogramSelectionReference);
 						}
 					}
+					chromatogramSelectionReferences.parallelStream().forEach(chromatogramSelectionReference -> calculateIndex(chromatogramSelectionReference, retentionIndexTable));
 				}
 			}
 		}
@@ -121,13 +129,13 @@ public class RetentionIndexCalculator {
 
 		/*
 		 * Prepare the index map.
+		 * The files are parsed only if they have been modified since the last run.
 		 */
 		List<String> retentionIndexFiles = calculatorSettings.getRetentionIndexFiles();
-		CalibrationFileReader calibrationFileReader = new CalibrationFileReader();
 		Map<String, ISeparationColumnIndices> calibrationMap = new HashMap<>();
 		for(String retentionIndexFile : retentionIndexFiles) {
 			File file = new File(retentionIndexFile);
-			ISeparationColumnIndices separationColumnIndices = calibrationFileReader.parse(file);
+			ISeparationColumnIndices separationColumnIndices = CalibrationFileRegistry.getSeparationColumnIndices(file);
 			ISeparationColumn separationColumn = separationColumnIndices.getSeparationColumn();
 			calibrationMap.put(separationColumn.getName(), separationColumnIndices);
 		}
@@ -199,9 +207,9 @@ public class RetentionIndexCalculator {
 	}
 
 	@SuppressWarnings({"unchecked", "rawtypes"})
-	private void calculateIndex(IChromatogramSelection chromatogramSelection, ISeparationColumnIndices separationColumnIndices) {
+	private void calculateIndex(IChromatogramSelection chromatogramSelection, RetentionIndexTable retentionIndexTable) {
 
-		if(separationColumnIndices != null) {
+		if(retentionIndexTable != null) {
 			IChromatogram<? extends IPeak> chromatogram = chromatogramSelection.getChromatogram();
 			int startRetentionTime = chromatogramSelection.getStartRetentionTime();
 			int stopRetentionTime = chromatogramSelection.getStopRetentionTime();
@@ -209,11 +217,19 @@ public class RetentionIndexCalculator {
 			int stopScan = chromatogram.getScanNumber(stopRetentionTime);
 			/*
 			 * Scans
+			 * The retention indices of all scans are calculated in one pass.
 			 */
-			for(int scan = startScan; scan <= stopScan; scan++) {
-				IScan supplierScan = chromatogram.getScan(scan);
-				int retentionTime = supplierScan.getRetentionTime();
-				float retentionIndex = calculateRetentionIndex(retentionTime, separationColumnIndices);
+			int numberOfScans = Math.max(0, stopScan - startScan + 1);
+			IScan[] scans = new IScan[numberOfScans];
+			int[] retentionTimes = new int[numberOfScans];
+			for(int i = 0; i < numberOfScans; i++) {
+				scans[i] = chromatogram.getScan(startScan + i);
+				retentionTimes[i] = scans[i].getRetentionTime();
+			}
+			float[] retentionIndices = retentionIndexTable.getRetentionIndices(retentionTimes);
+			for(int i = 0; i < numberOfScans; i++) {
+				IScan supplierScan = scans[i];
+				float retentionIndex = retentionIndices[i];
 				supplierScan.setRetentionIndex(retentionIndex);
 				/*
 				 * Calculate RI also for the optimized MS.
@@ -229,15 +245,22 @@ public class RetentionIndexCalculator {
 			/*
 			 * Peaks
 			 */
-			List<? extends IPeak> peaks = chromatogram.getPeaks();
-			for(IPeak peak : peaks) {
+			List<IScan> peakScans = new ArrayList<>();
+			for(IPeak peak : chromatogram.getPeaks()) {
 				IScan scan = peak.getPeakModel().getPeakMaximum();
 				int retentionTime = scan.getRetentionTime();
 				if(retentionTime >= startRetentionTime && retentionTime <= stopRetentionTime) {
-					float retentionIndex = calculateRetentionIndex(retentionTime, separationColumnIndices);
-					scan.setRetentionIndex(retentionIndex);
+					peakScans.add(scan);
 				}
 			}
+			int[] peakRetentionTimes = new int[peakScans.size()];
+			for(int i = 0; i < peakRetentionTimes.length; i++) {
+				peakRetentionTimes[i] = peakScans.get(i).getRetentionTime();
+			}
+			float[] peakRetentionIndices = retentionIndexTable.getRetentionIndices(peakRetentionTimes);
+			for(int i = 0; i < peakRetentionIndices.length; i++) {
+				peakScans.get(i).setRetentionIndex(peakRetentionIndices[i]);
+			}
 		}
 	}
 
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.chemclipse.model.columns.IRetentionIndexEntry;
+import org.eclipse.chemclipse.model.columns.ISeparationColumnIndices;
+
+/**
+ * The retention index calibration compiled to primitive arrays.
+ * The retention indices are interpolated piecewise linear between the
+ * calibration entries, like {@link RetentionIndexCalculator#calculateRetentionIndex(int, ISeparationColumnIndices)}.
+ * Retention times outside of the calibration range get the index 0.
+ * The table is a snapshot, modifications of the separation column indices are not reflected.
+ */
+public final class RetentionIndexTable {
+
+	private final int[] keys;
+	private final int[] retentionTimes;
+	private final float[] retentionIndices;
+
+	public RetentionIndexTable(ISeparationColumnIndices separationColumnIndices) {
+		int size = separationColumnIndices.size();
+		keys = new int[size];
+		retentionTimes = new int[size];
+		retentionIndices = new float[size];
+		int index = 0;
+		for(Map.Entry<Integer, IRetentionIndexEntry> entry : separationColumnIndices.entrySet()) {
+			IRetentionIndexEntry retentionIndexEntry = entry.getValue();
+			keys[index] = entry.getKey();
+			retentionTimes[index] = retentionIndexEntry.getRetentionTime();
+			retentionIndices[index] = retentionIndexEntry.getRetentionIndex();
+			index++;
+		}
+	}
+
+	public int size() {
+
+		return keys.length;
+	}
+
+	/**
+	 * Returns the retention index of the given retention time.
+	 *
+	 * @param retentionTime
+	 * @return float
+	 */
+	public float getRetentionIndex(int retentionTime) {
+
+		int index = Arrays.binarySearch(keys, retentionTime);
+		if(index >= 0) {
+			return retentionIndices[index];
+		}
+		return interpolate(retentionTime, -(index + 1));
+	}
+
+	/**
+	 * Returns the retention indices of the given retention times in one pass.
+	 * If the retention times are ascending, like the scans of a chromatogram,
+	 * the calibration entries are walked once instead of being searched per value.
+	 *
+	 * @param retentionTimes
+	 * @return float[]
+	 */
+	public float[] getRetentionIndices(int[] retentionTimes) {
+
+		float[] result = new float[retentionTimes.length];
+		int ceiling = 0;
+		int previous = Integer.MIN_VALUE;
+		for(int i = 0; i < retentionTimes.length; i++) {
+			int retentionTime = retentionTimes[i];
+			if(retentionTime < previous) {
+				ceiling = 0;
+			}
+			previous = retentionTime;
+			/*
+			 * Index of the first key >= retention time.
+			 */
+			while(ceiling < keys.length && keys[ceiling] < retentionTime) {
+				ceiling++;
+			}
+			if(ceiling < keys.length && keys[ceiling] == retentionTime) {
+				result[i] = retentionIndices[ceiling];
+			} else {
+				result[i] = interpolate(retentionTime, ceiling);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The ceiling is the index of the first key > retention time.
+	 */
+	private float interpolate(int retentionTime, int ceiling) {
+
+		int floor = ceiling - 1;
+		if(floor < 0 || ceiling >= keys.length) {
+			return 0.0f;
+		}
+		int retentionTimeLow = retentionTimes[floor];
+		int retentionTimeHigh = retentionTimes[ceiling];
+		float retentionIndexLow = retentionIndices[floor];
+		float retentionIndexHigh = retentionIndices[ceiling];
+		if(retentionTimeLow == retentionTimeHigh) {
+			return retentionIndexLow;
+		}
+		/*
+		 * RIcomp = RIlo + ( (RIhi - RIlo) * (RTact - RTlo) / (RThi - RTlo) )
+		 */
+		float factorRetentionIndex = retentionIndexHigh - retentionIndexLow;
+		float nominatorRT = retentionTime - retentionTimeLow;
+		float denominatorRT = retentionTimeHigh - retentionTimeLow;
+		return retentionIndexLow + factorRetentionIndex * nominatorRT / denominatorRT;
+	}
+}
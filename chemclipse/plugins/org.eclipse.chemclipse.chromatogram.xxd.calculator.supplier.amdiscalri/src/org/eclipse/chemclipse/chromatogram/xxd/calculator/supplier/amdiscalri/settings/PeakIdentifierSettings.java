@@ -21,6 +21,8 @@ public class PeakIdentifierSettings extends AbstractPeakIdentifierSettingsMSD im
 	private String massSpectraFiles = ""; // Don't modify. The value will be set by the plugin.
 	private boolean usePreOptimization = false; // Don't modify. The value will be set by the plugin.
 	private double thresholdPreOptimization = 0.12; // Don't modify. The value will be set by the plugin.
+	private int preSearchIons = 0; // Don't modify. The value will be set by the plugin.
+	private float preSearchRetentionIndexWindow = 0.0f; // Don't modify. The value will be set by the plugin.
 	@JsonProperty(value = "Number of Targets", defaultValue = "15")
 	private int numberOfTargets = 15;
 	@JsonProperty(value = "Min Match Factor", defaultValue = "80.0")
@@ -66,6 +68,30 @@ public class PeakIdentifierSettings extends AbstractPeakIdentifierSettingsMSD im
 		this.thresholdPreOptimization = thresholdPreOptimization;
 	}
 
+	@Override
+	public int getPreSearchIons() {
+
+		return preSearchIons;
+	}
+
+	@Override
+	public void setPreSearchIons(int preSearchIons) {
+
+		this.preSearchIons = preSearchIons;
+	}
+
+	@Override
+	public float getPreSearchRetentionIndexWindow() {
+
+		return preSearchRetentionIndexWindow;
+	}
+
+	@Override
+	public void setPreSearchRetentionIndexWindow(float preSearchRetentionIndexWindow) {
+
+		this.preSearchRetentionIndexWindow = preSearchRetentionIndexWindow;
+	}
+
 	@Override
 	public int getNumberOfTargets() {
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.INoiseCalculator;
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCache;
 import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.results.ChromatogramSegmentation;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignal;
@@ -34,16 +35,13 @@ import org.eclipse.core.runtime.IProgressMonitor;
  */
 public class NoiseCalculator implements INoiseCalculator {
 
-	private IChromatogram<?> chromatogram;
-	private float noiseValue = Float.NaN;
-
 	@Override
 	public float getSignalToNoiseRatio(IChromatogram<?> chromatogram, float intensity) {
 
-		if(chromatogram != this.chromatogram) {
-			noiseValue = calculateNoiseFactorByDyson(chromatogram);
-			this.chromatogram = chromatogram;
+		if(chromatogram == null) {
+			return Float.NaN;
 		}
+		float noiseValue = NoiseCache.getNoiseFactor(chromatogram, this, this::calculateNoiseFactorByDyson);
 		if(Float.isFinite(noiseValue) && noiseValue > 0) {
 			return intensity / noiseValue;
 		} else {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCache;
 import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.core.IScan;
 import org.eclipse.chemclipse.model.results.ChromatogramSegmentation;
@@ -48,16 +49,13 @@ import org.eclipse.core.runtime.SubMonitor;
  */
 public class NoiseCalculator implements IonNoiseCalculator {
 
-	private IChromatogram<?> chromatogram;
-	private float noiseFactor = Float.NaN;
-
 	@Override
 	public float getSignalToNoiseRatio(IChromatogram<?> chromatogram, float intensity) {
 
-		if(this.chromatogram != chromatogram) {
-			noiseFactor = calculateNoiseFactorByStein(chromatogram);
-			this.chromatogram = chromatogram;
+		if(chromatogram == null) {
+			return Float.NaN;
 		}
+		float noiseFactor = NoiseCache.getNoiseFactor(chromatogram, this, this::calculateNoiseFactorByStein);
 		if(Float.isFinite(noiseFactor) && noiseFactor > 0) {
 			return (float)(Math.sqrt(intensity) * noiseFactor);
 		} else {
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.eclipse.chemclipse.model.core.ChromatogramCache;
+import org.eclipse.chemclipse.model.core.IChromatogram;
+import org.eclipse.chemclipse.model.support.IScanRange;
+import org.eclipse.chemclipse.model.support.NoiseSegment;
+
+/**
+ * Caches the noise factors and noise segments per chromatogram in the {@link ChromatogramCache}.
+ * The values are calculated lazily on first demand and are valid as long as
+ * the modification count of the chromatogram hasn't changed, see {@link IChromatogram#getModificationCount()}.
+ */
+public final class NoiseCache {
+
+	private static final String CACHE_PREFIX = "Noise#";
+	private static final String KEY_FACTOR = CACHE_PREFIX + "Factor";
+	private static final String KEY_SEGMENTS = CACHE_PREFIX + "Segments";
+
+	private NoiseCache() {
+	}
+
+	/**
+	 * Returns the cached noise factor of the given calculator or calculates it.
+	 *
+	 * @param chromatogram
+	 * @param noiseCalculator
+	 * @param calculation
+	 * @return float
+	 */
+	public static float getNoiseFactor(IChromatogram<?> chromatogram, INoiseCalculator noiseCalculator, ToDoubleFunction<IChromatogram<?>> calculation) {
+
+		String key = KEY_FACTOR + "#" + noiseCalculator.getClass().getName();
+		Double noiseFactor = ChromatogramCache.getValue(chromatogram, key, c -> calculation.applyAsDouble(c));
+		return noiseFactor.floatValue();
+	}
+
+	/**
+	 * Returns the cached noise segments of the given range or calculates them.
+	 * The returned list must not be modified.
+	 *
+	 * @param chromatogram
+	 * @param range
+	 * @param includeBorders
+	 * @param calculation
+	 * @return List<NoiseSegment>
+	 */
+	public static List<NoiseSegment> getNoiseSegments(IChromatogram<?> chromatogram, IScanRange range, boolean includeBorders, Function<IChromatogram<?>, List<NoiseSegment>> calculation) {
+
+		String key = KEY_SEGMENTS + "#" + range.getStartScan() + "-" + range.getStopScan() + "#" + includeBorders;
+		return ChromatogramCache.getValue(chromatogram, key, calculation);
+	}
+
+	/**
+	 * Calculates the noise factors of the given chromatograms in parallel, e.g. in batch runs.
+	 * Afterwards, the signal to noise ratios are available without further calculations.
+	 *
+	 * @param chromatograms
+	 */
+	public static void calculateNoiseFactors(Collection<? extends IChromatogram<?>> chromatograms) {
+
+		chromatograms.parallelStream().forEach(chromatogram -> chromatogram.getSignalToNoiseRatio(1.0f));
+	}
+
+	/**
+	 * Discards the cached values of the chromatogram, e.g. if its segmentation has been replaced.
+	 *
+	 * @param chromatogram
+	 */
+	public static void clear(IChromatogram<?> chromatogram) {
+
+		ChromatogramCache.clear(chromatogram, CACHE_PREFIX);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Lablicate GmbH.
+ * Copyright (c) 2019, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -80,7 +80,7 @@ public class NoiseChromatogramClassifier extends AbstractChromatogramClassifier
 				segmentWidth = SegmentWidth.getLower(segmentWidth);
 				subMonitor.setWorkRemaining(100);
 			} else {
-				NoiseSegmentMeasurementResult result = new NoiseSegmentMeasurementResult(Collections.unmodifiableList(noiseSegments), segmentation, settings.getNoiseCalculatorId());
+				NoiseSegmentMeasurementResult result = new NoiseSegmentMeasurementResult(Collections.unmodifiableList(noiseSegments), segmentation, settings.getNoiseCalculatorId(), chromatogram.getModificationCount());
 				for(IMeasurementResult<?> oldresult : new ArrayList<>(chromatogram.getMeasurementResults())) {
 					if(oldresult instanceof NoiseSegmentMeasurementResult) {
 						chromatogram.deleteMeasurementResult(oldresult.getIdentifier());
@@ -93,15 +93,36 @@ public class NoiseChromatogramClassifier extends AbstractChromatogramClassifier
 		return null;
 	}
 
+	/**
+	 * Returns the noise segments of the given range. They are cached until the chromatogram is modified.
+	 * If the chromatogram has been modified since the noise settings were applied, the noise segments
+	 * are calculated again using the same noise calculator and segment width.
+	 * 
+	 * @param chromatogram
+	 * @param range
+	 * @param includeBorders
+	 * @param monitor
+	 * @return List<NoiseSegment>
+	 */
 	public static List<NoiseSegment> getNoiseSegments(IChromatogram<?> chromatogram, IScanRange range, boolean includeBorders, IProgressMonitor monitor) {
 
+		return NoiseCache.getNoiseSegments(chromatogram, range, includeBorders, c -> calculateNoiseSegments(c, range, includeBorders, monitor));
+	}
+
+	private static List<NoiseSegment> calculateNoiseSegments(IChromatogram<?> chromatogram, IScanRange range, boolean includeBorders, IProgressMonitor monitor) {
+
 		NoiseSegmentMeasurementResult noiseSegmentMeasurementResult = chromatogram.getMeasurementResult(NoiseSegmentMeasurementResult.class);
-		if(noiseSegmentMeasurementResult == null) {
-			noiseSegmentMeasurementResult = applyNoiseSettings(chromatogram, new NoiseChromatogramClassifierSettings(), monitor);
+		if(noiseSegmentMeasurementResult == null || noiseSegmentMeasurementResult.isOutdated(chromatogram)) {
+			NoiseChromatogramClassifierSettings settings = new NoiseChromatogramClassifierSettings();
+			if(noiseSegmentMeasurementResult != null) {
+				settings.setNoiseCalculatorId(noiseSegmentMeasurementResult.getNoiseCalculatorId());
+				settings.setSegmentWidth(noiseSegmentMeasurementResult.getSegmentation().getWidth());
+			}
+			noiseSegmentMeasurementResult = applyNoiseSettings(chromatogram, settings, monitor);
 			if(noiseSegmentMeasurementResult == null) {
 				return Collections.emptyList();
 			}
 		}
-		return noiseSegmentMeasurementResult.getSegments(range, includeBorders);
+		return Collections.unmodifiableList(noiseSegmentMeasurementResult.getSegments(range, includeBorders));
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -56,6 +56,7 @@ public class FilterSupplier {
 		for(IIon ion : ionsToRemove) {
 			massSpectrum.removeIon(ion);
 		}
+		massSpectrum.setDirty(true);
 	}
 
 	private float[] getIntensityValues(List<IIon> ions, int extraValues) {
@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.processor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
+import org.apache.commons.math3.stat.StatUtils;
+import org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.preferences.PreferenceSupplier;
+
+/**
+ * The convolution weights of the Savitzky-Golay filter for a given derivative, order and width.
+ * The weights of the middle section and the start/stop edges are calculated once and cached,
+ * hence use {@link #getKernel(int, int, int)} to get an instance.
+ * A kernel is immutable and can be applied to several signals concurrently.
+ */
+public final class SavitzkyGolayKernel {
+
+	private static final Map<Integer, SavitzkyGolayKernel> KERNELS = new ConcurrentHashMap<>();
+	//
+	private final int derivative;
+	private final int order;
+	private final int width;
+	private final int p;
+	private final double[] middleWeights;
+	private final double middleCoefficient;
+	private final double[][] startWeights;
+	private final double[][] stopWeights;
+
+	private SavitzkyGolayKernel(int derivative, int order, int width) {
+		this.derivative = derivative;
+		this.order = order;
+		this.width = width;
+		p = calculateP(width);
+		/*
+		 * Get the coefficients.
+		 */
+		RealMatrix x = getX(width, order);
+		double[] coefficients = calculateCoefficient(derivative, order);
+		double[][] weights = getWeights(width, order, derivative);
+		middleWeights = weights[derivative];
+		middleCoefficient = coefficients[0];
+		//
+		double[][] startStopWeights = new double[order - derivative + 1][weights[0].length]; // rows, columns
+		for(int i = derivative, k = 0; i <= order; i++, k++) {
+			for(int j = 0; j < weights[0].length; j++) {
+				startStopWeights[k][j] = weights[i][j];
+			}
+		}
+		//
+		for(int i = 0; i < coefficients.length; i++) {
+			double coefficient = coefficients[i];
+			for(int j = 0; j < startStopWeights[i].length; j++) {
+				startStopWeights[i][j] *= coefficient;
+			}
+		}
+		/*
+		 * Weights of the edges.
+		 */
+		double[][] uStart = new double[p][order - derivative + 1]; // rows, columns
+		for(int i = 0; i < p; i++) {
+			for(int j = 0; j < order - derivative + 1; j++) {
+				uStart[i][j] = x.getEntry(i, j);
+			}
+		}
+		startWeights = getEdgeWeights(uStart, startStopWeights);
+		//
+		double[][] uEnd = new double[p][order - derivative + 1]; // rows, columns
+		for(int i = p + 1, k = 0; i < x.getRowDimension(); i++, k++) {
+			for(int j = 0; j < order - derivative + 1; j++) {
+				uEnd[k][j] = x.getEntry(i, j);
+			}
+		}
+		stopWeights = getEdgeWeights(uEnd, startStopWeights);
+	}
+
+	/**
+	 * Returns the kernel for the given parameters. The parameters are adjusted
+	 * to the valid ranges, e.g. the width is odd and the order is not greater than 5.
+	 *
+	 * @param derivative
+	 * @param order
+	 * @param width
+	 * @return {@link SavitzkyGolayKernel}
+	 */
+	public static SavitzkyGolayKernel getKernel(int derivative, int order, int width) {
+
+		int kernelWidth = Math.max(PreferenceSupplier.MIN_WIDTH, (1 + 2 * Math.round((width - 1) / 2)));
+		int kernelOrder = (int)StatUtils.min(new double[]{Math.max(0, order), 5, (kernelWidth - 1)});
+		int kernelDerivative = Math.min(Math.max(0, derivative), kernelOrder);
+		/*
+		 * The order and derivative are <= 5.
+		 */
+		int key = (kernelWidth << 8) | (kernelOrder << 4) | kernelDerivative;
+		return KERNELS.computeIfAbsent(key, k -> new SavitzkyGolayKernel(kernelDerivative, kernelOrder, kernelWidth));
+	}
+
+	public int getDerivative() {
+
+		return derivative;
+	}
+
+	public int getOrder() {
+
+		return order;
+	}
+
+	public int getWidth() {
+
+		return width;
+	}
+
+	/**
+	 * Applies the filter and returns the smoothed values.
+	 * The values must contain at least width elements.
+	 *
+	 * @param values
+	 * @return double[]
+	 */
+	public double[] apply(double[] values) {
+
+		double[] result = new double[values.length];
+		apply(values, result);
+		return result;
+	}
+
+	/**
+	 * Applies the filter and stores the smoothed values in the given result array.
+	 * This allows to reuse the arrays when processing several signals.
+	 * The values and the result must contain at least width elements and
+	 * must not be the same array.
+	 *
+	 * @param values
+	 * @param result
+	 */
+	public void apply(double[] values, double[] result) {
+
+		int size = values.length;
+		/*
+		 * Start
+		 */
+		for(int i = 0; i < p; i++) {
+			double[] weights = startWeights[i];
+			double value = 0;
+			for(int j = 0; j < width; j++) {
+				value += values[j] * weights[j];
+			}
+			result[i] = value;
+		}
+		/*
+		 * Middle
+		 */
+		for(int i = p; i < size - p; i++) {
+			double value = 0;
+			for(int j = -p, k = 0; j <= p; j++, k++) {
+				value += (values[i + j] * middleWeights[k]) * middleCoefficient;
+			}
+			result[i] = value;
+		}
+		/*
+		 * End
+		 */
+		for(int i = size - p, m = 0; i < size; i++, m++) {
+			double[] weights = stopWeights[m];
+			double value = 0;
+			for(int j = 0, k = size - width; j < width; j++, k++) {
+				value += values[k] * weights[j];
+			}
+			result[i] = value;
+		}
+	}
+
+	private double[][] getEdgeWeights(double[][] u, double[][] startStopWeights) {
+
+		double[][] edgeWeights = new double[p][width];
+		for(int i = 0; i < p; i++) {
+			for(int j = 0; j < width; j++) {
+				double newVal = 0;
+				for(int k = 0; k < order - derivative + 1; k++) {
+					newVal += u[i][k] * startStopWeights[k][j];
+				}
+				edgeWeights[i][j] = newVal;
+			}
+		}
+		return edgeWeights;
+	}
+
+	private static double[][] getWeights(int width, int order, int derivative) {
+
+		RealMatrix x = getX(width, order);
+		RealMatrix dm = MatrixUtils.createRealIdentityMatrix(width);
+		QRDecomposition qrDecomposition = new QRDecomposition(x);
+		RealMatrix q = qrDecomposition.getQ();
+		RealMatrix r2 = qrDecomposition.getR();
+		SingularValueDecomposition singularValueDecomposition = new SingularValueDecomposition(x);
+		int r = singularValueDecomposition.getRank();
+		/*
+		 * getSubMatrix(startRow, endRow, startColumn, endColumn)
+		 */
+		RealMatrix q2 = q.getSubMatrix(0, q.getRowDimension() - 1, 0, r - 1);
+		RealMatrix r3 = r2.getSubMatrix(0, r - 1, 0, r2.getColumnDimension() - 1);
+		RealMatrix weights2 = new LUDecomposition(r3).getSolver().getInverse().multiply(q2.transpose().multiply(dm));
+		//
+		double[][] weights = new double[weights2.getRowDimension()][weights2.getColumnDimension()];
+		for(int i = 0; i < weights2.getRowDimension(); i++) {
+			for(int j = 0; j < weights2.getColumnDimension(); j++) {
+				weights[i][j] = weights2.getEntry(i, j);
+			}
+		}
+		//
+		return weights;
+	}
+
+	private static RealMatrix getX(int width, int order) {
+
+		int rows = width;
+		int columns = 1 + order;
+		int p = calculateP(width);
+		double[][] t1 = createT1(rows, columns, -p);
+		double[][] t2 = createT2(rows, columns, 0);
+		return MatrixUtils.createRealMatrix(calculateX(t1, t2));
+	}
+
+	private static int calculateP(int width) {
+
+		return (width - 1) / 2;
+	}
+
+	private static double[][] createT1(int rows, int columns, int min) {
+
+		double[][] array = new double[rows][columns];
+		for(int i = 0; i < rows; i++) {
+			for(int j = 0; j < columns; j++) {
+				array[i][j] = min;
+			}
+			min++;
+		}
+		return array;
+	}
+
+	private static double[][] createT2(int rows, int columns, int min) {
+
+		double[][] array = new double[rows][columns];
+		for(int i = 0; i < rows; i++) {
+			int value = min;
+			for(int j = 0; j < columns; j++) {
+				array[i][j] = value++;
+			}
+		}
+		return array;
+	}
+
+	private static double[][] calculateX(double[][] t1, double[][] t2) {
+
+		int rows = t1.length;
+		int columns = t1[0].length;
+		//
+		double[][] array = new double[rows][columns];
+		for(int i = 0; i < rows; i++) {
+			for(int j = 0; j < columns; j++) {
+				array[i][j] = Math.pow(t1[i][j], t2[i][j]);
+			}
+		}
+		return array;
+	}
+
+	private static double[] calculateCoefficient(int derivative, int order) {
+
+		double[] result;
+		if(derivative > 0) {
+			/*
+			 * Calculate the coefficient.
+			 */
+			int val1 = order + 1 - derivative;
+			//
+			double[][] t3 = createOnes(derivative, 1); // t3 one column
+			double[] t4 = createArray(val1, 1);
+			double[][] t34 = new double[t3.length][t4.length];
+			for(int i = 0; i < t3.length; i++) {
+				double valt3 = t3[i][0]; // t3 one column
+				for(int j = 0; j < t4.length; j++) {
+					t34[i][j] = valt3 * t4[j];
+				}
+			}
+			//
+			double[] t5 = createArray(derivative, 0);
+			double[][] t6 = createOnes(1, val1); // t6 one row
+			double[][] t56 = new double[t5.length][t6[0].length];
+			for(int i = 0; i < t5.length; i++) {
+				double valt5 = t5[i]; // t5 transpose
+				for(int j = 0; j < t6[0].length; j++) { // t6 one row
+					t56[i][j] = valt5 * t6[0][j]; // t6 one row
+				}
+			}
+			//
+			int size = t34[0].length; // size of the columns
+			result = new double[size];
+			int rows = t34.length;
+			int columns = t34[0].length;
+			for(int j = 0; j < columns; j++) {
+				double product = 1;
+				for(int i = 0; i < rows; i++) {
+					product *= t34[i][j] + t56[i][j];
+				}
+				result[j] = product;
+			}
+			//
+		} else {
+			/*
+			 * Set a coefficient default value.
+			 */
+			int size = order + 1;
+			result = new double[size];
+			for(int i = 0; i < size; i++) {
+				result[i] = 1;
+			}
+		}
+		return result;
+	}
+
+	private static double[][] createOnes(int rows, int columns) {
+
+		double[][] array = new double[rows][columns];
+		for(int i = 0; i < rows; i++) {
+			for(int j = 0; j < columns; j++) {
+				array[i][j] = 1;
+			}
+		}
+		return array;
+	}
+
+	private static double[] createArray(int size, int start) {
+
+		double[] array = new double[size];
+		int value = start;
+		for(int i = 0; i < size; i++) {
+			array[i] = value++;
+		}
+		return array;
+	}
+}
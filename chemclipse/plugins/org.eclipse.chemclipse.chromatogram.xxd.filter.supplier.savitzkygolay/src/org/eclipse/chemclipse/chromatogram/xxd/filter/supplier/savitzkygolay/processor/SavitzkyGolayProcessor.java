@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2018 Lablicate GmbH.
+ * Copyright (c) 2015, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -11,29 +11,35 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.processor;
 
-import org.apache.commons.math3.linear.LUDecomposition;
-import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.QRDecomposition;
-import org.apache.commons.math3.linear.RealMatrix;
-import org.apache.commons.math3.linear.SingularValueDecomposition;
-import org.apache.commons.math3.stat.StatUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.eclipse.chemclipse.chromatogram.filter.result.ChromatogramFilterResult;
 import org.eclipse.chemclipse.chromatogram.filter.result.IChromatogramFilterResult;
 import org.eclipse.chemclipse.chromatogram.filter.result.ResultStatus;
-import org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.settings.ChromatogramFilterSettings;
+import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.core.IScan;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
 import org.eclipse.chemclipse.model.exceptions.ChromatogramIsNullException;
 import org.eclipse.chemclipse.model.selection.IChromatogramSelection;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignal;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignals;
 import org.eclipse.chemclipse.model.signals.TotalScanSignalExtractor;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 @SuppressWarnings("rawtypes")
 public class SavitzkyGolayProcessor {
 
+	private static final Logger logger = Logger.getLogger(SavitzkyGolayProcessor.class);
+
 	@SuppressWarnings("unchecked")
 	public IChromatogramFilterResult smooth(IChromatogramSelection chromatogramSelection, boolean validatePositive, ChromatogramFilterSettings filterSettings, IProgressMonitor monitor) {
 
@@ -44,24 +50,20 @@ public class SavitzkyGolayProcessor {
 			ITotalScanSignals totalScanSignals = signalExtractor.getTotalScanSignals(chromatogramSelection, validatePositive);
 			//
 			double[] sgTic = smooth(totalScanSignals, filterSettings, monitor);
-			int i = 0;
-			for(ITotalScanSignal signal : totalScanSignals.getTotalScanSignals()) {
-				signal.setTotalSignal((float)sgTic[i++]);
-			}
 			/*
 			 * Apply the smoothed data to the chromatogram selection.
 			 */
 			int startScan = totalScanSignals.getStartScan();
 			int stopScan = totalScanSignals.getStopScan();
 			//
-			for(int scan = startScan; scan <= stopScan; scan++) {
-				monitor.subTask("Set Savitzky-Golay TIC: " + scan);
+			monitor.subTask("Set Savitzky-Golay TIC");
+			for(int scan = startScan, i = 0; scan <= stopScan; scan++, i++) {
 				IScan scanRecord = chromatogram.getScan(scan);
 				/*
 				 * A value of 0 is not allowed in case of MSD data.
 				 * If it's FID data, it's possible to have negative values.
 				 */
-				float intensity = totalScanSignals.getTotalScanSignal(scan).getTotalSignal();
+				float intensity = (float)sgTic[i];
 				if(validatePositive && intensity <= 0.0f) {
 					intensity = 0.1f;
 				}
@@ -115,265 +117,148 @@ public class SavitzkyGolayProcessor {
 		return smoothValues(ticValues, derivative, order, width);
 	}
 
-	private double[] smoothValues(double[] ticValues, int derivative, int order, int width) {
+	/**
+	 * Smooths each ion trace (XIC) of the selected scans. The traces are smoothed in parallel.
+	 * Only the ions contained in a scan are adjusted, hence no ions are added. Ions whose
+	 * smoothed abundance is not positive are removed. Ions with a transition are not smoothed.
+	 *
+	 * @param chromatogramSelection
+	 * @param filterSettings
+	 * @param monitor
+	 * @return {@link IChromatogramFilterResult}
+	 */
+	public IChromatogramFilterResult smoothIons(IChromatogramSelectionMSD chromatogramSelection, ChromatogramFilterSettings filterSettings, IProgressMonitor monitor) {
+
+		return smoothIons(chromatogramSelection, filterSettings.getDerivative(), filterSettings.getOrder(), filterSettings.getWidth(), monitor);
+	}
 
-		int p = calculateP(width);
-		//
-		int size = ticValues.length;
-		width = Math.max(PreferenceSupplier.MIN_WIDTH, (1 + 2 * Math.round((width - 1) / 2)));
-		order = (int)StatUtils.min(new double[]{Math.max(0, order), 5, (width - 1)});
-		derivative = Math.min(Math.max(0, derivative), order);
+	/**
+	 * Smooths each ion trace (XIC) of the selected scans, see smoothIons(IChromatogramSelectionMSD, ChromatogramFilterSettings, IProgressMonitor).
+	 * If the derivative is > 0, the abundances are replaced by the derivative of the trace.
+	 *
+	 * @param chromatogramSelection
+	 * @param derivative
+	 * @param order
+	 * @param width
+	 * @param monitor
+	 * @return {@link IChromatogramFilterResult}
+	 */
+	public IChromatogramFilterResult smoothIons(IChromatogramSelectionMSD chromatogramSelection, int derivative, int order, int width, IProgressMonitor monitor) {
+
+		IChromatogramMSD chromatogram = chromatogramSelection.getChromatogram();
+		int startScan = chromatogram.getScanNumber(chromatogramSelection.getStartRetentionTime());
+		int stopScan = chromatogram.getScanNumber(chromatogramSelection.getStopRetentionTime());
+		int numberOfScans = stopScan - startScan + 1;
+		SavitzkyGolayKernel kernel = SavitzkyGolayKernel.getKernel(derivative, order, width);
+		if(startScan < 1 || numberOfScans < kernel.getWidth()) {
+			return new ChromatogramFilterResult(ResultStatus.EXCEPTION, "The selection contains not enough scans to apply the Savitzky-Golay filter.");
+		}
 		/*
-		 * Get the coefficients and apply the filter.
+		 * Collect the ions of the selected scans.
 		 */
-		RealMatrix x = getX(width, order);
-		double[] coefficients = calculateCoefficient(derivative, order);
-		double[][] weights = getWeights(width, order, derivative);
-		double[] middleWeights = weights[derivative];
-		double[] newTicValues = new double[size];
-		//
-		double[][] startStopWeights = new double[order - derivative + 1][weights[0].length]; // rows, columns
-		for(int i = derivative, k = 0; i <= order; i++, k++) {
-			for(int j = 0; j < weights[0].length; j++) {
-				startStopWeights[k][j] = weights[i][j];
-			}
-		}
-		//
-		for(int i = 0; i < coefficients.length; i++) {
-			double coefficient = coefficients[i];
-			for(int j = 0; j < startStopWeights[i].length; j++) {
-				startStopWeights[i][j] *= coefficient;
+		monitor.subTask("Savitzky-Golay XIC");
+		IScanMSD[] scans = new IScanMSD[numberOfScans];
+		List<IIon> ionList = new ArrayList<>();
+		int[] scanIndices = new int[16];
+		for(int i = 0; i < numberOfScans; i++) {
+			IScanMSD scan = chromatogram.getSupplierScan(startScan + i);
+			scans[i] = scan;
+			for(IIon ion : scan.getIons()) {
+				if(ion.getIonTransition() == null) {
+					if(ionList.size() == scanIndices.length) {
+						scanIndices = Arrays.copyOf(scanIndices, scanIndices.length * 2);
+					}
+					scanIndices[ionList.size()] = i;
+					ionList.add(ion);
+				}
 			}
 		}
+		IIon[] ions = ionList.toArray(new IIon[ionList.size()]);
 		/*
-		 * Process
+		 * Map the ions to their traces and group them by trace.
 		 */
-		processStart(p, order, derivative, width, x, ticValues, newTicValues, startStopWeights);
-		processMiddle(p, ticValues, newTicValues, middleWeights, coefficients);
-		processEnd(p, order, derivative, width, x, ticValues, newTicValues, startStopWeights);
-		//
-		return newTicValues;
-	}
-
-	private void processStart(int p, int order, int derivative, int width, RealMatrix x, double[] ticValues, double[] newTicValues, double[][] startStopWeights) {
-
-		double[][] uStart = new double[p][order - derivative + 1]; // rows, columns
-		for(int i = 0; i < p; i++) {
-			for(int j = 0; j < order - derivative + 1; j++) {
-				uStart[i][j] = x.getEntry(i, j);
-			}
+		double[] traceIons = new double[ions.length];
+		for(int i = 0; i < ions.length; i++) {
+			traceIons[i] = ions[i].getIon();
 		}
-		//
-		for(int i = 0; i < p; i++) {
-			double[] values = new double[width];
-			for(int j = 0; j < width; j++) {
-				double newVal = 0;
-				for(int k = 0; k < order - derivative + 1; k++) {
-					newVal += uStart[i][k] * startStopWeights[k][j];
-				}
-				values[j] = newVal;
+		Arrays.sort(traceIons);
+		int numberOfTraces = 0;
+		for(int i = 0; i < traceIons.length; i++) {
+			if(i == 0 || traceIons[i] != traceIons[i - 1]) {
+				traceIons[numberOfTraces++] = traceIons[i];
 			}
-			//
-			double newTic = 0;
-			for(int j = 0; j < width; j++) {
-				newTic += ticValues[j] * values[j];
-			}
-			newTicValues[i] = newTic;
 		}
-	}
-
-	private void processMiddle(int p, double[] ticValues, double[] newTicValues, double[] middleWeights, double[] coefficients) {
-
-		for(int i = p; i < ticValues.length - p; i++) {
-			double newTic = 0;
-			for(int j = -p, k = 0; j <= p; j++, k++) {
-				double ticValue = ticValues[i + j];
-				double sgValue = middleWeights[k];
-				newTic += (ticValue * sgValue) * coefficients[0];
-			}
-			newTicValues[i] = newTic;
+		int[] traceOffsets = new int[numberOfTraces + 1];
+		int[] traceIndices = new int[ions.length];
+		for(int i = 0; i < ions.length; i++) {
+			int trace = Arrays.binarySearch(traceIons, 0, numberOfTraces, ions[i].getIon());
+			traceIndices[i] = trace;
+			traceOffsets[trace + 1]++;
 		}
-	}
-
-	private void processEnd(int p, int order, int derivative, int width, RealMatrix x, double[] ticValues, double[] newTicValues, double[][] startStopWeights) {
-
-		double[][] uEnd = new double[p][order - derivative + 1]; // rows, columns
-		for(int i = p + 1, k = 0; i < x.getRowDimension(); i++, k++) {
-			for(int j = 0; j < order - derivative + 1; j++) {
-				uEnd[k][j] = x.getEntry(i, j);
-			}
+		for(int i = 0; i < numberOfTraces; i++) {
+			traceOffsets[i + 1] += traceOffsets[i];
 		}
-		//
-		for(int i = ticValues.length - p, m = 0; i < ticValues.length; i++, m++) {
-			double[] values = new double[width];
-			for(int j = 0; j < width; j++) {
-				double newVal = 0;
-				for(int k = 0; k < order - derivative + 1; k++) {
-					newVal += uEnd[m][k] * startStopWeights[k][j];
-				}
-				values[j] = newVal;
-			}
-			//
-			double newTic = 0;
-			for(int j = 0, k = ticValues.length - width; j < width; j++, k++) {
-				newTic += ticValues[k] * values[j];
-			}
-			newTicValues[i] = newTic;
+		int[] groupedIons = new int[ions.length];
+		int[] positions = Arrays.copyOf(traceOffsets, numberOfTraces);
+		for(int i = 0; i < ions.length; i++) {
+			groupedIons[positions[traceIndices[i]]++] = i;
 		}
-	}
-
-	private double[][] getWeights(int width, int order, int derivative) {
-
-		RealMatrix x = getX(width, order);
-		RealMatrix dm = MatrixUtils.createRealIdentityMatrix(width);
-		QRDecomposition qrDecomposition = new QRDecomposition(x);
-		RealMatrix q = qrDecomposition.getQ();
-		RealMatrix r2 = qrDecomposition.getR();
-		SingularValueDecomposition singularValueDecomposition = new SingularValueDecomposition(x);
-		int r = singularValueDecomposition.getRank();
 		/*
-		 * getSubMatrix(startRow, endRow, startColumn, endColumn)
+		 * Smooth the traces. Each ion belongs to exactly one trace,
+		 * hence the traces can be written back concurrently.
 		 */
-		RealMatrix q2 = q.getSubMatrix(0, q.getRowDimension() - 1, 0, r - 1);
-		RealMatrix r3 = r2.getSubMatrix(0, r - 1, 0, r2.getColumnDimension() - 1);
-		RealMatrix weights2 = new LUDecomposition(r3).getSolver().getInverse().multiply(q2.transpose().multiply(dm));
-		//
-		double[][] weights = new double[weights2.getRowDimension()][weights2.getColumnDimension()];
-		for(int i = 0; i < weights2.getRowDimension(); i++) {
-			for(int j = 0; j < weights2.getColumnDimension(); j++) {
-				weights[i][j] = weights2.getEntry(i, j);
+		final int[] indices = scanIndices;
+		boolean[] removeIons = new boolean[ions.length];
+		IntStream.range(0, numberOfTraces).parallel().forEach(trace -> {
+			double[] values = new double[numberOfScans];
+			for(int i = traceOffsets[trace]; i < traceOffsets[trace + 1]; i++) {
+				int ion = groupedIons[i];
+				values[indices[ion]] += ions[ion].getAbundance();
 			}
-		}
-		//
-		return weights;
-	}
-
-	private RealMatrix getX(int width, int order) {
-
-		int rows = width;
-		int columns = 1 + order;
-		int p = calculateP(width);
-		double[][] t1 = createT1(rows, columns, -p);
-		double[][] t2 = createT2(rows, columns, 0);
-		return MatrixUtils.createRealMatrix(calculateX(t1, t2));
-	}
-
-	private int calculateP(int width) {
-
-		return (width - 1) / 2;
-	}
-
-	private double[][] createT1(int rows, int columns, int min) {
-
-		double[][] array = new double[rows][columns];
-		for(int i = 0; i < rows; i++) {
-			for(int j = 0; j < columns; j++) {
-				array[i][j] = min;
-			}
-			min++;
-		}
-		return array;
-	}
-
-	private double[][] createT2(int rows, int columns, int min) {
-
-		double[][] array = new double[rows][columns];
-		for(int i = 0; i < rows; i++) {
-			int value = min;
-			for(int j = 0; j < columns; j++) {
-				array[i][j] = value++;
-			}
-		}
-		return array;
-	}
-
-	private double[][] calculateX(double[][] t1, double[][] t2) {
-
-		int rows = t1.length;
-		int columns = t1[0].length;
-		//
-		double[][] array = new double[rows][columns];
-		for(int i = 0; i < rows; i++) {
-			for(int j = 0; j < columns; j++) {
-				array[i][j] = Math.pow(t1[i][j], t2[i][j]);
-			}
-		}
-		return array;
-	}
-
-	private double[] calculateCoefficient(int derivative, int order) {
-
-		double[] result;
-		if(derivative > 0) {
-			/*
-			 * Calculate the coefficient.
-			 */
-			int val1 = order + 1 - derivative;
-			//
-			double[][] t3 = createOnes(derivative, 1); // t3 one column
-			double[] t4 = createArray(val1, 1);
-			double[][] t34 = new double[t3.length][t4.length];
-			for(int i = 0; i < t3.length; i++) {
-				double valt3 = t3[i][0]; // t3 one column
-				for(int j = 0; j < t4.length; j++) {
-					t34[i][j] = valt3 * t4[j];
+			double[] smoothed = kernel.apply(values);
+			for(int i = traceOffsets[trace]; i < traceOffsets[trace + 1]; i++) {
+				int ion = groupedIons[i];
+				int scan = indices[ion];
+				if(values[scan] > 0) {
+					/*
+					 * Ions of the same m/z in one scan share the smoothed value.
+					 */
+					float abundance = (float)(smoothed[scan] * (ions[ion].getAbundance() / values[scan]));
+					if(abundance > 0.0f) {
+						setAbundance(ions[ion], abundance);
+					} else {
+						removeIons[ion] = true;
+					}
 				}
 			}
-			//
-			double[] t5 = createArray(derivative, 0);
-			double[][] t6 = createOnes(1, val1); // t6 one row
-			double[][] t56 = new double[t5.length][t6[0].length];
-			for(int i = 0; i < t5.length; i++) {
-				double valt5 = t5[i]; // t5 transpose
-				for(int j = 0; j < t6[0].length; j++) { // t6 one row
-					t56[i][j] = valt5 * t6[0][j]; // t6 one row
-				}
-			}
-			//
-			int size = t34[0].length; // size of the columns
-			result = new double[size];
-			int rows = t34.length;
-			int columns = t34[0].length;
-			for(int j = 0; j < columns; j++) {
-				double product = 1;
-				for(int i = 0; i < rows; i++) {
-					product *= t34[i][j] + t56[i][j];
-				}
-				result[j] = product;
-			}
-			//
-		} else {
-			/*
-			 * Set a coefficient default value.
-			 */
-			int size = order + 1;
-			result = new double[size];
-			for(int i = 0; i < size; i++) {
-				result[i] = 1;
+		});
+		/*
+		 * Remove the depleted ions and mark the scans as modified.
+		 */
+		for(int i = 0; i < ions.length; i++) {
+			if(removeIons[i]) {
+				scans[scanIndices[i]].removeIon(ions[i]);
 			}
 		}
-		return result;
+		for(IScanMSD scan : scans) {
+			scan.setDirty(true);
+		}
+		//
+		return new ChromatogramFilterResult(ResultStatus.OK, "The Savitzky-Golay filter has been applied successfully on " + numberOfTraces + " ion traces.");
 	}
 
-	private double[][] createOnes(int rows, int columns) {
+	private double[] smoothValues(double[] ticValues, int derivative, int order, int width) {
 
-		double[][] array = new double[rows][columns];
-		for(int i = 0; i < rows; i++) {
-			for(int j = 0; j < columns; j++) {
-				array[i][j] = 1;
-			}
-		}
-		return array;
+		return SavitzkyGolayKernel.getKernel(derivative, order, width).apply(ticValues);
 	}
 
-	private double[] createArray(int size, int start) {
+	private void setAbundance(IIon ion, float abundance) {
 
-		double[] array = new double[size];
-		int value = start;
-		for(int i = 0; i < size; i++) {
-			array[i] = value++;
+		try {
+			ion.setAbundance(abundance);
+		} catch(AbundanceLimitExceededException e) {
+			logger.warn(e);
 		}
-		return array;
 	}
 
 	public IChromatogramFilterResult apply(ITotalScanSignals totalSignals, ChromatogramFilterSettings filterSettings, IProgressMonitor monitor) {
@@ -17,8 +17,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.eclipse.chemclipse.chromatogram.msd.peak.detector.core.IPeakDetectorMSD;
 import org.eclipse.chemclipse.chromatogram.msd.peak.detector.settings.IPeakDetectorSettingsMSD;
@@ -38,7 +40,9 @@ import org.eclipse.chemclipse.model.exceptions.ChromatogramIsNullException;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignal;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignals;
 import org.eclipse.chemclipse.model.signals.TotalScanSignalsModifier;
+import org.eclipse.chemclipse.model.support.IRetentionTimeRange;
 import org.eclipse.chemclipse.model.support.NoiseSegment;
+import org.eclipse.chemclipse.model.support.RetentionTimeRange;
 import org.eclipse.chemclipse.model.support.ScanRange;
 import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
 import org.eclipse.chemclipse.msd.model.core.IChromatogramPeakMSD;
@@ -97,6 +101,7 @@ public class PeakDetectorMSD extends BasePeakDetector implements IPeakDetectorMS
 	}
 
 	private IPeakDetectorSettingsMSD peakDetectorSettings;
+	private boolean parallel = true;
 
 	public IPeakDetectorSettingsMSD getPeakDetectorSettings() {
 
@@ -109,6 +114,19 @@ public class PeakDetectorMSD extends BasePeakDetector implements IPeakDetectorMS
 		return this;
 	}
 
+	/**
+	 * The ion sets, ranges and peaks are evaluated in parallel by default.
+	 * The sequential evaluation is used to verify that both yield the same peaks.
+	 * 
+	 * @param parallel
+	 * @return {@link PeakDetectorMSD}
+	 */
+	PeakDetectorMSD setParallel(boolean parallel) {
+
+		this.parallel = parallel;
+		return this;
+	}
+
 	// TODO JUnit
 	@SuppressWarnings("rawtypes")
 	@Override
@@ -136,79 +154,126 @@ public class PeakDetectorMSD extends BasePeakDetector implements IPeakDetectorMS
 
 	/**
 	 * Additionally, noise segments are used if not null.
+	 * The ion sets and the ranges between the noise segments are evaluated in parallel.
+	 * The chromatogram selection is not modified. The peaks are returned in the order
+	 * of the ion sets and their retention times.
 	 */
 	public List<IChromatogramPeakMSD> detectPeaks(IChromatogramSelectionMSD chromatogramSelection, PeakDetectorSettingsMSD peakDetectorSettings, List<NoiseSegment> noiseSegments, IProgressMonitor monitor) {
 
-		List<IChromatogramPeakMSD> extractPeaks = new ArrayList<>();
-		Collection<IMarkedIons> filterIons = peakDetectorSettings.getFilterIons();
-		for(IMarkedIons ions : filterIons) {
-			Threshold threshold = peakDetectorSettings.getThreshold();
-			WindowSize windowSize = peakDetectorSettings.getMovingAverageWindowSize();
-			List<IRawPeak> rawPeaks = new ArrayList<>();
-			//
-			if(noiseSegments != null && noiseSegments.size() > 0) {
-				/*
-				 * Initial retention time range before running the detection using
-				 * noise segments.
-				 * | --- [S] --- [N] --- [E] --- |
-				 */
-				Iterator<NoiseSegment> iterator = noiseSegments.iterator();
-				int startRetentionTime = chromatogramSelection.getStartRetentionTime();
-				int stopRetentionTime = chromatogramSelection.getStopRetentionTime();
-				NoiseSegment noiseSegment = iterator.hasNext() ? iterator.next() : null;
-				/*
-				 * Range from the start of the chromatogram selection to the first noise segment
-				 * | --- [S]
-				 */
-				if(noiseSegment != null) {
-					chromatogramSelection.setRangeRetentionTime(startRetentionTime, noiseSegment.getStartRetentionTime());
-					IFirstDerivativeDetectorSlopes slopes = getFirstDerivativeSlopes(chromatogramSelection, windowSize, ions);
-					rawPeaks.addAll(getRawPeaks(slopes, threshold, monitor));
-				}
-				/*
-				 * Ranges between the noise segments
-				 * [S] --- [N] --- [E]
-				 */
-				while(iterator.hasNext()) {
-					int startRetentionTimeSegment = noiseSegment.getStopRetentionTime();
-					noiseSegment = iterator.next();
-					int stopRetentionTimeSegment = noiseSegment.getStartRetentionTime();
-					chromatogramSelection.setRangeRetentionTime(startRetentionTimeSegment, stopRetentionTimeSegment);
-					IFirstDerivativeDetectorSlopes slopes = getFirstDerivativeSlopes(chromatogramSelection, windowSize, ions);
-					rawPeaks.addAll(getRawPeaks(slopes, threshold, monitor));
-				}
-				/*
-				 * Range from the last noise segment to the end of the chromatogram selection
-				 * [E] --- |
-				 */
-				if(noiseSegment != null) {
-					chromatogramSelection.setRangeRetentionTime(noiseSegment.getStopRetentionTime(), stopRetentionTime);
-					IFirstDerivativeDetectorSlopes slopes = getFirstDerivativeSlopes(chromatogramSelection, windowSize, ions);
-					rawPeaks.addAll(getRawPeaks(slopes, threshold, monitor));
-				}
-				/*
-				 * Reset the retention time range to its initial values.
-				 */
-				chromatogramSelection.setRangeRetentionTime(startRetentionTime, stopRetentionTime);
-			} else {
-				/*
-				 * Default: no noise segments
-				 */
-				IFirstDerivativeDetectorSlopes slopes = getFirstDerivativeSlopes(chromatogramSelection, windowSize, ions);
-				rawPeaks.addAll(getRawPeaks(slopes, threshold, monitor));
-			}
-			List<IChromatogramPeakMSD> peaks = extractPeaks(rawPeaks, chromatogramSelection.getChromatogram(), peakDetectorSettings, ions);
-			if(peakDetectorSettings.isUseIndividualTraces()) {
-				String classifier = "Trace " + ions.getIonsNominal().iterator().next();
-				for(IChromatogramPeakMSD msd : peaks) {
-					msd.addClassifier(classifier);
-				}
+		IChromatogramMSD chromatogram = chromatogramSelection.getChromatogram();
+		List<IRetentionTimeRange> ranges = getRetentionTimeRanges(chromatogramSelection, noiseSegments);
+		List<IMarkedIons> filterIons = new ArrayList<>(peakDetectorSettings.getFilterIons());
+		SubMonitor subMonitor = SubMonitor.convert(monitor, filterIons.size());
+		/*
+		 * Calculate the noise factor once, before the peaks are validated concurrently.
+		 * The value is cached by the chromatogram.
+		 */
+		chromatogram.getSignalToNoiseRatio(1.0f);
+		//
+		List<List<IChromatogramPeakMSD>> peaksPerIons = stream(filterIons).map(ions -> {
+			List<IChromatogramPeakMSD> peaks = detectPeaks(chromatogram, ranges, peakDetectorSettings, ions);
+			synchronized(subMonitor) {
+				subMonitor.worked(1);
 			}
+			return peaks;
+		}).collect(Collectors.toList());
+		//
+		List<IChromatogramPeakMSD> extractPeaks = new ArrayList<>();
+		for(List<IChromatogramPeakMSD> peaks : peaksPerIons) {
 			extractPeaks.addAll(peaks);
 		}
 		return extractPeaks;
 	}
 
+	private List<IChromatogramPeakMSD> detectPeaks(IChromatogramMSD chromatogram, List<IRetentionTimeRange> ranges, PeakDetectorSettingsMSD peakDetectorSettings, IMarkedIons ions) {
+
+		Threshold threshold = peakDetectorSettings.getThreshold();
+		WindowSize windowSize = peakDetectorSettings.getMovingAverageWindowSize();
+		/*
+		 * The stream keeps the encounter order, hence the raw
+		 * peaks are sorted by the ranges as before.
+		 */
+		List<IRawPeak> rawPeaks = stream(ranges).flatMap(range -> {
+			IFirstDerivativeDetectorSlopes slopes = getFirstDerivativeSlopes(chromatogram, range, windowSize, ions);
+			return getRawPeaks(slopes, threshold, null).stream();
+		}).collect(Collectors.toList());
+		//
+		List<IChromatogramPeakMSD> peaks = extractPeaks(rawPeaks, chromatogram, peakDetectorSettings, ions);
+		if(peakDetectorSettings.isUseIndividualTraces()) {
+			String classifier = "Trace " + ions.getIonsNominal().iterator().next();
+			for(IChromatogramPeakMSD msd : peaks) {
+				msd.addClassifier(classifier);
+			}
+		}
+		return peaks;
+	}
+
+	/**
+	 * Returns the retention time ranges to be evaluated. If noise segments are available,
+	 * the ranges between the noise segments are used.
+	 * | --- [S] --- [N] --- [E] --- |
+	 * The ranges are validated the same way as the chromatogram selection validates its range.
+	 * 
+	 * @param chromatogramSelection
+	 * @param noiseSegments
+	 * @return List<IRetentionTimeRange>
+	 */
+	static List<IRetentionTimeRange> getRetentionTimeRanges(IChromatogramSelectionMSD chromatogramSelection, List<NoiseSegment> noiseSegments) {
+
+		IChromatogramMSD chromatogram = chromatogramSelection.getChromatogram();
+		int startRetentionTime = chromatogramSelection.getStartRetentionTime();
+		int stopRetentionTime = chromatogramSelection.getStopRetentionTime();
+		List<IRetentionTimeRange> ranges = new ArrayList<>();
+		if(noiseSegments != null && noiseSegments.size() > 0) {
+			Iterator<NoiseSegment> iterator = noiseSegments.iterator();
+			NoiseSegment noiseSegment = iterator.next();
+			/*
+			 * Range from the start of the chromatogram selection to the first noise segment
+			 * | --- [S]
+			 */
+			ranges.add(getRetentionTimeRange(chromatogram, startRetentionTime, noiseSegment.getStartRetentionTime()));
+			/*
+			 * Ranges between the noise segments
+			 * [S] --- [N] --- [E]
+			 */
+			while(iterator.hasNext()) {
+				int startRetentionTimeSegment = noiseSegment.getStopRetentionTime();
+				noiseSegment = iterator.next();
+				int stopRetentionTimeSegment = noiseSegment.getStartRetentionTime();
+				ranges.add(getRetentionTimeRange(chromatogram, startRetentionTimeSegment, stopRetentionTimeSegment));
+			}
+			/*
+			 * Range from the last noise segment to the end of the chromatogram selection
+			 * [E] --- |
+			 */
+			ranges.add(getRetentionTimeRange(chromatogram, noiseSegment.getStopRetentionTime(), stopRetentionTime));
+		} else {
+			/*
+			 * Default: no noise segments
+			 */
+			ranges.add(new RetentionTimeRange(startRetentionTime, stopRetentionTime));
+		}
+		return ranges;
+	}
+
+	private <T> Stream<T> stream(List<T> list) {
+
+		return parallel ? list.parallelStream() : list.stream();
+	}
+
+	private static IRetentionTimeRange getRetentionTimeRange(IChromatogramMSD chromatogram, int startRetentionTime, int stopRetentionTime) {
+
+		int start = startRetentionTime;
+		if(start <= 0 || start > stopRetentionTime || start < chromatogram.getStartRetentionTime()) {
+			start = chromatogram.getStartRetentionTime();
+		}
+		int stop = stopRetentionTime;
+		if(stop <= 0 || stop < start || stop > chromatogram.getStopRetentionTime()) {
+			stop = chromatogram.getStopRetentionTime();
+		}
+		return new RetentionTimeRange(start, stop);
+	}
+
 	/**
 	 * Builds from each raw peak a valid {@link IChromatogramPeakMSD} and adds it to the
 	 * chromatogram.
@@ -219,12 +284,13 @@ public class PeakDetectorMSD extends BasePeakDetector implements IPeakDetectorMS
 	 */
 	private List<IChromatogramPeakMSD> extractPeaks(List<IRawPeak> rawPeaks, IChromatogramMSD chromatogram, PeakDetectorSettingsMSD peakDetectorSettings, IMarkedIons ions) {
 
-		List<IChromatogramPeakMSD> peaks = new ArrayList<>();
 		Set<Integer> traces = ions.getIonsNominal().stream().map(e -> e.intValue()).collect(Collectors.toSet());
 		boolean includeBackground = peakDetectorSettings.isIncludeBackground();
 		boolean optimizeBaseline = peakDetectorSettings.isOptimizeBaseline();
-		//
-		for(IRawPeak rawPeak : rawPeaks) {
+		/*
+		 * The peaks are built concurrently, the order of the raw peaks is kept.
+		 */
+		return stream(rawPeaks).map(rawPeak -> {
 			try {
 				/*
 				 * Optimize the scan range.
@@ -244,14 +310,13 @@ public class PeakDetectorMSD extends BasePeakDetector implements IPeakDetectorMS
 					 * Add the detector description.
 					 */
 					peak.setDetectorDescription(DETECTOR_DESCRIPTION);
-					peaks.add(peak);
+					return peak;
 				}
 			} catch(Exception e) {
 				logger.debug(e.getLocalizedMessage());
 			}
-		}
-		//
-		return peaks;
+			return null;
+		}).filter(Objects::nonNull).collect(Collectors.toList());
 	}
 
 	/**
@@ -263,21 +328,32 @@ public class PeakDetectorMSD extends BasePeakDetector implements IPeakDetectorMS
 	 */
 	public static IFirstDerivativeDetectorSlopes getFirstDerivativeSlopes(IChromatogramSelectionMSD chromatogramSelection, WindowSize movingAverageWindowSize, IMarkedIons filterIons) {
 
-		IChromatogramMSD chromatogram = chromatogramSelection.getChromatogram();
+		return getFirstDerivativeSlopes(chromatogramSelection.getChromatogram(), chromatogramSelection, movingAverageWindowSize, filterIons);
+	}
+
+	/**
+	 * Initializes the slope values of the given retention time range.
+	 * The range is not modified, hence several ranges can be evaluated concurrently.
+	 * 
+	 * @param chromatogram
+	 * @param range
+	 * @param movingAverageWindowSize
+	 * @param filterIons
+	 * @return {@link IFirstDerivativeDetectorSlopes}
+	 */
+	public static IFirstDerivativeDetectorSlopes getFirstDerivativeSlopes(IChromatogramMSD chromatogram, IRetentionTimeRange range, WindowSize movingAverageWindowSize, IMarkedIons filterIons) {
+
 		try {
 			ITotalIonSignalExtractor totalIonSignalExtractor = new TotalIonSignalExtractor(chromatogram);
-			ITotalScanSignals signals = totalIonSignalExtractor.getTotalIonSignals(chromatogramSelection, filterIons);
+			int startScan = chromatogram.getScanNumber(range.getStartRetentionTime());
+			int stopScan = chromatogram.getScanNumber(range.getStopRetentionTime());
+			ITotalScanSignals signals = totalIonSignalExtractor.getTotalIonSignals(startScan, stopScan, filterIons);
 			TotalScanSignalsModifier.normalize(signals, NORMALIZATION_BASE);
-			/*
-			 * Get the start and stop scan of the chromatogram selection.
-			 */
-			int startScan = signals.getStartScan();
-			int stopScan = signals.getStopScan();
 			IFirstDerivativeDetectorSlopes slopes = new FirstDerivativeDetectorSlopes(signals);
 			/*
 			 * Fill the slope list.
 			 */
-			for(int scan = startScan; scan < stopScan; scan++) {
+			for(int scan = signals.getStartScan(); scan < signals.getStopScan(); scan++) {
 				ITotalScanSignal s1 = signals.getTotalScanSignal(scan);
 				ITotalScanSignal s2 = signals.getNextTotalScanSignal(scan);
 				if(s1 != null && s2 != null) {
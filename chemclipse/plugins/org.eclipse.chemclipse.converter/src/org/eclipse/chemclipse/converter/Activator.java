@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 Lablicate GmbH.
+ * Copyright (c) 2010, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -11,11 +11,14 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.converter;
 
+import org.eclipse.chemclipse.converter.core.MagicNumberCache;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
 public class Activator implements BundleActivator {
 
+	private static final String MAGIC_NUMBER_CACHE = "MagicNumberCache.txt";
+	//
 	private static BundleContext context;
 
 	public static BundleContext getContext() {
@@ -30,6 +33,7 @@ public class Activator implements BundleActivator {
 	public void start(BundleContext bundleContext) throws Exception {
 
 		Activator.context = bundleContext;
+		MagicNumberCache.load(bundleContext.getDataFile(MAGIC_NUMBER_CACHE));
 	}
 
 	/*
@@ -38,6 +42,7 @@ public class Activator implements BundleActivator {
 	 */
 	public void stop(BundleContext bundleContext) throws Exception {
 
+		MagicNumberCache.save(bundleContext.getDataFile(MAGIC_NUMBER_CACHE));
 		Activator.context = null;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Lablicate GmbH.
+ * Copyright (c) 2018, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -25,6 +25,7 @@ import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.core.IChromatogramOverview;
 import org.eclipse.chemclipse.model.core.IPeak;
 import org.eclipse.chemclipse.processing.DataCategory;
+import org.eclipse.chemclipse.processing.converter.ISupplier;
 import org.eclipse.chemclipse.processing.core.IProcessingInfo;
 import org.eclipse.chemclipse.processing.core.IProcessingMessage;
 import org.eclipse.chemclipse.processing.core.ProcessingInfo;
@@ -173,7 +174,7 @@ public abstract class AbstractChromatogramConverter<P extends IPeak, T extends I
 		IChromatogramConverterSupport converterSupport = getChromatogramConverterSupport();
 		//
 		try {
-			List<String> availableConverterIds = converterSupport.getAvailableConverterIds(file);
+			List<String> availableConverterIds = getAvailableConverterIds(converterSupport, file);
 			exitloop:
 			for(String converterId : availableConverterIds) {
 				/*
@@ -369,6 +370,37 @@ public abstract class AbstractChromatogramConverter<P extends IPeak, T extends I
 		return null;
 	}
 
+	/**
+	 * Returns the ids of the converters that handle the file name.
+	 * The converters whose magic number matches are tried first.
+	 * The verdicts are cached, see {@link org.eclipse.chemclipse.converter.core.MagicNumberCache}.
+	 * If no converter handles the file name, a {@link NoConverterAvailableException} is thrown.
+	 *
+	 * @param converterSupport
+	 * @param file
+	 * @return List<String>
+	 * @throws NoConverterAvailableException
+	 */
+	private List<String> getAvailableConverterIds(IChromatogramConverterSupport converterSupport, File file) throws NoConverterAvailableException {
+
+		List<ISupplier> suppliers = Converter.getSupplierForFile(file, converterSupport.getSupplier());
+		if(suppliers.isEmpty()) {
+			throw new NoConverterAvailableException();
+		}
+		//
+		List<String> matchingConverterIds = new ArrayList<>();
+		List<String> otherConverterIds = new ArrayList<>();
+		for(ISupplier supplier : suppliers) {
+			if(supplier.isMatchMagicNumber(file)) {
+				matchingConverterIds.add(supplier.getId());
+			} else {
+				otherConverterIds.add(supplier.getId());
+			}
+		}
+		matchingConverterIds.addAll(otherConverterIds);
+		return matchingConverterIds;
+	}
+
 	/**
 	 * This method may return null.
 	 *
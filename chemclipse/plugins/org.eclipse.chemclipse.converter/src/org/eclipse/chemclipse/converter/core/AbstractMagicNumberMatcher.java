@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Lablicate GmbH.
+ * Copyright (c) 2016, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -12,15 +12,29 @@
 package org.eclipse.chemclipse.converter.core;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 
 public abstract class AbstractMagicNumberMatcher implements IMagicNumberMatcher {
 
+	/**
+	 * Returns the first bytes of the file. The header is read only once
+	 * for all matchers, see {@link MagicNumberCache#getHeader(File, int)}.
+	 * The array is shorter than the given length if the file is shorter.
+	 * It must not be modified.
+	 *
+	 * @param file
+	 * @param length
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	protected byte[] getHeader(File file, int length) throws IOException {
+
+		return MagicNumberCache.getHeader(file, length);
+	}
+
 	protected boolean checkFileExtension(File file, String extension) {
 
 		return checkFileExtension(file, extension, false);
@@ -42,9 +56,8 @@ public abstract class AbstractMagicNumberMatcher implements IMagicNumberMatcher
 		if(magicCode.length == 0 || file.length() < magicCode.length) {
 			return false;
 		} else {
-			try (InputStream inputStream = new FileInputStream(file)) {
-				byte[] input = new byte[magicCode.length];
-				inputStream.read(input);
+			try {
+				byte[] input = MagicNumberCache.getHeader(file, magicCode.length);
 				return Arrays.equals(input, magicCode);
 			} catch(IOException e) {
 				return false;
@@ -57,9 +70,8 @@ public abstract class AbstractMagicNumberMatcher implements IMagicNumberMatcher
 		if(length <= 0 || indexMap.size() == 0 || file.length() < length) {
 			return false;
 		} else {
-			try (InputStream inputStream = new FileInputStream(file)) {
-				byte[] input = new byte[length];
-				inputStream.read(input);
+			try {
+				byte[] input = MagicNumberCache.getHeader(file, length);
 				Set<Integer> indices = indexMap.keySet();
 				int maxIndex = length - 1;
 				for(int index : indices) {
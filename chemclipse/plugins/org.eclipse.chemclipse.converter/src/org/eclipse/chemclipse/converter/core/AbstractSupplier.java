@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -146,7 +146,7 @@ public abstract class AbstractSupplier implements ISupplierSetter {
 	public boolean isMatchMagicNumber(File file) {
 
 		if(magicNumberMatcher != null) {
-			return magicNumberMatcher.checkFileFormat(file);
+			return MagicNumberCache.checkFileFormat(file, magicNumberMatcher);
 		}
 		return false;
 	}
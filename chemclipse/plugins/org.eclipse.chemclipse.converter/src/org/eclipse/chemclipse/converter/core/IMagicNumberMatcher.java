@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Lablicate GmbH.
+ * Copyright (c) 2016, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -16,4 +16,16 @@ import java.io.File;
 public interface IMagicNumberMatcher {
 
 	boolean checkFileFormat(File file);
+
+	/**
+	 * The verdicts of the matcher are cached per file, see {@link MagicNumberCache}.
+	 * If the check depends on further settings, e.g. preferences, return a key
+	 * of these settings. The cached verdicts are not used if the key changes.
+	 *
+	 * @return String
+	 */
+	default String getSettingsKey() {
+
+		return "";
+	}
 }
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.converter.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.support.files.FileStamp;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Caches the verdicts of the magic number matchers per file, so that
+ * the file explorers and batch jobs don't probe unchanged files again.
+ * A verdict is valid as long as the size and the modification date of the file
+ * and the version of the bundle contributing the matcher are unchanged.
+ * Directories are not cached, as their modification date doesn't reflect changes of the contained files.
+ * The verdicts can be stored persistently, see {@link #load(File)} and {@link #save(File)}.
+ * Additionally, the header bytes of the recently probed files are cached, so that
+ * the matchers extending {@link AbstractMagicNumberMatcher} read a file only once.
+ */
+public final class MagicNumberCache {
+
+	private static final Logger logger = Logger.getLogger(MagicNumberCache.class);
+	//
+	private static final int MAX_VERDICTS = 100000;
+	private static final int MAX_HEADERS = 64;
+	private static final int HEADER_LENGTH = 4096;
+	private static final String DELIMITER = "\t";
+	//
+	private static final Map<String, Verdict> verdicts = new LinkedHashMap<String, Verdict>(1024, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+
+			return size() > MAX_VERDICTS;
+		}
+	};
+	private static final Map<String, Header> headers = new LinkedHashMap<String, Header>(MAX_HEADERS, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Header> eldest) {
+
+			return size() > MAX_HEADERS;
+		}
+	};
+	private static boolean modified = false;
+
+	private MagicNumberCache() {
+	}
+
+	/**
+	 * Returns the cached verdict of the matcher or checks the file.
+	 *
+	 * @param file
+	 * @param magicNumberMatcher
+	 * @return boolean
+	 */
+	public static boolean checkFileFormat(File file, IMagicNumberMatcher magicNumberMatcher) {
+
+		String path = file.getAbsolutePath();
+		String key = getMatcherKey(magicNumberMatcher) + DELIMITER + path;
+		FileStamp fileStamp = new FileStamp(file);
+		if(!fileStamp.exists() || file.isDirectory()) {
+			/*
+			 * The file doesn't exist, is not accessible or is a directory.
+			 */
+			return magicNumberMatcher.checkFileFormat(file);
+		}
+		//
+		synchronized(verdicts) {
+			Verdict verdict = verdicts.get(key);
+			if(verdict != null && verdict.fileStamp.equals(fileStamp)) {
+				return verdict.match;
+			}
+		}
+		/*
+		 * The file is checked outside of the lock, so that
+		 * several matchers can probe files in parallel.
+		 */
+		boolean match = magicNumberMatcher.checkFileFormat(file);
+		synchronized(verdicts) {
+			verdicts.put(key, new Verdict(fileStamp, match));
+			modified = true;
+		}
+		return match;
+	}
+
+	/**
+	 * Returns the first bytes of the file. The array is shorter than
+	 * the given length if the file is shorter. It must not be modified.
+	 *
+	 * @param file
+	 * @param length
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	public static byte[] getHeader(File file, int length) throws IOException {
+
+		String path = file.getAbsolutePath();
+		FileStamp fileStamp = new FileStamp(file);
+		long fileLength = fileStamp.getLength();
+		synchronized(headers) {
+			Header header = headers.get(path);
+			if(header != null && header.fileStamp.equals(fileStamp) && (header.data.length >= length || header.data.length == fileLength)) {
+				return (header.data.length > length) ? Arrays.copyOf(header.data, length) : header.data;
+			}
+		}
+		//
+		byte[] data = new byte[(int)Math.min(fileLength, Math.max(length, HEADER_LENGTH))];
+		int size = 0;
+		try(InputStream inputStream = new FileInputStream(file)) {
+			int read;
+			while(size < data.length && (read = inputStream.read(data, size, data.length - size)) != -1) {
+				size += read;
+			}
+		}
+		if(size < data.length) {
+			data = Arrays.copyOf(data, size);
+		}
+		synchronized(headers) {
+			headers.put(path, new Header(fileStamp, data));
+		}
+		return (data.length > length) ? Arrays.copyOf(data, length) : data;
+	}
+
+	/**
+	 * Discards the verdicts and headers of the file.
+	 *
+	 * @param file
+	 */
+	public static void refresh(File file) {
+
+		String path = file.getAbsolutePath();
+		synchronized(headers) {
+			headers.remove(path);
+		}
+		synchronized(verdicts) {
+			if(verdicts.keySet().removeIf(key -> key.endsWith(DELIMITER + path))) {
+				modified = true;
+			}
+		}
+	}
+
+	/**
+	 * Discards all verdicts and headers.
+	 */
+	public static void clear() {
+
+		synchronized(headers) {
+			headers.clear();
+		}
+		synchronized(verdicts) {
+			verdicts.clear();
+			modified = true;
+		}
+	}
+
+	/**
+	 * Loads the verdicts stored by {@link #save(File)}.
+	 *
+	 * @param file
+	 */
+	public static void load(File file) {
+
+		if(file == null || !file.exists()) {
+			return;
+		}
+		//
+		try(BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			Map<String, Verdict> entries = new LinkedHashMap<>();
+			String line;
+			while((line = reader.readLine()) != null) {
+				/*
+				 * length, last modified, match, matcher, path
+				 */
+				String[] values = line.split(DELIMITER, 5);
+				if(values.length == 5) {
+					try {
+						Verdict verdict = new Verdict(new FileStamp(Long.parseLong(values[0]), Long.parseLong(values[1])), Boolean.parseBoolean(values[2]));
+						entries.put(values[3] + DELIMITER + values[4], verdict);
+					} catch(NumberFormatException e) {
+						logger.warn(e);
+					}
+				}
+			}
+			synchronized(verdicts) {
+				for(Map.Entry<String, Verdict> entry : entries.entrySet()) {
+					verdicts.putIfAbsent(entry.getKey(), entry.getValue());
+				}
+			}
+		} catch(IOException e) {
+			logger.warn(e);
+		}
+	}
+
+	/**
+	 * Stores the verdicts persistently if they have been modified.
+	 *
+	 * @param file
+	 */
+	public static void save(File file) {
+
+		if(file == null) {
+			return;
+		}
+		//
+		Map<String, Verdict> entries;
+		synchronized(verdicts) {
+			if(!modified) {
+				return;
+			}
+			entries = new LinkedHashMap<>(verdicts);
+			modified = false;
+		}
+		//
+		try(BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			for(Map.Entry<String, Verdict> entry : entries.entrySet()) {
+				if(entry.getKey().indexOf('\n') >= 0 || entry.getKey().indexOf('\r') >= 0) {
+					continue;
+				}
+				Verdict verdict = entry.getValue();
+				writer.write(Long.toString(verdict.fileStamp.getLength()));
+				writer.write(DELIMITER);
+				writer.write(Long.toString(verdict.fileStamp.getLastModified()));
+				writer.write(DELIMITER);
+				writer.write(Boolean.toString(verdict.match));
+				writer.write(DELIMITER);
+				writer.write(entry.getKey());
+				writer.newLine();
+			}
+		} catch(IOException e) {
+			logger.warn(e);
+		}
+	}
+
+	private static String getMatcherKey(IMagicNumberMatcher magicNumberMatcher) {
+
+		Class<?> matcherClass = magicNumberMatcher.getClass();
+		String matcherKey = matcherClass.getName();
+		Bundle bundle = FrameworkUtil.getBundle(matcherClass);
+		if(bundle != null) {
+			matcherKey += "@" + bundle.getVersion();
+		}
+		String settingsKey = magicNumberMatcher.getSettingsKey();
+		if(settingsKey != null && !settingsKey.isEmpty()) {
+			matcherKey += "#" + settingsKey.replace(DELIMITER, " ");
+		}
+		return matcherKey;
+	}
+
+	private static final class Verdict {
+
+		private final FileStamp fileStamp;
+		private final boolean match;
+
+		public Verdict(FileStamp fileStamp, boolean match) {
+			this.fileStamp = fileStamp;
+			this.match = match;
+		}
+	}
+
+	private static final class Header {
+
+		private final FileStamp fileStamp;
+		private final byte[] data;
+
+		public Header(FileStamp fileStamp, byte[] data) {
+			this.fileStamp = fileStamp;
+			this.data = data;
+		}
+	}
+}
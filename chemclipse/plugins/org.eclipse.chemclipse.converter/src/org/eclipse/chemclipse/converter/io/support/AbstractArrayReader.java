@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -15,12 +15,18 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.chemclipse.converter.io.streams.DataInputStream;
 import org.eclipse.chemclipse.logging.core.Logger;
 
+/**
+ * Reads the data from a byte array, which contains the complete file.
+ * Files larger than 2 GB can't be loaded, use the {@link AbstractMappedArrayReader} instead.
+ */
 public abstract class AbstractArrayReader implements IArrayReader {
 
 	private static final Logger logger = Logger.getLogger(AbstractArrayReader.class);
@@ -41,11 +47,25 @@ public abstract class AbstractArrayReader implements IArrayReader {
 
 	private byte[] getByteArrayFromFile(File file) throws FileNotFoundException, IOException {
 
-		int length = (int)file.length();
+		long size = file.length();
+		if(size > Integer.MAX_VALUE) {
+			throw new IOException("The file " + file + " is too large to be loaded into an array. Use a mapped array reader instead.");
+		}
+		int length = (int)size;
 		byte[] data = new byte[length];
-		DataInputStream is = new DataInputStream(file);
-		is.read(data);
-		is.close();
+		try(DataInputStream is = new DataInputStream(file)) {
+			/*
+			 * Read the file completely, a single read call may return less bytes.
+			 */
+			int offset = 0;
+			while(offset < length) {
+				int count = is.read(data, offset, length - offset);
+				if(count < 0) {
+					break;
+				}
+				offset += count;
+			}
+		}
 		return data;
 	}
 
@@ -215,11 +235,10 @@ public abstract class AbstractArrayReader implements IArrayReader {
 		if(numBytes <= 0 || numBytes > 8) {
 			return 0;
 		}
-		byte[] tmp = getByteArray(numBytes);
 		long result = 0;
 		int shift = 0;
 		for(int i = 0; i < numBytes; i++) {
-			result |= (tmp[i] & 0xFFL) << shift;
+			result |= (data[position++] & 0xFFL) << shift;
 			shift += 8;
 		}
 		return result;
@@ -237,6 +256,24 @@ public abstract class AbstractArrayReader implements IArrayReader {
 		return Double.longBitsToDouble(read8BLongLE());
 	}
 
+	@Override
+	public void read4BIntegersLE(int[] values) {
+
+		getByteBuffer(values.length * 4, ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+	}
+
+	@Override
+	public void read4BFloatsLE(float[] values) {
+
+		getByteBuffer(values.length * 4, ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values);
+	}
+
+	@Override
+	public void read8BDoublesLE(double[] values) {
+
+		getByteBuffer(values.length * 8, ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+	}
+
 	/*
 	 * BIG ENDIAN------------------------------------------------------------
 	 */
@@ -314,11 +351,10 @@ public abstract class AbstractArrayReader implements IArrayReader {
 		if(numBytes <= 0 || numBytes > 8) {
 			return 0;
 		}
-		byte[] tmp = getByteArray(numBytes);
 		long result = 0;
 		int shift = (numBytes - 1) * 8;
 		for(int i = 0; i < numBytes; i++) {
-			result |= (tmp[i] & 0xFFL) << shift;
+			result |= (data[position++] & 0xFFL) << shift;
 			shift -= 8;
 		}
 		return result;
@@ -342,6 +378,24 @@ public abstract class AbstractArrayReader implements IArrayReader {
 		return Double.longBitsToDouble(read8BLongBE());
 	}
 
+	@Override
+	public void read4BIntegersBE(int[] values) {
+
+		getByteBuffer(values.length * 4, ByteOrder.BIG_ENDIAN).asIntBuffer().get(values);
+	}
+
+	@Override
+	public void read4BFloatsBE(float[] values) {
+
+		getByteBuffer(values.length * 4, ByteOrder.BIG_ENDIAN).asFloatBuffer().get(values);
+	}
+
+	@Override
+	public void read8BDoublesBE(double[] values) {
+
+		getByteBuffer(values.length * 8, ByteOrder.BIG_ENDIAN).asDoubleBuffer().get(values);
+	}
+
 	/*
 	 * MIDDLE ENDIAN------------------------------------------------------------
 	 */
@@ -435,28 +489,37 @@ public abstract class AbstractArrayReader implements IArrayReader {
 	private byte[] getByteArray(int count) {
 
 		byte[] tmp = new byte[count];
-		for(int i = 0; i < count; i++) {
-			tmp[i] = data[position++];
-		}
+		System.arraycopy(data, position, tmp, 0, count);
+		position += count;
 		return tmp;
 	}
 
+	/**
+	 * Returns a view on the next count bytes and moves the position behind them.
+	 * 
+	 * @param count
+	 * @param byteOrder
+	 * @return {@link ByteBuffer}
+	 */
+	private ByteBuffer getByteBuffer(int count, ByteOrder byteOrder) {
+
+		ByteBuffer byteBuffer = ByteBuffer.wrap(data, position, count).slice().order(byteOrder);
+		position += count;
+		return byteBuffer;
+	}
+
 	private byte[] getByteArray(byte[] prefix, int count) {
 
 		byte[] tmp = new byte[prefix.length + count];
-		int i = 0;
 		/*
 		 * Prefix
 		 */
-		for(int j = 0; j < prefix.length; j++) {
-			tmp[i++] = prefix[j];
-		}
+		System.arraycopy(prefix, 0, tmp, 0, prefix.length);
 		/*
 		 * Data
 		 */
-		for(int j = 0; j < count; j++) {
-			tmp[i++] = data[position++];
-		}
+		System.arraycopy(data, position, tmp, prefix.length, count);
+		position += count;
 		return tmp;
 	}
 
@@ -0,0 +1,638 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.converter.io.support;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+
+/**
+ * Reads the data from a memory mapped file, hence the file is not copied into the heap
+ * and the data is read from the page cache on demand.<br/>
+ * The file is mapped in segments, so that files larger than 2 GB can be read too.
+ * Use {@link #getSize()}, {@link #getOffset()} and {@link #seek(long)} to address such files,
+ * the int based methods of {@link IArrayReader} throw an ArithmeticException if the value exceeds the int range.<br/>
+ * The reader must be closed after usage.
+ */
+public abstract class AbstractMappedArrayReader implements IArrayReader, Closeable {
+
+	private static final Logger logger = Logger.getLogger(AbstractMappedArrayReader.class);
+	//
+	private static final int SEGMENT_SHIFT = 30;
+	private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT; // 1 GB
+	private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+	//
+	private final FileChannel fileChannel;
+	private final ByteBuffer[] segmentsLE;
+	private final ByteBuffer[] segmentsBE;
+	private final long size;
+	private long position;
+	private Map<Byte, String> charMap = new HashMap<>();
+
+	public AbstractMappedArrayReader(File file) throws FileNotFoundException, IOException {
+		if(!file.exists()) {
+			throw new FileNotFoundException(file.getAbsolutePath());
+		}
+		fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			size = fileChannel.size();
+			int numberOfSegments = (int)((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+			segmentsLE = new ByteBuffer[numberOfSegments];
+			segmentsBE = new ByteBuffer[numberOfSegments];
+			for(int i = 0; i < numberOfSegments; i++) {
+				long offset = i * SEGMENT_SIZE;
+				MappedByteBuffer segment = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, size - offset));
+				segmentsLE[i] = segment.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+				segmentsBE[i] = segment.duplicate().order(ByteOrder.BIG_ENDIAN);
+			}
+		} catch(IOException e) {
+			fileChannel.close();
+			throw e;
+		}
+		position = 0;
+		//
+		charMap.put((byte)-60, "Ä");
+		charMap.put((byte)-42, "Ö");
+		charMap.put((byte)-36, "Ü");
+		charMap.put((byte)-28, "ä");
+		charMap.put((byte)-10, "ö");
+		charMap.put((byte)-4, "ü");
+	}
+
+	/**
+	 * Closes the file. The mapped segments are released by the garbage collector.
+	 */
+	@Override
+	public void close() throws IOException {
+
+		fileChannel.close();
+	}
+
+	/**
+	 * Total number of bytes of the file.
+	 *
+	 * @return long
+	 */
+	public long getSize() {
+
+		return size;
+	}
+
+	/**
+	 * Returns the current position in the file.
+	 *
+	 * @return long
+	 */
+	public long getOffset() {
+
+		return position;
+	}
+
+	/**
+	 * Moves to the given position.
+	 * The position must be >= 0.
+	 *
+	 * @param position
+	 */
+	public void seek(long position) {
+
+		if(position >= 0) {
+			this.position = position;
+		}
+	}
+
+	@Override
+	public int getLength() {
+
+		return Math.toIntExact(size);
+	}
+
+	@Override
+	public int getPosition() {
+
+		return Math.toIntExact(position);
+	}
+
+	@Override
+	public void increasePosition() {
+
+		position++;
+	}
+
+	@Override
+	public void decreasePosition() {
+
+		position--;
+	}
+
+	@Override
+	public void resetPosition() {
+
+		position = 0;
+	}
+
+	@Override
+	public void seek(int position) {
+
+		if(position > 0) {
+			this.position = position;
+		}
+	}
+
+	@Override
+	public byte readByte() {
+
+		byte value = getByte(position);
+		position++;
+		return value;
+	}
+
+	@Override
+	public byte[] readBytes(int i) {
+
+		return readBytes(new byte[0], i);
+	}
+
+	@Override
+	public byte[] readBytes(byte[] prefix, int i) {
+
+		byte[] tmp = new byte[prefix.length + i];
+		System.arraycopy(prefix, 0, tmp, 0, prefix.length);
+		int offset = prefix.length;
+		while(offset < tmp.length) {
+			ByteBuffer segment = getSegment(segmentsBE, position);
+			int count = Math.min(tmp.length - offset, segment.remaining());
+			segment.get(tmp, offset, count);
+			offset += count;
+			position += count;
+		}
+		return tmp;
+	}
+
+	@Override
+	public void skipBytes(int i) {
+
+		position += i;
+	}
+
+	/*
+	 * LITTLE ENDIAN------------------------------------------------------------
+	 */
+	@Override
+	public short read1BUShortLE() {
+
+		return (short)(readByte() & 0xFF);
+	}
+
+	@Override
+	public int read2BUIntegerLE() {
+
+		return read2BShortLE() & 0xFFFF;
+	}
+
+	@Override
+	public long read4BULongLE() {
+
+		return read4BIntegerLE() & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public long read8BULongLE() {
+
+		return read8BLongLE() & 0x7FFFFFFFFFFFFFFFL;
+	}
+
+	@Override
+	public float read4BUFloatLE() {
+
+		return Float.intBitsToFloat((int)read4BULongLE());
+	}
+
+	@Override
+	public short read1BShortLE() {
+
+		return readByte();
+	}
+
+	@Override
+	public short read2BShortLE() {
+
+		return (short)readLong(2, segmentsLE);
+	}
+
+	@Override
+	public int read2BIntegerLE() {
+
+		return read2BShortLE();
+	}
+
+	@Override
+	public int read4BIntegerLE() {
+
+		return (int)readLong(4, segmentsLE);
+	}
+
+	@Override
+	public long read4BLongLE() {
+
+		return read4BIntegerLE();
+	}
+
+	@Override
+	public long read8BLongLE() {
+
+		return readLong(8, segmentsLE);
+	}
+
+	@Override
+	public float read4BFloatLE() {
+
+		return Float.intBitsToFloat(read4BIntegerLE());
+	}
+
+	@Override
+	public long readULongLE(int numBytes) {
+
+		long value = readLongLE(numBytes);
+		return value & 0x7FFFFFFFFFFFFFFFL;
+	}
+
+	@Override
+	public long readLongLE(int numBytes) {
+
+		if(numBytes <= 0 || numBytes > 8) {
+			return 0;
+		}
+		long result = 0;
+		int shift = 0;
+		for(int i = 0; i < numBytes; i++) {
+			result |= (readByte() & 0xFFL) << shift;
+			shift += 8;
+		}
+		return result;
+	}
+
+	@Override
+	public double read8BUDoubleLE() {
+
+		return Double.longBitsToDouble(read8BULongLE());
+	}
+
+	@Override
+	public double read8BDoubleLE() {
+
+		return Double.longBitsToDouble(read8BLongLE());
+	}
+
+	@Override
+	public void read4BIntegersLE(int[] values) {
+
+		readIntegers(values, segmentsLE);
+	}
+
+	@Override
+	public void read4BFloatsLE(float[] values) {
+
+		readFloats(values, segmentsLE);
+	}
+
+	@Override
+	public void read8BDoublesLE(double[] values) {
+
+		readDoubles(values, segmentsLE);
+	}
+
+	/*
+	 * BIG ENDIAN------------------------------------------------------------
+	 */
+	@Override
+	public short read1BUShortBE() {
+
+		return (short)(readByte() & 0xFF);
+	}
+
+	@Override
+	public int read2BUIntegerBE() {
+
+		return read2BShortBE() & 0xFFFF;
+	}
+
+	@Override
+	public long read4BULongBE() {
+
+		return read4BIntegerBE() & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public long read8BULongBE() {
+
+		return read8BLongBE() & 0x7FFFFFFFFFFFFFFFL;
+	}
+
+	@Override
+	public short read1BShortBE() {
+
+		return readByte();
+	}
+
+	@Override
+	public short read2BShortBE() {
+
+		return (short)readLong(2, segmentsBE);
+	}
+
+	@Override
+	public int read2BIntegerBE() {
+
+		return read2BShortBE();
+	}
+
+	@Override
+	public int read4BIntegerBE() {
+
+		return (int)readLong(4, segmentsBE);
+	}
+
+	@Override
+	public long read4BLongBE() {
+
+		return read4BIntegerBE();
+	}
+
+	@Override
+	public long read8BLongBE() {
+
+		return readLong(8, segmentsBE);
+	}
+
+	@Override
+	public long readULongBE(int numBytes) {
+
+		long value = readLongBE(numBytes);
+		return value & 0x7FFFFFFFFFFFFFFFL;
+	}
+
+	@Override
+	public long readLongBE(int numBytes) {
+
+		if(numBytes <= 0 || numBytes > 8) {
+			return 0;
+		}
+		long result = 0;
+		int shift = (numBytes - 1) * 8;
+		for(int i = 0; i < numBytes; i++) {
+			result |= (readByte() & 0xFFL) << shift;
+			shift -= 8;
+		}
+		return result;
+	}
+
+	@Override
+	public float read4BFloatBE() {
+
+		return Float.intBitsToFloat(read4BIntegerBE());
+	}
+
+	@Override
+	public double read8BUDoubleBE() {
+
+		return Double.longBitsToDouble(read8BULongBE());
+	}
+
+	@Override
+	public double read8BDoubleBE() {
+
+		return Double.longBitsToDouble(read8BLongBE());
+	}
+
+	@Override
+	public void read4BIntegersBE(int[] values) {
+
+		readIntegers(values, segmentsBE);
+	}
+
+	@Override
+	public void read4BFloatsBE(float[] values) {
+
+		readFloats(values, segmentsBE);
+	}
+
+	@Override
+	public void read8BDoublesBE(double[] values) {
+
+		readDoubles(values, segmentsBE);
+	}
+
+	/*
+	 * MIDDLE ENDIAN------------------------------------------------------------
+	 */
+	/**
+	 * Reads 4 bytes as Middle Endian.<br/>
+	 * A B C D -> B A D C
+	 *
+	 * @return long
+	 */
+	@Override
+	public int read4BUIntegerME() {
+
+		byte[] tmp = readBytes(4);
+		return (int)(((tmp[0] & 0xFF) << 16) | ((tmp[1] & 0x7F) << 24) | (tmp[2] & 0xFF) | ((tmp[3] & 0xFF) << 8));
+	}
+
+	/**
+	 * Reads 4 bytes as Middle Endian.<br/>
+	 * A B C D -> B A D C
+	 *
+	 * @return long
+	 */
+	@Override
+	public long read4BULongME() {
+
+		byte[] tmp = readBytes(4);
+		return ((tmp[0] & 0xFFL) << 16) | ((tmp[1] & 0xFFL) << 24) | (tmp[2] & 0xFFL) | ((tmp[3] & 0xFFL) << 8);
+	}
+
+	// ------------------------------------------------------------------------------
+	@Override
+	public String readBytesAsStringWithLengthIndex(int readBytes) {
+
+		/*
+		 * The first byte defines the length of the string.
+		 */
+		int length = readByte();
+		byte[] tmp = readBytes(readBytes);
+		byte[] bytes = new byte[length];
+		System.arraycopy(tmp, 0, bytes, 0, length);
+		//
+		StringBuilder builder = new StringBuilder();
+		for(byte b : bytes) {
+			if(charMap.containsKey(b)) {
+				builder.append(charMap.get(b));
+			} else {
+				builder.append((char)b);
+			}
+		}
+		//
+		return builder.toString().trim();
+	}
+
+	@Override
+	public String readBytesAsString(int readBytes) {
+
+		return new String(readBytes(readBytes));
+	}
+
+	@Override
+	public String readString(int readBytes) {
+
+		StringBuilder builder = new StringBuilder();
+		for(int i = 1; i <= readBytes; i++) {
+			int value = readByte();
+			if(value > 0) {
+				builder.append((char)value);
+			}
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String readString(int readBytes, String charsetName) {
+
+		byte[] data = readBytes(readBytes);
+		String result = "";
+		try {
+			result = new String(data, charsetName);
+		} catch(UnsupportedEncodingException e) {
+			logger.warn(e);
+		}
+		//
+		return result;
+	}
+
+	private byte getByte(long position) {
+
+		checkPosition(position, 1);
+		return segmentsBE[(int)(position >>> SEGMENT_SHIFT)].get((int)(position & SEGMENT_MASK));
+	}
+
+	/**
+	 * Reads a value with the given number of bytes (2, 4 or 8) in the byte order of the segments.
+	 * Values that span two segments are assembled byte by byte.
+	 */
+	private long readLong(int numBytes, ByteBuffer[] segments) {
+
+		checkPosition(position, numBytes);
+		int index = (int)(position & SEGMENT_MASK);
+		ByteBuffer segment = segments[(int)(position >>> SEGMENT_SHIFT)];
+		if(index + numBytes <= segment.limit()) {
+			position += numBytes;
+			switch(numBytes) {
+				case 2:
+					return segment.getShort(index);
+				case 4:
+					return segment.getInt(index);
+				default:
+					return segment.getLong(index);
+			}
+		}
+		//
+		if(segments == segmentsLE) {
+			long value = readLongLE(numBytes);
+			return (numBytes == 2) ? (short)value : (numBytes == 4) ? (int)value : value;
+		} else {
+			long value = readLongBE(numBytes);
+			return (numBytes == 2) ? (short)value : (numBytes == 4) ? (int)value : value;
+		}
+	}
+
+	private void readIntegers(int[] values, ByteBuffer[] segments) {
+
+		checkPosition(position, values.length * 4L);
+		int offset = 0;
+		while(offset < values.length) {
+			ByteBuffer segment = getSegment(segments, position);
+			int count = Math.min(values.length - offset, segment.remaining() / 4);
+			if(count > 0) {
+				segment.asIntBuffer().get(values, offset, count);
+				offset += count;
+				position += count * 4L;
+			} else {
+				values[offset++] = (int)readLong(4, segments);
+			}
+		}
+	}
+
+	private void readFloats(float[] values, ByteBuffer[] segments) {
+
+		checkPosition(position, values.length * 4L);
+		int offset = 0;
+		while(offset < values.length) {
+			ByteBuffer segment = getSegment(segments, position);
+			int count = Math.min(values.length - offset, segment.remaining() / 4);
+			if(count > 0) {
+				segment.asFloatBuffer().get(values, offset, count);
+				offset += count;
+				position += count * 4L;
+			} else {
+				values[offset++] = Float.intBitsToFloat((int)readLong(4, segments));
+			}
+		}
+	}
+
+	private void readDoubles(double[] values, ByteBuffer[] segments) {
+
+		checkPosition(position, values.length * 8L);
+		int offset = 0;
+		while(offset < values.length) {
+			ByteBuffer segment = getSegment(segments, position);
+			int count = Math.min(values.length - offset, segment.remaining() / 8);
+			if(count > 0) {
+				segment.asDoubleBuffer().get(values, offset, count);
+				offset += count;
+				position += count * 8L;
+			} else {
+				values[offset++] = Double.longBitsToDouble(readLong(8, segments));
+			}
+		}
+	}
+
+	/**
+	 * Returns a view of the segment, which starts at the given position.
+	 * The byte order of the view is kept.
+	 */
+	private ByteBuffer getSegment(ByteBuffer[] segments, long position) {
+
+		checkPosition(position, 1);
+		ByteBuffer segment = segments[(int)(position >>> SEGMENT_SHIFT)];
+		ByteBuffer view = segment.duplicate().order(segment.order());
+		view.position((int)(position & SEGMENT_MASK));
+		return view.slice().order(segment.order());
+	}
+
+	private void checkPosition(long position, long numBytes) {
+
+		if(position < 0 || position + numBytes > size) {
+			throw new IndexOutOfBoundsException("The position " + position + " + " + numBytes + " bytes exceeds the size " + size + ".");
+		}
+	}
+}
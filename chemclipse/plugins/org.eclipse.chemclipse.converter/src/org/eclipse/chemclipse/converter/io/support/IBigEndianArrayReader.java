@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -74,4 +74,28 @@ public interface IBigEndianArrayReader {
 	double read8BUDoubleBE();
 
 	double read8BDoubleBE();
+
+	/*
+	 * Arrays Big Endian
+	 */
+	/**
+	 * Reads values.length signed 4 byte integers at once.
+	 * 
+	 * @param values
+	 */
+	void read4BIntegersBE(int[] values);
+
+	/**
+	 * Reads values.length 4 byte floats at once.
+	 * 
+	 * @param values
+	 */
+	void read4BFloatsBE(float[] values);
+
+	/**
+	 * Reads values.length 8 byte doubles at once.
+	 * 
+	 * @param values
+	 */
+	void read8BDoublesBE(double[] values);
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -76,4 +76,28 @@ public interface ILittleEndianArrayReader {
 	double read8BUDoubleLE();
 
 	double read8BDoubleLE();
+
+	/*
+	 * Arrays Little Endian
+	 */
+	/**
+	 * Reads values.length signed 4 byte integers at once.
+	 * 
+	 * @param values
+	 */
+	void read4BIntegersLE(int[] values);
+
+	/**
+	 * Reads values.length 4 byte floats at once.
+	 * 
+	 * @param values
+	 */
+	void read4BFloatsLE(float[] values);
+
+	/**
+	 * Reads values.length 8 byte doubles at once.
+	 * 
+	 * @param values
+	 */
+	void read8BDoublesLE(double[] values);
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Lablicate GmbH.
+ * Copyright (c) 2018, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -14,6 +14,7 @@ package org.eclipse.chemclipse.converter.methods;
 import java.io.File;
 
 import org.eclipse.chemclipse.converter.core.IMagicNumberMatcher;
+import org.eclipse.chemclipse.converter.core.MagicNumberCache;
 import org.eclipse.chemclipse.processing.converter.ISupplier;
 
 public class MethodSupplier implements IMethodSupplierSetter {
@@ -104,7 +105,7 @@ public class MethodSupplier implements IMethodSupplierSetter {
 	public boolean isMatchMagicNumber(File file) {
 
 		if(magicNumberMatcher != null) {
-			return magicNumberMatcher.checkFileFormat(file);
+			return MagicNumberCache.checkFileFormat(file, magicNumberMatcher);
 		}
 		return false;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -21,7 +21,6 @@ import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
 import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
 import org.eclipse.chemclipse.csd.converter.io.AbstractChromatogramCSDReader;
 import org.eclipse.chemclipse.csd.converter.supplier.arw.io.support.ChromatogramArrayReader;
-import org.eclipse.chemclipse.csd.converter.supplier.arw.io.support.IChromatogramArrayReader;
 import org.eclipse.chemclipse.csd.converter.supplier.arw.model.IVendorChromatogram;
 import org.eclipse.chemclipse.csd.converter.supplier.arw.model.IVendorScan;
 import org.eclipse.chemclipse.csd.converter.supplier.arw.model.VendorChromatogram;
@@ -55,8 +54,10 @@ public class ChromatogramReader extends AbstractChromatogramCSDReader {
 		chromatogram.setFile(file);
 		chromatogram.setConverterId("");
 		//
-		IChromatogramArrayReader in = new ChromatogramArrayReader(file);
-		String input = in.readBytesAsString(in.getLength());
+		String input;
+		try(ChromatogramArrayReader in = new ChromatogramArrayReader(file)) {
+			input = in.readBytesAsString(in.getLength());
+		}
 		Matcher matcher = scanPattern.matcher(input);
 		while(matcher.find()) {
 			String retentionTimeInMinutes = matcher.group(1).replace(",", ".");
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -15,9 +15,9 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
-import org.eclipse.chemclipse.converter.io.support.AbstractArrayReader;
+import org.eclipse.chemclipse.converter.io.support.AbstractMappedArrayReader;
 
-public class ChromatogramArrayReader extends AbstractArrayReader implements IChromatogramArrayReader {
+public class ChromatogramArrayReader extends AbstractMappedArrayReader implements IChromatogramArrayReader {
 
 	public ChromatogramArrayReader(File file) throws FileNotFoundException, IOException {
 		super(file);
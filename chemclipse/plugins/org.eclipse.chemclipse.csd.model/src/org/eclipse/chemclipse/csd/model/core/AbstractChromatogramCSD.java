@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2019 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -12,7 +12,10 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.csd.model.core;
 
+import java.util.Objects;
+
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.INoiseCalculator;
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCache;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCalculator;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.csd.model.core.selection.ChromatogramSelectionCSD;
@@ -28,6 +31,7 @@ public abstract class AbstractChromatogramCSD extends AbstractChromatogram<IChro
 	private static final long serialVersionUID = -1514838958855146167L;
 	//
 	private INoiseCalculator noiseCalculator;
+	private String noiseCalculatorId;
 
 	public AbstractChromatogramCSD() {
 		updateNoiseCalculator();
@@ -42,7 +46,14 @@ public abstract class AbstractChromatogramCSD extends AbstractChromatogram<IChro
 		} else {
 			noiseCalculatorId = PreferenceSupplier.getSelectedNoiseCalculatorId();
 		}
-		noiseCalculator = NoiseCalculator.getNoiseCalculator(noiseCalculatorId);
+		/*
+		 * The noise factors are cached by the NoiseCache, hence the
+		 * calculator needs to be replaced only if another one is selected.
+		 */
+		if(noiseCalculator == null || !Objects.equals(noiseCalculatorId, this.noiseCalculatorId)) {
+			noiseCalculator = NoiseCalculator.getNoiseCalculator(noiseCalculatorId);
+			this.noiseCalculatorId = noiseCalculatorId;
+		}
 	}
 
 	@Override
@@ -109,6 +120,9 @@ public abstract class AbstractChromatogramCSD extends AbstractChromatogram<IChro
 	public void addMeasurementResult(IMeasurementResult<?> chromatogramResult) {
 
 		super.addMeasurementResult(chromatogramResult);
+		if(chromatogramResult instanceof ChromatogramSegmentation || chromatogramResult instanceof NoiseSegmentMeasurementResult) {
+			NoiseCache.clear(this);
+		}
 		if(chromatogramResult instanceof NoiseSegmentMeasurementResult) {
 			recalculateTheNoiseFactor();
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 Lablicate GmbH.
+ * Copyright (c) 2014, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -42,6 +42,7 @@ public class ScanCSD extends AbstractScanCSD {
 	public void adjustTotalSignal(float totalSignal) {
 
 		this.totalSignal = totalSignal;
+		invalidateSignalStatistics();
 	}
 
 	private void setTotalSignal(float totalSignal) {
@@ -41,8 +41,10 @@ import org.eclipse.chemclipse.model.selection.IChromatogramSelection;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignalExtractor;
 import org.eclipse.chemclipse.model.signals.ITotalScanSignals;
 import org.eclipse.chemclipse.model.signals.TotalScanSignalExtractor;
+import org.eclipse.chemclipse.model.support.IScanRange;
 import org.eclipse.chemclipse.model.updates.IChromatogramUpdateListener;
 import org.eclipse.chemclipse.model.versioning.IVersionManagement;
+import org.eclipse.chemclipse.model.versioning.ScanRevisionStore;
 import org.eclipse.chemclipse.model.versioning.VersionManagement;
 import org.eclipse.chemclipse.support.history.EditHistory;
 import org.eclipse.chemclipse.support.history.EditInformation;
@@ -92,6 +94,22 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 	 * Store all scans in this list.<br/>
 	 */
 	private final List<IScan> scans = new ArrayList<>();
+	/*
+	 * The retention time index is created lazily and
+	 * discarded when the scans have been modified.
+	 */
+	private transient volatile RetentionTimeIndex retentionTimeIndex = null;
+	/*
+	 * The signal statistics are calculated lazily and discarded
+	 * when the chromatogram or one of its scans has been modified.
+	 */
+	private transient volatile SignalStatistics signalStatistics = null;
+	/*
+	 * Incremented each time the signal statistics are discarded. Caches of derived
+	 * values, e.g. the noise factor, compare it to detect modifications.
+	 * Concurrent increments may collapse into one, which still marks a modification.
+	 */
+	private transient volatile int modificationCount = 0;
 	/*
 	 * Some vendors store several chromatograms in one file.
 	 */
@@ -231,23 +249,10 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		}
 	}
 
-	// TODO optimieren - verbraucht zu viel Prozessorzeit
 	@Override
 	public float getMinSignal() {
 
-		float minSignal = Float.MAX_VALUE;
-		float actSignal = 0.0f;
-		if(getNumberOfScans() < 1) {
-			return 0;
-		}
-		/*
-		 * Do the for loop if at least one scan exists.
-		 */
-		for(IScan scan : getScans()) {
-			actSignal = scan.getTotalSignal();
-			minSignal = (minSignal > actSignal) ? actSignal : minSignal;
-		}
-		return minSignal;
+		return getSignalStatistics().minSignal;
 	}
 
 	@Override
@@ -256,10 +261,20 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		return getMaxSignal(containsScanCycles());
 	}
 
-	// TODO optimieren - verbraucht zu viel Prozessorzeit
 	@Override
 	public float getMaxSignal(boolean condenseCycleNumberScans) {
 
+		SignalStatistics statistics = getSignalStatistics();
+		float maxSignal = statistics.getMaxSignal(condenseCycleNumberScans);
+		if(Float.isNaN(maxSignal)) {
+			maxSignal = calculateMaxSignal(condenseCycleNumberScans);
+			statistics.setMaxSignal(condenseCycleNumberScans, maxSignal);
+		}
+		return maxSignal;
+	}
+
+	private float calculateMaxSignal(boolean condenseCycleNumberScans) {
+
 		float maxSignal = 0;
 		if(getNumberOfScans() >= 1) {
 			/*
@@ -333,46 +348,114 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		if(retentionTime == getStopRetentionTime()) {
 			return getNumberOfScans();
 		}
-		/*
-		 * Calculate the scan number starting point to not iterate through all
-		 * getScans().
-		 */
-		// TODO optimize!! It doesn't work if the scan intervals are not equal of length!!
-		/*
-		 * int startScan = (retentionTime - getScanDelay()) / scanInterval - 1;
-		 * if(startScan < 1) {
-		 * startScan = 1;
-		 * }
-		 */
-		// TODO optimieren? Collections.binarySearch?
-		for(int scan = 1; scan <= getNumberOfScans(); scan++) {
-			if(getScan(scan).getRetentionTime() > retentionTime) {
-				return --scan;
-			}
+		RetentionTimeIndex index = getRetentionTimeIndex();
+		int scanNumber = index.getScanNumber(retentionTime);
+		if(index.isRetentionTimesSorted() && !isScanNumberValid(scanNumber, retentionTime)) {
+			/*
+			 * The retention times have been modified without notification.
+			 */
+			invalidateRetentionTimeIndex();
+			scanNumber = getRetentionTimeIndex().getScanNumber(retentionTime);
 		}
-		/*
-		 * If there was no fit, return 0.
-		 */
-		return 0;
+		return scanNumber;
 	}
 
 	@Override
-	public float getTotalSignal() {
+	public IScanRange getScanRange(int startRetentionTime, int stopRetentionTime) {
 
-		float totalSignal = 0.0f;
-		/*
-		 * If there is no scan stored, return 0;
-		 */
-		if(getNumberOfScans() < 1) {
-			return 0;
+		RetentionTimeIndex index = getRetentionTimeIndex();
+		IScanRange scanRange = index.getScanRange(startRetentionTime, stopRetentionTime);
+		if(index.isRetentionTimesSorted() && scanRange != null && !isScanRangeValid(scanRange, startRetentionTime, stopRetentionTime)) {
+			invalidateRetentionTimeIndex();
+			scanRange = getRetentionTimeIndex().getScanRange(startRetentionTime, stopRetentionTime);
 		}
-		/*
-		 * Do the for loop if at least one scan exists.
-		 */
-		for(IScan scan : getScans()) {
-			totalSignal += scan.getTotalSignal();
+		return scanRange;
+	}
+
+	@Override
+	public RetentionTimeIndex getRetentionTimeIndex() {
+
+		RetentionTimeIndex index = retentionTimeIndex;
+		List<IScan> scans = getScans();
+		if(index == null || index.size() != scans.size()) {
+			index = new RetentionTimeIndex(scans);
+			retentionTimeIndex = index;
+		}
+		return index;
+	}
+
+	@Override
+	public void invalidateRetentionTimeIndex() {
+
+		retentionTimeIndex = null;
+	}
+
+	@Override
+	public void invalidateSignalStatistics() {
+
+		signalStatistics = null;
+		modificationCount++;
+	}
+
+	@Override
+	public int getModificationCount() {
+
+		return modificationCount;
+	}
+
+	@Override
+	public void dispose() {
+
+		ChromatogramCache.dispose(this);
+		versionManagement.dispose();
+		for(IChromatogram<?> referencedChromatogram : referencedChromatograms) {
+			referencedChromatogram.dispose();
+		}
+	}
+
+	/**
+	 * Returns the signal statistics, which are calculated in one pass over the scans.
+	 * The maximum signal is calculated on demand, as it depends on the cycle number handling.
+	 */
+	private SignalStatistics getSignalStatistics() {
+
+		SignalStatistics statistics = signalStatistics;
+		List<IScan> scans = getScans();
+		if(statistics == null || statistics.numberOfScans != scans.size()) {
+			statistics = new SignalStatistics(scans);
+			signalStatistics = statistics;
+		}
+		return statistics;
+	}
+
+	/**
+	 * Checks the result of the index against the scans.
+	 * The retention time of the scan must be <= the given retention time
+	 * and the retention time of the next scan must be greater.
+	 */
+	private boolean isScanNumberValid(int scanNumber, int retentionTime) {
+
+		IScan scan = getScan(scanNumber);
+		IScan nextScan = getScan(scanNumber + 1);
+		return scan != null && nextScan != null && scan.getRetentionTime() <= retentionTime && nextScan.getRetentionTime() > retentionTime;
+	}
+
+	private boolean isScanRangeValid(IScanRange scanRange, int startRetentionTime, int stopRetentionTime) {
+
+		IScan startScan = getScan(scanRange.getStartScan());
+		IScan stopScan = getScan(scanRange.getStopScan());
+		if(startScan == null || stopScan == null || startScan.getRetentionTime() < startRetentionTime || stopScan.getRetentionTime() > stopRetentionTime) {
+			return false;
 		}
-		return totalSignal;
+		IScan previousScan = getScan(scanRange.getStartScan() - 1);
+		IScan nextScan = getScan(scanRange.getStopScan() + 1);
+		return (previousScan == null || previousScan.getRetentionTime() < startRetentionTime) && (nextScan == null || nextScan.getRetentionTime() > stopRetentionTime);
+	}
+
+	@Override
+	public float getTotalSignal() {
+
+		return getSignalStatistics().totalSignal;
 	}
 
 	@Override
@@ -393,6 +476,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 			scan.setRetentionTime(actual);
 			actual += getScanInterval();
 		}
+		invalidateRetentionTimeIndex();
 		/*
 		 * Forces all listeners to be updated.
 		 */
@@ -407,6 +491,8 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		int lastScan = list.size();
 		scan.setScanNumber(++lastScan);
 		list.add(scan);
+		invalidateRetentionTimeIndex();
+		invalidateSignalStatistics();
 	}
 
 	@Override
@@ -441,6 +527,8 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		List<IScan> list = getScans();
 		if(position > 0 && position <= list.size()) {
 			list.remove(--position);
+			invalidateRetentionTimeIndex();
+			invalidateSignalStatistics();
 		}
 	}
 
@@ -477,7 +565,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 	public boolean canUndo() {
 
 		boolean result = false;
-		if(isUndoable() && versionManagement.getRevision() > 0) {
+		if(isUndoable() && versionManagement.getRevision() > 0 && versionManagement.getScanRevisionStore() != null) {
 			result = true;
 		}
 		return result;
@@ -488,8 +576,9 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 	public boolean canRedo() {
 
 		boolean result = false;
-		if(isUndoable() && versionManagement.getNextScanRevision().exists()) {
-			result = true;
+		if(isUndoable()) {
+			ScanRevisionStore scanRevisionStore = versionManagement.getScanRevisionStore();
+			result = scanRevisionStore != null && scanRevisionStore.contains(versionManagement.getRevision() + 1);
 		}
 		return result;
 	}
@@ -551,9 +640,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 			inputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
 			inputObject = inputStream.readObject();
 			if(inputObject instanceof ArrayList) {
-				List<IScan> scans = getScans();
-				scans.clear();
-				scans.addAll((ArrayList<IScan>)inputObject);
+				replaceScans((ArrayList<IScan>)inputObject);
 			}
 		} catch(FileNotFoundException e) {
 			logger.warn(e);
@@ -572,6 +659,55 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		}
 	}
 
+	/**
+	 * Replaces the scans, e.g. by the scans of a revision.
+	 */
+	private void replaceScans(List<IScan> revisionScans) {
+
+		List<IScan> scans = getScans();
+		scans.clear();
+		for(IScan scan : revisionScans) {
+			scan.setParentChromatogram(this);
+			scans.add(scan);
+		}
+		invalidateRetentionTimeIndex();
+		invalidateSignalStatistics();
+	}
+
+	/**
+	 * Stores the scans as the actual revision. Only the modified scans are stored again.
+	 */
+	private void writeScanRevision() {
+
+		ScanRevisionStore scanRevisionStore = versionManagement.getScanRevisionStore();
+		if(scanRevisionStore == null) {
+			return;
+		}
+		try {
+			scanRevisionStore.write(versionManagement.getRevision(), getScans());
+			/*
+			 * The redo revisions are outdated.
+			 */
+			scanRevisionStore.removeNewer(versionManagement.getRevision());
+		} catch(IOException e) {
+			logger.warn(e);
+		}
+	}
+
+	private boolean readScanRevision(int revision) {
+
+		ScanRevisionStore scanRevisionStore = versionManagement.getScanRevisionStore();
+		if(scanRevisionStore != null && scanRevisionStore.contains(revision)) {
+			try {
+				replaceScans(scanRevisionStore.read(revision));
+				return true;
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+		}
+		return false;
+	}
+
 	@Override
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	public Object getAdapter(Class adapter) {
@@ -619,6 +755,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		 * Before the listeners should be informed, internally some values
 		 * should be marked to be recalculated if they are needed.
 		 */
+		invalidateSignalStatistics();
 		recalculateTheNoiseFactor();
 		/**
 		 * Inform all listeners if a chromatogram value has changed, for example
@@ -832,15 +969,13 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		@SuppressWarnings("rawtypes")
 		final IChromatogramSelection chromatogramSelection = chromatogramProcessor.getChromatogramSelection();
 		if(chromatogramSelection != null && chromatogramSelection.getChromatogram() == this) {
-			File file;
 			/*
 			 * Save the first revision if neccessary.
 			 */
 			if(isUndoable) {
 				if(getVersionManagement().isBaseRevision()) {
 					monitor.subTask("Save the actual state.");
-					file = getVersionManagement().getActualScanRevision();
-					writeSerializedChromatogram(file);
+					writeScanRevision();
 				}
 			}
 			/*
@@ -868,8 +1003,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 			if(isUndoable) {
 				monitor.subTask("Save the undoable state.");
 				getVersionManagement().doOperation();
-				file = getVersionManagement().getActualScanRevision();
-				writeSerializedChromatogram(file);
+				writeScanRevision();
 			}
 			monitor.subTask("Edit the history entries.");
 			getEditHistory().add(new EditInformation(chromatogramProcessor.getDescription()));
@@ -892,9 +1026,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 			 * Redo
 			 */
 			if(isUndoable()) {
-				File file = getVersionManagement().getNextScanRevision();
-				if(file.exists()) {
-					readSerializedChromatogram(file);
+				if(readScanRevision(getVersionManagement().getRevision() + 1)) {
 					getVersionManagement().redoOperation();
 					getEditHistory().add(new EditInformation("redo operation performed"));
 				}
@@ -914,9 +1046,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 			 * Undo
 			 */
 			if(isUndoable()) {
-				File file = getVersionManagement().getPreviousScanRevision();
-				if(file.exists()) {
-					readSerializedChromatogram(file);
+				if(readScanRevision(getVersionManagement().getRevision() - 1)) {
 					getVersionManagement().undoOperation();
 					getEditHistory().add(new EditInformation("undo operation performed"));
 				}
@@ -941,13 +1071,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 	@Override
 	public boolean containsScanCycles() {
 
-		int defaultCycleNumber = 1;
-		for(IScan scan : getScans()) {
-			if(scan.getCycleNumber() != defaultCycleNumber) {
-				return true;
-			}
-		}
-		return false;
+		return getRetentionTimeIndex().containsScanCycles();
 	}
 
 	@Override
@@ -955,13 +1079,23 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 
 		List<IScan> scanCycleScans = new ArrayList<IScan>();
 		if(scanCycle > 0) {
-			if(containsScanCycles()) {
+			RetentionTimeIndex index = getRetentionTimeIndex();
+			if(index.containsScanCycles()) {
 				/*
 				 * Yes, there are cycle scan available.
+				 * Usually, the cycles are ascending, hence the scans are contiguous.
 				 */
-				for(IScan scan : getScans()) {
-					if(scan.getCycleNumber() == scanCycle) {
-						scanCycleScans.add(scan);
+				List<IScan> scans = getScans();
+				if(index.isCycleNumbersSorted()) {
+					IScanRange scanRange = index.getScanCycleRange(scanCycle);
+					if(scanRange != null) {
+						scanCycleScans.addAll(scans.subList(scanRange.getStartScan() - 1, scanRange.getStopScan()));
+					}
+				} else {
+					for(IScan scan : scans) {
+						if(scan.getCycleNumber() == scanCycle) {
+							scanCycleScans.add(scan);
+						}
 					}
 				}
 			} else {
@@ -1071,6 +1205,7 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 
 		if(dirty) {
 			modCount++;
+			invalidateSignalStatistics();
 		} else {
 			modCount = 0;
 		}
@@ -1121,4 +1256,44 @@ public abstract class AbstractChromatogram<T extends IPeak> extends AbstractMeas
 		return builder.toString();
 	}
 	// ----------------------------hashCode, equals and toString
+
+	/**
+	 * The total signal statistics of the scans.
+	 * The maximum signals are set afterwards, NaN marks a value which has not been calculated yet.
+	 */
+	private static class SignalStatistics {
+
+		private final int numberOfScans;
+		private final float minSignal;
+		private final float totalSignal;
+		private volatile float maxSignal = Float.NaN;
+		private volatile float maxSignalCondensed = Float.NaN;
+
+		public SignalStatistics(List<IScan> scans) {
+			numberOfScans = scans.size();
+			float minSignal = Float.MAX_VALUE;
+			float totalSignal = 0.0f;
+			for(IScan scan : scans) {
+				float signal = scan.getTotalSignal();
+				minSignal = (minSignal > signal) ? signal : minSignal;
+				totalSignal += signal;
+			}
+			this.minSignal = (numberOfScans > 0) ? minSignal : 0;
+			this.totalSignal = totalSignal;
+		}
+
+		public float getMaxSignal(boolean condenseCycleNumberScans) {
+
+			return condenseCycleNumberScans ? maxSignalCondensed : maxSignal;
+		}
+
+		public void setMaxSignal(boolean condenseCycleNumberScans, float maxSignal) {
+
+			if(condenseCycleNumberScans) {
+				this.maxSignalCondensed = maxSignal;
+			} else {
+				this.maxSignal = maxSignal;
+			}
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2019 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -54,6 +54,10 @@ public abstract class AbstractScan extends AbstractSignal implements IScan {
 	 */
 	private boolean isDirty = false;
 	private String identifier = "";
+	/*
+	 * Incremented each time the signal of the scan is modified, see invalidateSignalStatistics().
+	 */
+	private transient volatile int modificationCount = 0;
 
 	public AbstractScan() {
 	}
@@ -113,6 +117,7 @@ public abstract class AbstractScan extends AbstractSignal implements IScan {
 		if(retentionTime >= 0) {
 			this.retentionTime = retentionTime;
 			setDirty(true);
+			invalidateRetentionTimeIndex();
 		}
 	}
 
@@ -255,6 +260,8 @@ public abstract class AbstractScan extends AbstractSignal implements IScan {
 	public void setCycleNumber(int cycleNumber) {
 
 		this.cycleNumber = cycleNumber;
+		invalidateRetentionTimeIndex();
+		invalidateSignalStatistics();
 	}
 
 	@Override
@@ -273,6 +280,15 @@ public abstract class AbstractScan extends AbstractSignal implements IScan {
 	public void setDirty(boolean isDirty) {
 
 		this.isDirty = isDirty;
+		if(isDirty) {
+			invalidateSignalStatistics();
+		}
+	}
+
+	@Override
+	public int getModificationCount() {
+
+		return modificationCount;
 	}
 
 	@Override
@@ -296,6 +312,28 @@ public abstract class AbstractScan extends AbstractSignal implements IScan {
 		return Platform.getAdapterManager().getAdapter(this, adapter);
 	}
 
+	/**
+	 * The retention time index of the parent chromatogram is outdated.
+	 */
+	private void invalidateRetentionTimeIndex() {
+
+		if(parentChromatogram != null) {
+			parentChromatogram.invalidateRetentionTimeIndex();
+		}
+	}
+
+	/**
+	 * The signal of the scan has been modified, hence the signal statistics
+	 * of the parent chromatogram are outdated.
+	 */
+	protected void invalidateSignalStatistics() {
+
+		modificationCount++;
+		if(parentChromatogram != null) {
+			parentChromatogram.invalidateSignalStatistics();
+		}
+	}
+
 	@Override
 	public boolean equals(Object otherObject) {
 
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+
+/**
+ * Caches values derived from the scans of a chromatogram, e.g. noise factors or chart series.
+ * The values are calculated lazily on first demand and are valid as long as the modification
+ * count of the chromatogram hasn't changed, see {@link IChromatogram#getModificationCount()}.
+ * Additionally, resources like open files can be attached to a chromatogram.
+ * They are closed when the chromatogram is disposed, see {@link IChromatogram#dispose()},
+ * or when it has been garbage collected.
+ * The chromatograms are referenced weakly and by identity, hence the cache doesn't prevent
+ * closed chromatograms from being garbage collected.
+ */
+public final class ChromatogramCache {
+
+	private static final Logger logger = Logger.getLogger(ChromatogramCache.class);
+	//
+	private static final ReferenceQueue<IChromatogram<?>> referenceQueue = new ReferenceQueue<>();
+	private static final Map<ChromatogramReference, CacheEntries> cache = new HashMap<>();
+
+	private ChromatogramCache() {
+	}
+
+	/**
+	 * Returns the cached value of the given key or calculates it.
+	 * Use a prefix for the keys, e.g. "Noise#", to be able to clear them selectively.
+	 * The returned value must not be modified.
+	 *
+	 * @param chromatogram
+	 * @param key
+	 * @param calculation
+	 * @return T
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getValue(IChromatogram<?> chromatogram, String key, Function<IChromatogram<?>, T> calculation) {
+
+		expungeStaleEntries();
+		int modificationCount = chromatogram.getModificationCount();
+		CacheEntry cacheEntry = null;
+		synchronized(cache) {
+			CacheEntries cacheEntries = get(chromatogram);
+			if(cacheEntries != null) {
+				cacheEntry = cacheEntries.values.get(key);
+			}
+		}
+		if(cacheEntry != null && cacheEntry.modificationCount == modificationCount) {
+			return (T)cacheEntry.value;
+		}
+		/*
+		 * The value is calculated outside of the lock, so that several
+		 * chromatograms can be processed in parallel. It's stored only if
+		 * the chromatogram hasn't been modified in the meantime.
+		 */
+		T value = calculation.apply(chromatogram);
+		if(chromatogram.getModificationCount() == modificationCount) {
+			synchronized(cache) {
+				CacheEntries cacheEntries = getOrCreate(chromatogram);
+				cacheEntries.values.values().removeIf(entry -> entry.modificationCount != modificationCount);
+				cacheEntries.values.put(key, new CacheEntry(modificationCount, value));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Discards the cached values of the chromatogram whose keys start with the given prefix.
+	 * The attached resources are kept.
+	 *
+	 * @param chromatogram
+	 * @param prefix
+	 */
+	public static void clear(IChromatogram<?> chromatogram, String prefix) {
+
+		synchronized(cache) {
+			CacheEntries cacheEntries = get(chromatogram);
+			if(cacheEntries != null) {
+				cacheEntries.values.keySet().removeIf(key -> key.startsWith(prefix));
+			}
+		}
+	}
+
+	/**
+	 * Attaches the resource to the chromatogram. It's closed on dispose.
+	 *
+	 * @param chromatogram
+	 * @param resource
+	 */
+	public static void addResource(IChromatogram<?> chromatogram, Closeable resource) {
+
+		expungeStaleEntries();
+		synchronized(cache) {
+			getOrCreate(chromatogram).resources.add(resource);
+		}
+	}
+
+	/**
+	 * Detaches the resource without closing it, e.g. if it has been closed already.
+	 *
+	 * @param chromatogram
+	 * @param resource
+	 */
+	public static void removeResource(IChromatogram<?> chromatogram, Closeable resource) {
+
+		synchronized(cache) {
+			CacheEntries cacheEntries = get(chromatogram);
+			if(cacheEntries != null) {
+				cacheEntries.resources.remove(resource);
+			}
+		}
+	}
+
+	/**
+	 * Discards the cached values and closes the resources of the chromatogram.
+	 *
+	 * @param chromatogram
+	 */
+	public static void dispose(IChromatogram<?> chromatogram) {
+
+		CacheEntries cacheEntries;
+		synchronized(cache) {
+			cacheEntries = cache.remove(new ChromatogramReference(chromatogram, null));
+		}
+		if(cacheEntries != null) {
+			close(cacheEntries.resources);
+		}
+		expungeStaleEntries();
+	}
+
+	private static CacheEntries get(IChromatogram<?> chromatogram) {
+
+		return cache.get(new ChromatogramReference(chromatogram, null));
+	}
+
+	private static CacheEntries getOrCreate(IChromatogram<?> chromatogram) {
+
+		return cache.computeIfAbsent(new ChromatogramReference(chromatogram, referenceQueue), k -> new CacheEntries());
+	}
+
+	/**
+	 * The resources of collected chromatograms are closed outside of the lock.
+	 */
+	private static void expungeStaleEntries() {
+
+		List<Closeable> resources = new ArrayList<>();
+		synchronized(cache) {
+			Reference<? extends IChromatogram<?>> reference;
+			while((reference = referenceQueue.poll()) != null) {
+				CacheEntries cacheEntries = cache.remove(reference);
+				if(cacheEntries != null) {
+					resources.addAll(cacheEntries.resources);
+				}
+			}
+		}
+		close(resources);
+	}
+
+	private static void close(List<Closeable> resources) {
+
+		for(Closeable resource : resources) {
+			try {
+				resource.close();
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+		}
+	}
+
+	private static final class CacheEntries {
+
+		private final Map<String, CacheEntry> values = new HashMap<>();
+		private final List<Closeable> resources = new ArrayList<>();
+	}
+
+	private static final class CacheEntry {
+
+		private final int modificationCount;
+		private final Object value;
+
+		public CacheEntry(int modificationCount, Object value) {
+			this.modificationCount = modificationCount;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * The chromatogram equals() and hashCode() methods are value based, hence the identity is used.
+	 */
+	private static final class ChromatogramReference extends WeakReference<IChromatogram<?>> {
+
+		private final int hashCode;
+
+		public ChromatogramReference(IChromatogram<?> chromatogram, ReferenceQueue<IChromatogram<?>> referenceQueue) {
+			super(chromatogram, referenceQueue);
+			hashCode = System.identityHashCode(chromatogram);
+		}
+
+		@Override
+		public int hashCode() {
+
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if(this == other) {
+				return true;
+			}
+			if(other instanceof ChromatogramReference) {
+				Object chromatogram = get();
+				return chromatogram != null && chromatogram == ((ChromatogramReference)other).get();
+			}
+			return false;
+		}
+	}
+}
@@ -17,6 +17,7 @@ import java.util.List;
 
 import org.eclipse.chemclipse.model.baseline.IChromatogramBaseline;
 import org.eclipse.chemclipse.model.columns.ISeparationColumnIndices;
+import org.eclipse.chemclipse.model.support.IScanRange;
 import org.eclipse.chemclipse.model.updates.IUpdater;
 import org.eclipse.chemclipse.model.versioning.IChromatogramVersioning;
 import org.eclipse.chemclipse.support.history.ISupplierEditHistory;
@@ -198,6 +199,56 @@ public interface IChromatogram<T extends IPeak> extends IMeasurement, IChromatog
 	 */
 	List<IScan> getScanCycleScans(int cycleNumber);
 
+	/**
+	 * Returns the range of scans whose retention times are within the given
+	 * retention times (inclusive). The scans are located by binary search.
+	 * If no scan is contained, null will be returned.
+	 * 
+	 * @param startRetentionTime
+	 * @param stopRetentionTime
+	 * @return {@link IScanRange}
+	 */
+	IScanRange getScanRange(int startRetentionTime, int stopRetentionTime);
+
+	/**
+	 * Returns the index of the scan retention times.
+	 * It is created on demand, after the scans have been modified.
+	 * 
+	 * @return {@link RetentionTimeIndex}
+	 */
+	RetentionTimeIndex getRetentionTimeIndex();
+
+	/**
+	 * Discards the retention time index. It's called when scans are added or removed
+	 * and when the retention time or cycle number of a scan has been modified.
+	 */
+	void invalidateRetentionTimeIndex();
+
+	/**
+	 * Discards the cached signal statistics (min, max and total signal).
+	 * It's called when the chromatogram is marked as dirty, when the update listeners are informed
+	 * and when the signal of a scan has been modified.
+	 * The ions or signals of a scan don't know their scan. Hence, if their abundance is
+	 * modified directly, the scan must be marked as dirty, see IScan.setDirty(true).
+	 */
+	void invalidateSignalStatistics();
+
+	/**
+	 * Returns a counter, which is incremented each time the scans of the chromatogram have been modified,
+	 * see {@link #invalidateSignalStatistics()}. Values derived from the scans can be cached
+	 * as long as the modification count hasn't changed.
+	 * 
+	 * @return int
+	 */
+	int getModificationCount();
+
+	/**
+	 * Releases the cached values and the resources held for the chromatogram,
+	 * e.g. open files of scan proxies, see {@link ChromatogramCache}.
+	 * Call it when the chromatogram is closed.
+	 */
+	void dispose();
+
 	/**
 	 * Returns the chromatogram method.
 	 * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2019 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -208,6 +208,15 @@ public interface IScan extends ISignal, IAdaptable, IScanSerializable, ITargetSu
 	 */
 	void setDirty(boolean isDirty);
 
+	/**
+	 * Returns a counter, which is incremented each time the signal of this scan has been modified.
+	 * Values derived from the signal, e.g. the extracted ion signals, can be cached as long as
+	 * the modification count hasn't changed.
+	 * 
+	 * @return int
+	 */
+	int getModificationCount();
+
 	/**
 	 * Returns the identifier of the scan.
 	 * It is used, e.g. to select and find a specifically marked scan in the list of scans.
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.core;
+
+import java.util.List;
+
+import org.eclipse.chemclipse.model.support.IScanRange;
+import org.eclipse.chemclipse.model.support.ScanRange;
+
+/**
+ * A snapshot of the scan retention times and cycle numbers of a chromatogram.
+ * The scans are located by binary search, as the retention times are usually ascending.
+ * If they are not, a linear search on the primitive arrays is used, which gives
+ * the same results as iterating the scans.
+ * The index is immutable, hence it can be shared between threads. A chromatogram
+ * creates a new index, after its scans have been modified.
+ */
+public class RetentionTimeIndex {
+
+	private final int[] retentionTimes;
+	private final int[] cycleNumbers;
+	private final boolean retentionTimesSorted;
+	private final boolean cycleNumbersSorted;
+	private final boolean scanCycles;
+
+	public RetentionTimeIndex(List<IScan> scans) {
+		this(getRetentionTimes(scans), getCycleNumbers(scans));
+	}
+
+	RetentionTimeIndex(int[] retentionTimes, int[] cycleNumbers) {
+		this.retentionTimes = retentionTimes;
+		this.cycleNumbers = cycleNumbers;
+		retentionTimesSorted = isSorted(retentionTimes);
+		cycleNumbersSorted = isSorted(cycleNumbers);
+		boolean scanCycles = false;
+		for(int cycleNumber : cycleNumbers) {
+			if(cycleNumber != 1) {
+				scanCycles = true;
+				break;
+			}
+		}
+		this.scanCycles = scanCycles;
+	}
+
+	/**
+	 * Returns the number of indexed scans.
+	 *
+	 * @return int
+	 */
+	public int size() {
+
+		return retentionTimes.length;
+	}
+
+	/**
+	 * Returns the retention time of the given scan number (1 based).
+	 *
+	 * @param scanNumber
+	 * @return int
+	 */
+	public int getRetentionTime(int scanNumber) {
+
+		return retentionTimes[scanNumber - 1];
+	}
+
+	/**
+	 * Returns true if at least one scan has a cycle number other than 1.
+	 *
+	 * @return boolean
+	 */
+	public boolean containsScanCycles() {
+
+		return scanCycles;
+	}
+
+	/**
+	 * Returns the number of the scan before the first scan whose retention time is
+	 * greater than the given retention time. If no such scan exists, 0 is returned.
+	 * The limits (start and stop retention time) need to be checked by the caller.
+	 *
+	 * @param retentionTime
+	 * @return int
+	 */
+	public int getScanNumber(int retentionTime) {
+
+		int position;
+		if(retentionTimesSorted) {
+			position = upperBound(retentionTimes, retentionTime);
+		} else {
+			position = 0;
+			while(position < retentionTimes.length && retentionTimes[position] <= retentionTime) {
+				position++;
+			}
+		}
+		return (position < retentionTimes.length) ? position : 0;
+	}
+
+	/**
+	 * Returns the range of scans whose retention times are within the given
+	 * retention times (inclusive) or null if no scan is contained.
+	 * If the retention times are not ascending, the range spans from the first
+	 * to the last matching scan.
+	 *
+	 * @param startRetentionTime
+	 * @param stopRetentionTime
+	 * @return {@link IScanRange}
+	 */
+	public IScanRange getScanRange(int startRetentionTime, int stopRetentionTime) {
+
+		int start;
+		int stop;
+		if(retentionTimesSorted) {
+			start = lowerBound(retentionTimes, startRetentionTime);
+			stop = upperBound(retentionTimes, stopRetentionTime) - 1;
+		} else {
+			start = 0;
+			while(start < retentionTimes.length && !isInRange(retentionTimes[start], startRetentionTime, stopRetentionTime)) {
+				start++;
+			}
+			stop = retentionTimes.length - 1;
+			while(stop >= start && !isInRange(retentionTimes[stop], startRetentionTime, stopRetentionTime)) {
+				stop--;
+			}
+		}
+		return (start <= stop && start < retentionTimes.length) ? new ScanRange(start + 1, stop + 1) : null;
+	}
+
+	/**
+	 * Returns the range of scans with the given cycle number or null if no scan is contained.
+	 * If the cycle numbers are not ascending, null is returned too, as the scans
+	 * are not contiguous. Use {@link #isCycleNumbersSorted()} to check it before.
+	 *
+	 * @param cycleNumber
+	 * @return {@link IScanRange}
+	 */
+	public IScanRange getScanCycleRange(int cycleNumber) {
+
+		if(!cycleNumbersSorted) {
+			return null;
+		}
+		int start = lowerBound(cycleNumbers, cycleNumber);
+		int stop = upperBound(cycleNumbers, cycleNumber) - 1;
+		return (start <= stop) ? new ScanRange(start + 1, stop + 1) : null;
+	}
+
+	public boolean isRetentionTimesSorted() {
+
+		return retentionTimesSorted;
+	}
+
+	public boolean isCycleNumbersSorted() {
+
+		return cycleNumbersSorted;
+	}
+
+	/**
+	 * Returns the first position whose value is >= the given value.
+	 */
+	private static int lowerBound(int[] values, int value) {
+
+		int low = 0;
+		int high = values.length;
+		while(low < high) {
+			int middle = (low + high) >>> 1;
+			if(values[middle] < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the first position whose value is > the given value.
+	 */
+	private static int upperBound(int[] values, int value) {
+
+		int low = 0;
+		int high = values.length;
+		while(low < high) {
+			int middle = (low + high) >>> 1;
+			if(values[middle] <= value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static boolean isInRange(int value, int start, int stop) {
+
+		return value >= start && value <= stop;
+	}
+
+	private static boolean isSorted(int[] values) {
+
+		for(int i = 1; i < values.length; i++) {
+			if(values[i] < values[i - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int[] getRetentionTimes(List<IScan> scans) {
+
+		int[] retentionTimes = new int[scans.size()];
+		int i = 0;
+		for(IScan scan : scans) {
+			retentionTimes[i++] = scan.getRetentionTime();
+		}
+		return retentionTimes;
+	}
+
+	private static int[] getCycleNumbers(List<IScan> scans) {
+
+		int[] cycleNumbers = new int[scans.size()];
+		int i = 0;
+		for(IScan scan : scans) {
+			cycleNumbers[i++] = scan.getCycleNumber();
+		}
+		return cycleNumbers;
+	}
+}
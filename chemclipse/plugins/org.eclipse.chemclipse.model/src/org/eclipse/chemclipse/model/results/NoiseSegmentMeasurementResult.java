@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Lablicate GmbH.
+ * Copyright (c) 2019, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,6 +13,7 @@ package org.eclipse.chemclipse.model.results;
 
 import java.util.List;
 
+import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.support.NoiseSegment;
 
 public class NoiseSegmentMeasurementResult extends AnalysisSegmentMeasurementResult<NoiseSegment> {
@@ -20,11 +21,22 @@ public class NoiseSegmentMeasurementResult extends AnalysisSegmentMeasurementRes
 	private final ChromatogramSegmentation segmentation;
 	private final String noiseCalculatorId;
 	private final List<NoiseSegment> segments;
+	private final int modificationCount;
 
-	public NoiseSegmentMeasurementResult(List<NoiseSegment> segments, ChromatogramSegmentation segmentation, String noiseCalculatorId) {
+	/**
+	 * The modification count is the value of {@link IChromatogram#getModificationCount()}
+	 * when the segments have been calculated.
+	 * 
+	 * @param segments
+	 * @param segmentation
+	 * @param noiseCalculatorId
+	 * @param modificationCount
+	 */
+	public NoiseSegmentMeasurementResult(List<NoiseSegment> segments, ChromatogramSegmentation segmentation, String noiseCalculatorId, int modificationCount) {
 		this.segments = segments;
 		this.segmentation = segmentation;
 		this.noiseCalculatorId = noiseCalculatorId;
+		this.modificationCount = modificationCount;
 	}
 
 	@Override
@@ -49,6 +61,22 @@ public class NoiseSegmentMeasurementResult extends AnalysisSegmentMeasurementRes
 		return noiseCalculatorId;
 	}
 
+	public int getModificationCount() {
+
+		return modificationCount;
+	}
+
+	/**
+	 * Returns true if the chromatogram has been modified since the segments have been calculated.
+	 * 
+	 * @param chromatogram
+	 * @return boolean
+	 */
+	public boolean isOutdated(IChromatogram<?> chromatogram) {
+
+		return chromatogram.getModificationCount() != modificationCount;
+	}
+
 	@Override
 	public Class<NoiseSegment> getType() {
 
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.supplier;
+
+import java.util.Map;
+
+import org.eclipse.chemclipse.model.core.IChromatogram;
+import org.eclipse.chemclipse.model.selection.IChromatogramSelection;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfileCounter;
+
+/**
+ * Counts the scans and peaks of a chromatogram (selection) for the process profiles.
+ */
+public class ChromatogramProfileCounter implements ProcessProfileCounter {
+
+	public static final String SCANS = "Scans";
+	public static final String PEAKS = "Peaks";
+
+	@Override
+	public void count(Object result, Map<String, Long> counts) {
+
+		IChromatogram<?> chromatogram = null;
+		if(result instanceof IChromatogramSelection) {
+			chromatogram = ((IChromatogramSelection<?, ?>)result).getChromatogram();
+		} else if(result instanceof IChromatogram) {
+			chromatogram = (IChromatogram<?>)result;
+		}
+		//
+		if(chromatogram != null) {
+			counts.put(SCANS, (long)chromatogram.getNumberOfScans());
+			counts.put(PEAKS, (long)chromatogram.getNumberOfPeaks());
+		}
+	}
+}
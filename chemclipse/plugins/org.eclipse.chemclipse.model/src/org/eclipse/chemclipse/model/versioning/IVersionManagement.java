@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -69,6 +69,21 @@ public interface IVersionManagement {
 	 */
 	public File getNextScanRevision();
 
+	/**
+	 * Returns the store of the scan revisions, which is used by the undo/redo operations.
+	 * It keeps only the scans which have been modified by an operation.
+	 * Returns null if the version management has been disposed.
+	 * 
+	 * @return {@link ScanRevisionStore}
+	 */
+	public ScanRevisionStore getScanRevisionStore();
+
+	/**
+	 * Deletes the stored scan revisions.
+	 * This method is called when the chromatogram is disposed.
+	 */
+	public void dispose();
+
 	/**
 	 * Returns the temporary storage directory of the actual chromatogram.
 	 * 
@@ -0,0 +1,525 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.versioning;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.core.IScan;
+
+/**
+ * Stores the scan revisions of a chromatogram for the undo/redo operations.
+ * Each scan is serialized separately and identified by the digest of its bytes.
+ * A revision references the scans, hence scans which have not been modified by an
+ * operation are shared with the previous revisions and only the modified scans
+ * are stored again. The new scans of a revision are (optionally compressed) written
+ * to a pack file by a background thread, so that the caller isn't blocked by the I/O.
+ * A pack file is deleted as soon as no revision references one of its scans.
+ * The store must be disposed when the chromatogram is disposed, see {@link #dispose()}.
+ */
+public class ScanRevisionStore {
+
+	private static final Logger logger = Logger.getLogger(ScanRevisionStore.class);
+	//
+	private static final String PACK_FILE = "scans";
+	private static final String PACK_EXTENSION = ".pack";
+	private static final String DIGEST_ALGORITHM = "SHA-1";
+	private static final int TERMINATION_TIMEOUT = 30; // seconds
+	//
+	private final File directory;
+	private final boolean compressed;
+	private final ThreadPoolExecutor executor;
+	private final Map<Integer, Blob[]> revisions = new TreeMap<>();
+	private final Map<Digest, Blob> blobs = new HashMap<>();
+	private int packCounter = 0;
+	private boolean disposed = false;
+
+	/**
+	 * The scans are stored compressed.
+	 *
+	 * @param directory
+	 */
+	public ScanRevisionStore(File directory) {
+		this(directory, true);
+	}
+
+	public ScanRevisionStore(File directory, boolean compressed) {
+		this.directory = directory;
+		this.compressed = compressed;
+		executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "Scan Revision Store");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Stores the scans as the given revision. An existing revision with the same number is replaced.
+	 * The scans are serialized before this method returns, hence they can be modified afterwards.
+	 *
+	 * @param revision
+	 * @param scans
+	 * @throws IOException
+	 */
+	public synchronized void write(int revision, List<? extends IScan> scans) throws IOException {
+
+		if(disposed) {
+			throw new IOException("The scan revision store has been disposed.");
+		}
+		//
+		MessageDigest messageDigest = getMessageDigest();
+		Deflater deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		Blob[] references = new Blob[scans.size()];
+		List<Blob> newBlobs = new ArrayList<>();
+		try {
+			for(int i = 0; i < references.length; i++) {
+				outputStream.reset();
+				try(ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+					objectOutputStream.writeObject(scans.get(i));
+				}
+				byte[] bytes = outputStream.toByteArray();
+				Digest digest = new Digest(messageDigest.digest(bytes));
+				Blob blob = blobs.get(digest);
+				if(blob == null) {
+					blob = new Blob(digest, bytes.length, compress(bytes, deflater));
+					blobs.put(digest, blob);
+					newBlobs.add(blob);
+				}
+				blob.references++;
+				references[i] = blob;
+			}
+		} catch(IOException | RuntimeException e) {
+			/*
+			 * E.g. a scan is not serializable.
+			 */
+			release(references);
+			throw e;
+		} finally {
+			if(deflater != null) {
+				deflater.end();
+			}
+		}
+		//
+		release(revisions.put(revision, references));
+		if(!newBlobs.isEmpty()) {
+			File file = new File(directory, PACK_FILE + (packCounter++) + PACK_EXTENSION);
+			Pack pack = new Pack(file, newBlobs.size());
+			executor.submit(() -> writePack(pack, newBlobs));
+		}
+	}
+
+	/**
+	 * Returns the scans of the given revision. The scans are new instances.
+	 *
+	 * @param revision
+	 * @return List<IScan>
+	 * @throws IOException
+	 */
+	public synchronized List<IScan> read(int revision) throws IOException {
+
+		Blob[] references = revisions.get(revision);
+		if(references == null) {
+			throw new IOException("The revision " + revision + " is not available.");
+		}
+		//
+		Map<Pack, FileChannel> channels = new IdentityHashMap<>();
+		Inflater inflater = compressed ? new Inflater() : null;
+		List<IScan> scans = new ArrayList<>(references.length);
+		try {
+			for(Blob blob : references) {
+				byte[] bytes = decompress(blob.getBytes(channels), blob.length, inflater);
+				try(ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+					scans.add((IScan)objectInputStream.readObject());
+				} catch(ClassNotFoundException | ClassCastException e) {
+					throw new IOException(e);
+				}
+			}
+		} finally {
+			if(inflater != null) {
+				inflater.end();
+			}
+			for(FileChannel channel : channels.values()) {
+				channel.close();
+			}
+		}
+		return scans;
+	}
+
+	/**
+	 * Returns true if the revision is stored.
+	 *
+	 * @param revision
+	 * @return boolean
+	 */
+	public synchronized boolean contains(int revision) {
+
+		return revisions.containsKey(revision);
+	}
+
+	/**
+	 * Removes the given revision.
+	 *
+	 * @param revision
+	 */
+	public synchronized void remove(int revision) {
+
+		release(revisions.remove(revision));
+	}
+
+	/**
+	 * Removes all revisions which are greater than the given one, e.g. the redo
+	 * revisions when a new operation has been performed.
+	 *
+	 * @param revision
+	 */
+	public synchronized void removeNewer(int revision) {
+
+		Iterator<Map.Entry<Integer, Blob[]>> iterator = revisions.entrySet().iterator();
+		while(iterator.hasNext()) {
+			Map.Entry<Integer, Blob[]> entry = iterator.next();
+			if(entry.getKey() > revision) {
+				iterator.remove();
+				release(entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Removes all revisions and deletes the pack files.
+	 */
+	public synchronized void clear() {
+
+		for(Blob[] references : revisions.values()) {
+			release(references);
+		}
+		revisions.clear();
+	}
+
+	/**
+	 * Removes all revisions, deletes the pack files and stops the background thread.
+	 * Afterwards, no revisions can be written anymore.
+	 */
+	public synchronized void dispose() {
+
+		if(!disposed) {
+			clear();
+			disposed = true;
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Waits until the pending scans have been written and the unused pack files have been deleted.
+	 */
+	public void flush() {
+
+		Future<?> future;
+		try {
+			future = executor.submit(() -> {
+				// All tasks submitted before have been processed.
+			});
+		} catch(RejectedExecutionException e) {
+			/*
+			 * The store has been disposed.
+			 */
+			future = null;
+		}
+		try {
+			if(future != null) {
+				future.get();
+			} else {
+				executor.awaitTermination(TERMINATION_TIMEOUT, TimeUnit.SECONDS);
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch(ExecutionException e) {
+			logger.warn(e);
+		}
+	}
+
+	/**
+	 * Returns the number of distinct scans, which are referenced by the revisions.
+	 *
+	 * @return int
+	 */
+	public synchronized int getNumberOfStoredScans() {
+
+		return blobs.size();
+	}
+
+	/**
+	 * Decrements the references of the blobs. Blobs which are not referenced anymore are discarded.
+	 */
+	private void release(Blob[] references) {
+
+		if(references == null) {
+			return;
+		}
+		//
+		for(Blob blob : references) {
+			if(blob != null && --blob.references == 0) {
+				blobs.remove(blob.digest);
+				Pack pack = blob.discard();
+				if(pack != null) {
+					/*
+					 * The pack files are released in the background thread only.
+					 */
+					executor.submit(() -> pack.release());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs in the background thread.
+	 */
+	private void writePack(Pack pack, List<Blob> packBlobs) {
+
+		long[] positions = new long[packBlobs.size()];
+		try(FileChannel channel = FileChannel.open(pack.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			long position = 0;
+			for(int i = 0; i < positions.length; i++) {
+				byte[] bytes = packBlobs.get(i).getPendingBytes();
+				if(bytes != null) {
+					positions[i] = position;
+					ByteBuffer buffer = ByteBuffer.wrap(bytes);
+					while(buffer.hasRemaining()) {
+						position += channel.write(buffer, position);
+					}
+				} else {
+					positions[i] = -1;
+				}
+			}
+		} catch(IOException e) {
+			/*
+			 * The scans are kept in memory.
+			 */
+			logger.warn(e);
+			pack.delete();
+			return;
+		}
+		//
+		for(int i = 0; i < positions.length; i++) {
+			if(positions[i] < 0 || !packBlobs.get(i).setStored(pack, positions[i])) {
+				/*
+				 * The blob has been discarded in the meantime.
+				 */
+				pack.release();
+			}
+		}
+	}
+
+	private static MessageDigest getMessageDigest() throws IOException {
+
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch(NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static byte[] compress(byte[] bytes, Deflater deflater) {
+
+		if(deflater == null) {
+			return bytes;
+		}
+		deflater.reset();
+		deflater.setInput(bytes);
+		deflater.finish();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2 + 64);
+		byte[] buffer = new byte[8192];
+		while(!deflater.finished()) {
+			int length = deflater.deflate(buffer);
+			outputStream.write(buffer, 0, length);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] decompress(byte[] bytes, int length, Inflater inflater) throws IOException {
+
+		if(inflater == null) {
+			return bytes;
+		}
+		inflater.reset();
+		inflater.setInput(bytes);
+		byte[] result = new byte[length];
+		try {
+			int offset = 0;
+			while(offset < length && !inflater.finished()) {
+				int inflated = inflater.inflate(result, offset, length - offset);
+				if(inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				offset += inflated;
+			}
+			if(offset != length) {
+				throw new IOException("The scan data is corrupted.");
+			}
+		} catch(DataFormatException e) {
+			throw new IOException(e);
+		}
+		return result;
+	}
+
+	private static final class Digest {
+
+		private final byte[] value;
+		private final int hashCode;
+
+		public Digest(byte[] value) {
+			this.value = value;
+			this.hashCode = Arrays.hashCode(value);
+		}
+
+		@Override
+		public int hashCode() {
+
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			return other instanceof Digest && Arrays.equals(value, ((Digest)other).value);
+		}
+	}
+
+	/**
+	 * A serialized scan. It's kept in memory until it has been written to the pack file.
+	 * The references are guarded by the store, the storage state by the blob itself.
+	 */
+	private static final class Blob {
+
+		private final Digest digest;
+		private final int length;
+		private int references = 0;
+		//
+		private byte[] bytes;
+		private int size;
+		private Pack pack = null;
+		private long position = 0;
+		private boolean discarded = false;
+
+		public Blob(Digest digest, int length, byte[] bytes) {
+			this.digest = digest;
+			this.length = length;
+			this.bytes = bytes;
+			this.size = bytes.length;
+		}
+
+		/**
+		 * Discards the blob and returns its pack or null if it hasn't been stored yet.
+		 */
+		public synchronized Pack discard() {
+
+			discarded = true;
+			bytes = null;
+			return pack;
+		}
+
+		public synchronized byte[] getPendingBytes() {
+
+			return discarded ? null : bytes;
+		}
+
+		/**
+		 * Returns false if the blob has been discarded before.
+		 */
+		public synchronized boolean setStored(Pack pack, long position) {
+
+			if(discarded) {
+				return false;
+			}
+			this.pack = pack;
+			this.position = position;
+			bytes = null;
+			return true;
+		}
+
+		public synchronized byte[] getBytes(Map<Pack, FileChannel> channels) throws IOException {
+
+			if(bytes != null) {
+				return bytes;
+			}
+			FileChannel channel = channels.get(pack);
+			if(channel == null) {
+				channel = FileChannel.open(pack.file.toPath(), StandardOpenOption.READ);
+				channels.put(pack, channel);
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			while(buffer.hasRemaining()) {
+				if(channel.read(buffer, position + buffer.position()) < 0) {
+					throw new IOException("The pack file is truncated: " + pack.file);
+				}
+			}
+			return buffer.array();
+		}
+	}
+
+	/**
+	 * A pack file, which is deleted when none of its blobs is referenced anymore.
+	 * It's only accessed by the background thread.
+	 */
+	private static final class Pack {
+
+		private final File file;
+		private int live;
+
+		public Pack(File file, int live) {
+			this.file = file;
+			this.live = live;
+		}
+
+		public void release() {
+
+			if(--live == 0) {
+				delete();
+			}
+		}
+
+		public void delete() {
+
+			if(file.exists() && !file.delete()) {
+				logger.warn("The pack file could not be deleted: " + file.getAbsolutePath());
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -35,6 +35,8 @@ public class VersionManagement implements IVersionManagement {
 	private int operationLimit = 25; // Use 25 as a default value;
 	// TODO baseRevision
 	private boolean baseRevision;
+	private ScanRevisionStore scanRevisionStore = null;
+	private boolean disposed = false;
 
 	public VersionManagement() {
 		initializeStorageDirectories();
@@ -140,6 +142,28 @@ public class VersionManagement implements IVersionManagement {
 		return new File(file);
 	}
 
+	@Override
+	public synchronized ScanRevisionStore getScanRevisionStore() {
+
+		if(disposed) {
+			return null;
+		}
+		if(scanRevisionStore == null) {
+			scanRevisionStore = new ScanRevisionStore(storageDirectoryScans);
+		}
+		return scanRevisionStore;
+	}
+
+	@Override
+	public synchronized void dispose() {
+
+		disposed = true;
+		if(scanRevisionStore != null) {
+			scanRevisionStore.dispose();
+			scanRevisionStore = null;
+		}
+	}
+
 	@Override
 	public File getStorageDirectory() {
 
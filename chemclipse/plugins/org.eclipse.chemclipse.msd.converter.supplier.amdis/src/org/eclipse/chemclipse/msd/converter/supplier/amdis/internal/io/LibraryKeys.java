@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The keys of a library format, e.g. "NAME:" or "Num Peaks:".
+ * Keys are matched case-insensitive (US-ASCII only). The keys are
+ * grouped by their first byte, hence a record is matched in one pass.
+ */
+public class LibraryKeys {
+
+	private static final int[] NO_KEYS = new int[0];
+	//
+	private final String[] keys;
+	private final byte[][] lowerCaseKeys;
+	private final int[][] keysByFirstByte = new int[128][];
+
+	public LibraryKeys(String... keys) {
+		this.keys = keys;
+		lowerCaseKeys = new byte[keys.length][];
+		for(int i = 0; i < keys.length; i++) {
+			byte[] key = keys[i].getBytes(StandardCharsets.US_ASCII);
+			for(int j = 0; j < key.length; j++) {
+				key[j] = toLowerCase(key[j]);
+			}
+			lowerCaseKeys[i] = key;
+			int first = key[0];
+			int[] indices = keysByFirstByte[first];
+			indices = (indices == null) ? new int[1] : Arrays.copyOf(indices, indices.length + 1);
+			indices[indices.length - 1] = i;
+			keysByFirstByte[first] = indices;
+		}
+	}
+
+	public int size() {
+
+		return keys.length;
+	}
+
+	/**
+	 * Returns the index of the key or throws an IllegalArgumentException if it is not contained.
+	 *
+	 * @param key
+	 * @return int
+	 */
+	public int indexOf(String key) {
+
+		for(int i = 0; i < keys.length; i++) {
+			if(keys[i].equalsIgnoreCase(key)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown key: " + key);
+	}
+
+	int getLength(int index) {
+
+		return lowerCaseKeys[index].length;
+	}
+
+	byte[] getLowerCaseKey(int index) {
+
+		return lowerCaseKeys[index];
+	}
+
+	int[] getCandidates(byte value) {
+
+		byte lowerCase = toLowerCase(value);
+		if(lowerCase < 0) {
+			return NO_KEYS;
+		}
+		int[] indices = keysByFirstByte[lowerCase];
+		return (indices != null) ? indices : NO_KEYS;
+	}
+
+	static byte toLowerCase(byte value) {
+
+		return (value >= 'A' && value <= 'Z') ? (byte)(value + ('a' - 'A')) : value;
+	}
+}
@@ -0,0 +1,456 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A record (mass spectrum) of a library file, which is a range of the (mapped) file content.
+ * The keys are searched anywhere in the record, not only at the start of a line,
+ * and the value of a key is the trimmed remainder of its line. Hence, the values
+ * are the same as the ones of the (KEY:)(.*) patterns used before.
+ * Records may be matched in parallel, as the buffer is only read by absolute positions.
+ */
+public class LibraryRecord {
+
+	private final ByteBuffer buffer;
+	private final int start;
+	private final int end;
+	private final String prefix;
+	//
+	private LibraryKeys keys;
+	private int[] matches = new int[16];
+	private int size = 0;
+
+	public LibraryRecord(ByteBuffer buffer, int start, int end) {
+		this(buffer, start, end, null);
+	}
+
+	/**
+	 * The prefix is a key which has been removed when splitting the record, see {@link #split(String...)}.
+	 *
+	 * @param buffer
+	 * @param start
+	 * @param end
+	 * @param prefix
+	 */
+	public LibraryRecord(ByteBuffer buffer, int start, int end, String prefix) {
+		this.buffer = buffer;
+		this.start = start;
+		this.end = end;
+		this.prefix = prefix;
+	}
+
+	public int getStart() {
+
+		return start;
+	}
+
+	public int getEnd() {
+
+		return end;
+	}
+
+	/**
+	 * Locates all keys in a single pass.
+	 * This method must be called before the values are requested.
+	 *
+	 * @param keys
+	 */
+	public void match(LibraryKeys keys) {
+
+		this.keys = keys;
+		size = 0;
+		for(int position = start; position < end; position++) {
+			for(int index : keys.getCandidates(buffer.get(position))) {
+				if(matches(position, keys.getLowerCaseKey(index))) {
+					if(size == matches.length) {
+						matches = Arrays.copyOf(matches, size * 2);
+					}
+					matches[size++] = index;
+					matches[size++] = position;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the value of the first occurrence of any of the given keys or "" if none is contained.
+	 *
+	 * @param keys
+	 * @return String
+	 */
+	public String getValue(String... keys) {
+
+		int position = getFirstPosition(keys);
+		return (position >= 0) ? getString(position, getLineEnd(position)).trim() : "";
+	}
+
+	/**
+	 * Returns the values of all occurrences of the given key.
+	 * Like a repeated pattern search, only the first occurrence per line is used.
+	 *
+	 * @param key
+	 * @return Set<String>
+	 */
+	public Set<String> getValues(String key) {
+
+		Set<String> values = new LinkedHashSet<>();
+		int index = keys.indexOf(key);
+		int lineEnd = -1;
+		for(int i = 0; i < size; i += 2) {
+			if(matches[i] == index && matches[i + 1] >= lineEnd) {
+				int position = matches[i + 1] + keys.getLength(index);
+				lineEnd = getLineEnd(position);
+				values.add(getString(position, lineEnd).trim());
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the position after the last occurrence of the key and the following count, e.g. "Num Peaks: 5".
+	 * If the key is not contained, -1 is returned.
+	 *
+	 * @param key
+	 * @return int
+	 */
+	public int getDataPosition(String key) {
+
+		int index = keys.indexOf(key);
+		for(int i = size - 2; i >= 0; i -= 2) {
+			if(matches[i] == index) {
+				int position = skipWhitespace(matches[i + 1] + keys.getLength(index));
+				while(position < end && isDigit(buffer.get(position))) {
+					position++;
+				}
+				return position;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the digits and hyphens following the first occurrence of any of the keys,
+	 * which is followed by at least one space. Otherwise, "" is returned.
+	 *
+	 * @param keys
+	 * @return String
+	 */
+	public String getNumberAfterSpace(String... keys) {
+
+		boolean[] selected = select(keys);
+		for(int i = 0; i < size; i += 2) {
+			if(selected[matches[i]]) {
+				int position = matches[i + 1] + this.keys.getLength(matches[i]);
+				if(position < end && buffer.get(position) == ' ') {
+					while(position < end && buffer.get(position) == ' ') {
+						position++;
+					}
+					int numberStart = position;
+					while(position < end && (isDigit(buffer.get(position)) || buffer.get(position) == '-')) {
+						position++;
+					}
+					return getString(numberStart, position);
+				}
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * Returns the number of the first occurrence of "key number unit", e.g. "rt: 10.818 min",
+	 * or null if it is not contained. Whitespace is allowed after the key and before the unit.
+	 *
+	 * @param key
+	 * @param unit
+	 * @return String
+	 */
+	public String getNumberWithUnit(String key, String unit) {
+
+		int index = keys.indexOf(key);
+		byte[] lowerCaseUnit = unit.toLowerCase().getBytes(StandardCharsets.US_ASCII);
+		for(int i = 0; i < size; i += 2) {
+			if(matches[i] == index) {
+				int position = skipWhitespace(matches[i + 1] + keys.getLength(index));
+				int numberEnd = getNumberEnd(position, false);
+				if(numberEnd > position) {
+					int unitStart = skipWhitespace(numberEnd);
+					if(matches(unitStart, lowerCaseUnit)) {
+						return getString(position, numberEnd);
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Passes all pairs of numbers, starting at the given position, to the consumer.
+	 * The pairs are located like the pattern ([+]?\d+\.?\d*)(separators)([+-]?\d+\.?\d*([eE][+-]?\d+)?),
+	 * where the separators are either whitespace or one of [\t ,;:].
+	 *
+	 * @param position
+	 * @param whitespaceSeparated
+	 * @param consumer
+	 */
+	public void getPairs(int position, boolean whitespaceSeparated, PairConsumer consumer) {
+
+		int index = position;
+		while(index < end) {
+			/*
+			 * First value
+			 */
+			int firstStart = index;
+			int firstEnd = getNumberEnd(index, true);
+			if(firstEnd < 0) {
+				index++;
+				continue;
+			}
+			/*
+			 * Separators
+			 */
+			int separatorEnd = firstEnd;
+			while(separatorEnd < end && isSeparator(buffer.get(separatorEnd), whitespaceSeparated)) {
+				separatorEnd++;
+			}
+			if(separatorEnd == firstEnd) {
+				index++;
+				continue;
+			}
+			/*
+			 * Second value
+			 */
+			int secondStart = separatorEnd;
+			int secondEnd = secondStart;
+			if(secondEnd < end && (buffer.get(secondEnd) == '+' || buffer.get(secondEnd) == '-')) {
+				secondEnd++;
+			}
+			secondEnd = getNumberEnd(secondEnd, false);
+			if(secondEnd < 0) {
+				index++;
+				continue;
+			}
+			consumer.accept(getString(firstStart, firstEnd), getString(secondStart, secondEnd));
+			index = secondEnd;
+		}
+	}
+
+	/**
+	 * Splits the record at each occurrence of the separators (case-sensitive).
+	 * If the record has been split into several parts, they get the first separator as prefix.
+	 * Empty parts are skipped.
+	 *
+	 * @param separators
+	 * @return List<LibraryRecord>
+	 */
+	public List<LibraryRecord> split(String... separators) {
+
+		byte[][] bytes = new byte[separators.length][];
+		for(int i = 0; i < separators.length; i++) {
+			bytes[i] = separators[i].getBytes(StandardCharsets.US_ASCII);
+		}
+		//
+		List<int[]> parts = new ArrayList<>();
+		int partStart = start;
+		int position = start;
+		exit:
+		while(position < end) {
+			for(byte[] separator : bytes) {
+				if(matchesExactly(position, separator)) {
+					parts.add(new int[]{partStart, position});
+					position += separator.length;
+					partStart = position;
+					continue exit;
+				}
+			}
+			position++;
+		}
+		//
+		List<LibraryRecord> records = new ArrayList<>();
+		if(parts.isEmpty()) {
+			records.add(this);
+		} else {
+			/*
+			 * The last part is kept even if it is empty, as the lines of a record
+			 * have been terminated before. Hence, a record ending with a separator
+			 * has been split too.
+			 */
+			parts.add(new int[]{partStart, end});
+			for(int[] part : parts) {
+				if(!isEmpty(part)) {
+					records.add(new LibraryRecord(buffer, part[0], part[1], separators[0]));
+				}
+			}
+		}
+		return records;
+	}
+
+	private static boolean isEmpty(int[] part) {
+
+		return part[1] <= part[0];
+	}
+
+	private int getFirstPosition(String... keys) {
+
+		boolean[] selected = select(keys);
+		if(prefix != null) {
+			for(String key : keys) {
+				if(prefix.equalsIgnoreCase(key)) {
+					return start;
+				}
+			}
+		}
+		//
+		for(int i = 0; i < size; i += 2) {
+			if(selected[matches[i]]) {
+				return matches[i + 1] + this.keys.getLength(matches[i]);
+			}
+		}
+		return -1;
+	}
+
+	private boolean[] select(String... keys) {
+
+		boolean[] selected = new boolean[this.keys.size()];
+		for(String key : keys) {
+			selected[this.keys.indexOf(key)] = true;
+		}
+		return selected;
+	}
+
+	/**
+	 * Returns the end of the number [+]?\d+\.?\d* (first) or \d+\.?\d*([eE][+-]?\d+)? or -1.
+	 */
+	private int getNumberEnd(int position, boolean first) {
+
+		int index = position;
+		if(first && index < end && buffer.get(index) == '+') {
+			index++;
+		}
+		int digitsStart = index;
+		while(index < end && isDigit(buffer.get(index))) {
+			index++;
+		}
+		if(index == digitsStart) {
+			return -1;
+		}
+		if(index < end && buffer.get(index) == '.') {
+			index++;
+			while(index < end && isDigit(buffer.get(index))) {
+				index++;
+			}
+		}
+		if(!first && index < end && (buffer.get(index) == 'e' || buffer.get(index) == 'E')) {
+			int exponent = index + 1;
+			if(exponent < end && (buffer.get(exponent) == '+' || buffer.get(exponent) == '-')) {
+				exponent++;
+			}
+			int exponentStart = exponent;
+			while(exponent < end && isDigit(buffer.get(exponent))) {
+				exponent++;
+			}
+			if(exponent > exponentStart) {
+				index = exponent;
+			}
+		}
+		return index;
+	}
+
+	private int skipWhitespace(int position) {
+
+		while(position < end && isWhitespace(buffer.get(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	private int getLineEnd(int position) {
+
+		while(position < end) {
+			byte value = buffer.get(position);
+			if(value == '\n' || value == '\r') {
+				break;
+			}
+			position++;
+		}
+		return position;
+	}
+
+	private boolean matches(int position, byte[] lowerCaseKey) {
+
+		if(position + lowerCaseKey.length > end) {
+			return false;
+		}
+		for(int i = 0; i < lowerCaseKey.length; i++) {
+			if(LibraryKeys.toLowerCase(buffer.get(position + i)) != lowerCaseKey[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean matchesExactly(int position, byte[] separator) {
+
+		if(position + separator.length > end) {
+			return false;
+		}
+		for(int i = 0; i < separator.length; i++) {
+			if(buffer.get(position + i) != separator[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Bytes outside of US-ASCII are replaced like by the US-ASCII decoder of a reader.
+	 */
+	private String getString(int from, int to) {
+
+		char[] chars = new char[to - from];
+		for(int i = 0; i < chars.length; i++) {
+			byte value = buffer.get(from + i);
+			chars[i] = (value >= 0) ? (char)value : '\uFFFD';
+		}
+		return new String(chars);
+	}
+
+	private static boolean isDigit(byte value) {
+
+		return value >= '0' && value <= '9';
+	}
+
+	private static boolean isWhitespace(byte value) {
+
+		return value == ' ' || value == '\t' || value == '\n' || value == '\r' || value == 0x0B || value == '\f';
+	}
+
+	private static boolean isSeparator(byte value, boolean whitespaceSeparated) {
+
+		if(whitespaceSeparated) {
+			return isWhitespace(value);
+		}
+		return value == '\t' || value == ' ' || value == ',' || value == ';' || value == ':';
+	}
+
+	public interface PairConsumer {
+
+		void accept(String first, String second);
+	}
+}
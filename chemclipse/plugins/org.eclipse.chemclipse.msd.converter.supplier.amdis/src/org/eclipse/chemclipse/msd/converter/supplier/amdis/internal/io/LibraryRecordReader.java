@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a library file (*.msl, *.msp) into records, which are divided by empty lines.
+ * The lines are terminated by \n, \r or \r\n like the lines of a BufferedReader.
+ * A line which contains whitespace only is not empty.
+ * The file is memory mapped in windows, the records keep a reference to their window.
+ */
+public class LibraryRecordReader {
+
+	private static final int WINDOW_SIZE = 1 << 28;
+
+	/**
+	 * Only static methods.
+	 */
+	private LibraryRecordReader() {
+	}
+
+	/**
+	 * Returns the records of the file.
+	 *
+	 * @param file
+	 * @return List<LibraryRecord>
+	 * @throws IOException
+	 */
+	public static List<LibraryRecord> read(File file) throws IOException {
+
+		return read(file, WINDOW_SIZE);
+	}
+
+	static List<LibraryRecord> read(File file, int windowSize) throws IOException {
+
+		List<LibraryRecord> records = new ArrayList<>();
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = fileChannel.size();
+			long position = 0;
+			int window = windowSize;
+			while(position < size) {
+				int length = (int)Math.min(size - position, window);
+				boolean last = position + length == size;
+				ByteBuffer buffer = fileChannel.map(MapMode.READ_ONLY, position, length);
+				int consumed = split(buffer, length, last, records);
+				if(last) {
+					break;
+				}
+				//
+				if(consumed > 0) {
+					position += consumed;
+				} else {
+					/*
+					 * The record is larger than the window.
+					 */
+					if(window == Integer.MAX_VALUE) {
+						throw new IOException("The record at position " + position + " is too large: " + file);
+					}
+					window = (int)Math.min(window * 2L, Integer.MAX_VALUE);
+				}
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Adds the records of the buffer and returns the number of consumed bytes.
+	 * The last line is incomplete if the buffer is not the last one, hence the pending record is
+	 * read again with the next buffer. A \r at the end could be followed by \n in the next buffer.
+	 */
+	private static int split(ByteBuffer buffer, int length, boolean last, List<LibraryRecord> records) {
+
+		int recordStart = -1;
+		int lineStart = 0;
+		int position = 0;
+		while(position < length) {
+			byte value = buffer.get(position);
+			if(value == '\n' || value == '\r') {
+				int next = position + 1;
+				if(value == '\r') {
+					if(next == length && !last) {
+						break;
+					}
+					if(next < length && buffer.get(next) == '\n') {
+						next++;
+					}
+				}
+				//
+				if(position == lineStart) {
+					if(recordStart >= 0) {
+						records.add(new LibraryRecord(buffer, recordStart, lineStart));
+						recordStart = -1;
+					}
+				} else if(recordStart < 0) {
+					recordStart = lineStart;
+				}
+				lineStart = next;
+				position = next;
+			} else {
+				position++;
+			}
+		}
+		//
+		if(last) {
+			if(lineStart < length && recordStart < 0) {
+				recordStart = lineStart;
+			}
+			if(recordStart >= 0) {
+				records.add(new LibraryRecord(buffer, recordStart, length));
+			}
+			return length;
+		}
+		return (recordStart >= 0) ? recordStart : lineStart;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -11,17 +11,11 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.msd.converter.supplier.amdis.io;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
 import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
@@ -31,9 +25,11 @@ import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
 import org.eclipse.chemclipse.msd.converter.io.AbstractMassSpectraReader;
 import org.eclipse.chemclipse.msd.converter.io.IMassSpectraReader;
 import org.eclipse.chemclipse.msd.converter.preferences.PreferenceSupplier;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io.LibraryKeys;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io.LibraryRecord;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io.LibraryRecordReader;
 import org.eclipse.chemclipse.msd.converter.supplier.amdis.model.IVendorLibraryMassSpectrum;
 import org.eclipse.chemclipse.msd.converter.supplier.amdis.model.VendorLibraryMassSpectrum;
-import org.eclipse.chemclipse.msd.model.core.IIon;
 import org.eclipse.chemclipse.msd.model.core.IMassSpectra;
 import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
 import org.eclipse.chemclipse.msd.model.implementation.Ion;
@@ -45,229 +41,170 @@ public class MSLReader extends AbstractMassSpectraReader implements IMassSpectra
 	private static final Logger logger = Logger.getLogger(MSLReader.class);
 	//
 	private static final String CONVERTER_ID = "org.eclipse.chemclipse.msd.converter.supplier.amdis.massspectrum.msl";
-	/**
-	 * Pre-compile all patterns to be a little bit faster.
+	/*
+	 * The keys are located in one pass per record.
 	 */
-	private static final Pattern NAME = Pattern.compile("(NAME:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern COMMENTS = Pattern.compile("(COMMENT:|COMMENTS:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern CAS = Pattern.compile("(CAS(NO|#)?:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern DB_NAME = Pattern.compile("(DB(NO|#)?:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern REFERENCE_IDENTIFIER = Pattern.compile("(REFID:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern SMILES = Pattern.compile("(SMILES:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern RETENTION_TIME = Pattern.compile("(RT:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern RELATIVE_RETENTION_TIME = Pattern.compile("(RRT:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern RETENTION_INDEX = Pattern.compile("(RI:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern DATA = Pattern.compile("(.*)(Num Peaks:)(\\s*)(\\d*)(.*)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-	private static final Pattern IONS = Pattern.compile("([+]?\\d+\\.?\\d*)(\\s+)([+-]?\\d+\\.?\\d*([eE][+-]?\\d+)?)"); // "(\\d+)(\\s+)(\\d+)" or "(\\d+)(\\s+)([+-]?\\d+\\.?\\d*([eE][+-]?\\d+)?)"
+	private static final String NAME = "NAME:";
+	private static final String COMMENT = "COMMENT:";
+	private static final String COMMENTS = "COMMENTS:";
+	private static final String CAS_NO = "CASNO:";
+	private static final String CAS_HASH = "CAS#:";
+	private static final String CAS = "CAS:";
+	private static final String DB_NO = "DBNO:";
+	private static final String DB_HASH = "DB#:";
+	private static final String DB = "DB:";
+	private static final String REFERENCE_IDENTIFIER = "REFID:";
+	private static final String SMILES = "SMILES:";
+	private static final String RETENTION_TIME = "RT:";
+	private static final String RELATIVE_RETENTION_TIME = "RRT:";
+	private static final String RETENTION_INDEX = "RI:";
+	private static final String NUM_PEAKS = "Num Peaks:";
+	private static final LibraryKeys KEYS = new LibraryKeys(NAME, COMMENT, COMMENTS, CAS_NO, CAS_HASH, CAS, DB_NO, DB_HASH, DB, REFERENCE_IDENTIFIER, SMILES, RETENTION_TIME, RELATIVE_RETENTION_TIME, RETENTION_INDEX, NUM_PEAKS);
 	//
-	private static final String CHARSET_US = "US-ASCII";
 	private static final String RETENTION_INDICES_DELIMITER = ", ";
-	private static final String LINE_DELIMITER = "\r\n";
 
 	@Override
 	public IMassSpectra read(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
 
-		List<String> massSpectraData = getMassSpectraData(file);
-		IMassSpectra massSpectra = extractMassSpectra(massSpectraData);
+		List<LibraryRecord> records = LibraryRecordReader.read(file);
+		IMassSpectra massSpectra = extractMassSpectra(records);
 		massSpectra.setConverterId(CONVERTER_ID);
 		massSpectra.setName(file.getName());
 		return massSpectra;
 	}
 
-	/**
-	 * Returns a list of mass spectral data.
-	 * 
-	 * @throws IOException
-	 */
-	private List<String> getMassSpectraData(File file) throws IOException {
-
-		Charset charset = Charset.forName(CHARSET_US);
-		List<String> massSpectraData = new ArrayList<String>();
-		//
-		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(new FileInputStream(file), charset))) {
-			StringBuilder builder = new StringBuilder();
-			String line;
-			while((line = bufferedReader.readLine()) != null) {
-				/*
-				 * The mass spectra are divided by empty lines. If the builder has
-				 * at least 1 char, then add a new potential mass spectrum to the
-				 * mass spectra data list. Don't forget to build a new
-				 * StringBuilder. In all other cases append the found lines to the
-				 * StringBuilder.
-				 */
-				if(line.length() == 0) {
-					addMassSpectrumData(builder, massSpectraData);
-					builder = new StringBuilder();
-				} else {
-					builder.append(line);
-					builder.append(LINE_DELIMITER);
-				}
-			}
-			/*
-			 * Don't forget to add the last mass spectrum.
-			 */
-			addMassSpectrumData(builder, massSpectraData);
-			bufferedReader.close();
-		}
-		//
-		return massSpectraData;
-	}
-
-	/**
-	 * Adds the content from the StringBuilder to the mass spectra data list, if
-	 * the length is > 0.
-	 * 
-	 * @param builder
-	 * @param massSpectraData
-	 */
-	private void addMassSpectrumData(StringBuilder builder, List<String> massSpectraData) {
-
-		String massSpectrumData;
-		if(builder.length() > 0) {
-			massSpectrumData = builder.toString();
-			massSpectraData.add(massSpectrumData);
-		}
-	}
-
 	/**
 	 * Returns a mass spectra object or null, if something has gone wrong.
+	 * The records are parsed in parallel, the order of the mass spectra is kept.
 	 * 
-	 * @param massSpectraData
+	 * @param records
 	 * @return IMassSpectra
 	 */
-	private IMassSpectra extractMassSpectra(List<String> massSpectraData) {
+	private IMassSpectra extractMassSpectra(List<LibraryRecord> records) {
 
 		IMassSpectra massSpectra = new MassSpectra();
 		String referenceIdentifierMarker = PreferenceSupplier.getReferenceIdentifierMarker();
 		String referenceIdentifierPrefix = PreferenceSupplier.getReferenceIdentifierPrefix();
 		/*
-		 * Iterates through the saved mass spectrum text data and converts it to
-		 * a mass spectrum.
+		 * Converts the records to mass spectra.
 		 */
-		for(String massSpectrumData : massSpectraData) {
-			addMassSpectrum(massSpectra, massSpectrumData, referenceIdentifierMarker, referenceIdentifierPrefix);
+		List<IVendorLibraryMassSpectrum> massSpectrumList = records.parallelStream() //
+				.map(record -> extractMassSpectrum(record, referenceIdentifierMarker, referenceIdentifierPrefix)) //
+				.collect(Collectors.toList());
+		for(IVendorLibraryMassSpectrum massSpectrum : massSpectrumList) {
+			/*
+			 * Store the mass spectrum in mass spectra if there is at least 1 mass
+			 * fragment.
+			 */
+			if(massSpectrum.getNumberOfIons() > 0) {
+				massSpectra.addMassSpectrum(massSpectrum);
+			}
 		}
 		return massSpectra;
 	}
 
 	/**
-	 * Detect a mass spectrum and add it to the given mass spectra.
+	 * Extracts the mass spectrum of the given record.
 	 * 
-	 * @param massSpectra
-	 * @param massSpectrumData
+	 * @param record
+	 * @return {@link IVendorLibraryMassSpectrum}
 	 */
-	private void addMassSpectrum(IMassSpectra massSpectra, String massSpectrumData, String referenceIdentifierMarker, String referenceIdentifierPrefix) {
+	private IVendorLibraryMassSpectrum extractMassSpectrum(LibraryRecord record, String referenceIdentifierMarker, String referenceIdentifierPrefix) {
 
+		record.match(KEYS);
 		IVendorLibraryMassSpectrum massSpectrum = new VendorLibraryMassSpectrum();
 		/*
 		 * Extract name and reference identifier.
 		 * Additionally, add the reference identifier if it is stored as a pattern.
 		 */
-		String name = extractContentAsString(massSpectrumData, NAME, 2);
+		String name = extractContentAsString(record, NAME);
 		extractNameAndReferenceIdentifier(massSpectrum, name, referenceIdentifierMarker, referenceIdentifierPrefix);
-		String referenceIdentifier = extractContentAsString(massSpectrumData, REFERENCE_IDENTIFIER, 2) + massSpectrum.getLibraryInformation().getReferenceIdentifier();
+		String referenceIdentifier = extractContentAsString(record, REFERENCE_IDENTIFIER) + massSpectrum.getLibraryInformation().getReferenceIdentifier();
 		massSpectrum.getLibraryInformation().setReferenceIdentifier(referenceIdentifier);
 		//
-		String comments = extractContentAsString(massSpectrumData, COMMENTS, 2);
+		String comments = extractContentAsString(record, COMMENT, COMMENTS);
 		massSpectrum.getLibraryInformation().setComments(comments);
-		String casNumber = extractContentAsString(massSpectrumData, CAS, 3);
+		String casNumber = extractContentAsString(record, CAS_NO, CAS_HASH, CAS);
 		massSpectrum.getLibraryInformation().setCasNumber(casNumber);
-		String database = extractContentAsString(massSpectrumData, DB_NAME, 3);
+		String database = extractContentAsString(record, DB_NO, DB_HASH, DB);
 		massSpectrum.getLibraryInformation().setDatabase(database);
-		String smiles = extractContentAsString(massSpectrumData, SMILES, 2);
+		String smiles = extractContentAsString(record, SMILES);
 		massSpectrum.getLibraryInformation().setSmiles(smiles);
-		int retentionTime = extractContentAsInt(massSpectrumData, RETENTION_TIME, 2);
+		int retentionTime = extractContentAsInt(record, RETENTION_TIME);
 		massSpectrum.setRetentionTime(retentionTime);
-		int relativeRetentionTime = extractContentAsInt(massSpectrumData, RELATIVE_RETENTION_TIME, 2);
+		int relativeRetentionTime = extractContentAsInt(record, RELATIVE_RETENTION_TIME);
 		massSpectrum.setRelativeRetentionTime(relativeRetentionTime);
-		String retentionIndices = extractContentAsString(massSpectrumData, RETENTION_INDEX, 2);
+		String retentionIndices = extractContentAsString(record, RETENTION_INDEX);
 		extractRetentionIndices(massSpectrum, retentionIndices, RETENTION_INDICES_DELIMITER);
 		/*
 		 * Extracts all ions and stored them.
 		 */
-		extractIons(massSpectrum, massSpectrumData);
-		/*
-		 * Store the mass spectrum in mass spectra if there is at least 1 mass
-		 * fragment.
-		 */
-		if(massSpectrum.getNumberOfIons() > 0) {
-			massSpectra.addMassSpectrum(massSpectrum);
-		}
+		extractIons(massSpectrum, record);
+		return massSpectrum;
 	}
 
 	/**
-	 * Extracts all ion from the given mass spectrum data and stores
+	 * Extracts all ion from the given record and stores
 	 * them in the given mass spectrum.
+	 * The ions are listed after the last "Num Peaks:" key and the count.
 	 * 
 	 * @param massSpectrum
-	 * @param massSpectrumData
+	 * @param record
 	 */
-	private void extractIons(IVendorLibraryMassSpectrum massSpectrum, String massSpectrumData) {
+	private void extractIons(IVendorLibraryMassSpectrum massSpectrum, LibraryRecord record) {
 
-		String ionData = "";
-		Matcher data = DATA.matcher(massSpectrumData);
-		data.find();
-		if(data.matches()) {
-			ionData = data.group(5);
+		int position = record.getDataPosition(NUM_PEAKS);
+		if(position < 0) {
+			return;
 		}
 		//
-		IIon amdisIon = null;
-		double ion;
-		float abundance;
-		Matcher ions = IONS.matcher(ionData);
-		while(ions.find()) {
+		record.getPairs(position, true, (ionValue, abundanceValue) -> {
 			try {
 				/*
 				 * Get the ion and abundance values.
 				 */
-				ion = Double.parseDouble(ions.group(1));
-				abundance = Float.parseFloat(ions.group(3));
+				double ion = Double.parseDouble(ionValue);
+				float abundance = Float.parseFloat(abundanceValue);
 				/*
 				 * Create the ion and store it in mass spectrum.
 				 */
 				if(abundance > 0) {
-					amdisIon = new Ion(ion, abundance);
-					massSpectrum.addIon(amdisIon);
+					massSpectrum.addIon(new Ion(ion, abundance));
 				}
 			} catch(AbundanceLimitExceededException e) {
 				logger.warn(e);
 			} catch(IonLimitExceededException e) {
 				logger.warn(e);
 			}
-		}
+		});
 	}
 
 	/**
-	 * Extracts the content from the given mass spectrum string defined by the
-	 * given pattern.
+	 * Extracts the content of the first of the given keys.
 	 * 
-	 * @param massSpectrumData
+	 * @param record
+	 * @param keys
 	 * @return String
 	 */
-	private String extractContentAsString(String massSpectrumData, Pattern pattern, int group) {
+	private String extractContentAsString(LibraryRecord record, String... keys) {
 
-		String content = "";
-		Matcher matcher = pattern.matcher(massSpectrumData);
-		if(matcher.find()) {
-			content = matcher.group(group).trim();
-		}
-		return content.replace("\0", " ");
+		return record.getValue(keys).replace("\0", " ");
 	}
 
 	/**
-	 * Extracts the content from the given mass spectrum string defined by the
-	 * given pattern.
+	 * Extracts the content of the given key.
 	 * 
-	 * @param massSpectrumData
+	 * @param record
+	 * @param key
 	 * @return int
 	 */
-	private int extractContentAsInt(String massSpectrumData, Pattern pattern, int group) {
+	private int extractContentAsInt(LibraryRecord record, String key) {
 
 		int content = 0;
 		try {
-			Matcher matcher = pattern.matcher(massSpectrumData);
-			if(matcher.find()) {
-				content = (int)(Double.parseDouble(matcher.group(group).trim()) * AbstractChromatogram.MINUTE_CORRELATION_FACTOR);
+			String value = record.getValue(key);
+			if(!value.isEmpty()) {
+				content = (int)(Double.parseDouble(value) * AbstractChromatogram.MINUTE_CORRELATION_FACTOR);
 			}
 		} catch(Exception e) {
 			logger.warn(e);
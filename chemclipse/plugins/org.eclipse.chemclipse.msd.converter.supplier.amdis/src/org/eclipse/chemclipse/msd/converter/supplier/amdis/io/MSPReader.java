@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -11,20 +11,13 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.msd.converter.supplier.amdis.io;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
 import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
@@ -35,9 +28,11 @@ import org.eclipse.chemclipse.model.identifier.ILibraryInformation;
 import org.eclipse.chemclipse.msd.converter.io.AbstractMassSpectraReader;
 import org.eclipse.chemclipse.msd.converter.io.IMassSpectraReader;
 import org.eclipse.chemclipse.msd.converter.preferences.PreferenceSupplier;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io.LibraryKeys;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io.LibraryRecord;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io.LibraryRecordReader;
 import org.eclipse.chemclipse.msd.converter.supplier.amdis.model.IVendorLibraryMassSpectrum;
 import org.eclipse.chemclipse.msd.converter.supplier.amdis.model.VendorLibraryMassSpectrum;
-import org.eclipse.chemclipse.msd.model.core.IIon;
 import org.eclipse.chemclipse.msd.model.core.IMassSpectra;
 import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
 import org.eclipse.chemclipse.msd.model.implementation.Ion;
@@ -48,285 +43,181 @@ public class MSPReader extends AbstractMassSpectraReader implements IMassSpectra
 
 	private static final Logger logger = Logger.getLogger(MSPReader.class);
 	private static final String CONVERTER_ID = "org.eclipse.chemclipse.msd.converter.supplier.amdis.massspectrum.msp";
-	/**
-	 * Pre-compile all patterns to be a little bit faster.
+	/*
+	 * The keys are located in one pass per record.
 	 */
-	private static final String LINE_END = "\n";
-	private static final Pattern namePattern = Pattern.compile("(NAME:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern nameRetentionTimePattern = Pattern.compile("(rt:\\s*)(\\d+\\.?\\d*([eE][+-]?\\d+)?)(\\s*min)", Pattern.CASE_INSENSITIVE); // (rt: 10.818 min)
-	private static final Pattern formulaPattern = Pattern.compile("(FORMULA:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern molweightPattern = Pattern.compile("(MW:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern synonymPattern = Pattern.compile("(Synon:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern commentsPattern = Pattern.compile("(COMMENTS:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern commentPattern = Pattern.compile("(COMMENT:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern casNumberPattern = Pattern.compile("(CAS(NO|#)?:[ ]+)([0-9-]*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern databaseNamePattern = Pattern.compile("(DB(NO|#)?:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern referenceIdentifierPattern = Pattern.compile("(REFID:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern smilesPattern = Pattern.compile("(SMILES:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern retentionTimePattern = Pattern.compile("(RT:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern relativeRetentionTimePattern = Pattern.compile("(RRT:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern retentionIndexPattern = Pattern.compile("(RI:)(.*)", Pattern.CASE_INSENSITIVE);
-	private static final Pattern dataPattern = Pattern.compile("(.*)(Num Peaks:)(\\s*)(\\d*)(.*)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
-	private static final Pattern ionPattern = Pattern.compile("([+]?\\d+\\.?\\d*)([\t ,;:]+)([+-]?\\d+\\.?\\d*([eE][+-]?\\d+)?)");
+	private static final String NAME = "NAME:";
+	private static final String NAME_LOWER_CASE = "name:";
+	private static final String FORMULA = "FORMULA:";
+	private static final String MOLWEIGHT = "MW:";
+	private static final String SYNONYM = "Synon:";
+	private static final String COMMENTS = "COMMENTS:";
+	private static final String COMMENT = "COMMENT:";
+	private static final String CAS_NO = "CASNO:";
+	private static final String CAS_HASH = "CAS#:";
+	private static final String CAS = "CAS:";
+	private static final String DB_NO = "DBNO:";
+	private static final String DB_HASH = "DB#:";
+	private static final String DB = "DB:";
+	private static final String REFERENCE_IDENTIFIER = "REFID:";
+	private static final String SMILES = "SMILES:";
+	private static final String RETENTION_TIME = "RT:";
+	private static final String RELATIVE_RETENTION_TIME = "RRT:";
+	private static final String RETENTION_INDEX = "RI:";
+	private static final String NUM_PEAKS = "Num Peaks:";
+	private static final String MINUTES = "min"; // (rt: 10.818 min)
+	private static final LibraryKeys KEYS = new LibraryKeys(NAME, FORMULA, MOLWEIGHT, SYNONYM, COMMENTS, COMMENT, CAS_NO, CAS_HASH, CAS, DB_NO, DB_HASH, DB, REFERENCE_IDENTIFIER, SMILES, RETENTION_TIME, RELATIVE_RETENTION_TIME, RETENTION_INDEX, NUM_PEAKS);
 	//
 	private static final String RETENTION_INDICES_DELIMITER = ", ";
 
 	@Override
 	public IMassSpectra read(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
 
-		List<String> massSpectraData = getMassSpectraData(file);
-		IMassSpectra massSpectra = extractMassSpectra(massSpectraData);
+		List<LibraryRecord> records = LibraryRecordReader.read(file);
+		IMassSpectra massSpectra = extractMassSpectra(records);
 		massSpectra.setConverterId(CONVERTER_ID);
 		massSpectra.setName(file.getName());
 		return massSpectra;
 	}
 
-	/**
-	 * Returns a list of mass spectral data.
-	 * 
-	 * @throws IOException
-	 */
-	private List<String> getMassSpectraData(File file) throws IOException {
-
-		Charset charSet = Charset.forName("US-ASCII");
-		BufferedInputStream bufferedInputStream = new BufferedInputStream(new FileInputStream(file));
-		InputStreamReader inputStreamReader = new InputStreamReader(bufferedInputStream, charSet);
-		BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-		List<String> massSpectraData = new ArrayList<String>();
-		StringBuilder builder = new StringBuilder();
-		String line;
-		while((line = bufferedReader.readLine()) != null) {
-			/*
-			 * The mass spectra are divided by empty lines. If the builder has
-			 * at least 1 char, then add a new potential mass spectrum to the
-			 * mass spectra data list. Don't forget to build a new
-			 * StringBuilder. In all other cases append the found lines to the
-			 * StringBuilder.
-			 */
-			if(line.length() == 0) {
-				addMassSpectrumData(builder, massSpectraData);
-				builder = new StringBuilder();
-			} else {
-				builder.append(line);
-				builder.append(LINE_END);
-			}
-		}
-		/*
-		 * Don't forget to add the last mass spectrum.
-		 */
-		addMassSpectrumData(builder, massSpectraData);
-		/*
-		 * Close the streams.
-		 */
-		bufferedReader.close();
-		inputStreamReader.close();
-		bufferedInputStream.close();
-		return massSpectraData;
-	}
-
-	/**
-	 * Adds the content from the StringBuilder to the mass spectra data list, if
-	 * the length is > 0.
-	 * 
-	 * @param builder
-	 * @param massSpectraData
-	 */
-	private void addMassSpectrumData(StringBuilder builder, List<String> massSpectraData) {
-
-		String massSpectrumData;
-		if(builder.length() > 0) {
-			massSpectrumData = builder.toString();
-			massSpectraData.add(massSpectrumData);
-		}
-	}
-
 	/**
 	 * Returns a mass spectra object or null, if something has gone wrong.
+	 * The records are parsed in parallel, the order of the mass spectra is kept.
 	 * 
-	 * @param massSpectraData
+	 * @param records
 	 * @return IMassSpectra
 	 */
-	private IMassSpectra extractMassSpectra(List<String> massSpectraData) {
+	private IMassSpectra extractMassSpectra(List<LibraryRecord> records) {
 
 		IMassSpectra massSpectra = new MassSpectra();
 		String referenceIdentifierMarker = PreferenceSupplier.getReferenceIdentifierMarker();
 		String referenceIdentifierPrefix = PreferenceSupplier.getReferenceIdentifierPrefix();
 		//
-		if(massSpectraData.size() > 1) {
-			/*
-			 * Iterates through the saved mass spectrum text data and converts it to
-			 * a mass spectrum.
-			 */
-			for(String massSpectrumData : massSpectraData) {
-				addMassSpectrum(massSpectra, massSpectrumData, referenceIdentifierMarker, referenceIdentifierPrefix);
-			}
-		} else if(massSpectraData.size() == 1) {
+		if(records.size() == 1) {
 			/*
 			 * Sometimes, mass spectra are not separated by an empty line.
 			 * Hence, check if several name patterns can be detected in the text.
 			 */
-			String[] splittedMassSpectra = massSpectraData.get(0).split("(NAME:|name:)");
-			for(String splittedMassSpectrum : splittedMassSpectra) {
-				if(!splittedMassSpectrum.equals("")) {
-					if(splittedMassSpectra.length == 1) {
-						addMassSpectrum(massSpectra, splittedMassSpectrum, referenceIdentifierMarker, referenceIdentifierPrefix);
-					} else {
-						addMassSpectrum(massSpectra, "NAME:" + splittedMassSpectrum, referenceIdentifierMarker, referenceIdentifierPrefix);
-					}
-				}
+			records = records.get(0).split(NAME, NAME_LOWER_CASE);
+		}
+		/*
+		 * Converts the records to mass spectra.
+		 */
+		List<IVendorLibraryMassSpectrum> massSpectrumList = records.parallelStream() //
+				.map(record -> extractMassSpectrum(record, referenceIdentifierMarker, referenceIdentifierPrefix)) //
+				.collect(Collectors.toList());
+		for(IVendorLibraryMassSpectrum massSpectrum : massSpectrumList) {
+			/*
+			 * Store the mass spectrum in mass spectra if there is at least 1 mass
+			 * fragment.
+			 */
+			if(massSpectrum.getNumberOfIons() > 0) {
+				massSpectra.addMassSpectrum(massSpectrum);
 			}
 		}
 		return massSpectra;
 	}
 
 	/**
-	 * Detect a mass spectrum and add it to the given mass spectra.
+	 * Extracts the mass spectrum of the given record.
 	 * 
-	 * @param massSpectra
-	 * @param massSpectrumData
+	 * @param record
+	 * @return {@link IVendorLibraryMassSpectrum}
 	 */
-	private void addMassSpectrum(IMassSpectra massSpectra, String massSpectrumData, String referenceIdentifierMarker, String referenceIdentifierPrefix) {
+	private IVendorLibraryMassSpectrum extractMassSpectrum(LibraryRecord record, String referenceIdentifierMarker, String referenceIdentifierPrefix) {
 
+		record.match(KEYS);
 		IVendorLibraryMassSpectrum massSpectrum = new VendorLibraryMassSpectrum();
 		ILibraryInformation libraryInformation = massSpectrum.getLibraryInformation();
 		/*
 		 * Extract name and reference identifier.
 		 * Additionally, add the reference identifier if it is stored as a pattern.
 		 */
-		String name = extractContentAsString(massSpectrumData, namePattern, 2);
+		String name = record.getValue(NAME);
 		extractNameAndReferenceIdentifier(massSpectrum, name, referenceIdentifierMarker, referenceIdentifierPrefix);
-		String referenceIdentifier = extractContentAsString(massSpectrumData, referenceIdentifierPattern, 2);
+		String referenceIdentifier = record.getValue(REFERENCE_IDENTIFIER);
 		massSpectrum.getLibraryInformation().setReferenceIdentifier(referenceIdentifier);
 		//
-		String formula = extractContentAsString(massSpectrumData, formulaPattern, 2);
+		String formula = record.getValue(FORMULA);
 		libraryInformation.setFormula(formula);
-		double molWeight = extractContentAsDouble(massSpectrumData, molweightPattern);
+		double molWeight = extractContentAsDouble(record, MOLWEIGHT);
 		libraryInformation.setMolWeight(molWeight);
-		Set<String> synonyms = extractSynonyms(massSpectrumData, synonymPattern);
+		Set<String> synonyms = new HashSet<String>(record.getValues(SYNONYM));
 		massSpectrum.getLibraryInformation().setSynonyms(synonyms);
-		String comments = extractContentAsString(massSpectrumData, commentsPattern, 2);
-		String comment = extractContentAsString(massSpectrumData, commentPattern, 2);
+		String comments = record.getValue(COMMENTS);
+		String comment = record.getValue(COMMENT);
 		String commentData = comments + comment;
 		libraryInformation.setComments(commentData.trim());
-		String casNumber = extractContentAsString(massSpectrumData, casNumberPattern, 3);
+		String casNumber = record.getNumberAfterSpace(CAS_NO, CAS_HASH, CAS);
 		libraryInformation.setCasNumber(casNumber);
-		String database = extractContentAsString(massSpectrumData, databaseNamePattern, 3);
+		String database = record.getValue(DB_NO, DB_HASH, DB);
 		libraryInformation.setDatabase(database);
-		String smiles = extractContentAsString(massSpectrumData, smilesPattern, 2);
+		String smiles = record.getValue(SMILES);
 		libraryInformation.setSmiles(smiles);
-		int retentionTime = extractContentAsInt(massSpectrumData, retentionTimePattern, 2);
+		int retentionTime = extractContentAsInt(record.getValue(RETENTION_TIME));
 		if(retentionTime == 0) {
-			retentionTime = extractContentAsInt(massSpectrumData, nameRetentionTimePattern, 2);
+			retentionTime = extractContentAsInt(record.getNumberWithUnit(RETENTION_TIME, MINUTES));
 		}
 		massSpectrum.setRetentionTime(retentionTime);
-		int relativeRetentionTime = extractContentAsInt(massSpectrumData, relativeRetentionTimePattern, 2);
+		int relativeRetentionTime = extractContentAsInt(record.getValue(RELATIVE_RETENTION_TIME));
 		massSpectrum.setRelativeRetentionTime(relativeRetentionTime);
-		String retentionIndices = extractContentAsString(massSpectrumData, retentionIndexPattern, 2);
+		String retentionIndices = record.getValue(RETENTION_INDEX);
 		extractRetentionIndices(massSpectrum, retentionIndices, RETENTION_INDICES_DELIMITER);
 		/*
 		 * Extracts all ions and stored them.
 		 */
-		extractIons(massSpectrum, massSpectrumData);
-		/*
-		 * Store the mass spectrum in mass spectra if there is at least 1 mass
-		 * fragment.
-		 */
-		if(massSpectrum.getNumberOfIons() > 0) {
-			massSpectra.addMassSpectrum(massSpectrum);
-		}
+		extractIons(massSpectrum, record);
+		return massSpectrum;
 	}
 
 	/**
-	 * Extracts all ion from the given mass spectrum data and stores
+	 * Extracts all ion from the given record and stores
 	 * them in the given mass spectrum.
+	 * The ions are listed after the last "Num Peaks:" key and the count.
 	 * 
 	 * @param massSpectrum
-	 * @param massSpectrumData
+	 * @param record
 	 */
-	private void extractIons(IVendorLibraryMassSpectrum massSpectrum, String massSpectrumData) {
+	private void extractIons(IVendorLibraryMassSpectrum massSpectrum, LibraryRecord record) {
 
-		String ionData = "";
-		Matcher data = dataPattern.matcher(massSpectrumData);
-		data.find();
-		if(data.matches()) {
-			ionData = data.group(5);
+		int position = record.getDataPosition(NUM_PEAKS);
+		if(position < 0) {
+			return;
 		}
 		//
-		IIon amdisIon = null;
-		double ion;
-		float abundance;
-		Matcher ions = ionPattern.matcher(ionData);
-		while(ions.find()) {
+		record.getPairs(position, false, (ionValue, abundanceValue) -> {
 			try {
 				/*
 				 * Get the ion and abundance values.
 				 */
-				ion = Double.parseDouble(ions.group(1));
-				abundance = Float.parseFloat(ions.group(3));
+				double ion = Double.parseDouble(ionValue);
+				float abundance = Float.parseFloat(abundanceValue);
 				/*
 				 * Create the ion and store it in mass spectrum.
 				 */
 				if(abundance > 0) {
-					amdisIon = new Ion(ion, abundance);
-					massSpectrum.addIon(amdisIon);
+					massSpectrum.addIon(new Ion(ion, abundance));
 				}
 			} catch(AbundanceLimitExceededException e) {
 				logger.warn(e);
 			} catch(IonLimitExceededException e) {
 				logger.warn(e);
 			}
-		}
-	}
-
-	/**
-	 * Extracts the content from the given mass spectrum string defined by the
-	 * given pattern.
-	 * 
-	 * @param massSpectrumData
-	 * @return String
-	 */
-	private String extractContentAsString(String massSpectrumData, Pattern pattern, int group) {
-
-		String content = "";
-		Matcher matcher = pattern.matcher(massSpectrumData);
-		if(matcher.find()) {
-			content = matcher.group(group).trim();
-		}
-		return content;
-	}
-
-	/**
-	 * Extracts the synonyms from the mass spectrum.
-	 * 
-	 * @param massSpectrumData
-	 * @param pattern
-	 * @return {@link Set}
-	 */
-	private Set<String> extractSynonyms(String massSpectrumData, Pattern pattern) {
-
-		Set<String> synonyms = new HashSet<String>();
-		Matcher matcher = pattern.matcher(massSpectrumData);
-		while(matcher.find()) {
-			String synonym = matcher.group(2).trim();
-			synonyms.add(synonym);
-		}
-		return synonyms;
+		});
 	}
 
 	/**
-	 * Extracts the content from the given mass spectrum string defined by the
-	 * given pattern.
+	 * Converts the value (minutes) to milliseconds.
 	 * 
-	 * @param massSpectrumData
+	 * @param value
 	 * @return int
 	 */
-	private int extractContentAsInt(String massSpectrumData, Pattern pattern, int group) {
+	private int extractContentAsInt(String value) {
 
 		int content = 0;
 		try {
-			Matcher matcher = pattern.matcher(massSpectrumData);
-			if(matcher.find()) {
-				content = (int)(Double.parseDouble(matcher.group(group).trim()) * AbstractChromatogram.MINUTE_CORRELATION_FACTOR);
+			if(value != null && !value.isEmpty()) {
+				content = (int)(Double.parseDouble(value) * AbstractChromatogram.MINUTE_CORRELATION_FACTOR);
 			}
 		} catch(Exception e) {
 			logger.warn(e);
@@ -334,13 +225,13 @@ public class MSPReader extends AbstractMassSpectraReader implements IMassSpectra
 		return content;
 	}
 
-	private double extractContentAsDouble(String massSpectrumData, Pattern pattern) {
+	private double extractContentAsDouble(LibraryRecord record, String key) {
 
 		double content = 0.0f;
 		try {
-			Matcher matcher = pattern.matcher(massSpectrumData);
-			if(matcher.find()) {
-				content = Double.parseDouble(matcher.group(2));
+			String value = record.getValue(key);
+			if(!value.isEmpty()) {
+				content = Double.parseDouble(value);
 			}
 		} catch(Exception e) {
 			logger.warn(e);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2018 Lablicate GmbH.
+ * Copyright (c) 2013, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -22,6 +22,8 @@ import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
 import org.eclipse.chemclipse.model.core.IChromatogramOverview;
 import org.eclipse.chemclipse.msd.converter.io.AbstractChromatogramMSDReader;
 import org.eclipse.chemclipse.msd.converter.io.IChromatogramMSDReader;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.IVendorScan;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io.SpectrumReader;
 import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
 
 public class ChromatogramReader extends AbstractChromatogramMSDReader implements IChromatogramMSDReader {
@@ -29,12 +31,29 @@ public class ChromatogramReader extends AbstractChromatogramMSDReader implements
 	@Override
 	public IChromatogramOverview readOverview(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
 
-		return null;
+		return new SpectrumReader().readOverview(file, monitor);
 	}
 
+	/**
+	 * The scans of the chromatogram are proxies. Their ions are decoded when they are accessed.
+	 */
 	@Override
 	public IChromatogramMSD read(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
 
-		return null;
+		return new SpectrumReader().read(file, monitor);
+	}
+
+	/**
+	 * Returns the decoded scan with the given number or null if it is not available.
+	 * Only the requested spectrum is parsed.
+	 *
+	 * @param file
+	 * @param scanNumber
+	 * @return {@link IVendorScan}
+	 * @throws IOException
+	 */
+	public IVendorScan readScan(File file, int scanNumber) throws IOException {
+
+		return new SpectrumReader().readScan(file, scanNumber);
 	}
 }
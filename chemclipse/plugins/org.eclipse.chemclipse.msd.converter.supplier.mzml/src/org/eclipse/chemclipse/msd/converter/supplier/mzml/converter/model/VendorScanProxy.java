@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io.ReferenceableParamGroups;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io.SpectrumReader;
+import org.eclipse.chemclipse.msd.model.core.AbstractVendorMassSpectrumProxy;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+
+/**
+ * The binary data arrays of the spectrum are decoded when the ions are accessed.
+ */
+public class VendorScanProxy extends AbstractVendorMassSpectrumProxy implements IVendorScanProxy {
+
+	/**
+	 * Renew the serialVersionUID any time you have changed some fields or
+	 * methods.
+	 */
+	private static final long serialVersionUID = -2412745216418938642L;
+	private static final Logger logger = Logger.getLogger(VendorScanProxy.class);
+	//
+	private File file;
+	private long offset;
+	private ReferenceableParamGroups referenceableParamGroups;
+
+	public VendorScanProxy(File file, long offset, ReferenceableParamGroups referenceableParamGroups) {
+		this.file = file;
+		this.offset = offset;
+		this.referenceableParamGroups = referenceableParamGroups;
+	}
+
+	@Override
+	public int getMaxPossibleIons() {
+
+		return VendorScan.MAX_MASSFRAGMENTS;
+	}
+
+	@Override
+	public int getMinPossibleRetentionTime() {
+
+		return VendorScan.MIN_RETENTION_TIME;
+	}
+
+	@Override
+	public int getMaxPossibleRetentionTime() {
+
+		return VendorScan.MAX_RETENTION_TIME;
+	}
+
+	@Override
+	public void importIons() {
+
+		try {
+			SpectrumReader.readIons(file, offset, referenceableParamGroups, this);
+		} catch(IOException e) {
+			logger.warn(e);
+		}
+	}
+
+	// -------------------------------IMassSpectrumCloneable
+	/**
+	 * Keep in mind, it is a covariant return.<br/>
+	 * IMassSpectrum is needed. IMassSpectrum is a subtype of
+	 * ISupplierMassSpectrum is a subtype of IMassSpectrum.
+	 */
+	@Override
+	public IVendorScan makeDeepCopy() throws CloneNotSupportedException {
+
+		IVendorScanProxy massSpectrum = (IVendorScanProxy)super.clone();
+		IVendorIon mzMLIon;
+		/*
+		 * The instance variables have been copied by super.clone();.<br/> The
+		 * ions in the ion list need not to be removed via
+		 * removeAllIons as the method super.clone() has created a new
+		 * list.<br/> It is necessary to fill the list again, as the abstract
+		 * super class does not know each available type of ion.<br/>
+		 * Make a deep copy of all ions.
+		 */
+		for(IIon ion : getIons()) {
+			try {
+				mzMLIon = new VendorIon(ion.getIon(), ion.getAbundance());
+				massSpectrum.addIon(mzMLIon);
+			} catch(AbundanceLimitExceededException e) {
+				logger.warn(e);
+			} catch(IonLimitExceededException e) {
+				logger.warn(e);
+			}
+		}
+		return massSpectrum;
+	}
+
+	@Override
+	protected Object clone() throws CloneNotSupportedException {
+
+		return makeDeepCopy();
+	}
+	// -------------------------------IMassSpectrumCloneable
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes the base64 encoded content of a binaryDataArray directly into a primitive array.
+ * mzML stores the values little endian. The content is optionally zlib and/or numpress compressed.
+ */
+public class BinaryDataDecoder {
+
+	public static final int NUMPRESS_NONE = 0;
+	public static final int NUMPRESS_LINEAR = 1;
+	public static final int NUMPRESS_PIC = 2;
+	public static final int NUMPRESS_SLOF = 3;
+	//
+	public static final int PRECISION_32 = 32;
+	public static final int PRECISION_64 = 64;
+
+	/**
+	 * Only static methods.
+	 */
+	private BinaryDataDecoder() {
+	}
+
+	/**
+	 * Returns the decoded values.
+	 * If numpress is used, the precision is ignored.
+	 * The expected number of values is used to size the inflate buffer.
+	 * If it is unknown (0), the buffer grows on demand.
+	 *
+	 * @param content
+	 * @param precision
+	 * @param integer
+	 * @param zlib
+	 * @param numpress
+	 * @param expectedValues
+	 * @return double[]
+	 * @throws DataFormatException
+	 */
+	public static double[] decode(String content, int precision, boolean integer, boolean zlib, int numpress, int expectedValues) throws DataFormatException {
+
+		if(content == null || content.isEmpty()) {
+			return new double[0];
+		}
+		/*
+		 * The MIME decoder ignores line breaks in the content.
+		 */
+		byte[] bytes = Base64.getMimeDecoder().decode(content);
+		int length = bytes.length;
+		int bytesPerValue = (precision == PRECISION_64) ? Long.BYTES : Integer.BYTES;
+		if(zlib) {
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(bytes);
+				int size = (expectedValues > 0 && numpress == NUMPRESS_NONE) ? expectedValues * bytesPerValue : bytes.length * 4;
+				byte[] inflated = new byte[Math.max(size, 16)];
+				length = 0;
+				while(!inflater.finished()) {
+					if(length == inflated.length) {
+						inflated = Arrays.copyOf(inflated, inflated.length * 2);
+					}
+					int inflatedBytes = inflater.inflate(inflated, length, inflated.length - length);
+					if(inflatedBytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					length += inflatedBytes;
+				}
+				bytes = inflated;
+			} finally {
+				inflater.end();
+			}
+		}
+		//
+		switch(numpress) {
+			case NUMPRESS_LINEAR:
+				return Numpress.decodeLinear(bytes, length);
+			case NUMPRESS_PIC:
+				return Numpress.decodePic(bytes, length);
+			case NUMPRESS_SLOF:
+				return Numpress.decodeSlof(bytes, length);
+			default:
+				break;
+		}
+		//
+		ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+		double[] values = new double[length / bytesPerValue];
+		if(precision == PRECISION_64) {
+			if(integer) {
+				for(int i = 0; i < values.length; i++) {
+					values[i] = byteBuffer.getLong();
+				}
+			} else {
+				for(int i = 0; i < values.length; i++) {
+					values[i] = byteBuffer.getDouble();
+				}
+			}
+		} else {
+			if(integer) {
+				for(int i = 0; i < values.length; i++) {
+					values[i] = byteBuffer.getInt();
+				}
+			} else {
+				for(int i = 0; i < values.length; i++) {
+					values[i] = byteBuffer.getFloat();
+				}
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Decodes arrays which have been compressed by the MS-Numpress algorithms
+ * (linear prediction, positive integer and short logged float).
+ * See: Teleman et al., Numerical compression schemes for proteomics mass spectrometry data,
+ * Mol Cell Proteomics 2014.
+ */
+public class Numpress {
+
+	private static final int FIXED_POINT_BYTES = 8;
+
+	/**
+	 * Only static methods.
+	 */
+	private Numpress() {
+	}
+
+	/**
+	 * Decodes the linear prediction compression, which is used for m/z and retention time arrays.
+	 *
+	 * @param data
+	 * @param length
+	 * @return double[]
+	 */
+	public static double[] decodeLinear(byte[] data, int length) {
+
+		if(length == FIXED_POINT_BYTES) {
+			return new double[0];
+		}
+		if(length < 12) {
+			throw new IllegalArgumentException("Corrupt numpress linear data: " + length + " bytes");
+		}
+		//
+		double fixedPoint = decodeFixedPoint(data);
+		double[] values = new double[2 + (length - 16) * 2];
+		long previous = readUnsignedInt(data, 8);
+		values[0] = previous / fixedPoint;
+		if(length == 12) {
+			return Arrays.copyOf(values, 1);
+		}
+		if(length < 16) {
+			throw new IllegalArgumentException("Corrupt numpress linear data: " + length + " bytes");
+		}
+		long current = readUnsignedInt(data, 12);
+		values[1] = current / fixedPoint;
+		//
+		int size = 2;
+		HalfByteReader reader = new HalfByteReader(data, 16, length);
+		while(reader.hasNext()) {
+			int difference = reader.nextInt();
+			long extrapolation = current + (current - previous);
+			long value = extrapolation + difference;
+			values[size++] = value / fixedPoint;
+			previous = current;
+			current = value;
+		}
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Decodes the positive integer compression, which is used for ion counts.
+	 *
+	 * @param data
+	 * @param length
+	 * @return double[]
+	 */
+	public static double[] decodePic(byte[] data, int length) {
+
+		double[] values = new double[length * 2];
+		int size = 0;
+		HalfByteReader reader = new HalfByteReader(data, 0, length);
+		while(reader.hasNext()) {
+			values[size++] = reader.nextInt();
+		}
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Decodes the short logged float compression, which is used for intensities.
+	 *
+	 * @param data
+	 * @param length
+	 * @return double[]
+	 */
+	public static double[] decodeSlof(byte[] data, int length) {
+
+		if(length < FIXED_POINT_BYTES || (length - FIXED_POINT_BYTES) % 2 != 0) {
+			throw new IllegalArgumentException("Corrupt numpress slof data: " + length + " bytes");
+		}
+		//
+		double fixedPoint = decodeFixedPoint(data);
+		double[] values = new double[(length - FIXED_POINT_BYTES) / 2];
+		for(int i = 0, index = FIXED_POINT_BYTES; i < values.length; i++, index += 2) {
+			int value = (data[index] & 0xff) | ((data[index + 1] & 0xff) << 8);
+			values[i] = Math.exp(value / fixedPoint) - 1;
+		}
+		return values;
+	}
+
+	/**
+	 * The fixed point is stored as big endian double.
+	 */
+	private static double decodeFixedPoint(byte[] data) {
+
+		return ByteBuffer.wrap(data, 0, FIXED_POINT_BYTES).order(ByteOrder.BIG_ENDIAN).getDouble();
+	}
+
+	private static long readUnsignedInt(byte[] data, int offset) {
+
+		long value = 0;
+		for(int i = 0; i < 4; i++) {
+			value |= (long)(data[offset + i] & 0xff) << (i * 8);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads the integers, which are stored as a count of leading
+	 * zero or one half bytes followed by the remaining half bytes.
+	 */
+	private static class HalfByteReader {
+
+		private final byte[] data;
+		private final int length;
+		private int index;
+		private boolean lowHalf = false;
+
+		public HalfByteReader(byte[] data, int index, int length) {
+			this.data = data;
+			this.index = index;
+			this.length = length;
+		}
+
+		public boolean hasNext() {
+
+			if(index >= length) {
+				return false;
+			}
+			/*
+			 * The last half byte is a padding zero if the number of half bytes is odd.
+			 */
+			return !(index == length - 1 && lowHalf && (data[index] & 0x0f) == 0);
+		}
+
+		public int nextInt() {
+
+			int head = nextHalfByte();
+			int value = 0;
+			int count;
+			if(head <= 8) {
+				count = head;
+			} else {
+				count = head - 8;
+				for(int i = 0; i < count; i++) {
+					value |= 0xf0000000 >>> (4 * i);
+				}
+			}
+			//
+			for(int i = count; i < 8; i++) {
+				value |= nextHalfByte() << ((i - count) * 4);
+			}
+			return value;
+		}
+
+		private int nextHalfByte() {
+
+			if(index >= length) {
+				throw new IllegalArgumentException("Corrupt numpress data: unexpected end");
+			}
+			int halfByte;
+			if(lowHalf) {
+				halfByte = data[index++] & 0x0f;
+			} else {
+				halfByte = (data[index] >> 4) & 0x0f;
+			}
+			lowHalf = !lowHalf;
+			return halfByte;
+		}
+	}
+}
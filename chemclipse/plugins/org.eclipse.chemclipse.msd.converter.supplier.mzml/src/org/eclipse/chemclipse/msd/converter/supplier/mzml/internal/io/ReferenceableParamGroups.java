@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+
+/**
+ * Contains the cvParams of the referenceableParamGroupList of an mzML file.
+ * Spectra and binary data arrays may reference a group instead of listing
+ * the cvParams, e.g. the precision and compression of all m/z arrays.
+ * The list is located in the header, hence parsing stops at the run element.
+ */
+public class ReferenceableParamGroups implements Serializable {
+
+	private static final long serialVersionUID = -3167620531594622118L;
+	private static final Logger logger = Logger.getLogger(ReferenceableParamGroups.class);
+	//
+	private static final int BUFFER_SIZE = 8192;
+	private static final String NODE_REFERENCEABLE_PARAM_GROUP = "referenceableParamGroup";
+	private static final String NODE_REFERENCEABLE_PARAM_GROUP_LIST = "referenceableParamGroupList";
+	private static final String NODE_CV_PARAM = "cvParam";
+	private static final String NODE_RUN = "run";
+	private static final String ATTRIBUTE_ID = "id";
+	private static final String ATTRIBUTE_ACCESSION = "accession";
+	private static final String ATTRIBUTE_VALUE = "value";
+	private static final String ATTRIBUTE_UNIT_ACCESSION = "unitAccession";
+	//
+	private final Map<String, List<CvParam>> groups = new HashMap<>();
+
+	/**
+	 * Returns the cvParams of the given group or an empty list if the group is not defined.
+	 *
+	 * @param ref
+	 * @return List
+	 */
+	public List<CvParam> get(String ref) {
+
+		List<CvParam> cvParams = groups.get(ref);
+		return (cvParams != null) ? cvParams : Collections.emptyList();
+	}
+
+	public int size() {
+
+		return groups.size();
+	}
+
+	/**
+	 * Returns the groups defined in the header of the file.
+	 * If the groups can't be parsed, an empty instance is returned.
+	 *
+	 * @param fileChannel
+	 * @param inputFactory
+	 * @return {@link ReferenceableParamGroups}
+	 * @throws IOException
+	 */
+	public static ReferenceableParamGroups read(FileChannel fileChannel, XMLInputFactory inputFactory) throws IOException {
+
+		ReferenceableParamGroups referenceableParamGroups = new ReferenceableParamGroups();
+		try(InputStream inputStream = SpectrumIndex.openStream(fileChannel, 0, BUFFER_SIZE)) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream, StandardCharsets.ISO_8859_1.name());
+			try {
+				List<CvParam> cvParams = null;
+				exit:
+				while(reader.hasNext()) {
+					switch(reader.next()) {
+						case XMLStreamConstants.START_ELEMENT:
+							String name = reader.getLocalName();
+							if(NODE_REFERENCEABLE_PARAM_GROUP.equals(name)) {
+								cvParams = new ArrayList<>();
+								referenceableParamGroups.groups.put(reader.getAttributeValue(null, ATTRIBUTE_ID), cvParams);
+							} else if(NODE_CV_PARAM.equals(name) && cvParams != null) {
+								cvParams.add(new CvParam(reader.getAttributeValue(null, ATTRIBUTE_ACCESSION), reader.getAttributeValue(null, ATTRIBUTE_VALUE), reader.getAttributeValue(null, ATTRIBUTE_UNIT_ACCESSION)));
+							} else if(NODE_RUN.equals(name)) {
+								break exit;
+							}
+							break;
+						case XMLStreamConstants.END_ELEMENT:
+							String endName = reader.getLocalName();
+							if(NODE_REFERENCEABLE_PARAM_GROUP.equals(endName)) {
+								cvParams = null;
+							} else if(NODE_REFERENCEABLE_PARAM_GROUP_LIST.equals(endName)) {
+								break exit;
+							}
+							break;
+						default:
+							break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch(XMLStreamException e) {
+			logger.warn(e);
+		}
+		return referenceableParamGroups;
+	}
+
+	public static class CvParam implements Serializable {
+
+		private static final long serialVersionUID = 5089016573185430927L;
+		//
+		private final String accession;
+		private final String value;
+		private final String unitAccession;
+
+		public CvParam(String accession, String value, String unitAccession) {
+			this.accession = accession;
+			this.value = value;
+			this.unitAccession = unitAccession;
+		}
+
+		public String getAccession() {
+
+			return accession;
+		}
+
+		public String getValue() {
+
+			return value;
+		}
+
+		public String getUnitAccession() {
+
+			return unitAccession;
+		}
+	}
+}
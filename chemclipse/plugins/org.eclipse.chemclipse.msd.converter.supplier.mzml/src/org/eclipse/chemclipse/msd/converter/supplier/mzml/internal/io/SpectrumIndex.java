@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+
+/**
+ * Contains the file offsets of the spectrum elements of an mzML file.
+ * The offsets are taken from the index list of an indexedmzML file.
+ * If the file is not indexed or the index is not valid, the offsets
+ * are located by scanning the bytes of the file for spectrum start tags,
+ * which is still much faster than parsing the XML.
+ */
+public class SpectrumIndex {
+
+	private static final Logger logger = Logger.getLogger(SpectrumIndex.class);
+	//
+	private static final int TAIL_SIZE = 4096;
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final Pattern INDEX_LIST_OFFSET = Pattern.compile("<indexListOffset>\\s*(\\d+)\\s*</indexListOffset>");
+	private static final String NODE_INDEX_LIST = "indexList";
+	private static final String NODE_INDEX = "index";
+	private static final String NODE_OFFSET = "offset";
+	private static final String ATTRIBUTE_NAME = "name";
+	private static final String INDEX_SPECTRUM = "spectrum";
+	private static final byte[] SPECTRUM_START = "<spectrum".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] INDEX_LIST_START = "<indexList".getBytes(StandardCharsets.US_ASCII);
+	//
+	private final long[] offsets;
+	private final boolean indexed;
+
+	private SpectrumIndex(long[] offsets, boolean indexed) {
+		this.offsets = offsets;
+		this.indexed = indexed;
+	}
+
+	/**
+	 * Returns the spectrum index of the file.
+	 *
+	 * @param fileChannel
+	 * @param inputFactory
+	 * @return {@link SpectrumIndex}
+	 * @throws IOException
+	 */
+	public static SpectrumIndex read(FileChannel fileChannel, XMLInputFactory inputFactory) throws IOException {
+
+		long[] offsets = readIndexList(fileChannel, inputFactory);
+		if(offsets != null) {
+			return new SpectrumIndex(offsets, true);
+		}
+		return new SpectrumIndex(scanOffsets(fileChannel), false);
+	}
+
+	public int size() {
+
+		return offsets.length;
+	}
+
+	/**
+	 * Returns the file offset of the spectrum at the given position (0 based).
+	 *
+	 * @param position
+	 * @return long
+	 */
+	public long getOffset(int position) {
+
+		return offsets[position];
+	}
+
+	/**
+	 * Returns true if the offsets have been read from the index list of the file.
+	 *
+	 * @return boolean
+	 */
+	public boolean isIndexed() {
+
+		return indexed;
+	}
+
+	/**
+	 * Returns a buffered stream which starts at the given file offset.
+	 * The stream uses positional reads, hence several streams may share the channel.
+	 * Closing the stream doesn't close the channel.
+	 *
+	 * @param fileChannel
+	 * @param offset
+	 * @param bufferSize
+	 * @return {@link InputStream}
+	 */
+	public static InputStream openStream(FileChannel fileChannel, long offset, int bufferSize) {
+
+		return new BufferedInputStream(new ChannelInputStream(fileChannel, offset), bufferSize);
+	}
+
+	private static long[] readIndexList(FileChannel fileChannel, XMLInputFactory inputFactory) throws IOException {
+
+		/*
+		 * The offsets are wrong, if the file has been modified afterwards, e.g. the line endings.
+		 */
+		long indexListOffset = getIndexListOffset(fileChannel);
+		if(!isStartTag(fileChannel, indexListOffset, INDEX_LIST_START)) {
+			return null;
+		}
+		//
+		int size = 0;
+		long[] offsets = new long[1024];
+		try(InputStream inputStream = openStream(fileChannel, indexListOffset, 8192)) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream, StandardCharsets.ISO_8859_1.name());
+			try {
+				boolean spectrumIndex = false;
+				exit:
+				while(reader.hasNext()) {
+					switch(reader.next()) {
+						case XMLStreamConstants.START_ELEMENT:
+							String name = reader.getLocalName();
+							if(NODE_INDEX.equals(name)) {
+								spectrumIndex = INDEX_SPECTRUM.equals(reader.getAttributeValue(null, ATTRIBUTE_NAME));
+							} else if(spectrumIndex && NODE_OFFSET.equals(name)) {
+								if(size == offsets.length) {
+									offsets = Arrays.copyOf(offsets, size * 2);
+								}
+								offsets[size++] = Long.parseLong(reader.getElementText().trim());
+							}
+							break;
+						case XMLStreamConstants.END_ELEMENT:
+							String endName = reader.getLocalName();
+							if((NODE_INDEX.equals(endName) && spectrumIndex) || NODE_INDEX_LIST.equals(endName)) {
+								break exit;
+							}
+							break;
+						default:
+							break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch(XMLStreamException | NumberFormatException e) {
+			logger.warn(e);
+			return null;
+		}
+		//
+		if(size > 0 && (!isStartTag(fileChannel, offsets[0], SPECTRUM_START) || !isStartTag(fileChannel, offsets[size - 1], SPECTRUM_START))) {
+			return null;
+		}
+		return Arrays.copyOf(offsets, size);
+	}
+
+	/**
+	 * Locates the spectrum start tags, which are followed by a whitespace.
+	 * Hence, the spectrumList start tag is skipped.
+	 */
+	private static long[] scanOffsets(FileChannel fileChannel) throws IOException {
+
+		int size = 0;
+		long[] offsets = new long[1024];
+		byte[] bytes = new byte[BUFFER_SIZE];
+		long position = 0;
+		int length = 0;
+		int read;
+		while((read = fileChannel.read(ByteBuffer.wrap(bytes, length, bytes.length - length), position + length)) > 0) {
+			length += read;
+			int limit = length - SPECTRUM_START.length;
+			int index = 0;
+			while(index < limit) {
+				if(bytes[index] == '<' && matches(bytes, index, SPECTRUM_START) && isWhitespace(bytes[index + SPECTRUM_START.length])) {
+					if(size == offsets.length) {
+						offsets = Arrays.copyOf(offsets, size * 2);
+					}
+					offsets[size++] = position + index;
+					index += SPECTRUM_START.length;
+				} else {
+					index++;
+				}
+			}
+			/*
+			 * Keep the tail, it could contain the start of a tag.
+			 */
+			int keep = length - index;
+			System.arraycopy(bytes, index, bytes, 0, keep);
+			position += index;
+			length = keep;
+		}
+		return Arrays.copyOf(offsets, size);
+	}
+
+	private static boolean matches(byte[] bytes, int index, byte[] tag) {
+
+		for(int i = 1; i < tag.length; i++) {
+			if(bytes[index + i] != tag[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isWhitespace(byte value) {
+
+		return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+	}
+
+	private static long getIndexListOffset(FileChannel fileChannel) throws IOException {
+
+		long length = fileChannel.size();
+		int size = (int)Math.min(TAIL_SIZE, length);
+		ByteBuffer tail = ByteBuffer.allocate(size);
+		while(tail.hasRemaining() && fileChannel.read(tail, length - size + tail.position()) > 0) {
+			// Read the tail completely.
+		}
+		Matcher matcher = INDEX_LIST_OFFSET.matcher(new String(tail.array(), 0, tail.position(), StandardCharsets.US_ASCII));
+		return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	private static boolean isStartTag(FileChannel fileChannel, long offset, byte[] tag) throws IOException {
+
+		if(offset < 0 || offset + tag.length + 1 > fileChannel.size()) {
+			return false;
+		}
+		ByteBuffer start = ByteBuffer.allocate(tag.length + 1);
+		while(start.hasRemaining() && fileChannel.read(start, offset + start.position()) > 0) {
+			// Read the start tag completely.
+		}
+		byte[] bytes = start.array();
+		return bytes[0] == '<' && matches(bytes, 0, tag) && isWhitespace(bytes[tag.length]);
+	}
+
+	/**
+	 * Reads the channel from the given position without changing the position of the channel.
+	 */
+	private static class ChannelInputStream extends InputStream {
+
+		private final FileChannel fileChannel;
+		private long position;
+
+		public ChannelInputStream(FileChannel fileChannel, long position) {
+			this.fileChannel = fileChannel;
+			this.position = position;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			byte[] value = new byte[1];
+			return (read(value, 0, 1) == 1) ? (value[0] & 0xff) : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+
+			if(length == 0) {
+				return 0;
+			}
+			int read = fileChannel.read(ByteBuffer.wrap(bytes, offset, length), position);
+			if(read > 0) {
+				position += read;
+			}
+			return read;
+		}
+	}
+}
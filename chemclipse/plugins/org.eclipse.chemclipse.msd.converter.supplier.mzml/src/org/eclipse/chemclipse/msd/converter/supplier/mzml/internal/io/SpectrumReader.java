@@ -0,0 +1,482 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
+import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.core.IChromatogramOverview;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.msd.converter.io.AbstractChromatogramMSDReader;
+import org.eclipse.chemclipse.msd.converter.io.IChromatogramMSDReader;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.IVendorChromatogram;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.IVendorScan;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.IVendorScanProxy;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.VendorChromatogram;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.VendorIon;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.VendorScan;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.VendorScanProxy;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io.ReferenceableParamGroups.CvParam;
+import org.eclipse.chemclipse.msd.model.core.AbstractIon;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Reads the spectra of mzML 1.1 files. The spectrum offsets are taken from the
+ * index of indexedmzML files, see {@link SpectrumIndex}. Only the header of each
+ * spectrum (ms level, scan start time, total ion current) is parsed when the file
+ * is opened. The binary data arrays are decoded on demand by the scan proxies.
+ * The cvParams of referenced param groups are resolved, see {@link ReferenceableParamGroups}.
+ */
+public class SpectrumReader extends AbstractChromatogramMSDReader implements IChromatogramMSDReader {
+
+	private static final Logger logger = Logger.getLogger(SpectrumReader.class);
+	//
+	private static final int ION_PRECISION = 4;
+	private static final int HEADER_BUFFER_SIZE = 4096;
+	private static final int SPECTRUM_BUFFER_SIZE = 65536;
+	//
+	private static final String NODE_SPECTRUM = "spectrum";
+	private static final String NODE_CV_PARAM = "cvParam";
+	private static final String NODE_REFERENCEABLE_PARAM_GROUP_REF = "referenceableParamGroupRef";
+	private static final String NODE_BINARY_DATA_ARRAY_LIST = "binaryDataArrayList";
+	private static final String NODE_BINARY_DATA_ARRAY = "binaryDataArray";
+	private static final String NODE_BINARY = "binary";
+	private static final String ATTRIBUTE_DEFAULT_ARRAY_LENGTH = "defaultArrayLength";
+	private static final String ATTRIBUTE_ARRAY_LENGTH = "arrayLength";
+	private static final String ATTRIBUTE_ACCESSION = "accession";
+	private static final String ATTRIBUTE_VALUE = "value";
+	private static final String ATTRIBUTE_UNIT_ACCESSION = "unitAccession";
+	private static final String ATTRIBUTE_REF = "ref";
+	/*
+	 * Spectrum
+	 */
+	private static final String MS_LEVEL = "MS:1000511";
+	private static final String TOTAL_ION_CURRENT = "MS:1000285";
+	private static final String SCAN_START_TIME = "MS:1000016";
+	private static final String UNIT_MINUTE = "UO:0000031";
+	private static final String UNIT_MINUTE_DEPRECATED = "MS:1000038";
+	/*
+	 * Binary data array
+	 */
+	private static final String MZ_ARRAY = "MS:1000514";
+	private static final String INTENSITY_ARRAY = "MS:1000515";
+	private static final String FLOAT_32 = "MS:1000521";
+	private static final String FLOAT_64 = "MS:1000523";
+	private static final String INTEGER_32 = "MS:1000519";
+	private static final String INTEGER_64 = "MS:1000522";
+	private static final String ZLIB = "MS:1000574";
+	private static final String NUMPRESS_LINEAR = "MS:1002312";
+	private static final String NUMPRESS_PIC = "MS:1002313";
+	private static final String NUMPRESS_SLOF = "MS:1002314";
+	private static final String NUMPRESS_LINEAR_ZLIB = "MS:1002746";
+	private static final String NUMPRESS_PIC_ZLIB = "MS:1002747";
+	private static final String NUMPRESS_SLOF_ZLIB = "MS:1002748";
+	/*
+	 * The factory is not guaranteed to be thread-safe, but the proxies
+	 * may be loaded by several threads.
+	 */
+	private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY = ThreadLocal.withInitial(SpectrumReader::createInputFactory);
+
+	@Override
+	public IChromatogramOverview readOverview(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
+
+		IVendorChromatogram chromatogram = new VendorChromatogram();
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumIndex spectrumIndex = SpectrumIndex.read(fileChannel, INPUT_FACTORY.get());
+			ReferenceableParamGroups referenceableParamGroups = ReferenceableParamGroups.read(fileChannel, INPUT_FACTORY.get());
+			for(int position = 0; position < spectrumIndex.size(); position++) {
+				if(monitor.isCanceled()) {
+					break;
+				}
+				SpectrumData spectrumData = readSpectrum(fileChannel, spectrumIndex.getOffset(position), referenceableParamGroups, false);
+				if(spectrumData != null) {
+					IVendorScan massSpectrum = new VendorScan();
+					massSpectrum.setRetentionTime(spectrumData.retentionTime);
+					massSpectrum.setMassSpectrometer(spectrumData.msLevel);
+					if(spectrumData.totalSignal > 0) {
+						try {
+							massSpectrum.addIon(new VendorIon(AbstractIon.TIC_ION, spectrumData.totalSignal));
+						} catch(AbundanceLimitExceededException e) {
+							logger.warn(e);
+						} catch(IonLimitExceededException e) {
+							logger.warn(e);
+						}
+					}
+					chromatogram.addScan(massSpectrum);
+				}
+			}
+		}
+		return chromatogram;
+	}
+
+	@Override
+	public IChromatogramMSD read(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
+
+		IVendorChromatogram chromatogram = new VendorChromatogram();
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumIndex spectrumIndex = SpectrumIndex.read(fileChannel, INPUT_FACTORY.get());
+			ReferenceableParamGroups referenceableParamGroups = ReferenceableParamGroups.read(fileChannel, INPUT_FACTORY.get());
+			for(int position = 0; position < spectrumIndex.size(); position++) {
+				if(monitor.isCanceled()) {
+					break;
+				}
+				long offset = spectrumIndex.getOffset(position);
+				SpectrumData spectrumData = readSpectrum(fileChannel, offset, referenceableParamGroups, false);
+				if(spectrumData != null) {
+					IVendorScanProxy massSpectrum = new VendorScanProxy(file, offset, referenceableParamGroups);
+					massSpectrum.setRetentionTime(spectrumData.retentionTime);
+					massSpectrum.setMassSpectrometer(spectrumData.msLevel);
+					massSpectrum.setNumberOfIons(spectrumData.arrayLength);
+					massSpectrum.setTotalSignal(Math.max(0.0f, spectrumData.totalSignal));
+					chromatogram.addScan(massSpectrum);
+				}
+			}
+		}
+		chromatogram.setConverterId("");
+		chromatogram.setFile(file);
+		return chromatogram;
+	}
+
+	/**
+	 * Returns the completely decoded scan with the given number (1 based)
+	 * or null if it is not available.
+	 *
+	 * @param file
+	 * @param scanNumber
+	 * @return {@link IVendorScan}
+	 * @throws IOException
+	 */
+	public IVendorScan readScan(File file, int scanNumber) throws IOException {
+
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumIndex spectrumIndex = SpectrumIndex.read(fileChannel, INPUT_FACTORY.get());
+			if(scanNumber < 1 || scanNumber > spectrumIndex.size()) {
+				return null;
+			}
+			ReferenceableParamGroups referenceableParamGroups = ReferenceableParamGroups.read(fileChannel, INPUT_FACTORY.get());
+			SpectrumData spectrumData = readSpectrum(fileChannel, spectrumIndex.getOffset(scanNumber - 1), referenceableParamGroups, true);
+			if(spectrumData == null) {
+				return null;
+			}
+			IVendorScan massSpectrum = new VendorScan();
+			massSpectrum.setRetentionTime(spectrumData.retentionTime);
+			massSpectrum.setMassSpectrometer(spectrumData.msLevel);
+			massSpectrum.setScanNumber(scanNumber);
+			addIons(massSpectrum, spectrumData);
+			return massSpectrum;
+		}
+	}
+
+	/**
+	 * Decodes the binary data arrays of the spectrum at the given file offset
+	 * and adds the ions to the mass spectrum.
+	 *
+	 * @param file
+	 * @param offset
+	 * @param referenceableParamGroups
+	 * @param massSpectrum
+	 * @throws IOException
+	 */
+	public static void readIons(File file, long offset, ReferenceableParamGroups referenceableParamGroups, IVendorScan massSpectrum) throws IOException {
+
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumData spectrumData = readSpectrum(fileChannel, offset, referenceableParamGroups, true);
+			if(spectrumData != null) {
+				addIons(massSpectrum, spectrumData);
+			}
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+
+		XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		return inputFactory;
+	}
+
+	/**
+	 * The spectrum is parsed as a fragment starting at its offset.
+	 * If the arrays shall not be decoded, parsing stops at the binary data arrays,
+	 * unless the total ion current is missing and needs to be calculated.
+	 */
+	private static SpectrumData readSpectrum(FileChannel fileChannel, long offset, ReferenceableParamGroups referenceableParamGroups, boolean decodeArrays) throws IOException {
+
+		try(InputStream inputStream = SpectrumIndex.openStream(fileChannel, offset, decodeArrays ? SPECTRUM_BUFFER_SIZE : HEADER_BUFFER_SIZE)) {
+			XMLStreamReader reader = INPUT_FACTORY.get().createXMLStreamReader(inputStream, StandardCharsets.ISO_8859_1.name());
+			try {
+				while(reader.hasNext()) {
+					if(reader.next() == XMLStreamConstants.START_ELEMENT && NODE_SPECTRUM.equals(reader.getLocalName())) {
+						SpectrumData spectrumData = parseSpectrum(reader, referenceableParamGroups, decodeArrays);
+						if(spectrumData.totalSignal < 0 && spectrumData.intensityArray != null) {
+							spectrumData.totalSignal = calculateTotalSignal(spectrumData.intensityArray);
+						}
+						return spectrumData;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch(XMLStreamException e) {
+			logger.warn(e);
+		}
+		return null;
+	}
+
+	private static SpectrumData parseSpectrum(XMLStreamReader reader, ReferenceableParamGroups referenceableParamGroups, boolean decodeArrays) throws XMLStreamException {
+
+		SpectrumData spectrumData = new SpectrumData();
+		spectrumData.arrayLength = parseInt(reader.getAttributeValue(null, ATTRIBUTE_DEFAULT_ARRAY_LENGTH), 0);
+		BinaryDataArray binaryDataArray = null;
+		while(reader.hasNext()) {
+			int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if(NODE_CV_PARAM.equals(name)) {
+					String accession = reader.getAttributeValue(null, ATTRIBUTE_ACCESSION);
+					if(binaryDataArray != null) {
+						binaryDataArray.setParameter(accession);
+					} else {
+						setParameter(spectrumData, accession, reader.getAttributeValue(null, ATTRIBUTE_VALUE), reader.getAttributeValue(null, ATTRIBUTE_UNIT_ACCESSION));
+					}
+				} else if(NODE_REFERENCEABLE_PARAM_GROUP_REF.equals(name)) {
+					for(CvParam cvParam : referenceableParamGroups.get(reader.getAttributeValue(null, ATTRIBUTE_REF))) {
+						if(binaryDataArray != null) {
+							binaryDataArray.setParameter(cvParam.getAccession());
+						} else {
+							setParameter(spectrumData, cvParam.getAccession(), cvParam.getValue(), cvParam.getUnitAccession());
+						}
+					}
+				} else if(NODE_BINARY_DATA_ARRAY_LIST.equals(name)) {
+					if(!decodeArrays && spectrumData.totalSignal >= 0) {
+						break;
+					}
+				} else if(NODE_BINARY_DATA_ARRAY.equals(name)) {
+					binaryDataArray = new BinaryDataArray();
+					binaryDataArray.arrayLength = parseInt(reader.getAttributeValue(null, ATTRIBUTE_ARRAY_LENGTH), spectrumData.arrayLength);
+				} else if(NODE_BINARY.equals(name) && binaryDataArray != null) {
+					binaryDataArray.content = reader.getElementText();
+				}
+			} else if(event == XMLStreamConstants.END_ELEMENT) {
+				String name = reader.getLocalName();
+				if(NODE_BINARY_DATA_ARRAY.equals(name) && binaryDataArray != null) {
+					if(binaryDataArray.mz) {
+						spectrumData.mzArray = binaryDataArray;
+					} else if(binaryDataArray.intensity) {
+						spectrumData.intensityArray = binaryDataArray;
+					}
+					binaryDataArray = null;
+				} else if(NODE_SPECTRUM.equals(name)) {
+					break;
+				}
+			}
+		}
+		return spectrumData;
+	}
+
+	private static void setParameter(SpectrumData spectrumData, String accession, String value, String unitAccession) {
+
+		if(MS_LEVEL.equals(accession)) {
+			spectrumData.msLevel = (short)parseInt(value, 1);
+		} else if(TOTAL_ION_CURRENT.equals(accession)) {
+			spectrumData.totalSignal = (float)parseDouble(value, -1.0d);
+		} else if(SCAN_START_TIME.equals(accession)) {
+			/*
+			 * The scan start time is given in seconds or minutes.
+			 */
+			double factor = (UNIT_MINUTE.equals(unitAccession) || UNIT_MINUTE_DEPRECATED.equals(unitAccession)) ? 60000.0d : 1000.0d;
+			spectrumData.retentionTime = (int)Math.round(parseDouble(value, 0.0d) * factor);
+		}
+	}
+
+	private static float calculateTotalSignal(BinaryDataArray intensityArray) {
+
+		float totalSignal = 0.0f;
+		for(double intensity : decode(intensityArray)) {
+			totalSignal += intensity;
+		}
+		return totalSignal;
+	}
+
+	/**
+	 * The m/z values are usually sorted ascending. Then, ions with the same
+	 * rounded m/z are merged directly and the ions are added without checking
+	 * the complete ion list. Otherwise, the ions are added checked.
+	 */
+	private static void addIons(IVendorScan massSpectrum, SpectrumData spectrumData) {
+
+		if(spectrumData.mzArray == null || spectrumData.intensityArray == null) {
+			return;
+		}
+		//
+		double[] mzs = decode(spectrumData.mzArray);
+		double[] intensities = decode(spectrumData.intensityArray);
+		int size = Math.min(mzs.length, intensities.length);
+		boolean sorted = massSpectrum.getNumberOfIons() == 0;
+		IIon lastIon = null;
+		for(int index = 0; index < size; index++) {
+			double mz = AbstractIon.getIon(mzs[index], ION_PRECISION);
+			float intensity = (float)intensities[index];
+			if(intensity >= VendorIon.MIN_ABUNDANCE && intensity <= VendorIon.MAX_ABUNDANCE) {
+				try {
+					if(sorted && lastIon != null && mz <= lastIon.getIon()) {
+						if(mz == lastIon.getIon()) {
+							if(intensity >= lastIon.getAbundance()) {
+								lastIon.setAbundance(intensity);
+							}
+							continue;
+						}
+						sorted = false;
+					}
+					IIon ion = new VendorIon(mz, intensity);
+					massSpectrum.addIon(ion, !sorted);
+					lastIon = ion;
+				} catch(AbundanceLimitExceededException e) {
+					logger.warn(e);
+				} catch(IonLimitExceededException e) {
+					logger.warn(e);
+				}
+			}
+		}
+	}
+
+	private static double[] decode(BinaryDataArray binaryDataArray) {
+
+		try {
+			return BinaryDataDecoder.decode(binaryDataArray.content, binaryDataArray.precision, binaryDataArray.integer, binaryDataArray.zlib, binaryDataArray.numpress, binaryDataArray.arrayLength);
+		} catch(DataFormatException | IllegalArgumentException e) {
+			logger.warn(e);
+			return new double[0];
+		}
+	}
+
+	private static int parseInt(String value, int defaultValue) {
+
+		if(value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch(NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static double parseDouble(String value, double defaultValue) {
+
+		if(value == null) {
+			return defaultValue;
+		}
+		try {
+			return Double.parseDouble(value.trim());
+		} catch(NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static class SpectrumData {
+
+		private short msLevel = 1;
+		private int retentionTime;
+		private float totalSignal = -1.0f;
+		private int arrayLength;
+		private BinaryDataArray mzArray;
+		private BinaryDataArray intensityArray;
+	}
+
+	private static class BinaryDataArray {
+
+		private int arrayLength;
+		private int precision = BinaryDataDecoder.PRECISION_32;
+		private boolean integer;
+		private boolean zlib;
+		private int numpress = BinaryDataDecoder.NUMPRESS_NONE;
+		private boolean mz;
+		private boolean intensity;
+		private String content;
+
+		public void setParameter(String accession) {
+
+			if(accession == null) {
+				return;
+			}
+			switch(accession) {
+				case MZ_ARRAY:
+					mz = true;
+					break;
+				case INTENSITY_ARRAY:
+					intensity = true;
+					break;
+				case FLOAT_32:
+					precision = BinaryDataDecoder.PRECISION_32;
+					integer = false;
+					break;
+				case FLOAT_64:
+					precision = BinaryDataDecoder.PRECISION_64;
+					integer = false;
+					break;
+				case INTEGER_32:
+					precision = BinaryDataDecoder.PRECISION_32;
+					integer = true;
+					break;
+				case INTEGER_64:
+					precision = BinaryDataDecoder.PRECISION_64;
+					integer = true;
+					break;
+				case ZLIB:
+					zlib = true;
+					break;
+				case NUMPRESS_LINEAR:
+					numpress = BinaryDataDecoder.NUMPRESS_LINEAR;
+					break;
+				case NUMPRESS_PIC:
+					numpress = BinaryDataDecoder.NUMPRESS_PIC;
+					break;
+				case NUMPRESS_SLOF:
+					numpress = BinaryDataDecoder.NUMPRESS_SLOF;
+					break;
+				case NUMPRESS_LINEAR_ZLIB:
+					numpress = BinaryDataDecoder.NUMPRESS_LINEAR;
+					zlib = true;
+					break;
+				case NUMPRESS_PIC_ZLIB:
+					numpress = BinaryDataDecoder.NUMPRESS_PIC;
+					zlib = true;
+					break;
+				case NUMPRESS_SLOF_ZLIB:
+					numpress = BinaryDataDecoder.NUMPRESS_SLOF;
+					zlib = true;
+					break;
+				default:
+					break;
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes the base64 encoded and optionally zlib compressed content
+ * of a peaks element directly into a primitive array.
+ */
+public class PeaksDecoder {
+
+	public static final String BYTE_ORDER_NETWORK = "network";
+	public static final String COMPRESSION_ZLIB = "zlib";
+	public static final int PRECISION_64 = 64;
+
+	/**
+	 * Only static methods.
+	 */
+	private PeaksDecoder() {
+	}
+
+	/**
+	 * Returns the decoded values (m/z-int pairs).
+	 * The expected number of values is used to size the inflate buffer.
+	 * If it is unknown (0), the buffer grows on demand.
+	 *
+	 * @param content
+	 * @param precision
+	 * @param byteOrder
+	 * @param compressionType
+	 * @param expectedValues
+	 * @return double[]
+	 * @throws DataFormatException
+	 */
+	public static double[] decode(String content, int precision, String byteOrder, String compressionType, int expectedValues) throws DataFormatException {
+
+		if(content == null || content.isEmpty()) {
+			return new double[0];
+		}
+		/*
+		 * The MIME decoder ignores line breaks in the content.
+		 */
+		byte[] bytes = Base64.getMimeDecoder().decode(content);
+		int length = bytes.length;
+		int bytesPerValue = (precision == PRECISION_64) ? Double.BYTES : Float.BYTES;
+		if(compressionType != null && compressionType.equalsIgnoreCase(COMPRESSION_ZLIB)) {
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(bytes);
+				byte[] inflated = new byte[(expectedValues > 0) ? expectedValues * bytesPerValue : bytes.length * 4];
+				length = 0;
+				while(!inflater.finished()) {
+					if(length == inflated.length) {
+						inflated = Arrays.copyOf(inflated, inflated.length * 2);
+					}
+					int inflatedBytes = inflater.inflate(inflated, length, inflated.length - length);
+					if(inflatedBytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					length += inflatedBytes;
+				}
+				bytes = inflated;
+			} finally {
+				inflater.end();
+			}
+		}
+		//
+		ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, 0, length);
+		byteBuffer.order(BYTE_ORDER_NETWORK.equals(byteOrder) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+		double[] values = new double[length / bytesPerValue];
+		if(precision == PRECISION_64) {
+			for(int i = 0; i < values.length; i++) {
+				values[i] = byteBuffer.getDouble();
+			}
+		} else {
+			for(int i = 0; i < values.length; i++) {
+				values[i] = byteBuffer.getFloat();
+			}
+		}
+		return values;
+	}
+}
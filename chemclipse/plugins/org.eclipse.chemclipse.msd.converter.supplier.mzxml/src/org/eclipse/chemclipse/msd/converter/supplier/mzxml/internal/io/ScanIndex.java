@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+
+/**
+ * Reads the scan offsets stored in the index element at the end of an mzXML file.
+ * The offsets are used to read single scans without parsing the whole file.
+ */
+public class ScanIndex {
+
+	private static final Logger logger = Logger.getLogger(ScanIndex.class);
+	//
+	private static final int TAIL_SIZE = 4096;
+	private static final Pattern INDEX_OFFSET = Pattern.compile("<indexOffset>\\s*(\\d+)\\s*</indexOffset>");
+	private static final String NODE_INDEX = "index";
+	private static final String NODE_OFFSET = "offset";
+	private static final String ATTRIBUTE_NAME = "name";
+	private static final String ATTRIBUTE_ID = "id";
+	private static final String INDEX_SCAN = "scan";
+	private static final String SCAN_START = "<scan";
+	//
+	private final int[] scanNumbers;
+	private final long[] offsets;
+
+	private ScanIndex(int[] scanNumbers, long[] offsets) {
+		this.scanNumbers = scanNumbers;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Returns the scan index of the file or null if the file
+	 * contains no index or the offsets are not valid.
+	 *
+	 * @param file
+	 * @param inputFactory
+	 * @return {@link ScanIndex}
+	 */
+	public static ScanIndex read(File file, XMLInputFactory inputFactory) {
+
+		try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			long indexOffset = getIndexOffset(randomAccessFile);
+			if(indexOffset <= 0 || indexOffset >= randomAccessFile.length()) {
+				return null;
+			}
+			//
+			int size = 0;
+			int[] scanNumbers = new int[1024];
+			long[] offsets = new long[1024];
+			FileChannel fileChannel = randomAccessFile.getChannel();
+			fileChannel.position(indexOffset);
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(Channels.newInputStream(fileChannel), StandardCharsets.UTF_8.name());
+			try {
+				boolean scanIndex = false;
+				exit:
+				while(reader.hasNext()) {
+					switch(reader.next()) {
+						case XMLStreamConstants.START_ELEMENT:
+							String name = reader.getLocalName();
+							if(NODE_INDEX.equals(name)) {
+								scanIndex = INDEX_SCAN.equals(reader.getAttributeValue(null, ATTRIBUTE_NAME));
+							} else if(scanIndex && NODE_OFFSET.equals(name)) {
+								if(size == scanNumbers.length) {
+									scanNumbers = Arrays.copyOf(scanNumbers, size * 2);
+									offsets = Arrays.copyOf(offsets, size * 2);
+								}
+								scanNumbers[size] = Integer.parseInt(reader.getAttributeValue(null, ATTRIBUTE_ID));
+								offsets[size] = Long.parseLong(reader.getElementText().trim());
+								size++;
+							}
+							break;
+						case XMLStreamConstants.END_ELEMENT:
+							if(NODE_INDEX.equals(reader.getLocalName()) && scanIndex) {
+								break exit;
+							}
+							break;
+						default:
+							break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+			//
+			if(size == 0 || !isScanOffset(randomAccessFile, offsets[0]) || !isScanOffset(randomAccessFile, offsets[size - 1])) {
+				return null;
+			}
+			return new ScanIndex(Arrays.copyOf(scanNumbers, size), Arrays.copyOf(offsets, size));
+		} catch(IOException | XMLStreamException | NumberFormatException e) {
+			logger.warn(e);
+			return null;
+		}
+	}
+
+	public int size() {
+
+		return scanNumbers.length;
+	}
+
+	/**
+	 * Returns the scan number at the given position (0 based).
+	 *
+	 * @param position
+	 * @return int
+	 */
+	public int getScanNumber(int position) {
+
+		return scanNumbers[position];
+	}
+
+	/**
+	 * Returns the file offset at the given position (0 based).
+	 *
+	 * @param position
+	 * @return long
+	 */
+	public long getOffset(int position) {
+
+		return offsets[position];
+	}
+
+	/**
+	 * Returns the position of the scan number or -1 if it is not indexed.
+	 *
+	 * @param scanNumber
+	 * @return int
+	 */
+	public int getPosition(int scanNumber) {
+
+		if(scanNumber >= 1 && scanNumber <= scanNumbers.length && scanNumbers[scanNumber - 1] == scanNumber) {
+			return scanNumber - 1;
+		}
+		for(int i = 0; i < scanNumbers.length; i++) {
+			if(scanNumbers[i] == scanNumber) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns an input stream which starts at the given position.
+	 * The stream must be closed by the caller.
+	 *
+	 * @param file
+	 * @param position
+	 * @return {@link InputStream}
+	 * @throws IOException
+	 */
+	public InputStream openStream(File file, int position) throws IOException {
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel fileChannel = randomAccessFile.getChannel();
+			fileChannel.position(offsets[position]);
+			return Channels.newInputStream(fileChannel);
+		} catch(IOException e) {
+			randomAccessFile.close();
+			throw e;
+		}
+	}
+
+	private static long getIndexOffset(RandomAccessFile randomAccessFile) throws IOException {
+
+		long length = randomAccessFile.length();
+		int size = (int)Math.min(TAIL_SIZE, length);
+		byte[] tail = new byte[size];
+		randomAccessFile.seek(length - size);
+		randomAccessFile.readFully(tail);
+		Matcher matcher = INDEX_OFFSET.matcher(new String(tail, StandardCharsets.US_ASCII));
+		return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	private static boolean isScanOffset(RandomAccessFile randomAccessFile, long offset) throws IOException {
+
+		if(offset < 0 || offset + SCAN_START.length() > randomAccessFile.length()) {
+			return false;
+		}
+		byte[] start = new byte[SCAN_START.length()];
+		randomAccessFile.seek(offset);
+		randomAccessFile.readFully(start);
+		return SCAN_START.equals(new String(start, StandardCharsets.US_ASCII));
+	}
+}
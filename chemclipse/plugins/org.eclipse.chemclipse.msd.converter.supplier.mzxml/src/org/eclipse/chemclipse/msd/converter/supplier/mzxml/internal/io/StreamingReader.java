@@ -0,0 +1,519 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
+import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.core.IScan;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.msd.converter.io.IChromatogramMSDReader;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.IVendorChromatogram;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.IVendorScan;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.VendorChromatogram;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.VendorIon;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.VendorScan;
+import org.eclipse.chemclipse.msd.model.core.AbstractIon;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Reads mzXML files (versions 2.0 - 3.2) with a StAX cursor instead of
+ * building a DOM and unmarshalling it. The scans are emitted one by one in
+ * the order of the file, while the peaks are decoded by a pool of workers.
+ * Like the JAXB readers, only the scans which are direct children of msRun
+ * are read. If the file contains an index, single scans and retention time
+ * ranges are read directly from their offsets. The workers are shared by all
+ * readers.
+ */
+public class StreamingReader extends AbstractReaderVersion implements IChromatogramMSDReader {
+
+	private static final Logger logger = Logger.getLogger(StreamingReader.class);
+	//
+	private static final int ION_PRECISION = 4;
+	private static final int PENDING_SCANS_PER_THREAD = 8;
+	//
+	private static final String NODE_SCAN = "scan";
+	private static final String NODE_PEAKS = "peaks";
+	private static final String ATTRIBUTE_NUM = "num";
+	private static final String ATTRIBUTE_MS_LEVEL = "msLevel";
+	private static final String ATTRIBUTE_PEAKS_COUNT = "peaksCount";
+	private static final String ATTRIBUTE_RETENTION_TIME = "retentionTime";
+	private static final String ATTRIBUTE_PRECISION = "precision";
+	private static final String ATTRIBUTE_BYTE_ORDER = "byteOrder";
+	private static final String ATTRIBUTE_COMPRESSION_TYPE = "compressionType";
+	//
+	private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+		Thread thread = new Thread(runnable, "mzXML Peaks Decoder");
+		thread.setDaemon(true);
+		return thread;
+	});
+	//
+	private final boolean assignCycleNumbers;
+	private final int numberOfThreads;
+	private final XMLInputFactory inputFactory;
+	private DatatypeFactory datatypeFactory = null;
+
+	/**
+	 * If assignCycleNumbers is true, the MS/MS cycles are numbered like in the version 3.2 reader.
+	 *
+	 * @param assignCycleNumbers
+	 */
+	public StreamingReader(boolean assignCycleNumbers) {
+		this(assignCycleNumbers, Runtime.getRuntime().availableProcessors());
+	}
+
+	public StreamingReader(boolean assignCycleNumbers, int numberOfThreads) {
+		this.assignCycleNumbers = assignCycleNumbers;
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+	}
+
+	@Override
+	public IChromatogramMSD read(File file, IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
+
+		IVendorChromatogram chromatogram = new VendorChromatogram();
+		read(file, chromatogram::addScan, monitor);
+		if(assignCycleNumbers) {
+			assignCycleNumbers(chromatogram.getScans());
+		}
+		chromatogram.setConverterId("");
+		chromatogram.setFile(file);
+		return chromatogram;
+	}
+
+	/**
+	 * Passes the scans in the order of the file to the consumer.
+	 * Only a limited number of scans is held in memory at a time.
+	 * The cycle numbers are not assigned, as they depend on the whole run.
+	 * If the file is malformed, a {@link FileIsNotReadableException} is thrown,
+	 * hence a truncated chromatogram is not returned. The same applies if the
+	 * thread is interrupted, then an {@link InterruptedIOException} is thrown.
+	 *
+	 * @param file
+	 * @param consumer
+	 * @param monitor
+	 * @throws IOException
+	 */
+	public void read(File file, Consumer<IVendorScan> consumer, IProgressMonitor monitor) throws IOException {
+
+		ExecutorService executorService = (numberOfThreads > 1) ? EXECUTOR_SERVICE : null;
+		Deque<Future<IVendorScan>> pendingScans = new ArrayDeque<>();
+		int maxPendingScans = numberOfThreads * PENDING_SCANS_PER_THREAD;
+		try(InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+			try {
+				int depth = 0;
+				while(reader.hasNext()) {
+					int event = reader.next();
+					if(event == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+						/*
+						 * mzXML > msRun > scan
+						 */
+						if(depth == 3 && NODE_SCAN.equals(reader.getLocalName())) {
+							if(monitor.isCanceled()) {
+								break;
+							}
+							if(Thread.interrupted()) {
+								throw new InterruptedException();
+							}
+							ScanData scanData = parseScan(reader);
+							depth--;
+							if(executorService != null) {
+								pendingScans.add(executorService.submit(() -> decodeScan(scanData)));
+								while(pendingScans.size() > maxPendingScans) {
+									consumer.accept(pendingScans.poll().get());
+								}
+							} else {
+								consumer.accept(decodeScan(scanData));
+							}
+						}
+					} else if(event == XMLStreamConstants.END_ELEMENT) {
+						depth--;
+					}
+				}
+				//
+				while(!pendingScans.isEmpty()) {
+					consumer.accept(pendingScans.poll().get());
+				}
+			} finally {
+				reader.close();
+			}
+		} catch(XMLStreamException | ExecutionException e) {
+			throw createException(file, e);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException exception = new InterruptedIOException("Reading the mzXML file has been interrupted: " + file.getAbsolutePath());
+			exception.initCause(e);
+			throw exception;
+		} finally {
+			/*
+			 * The workers are shared, hence only the own scans are cancelled.
+			 */
+			for(Future<IVendorScan> pendingScan : pendingScans) {
+				pendingScan.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Returns the scan with the given number (attribute num) or null if it is not available.
+	 * The index is used if available, otherwise the whole file is parsed.
+	 *
+	 * @param file
+	 * @param scanNumber
+	 * @return {@link IVendorScan}
+	 * @throws IOException
+	 */
+	public IVendorScan readScan(File file, int scanNumber) throws IOException {
+
+		ScanIndex scanIndex = ScanIndex.read(file, inputFactory);
+		if(scanIndex != null) {
+			int position = scanIndex.getPosition(scanNumber);
+			if(position < 0) {
+				return null;
+			}
+			ScanData scanData = readScanData(file, scanIndex, position, false);
+			return (scanData != null) ? decodeScan(scanData) : null;
+		}
+		//
+		List<IVendorScan> scans = new ArrayList<>(1);
+		readScans(file, scanData -> scanData.scanNumber == scanNumber, scans);
+		return scans.isEmpty() ? null : scans.get(0);
+	}
+
+	/**
+	 * Returns the scans within the given retention time range (milliseconds).
+	 * If the file is indexed, the first scan is located by a binary search on the
+	 * scan offsets, hence only the scans of the range are parsed.
+	 *
+	 * @param file
+	 * @param startRetentionTime
+	 * @param stopRetentionTime
+	 * @param monitor
+	 * @return List<IVendorScan>
+	 * @throws IOException
+	 */
+	public List<IVendorScan> readScans(File file, int startRetentionTime, int stopRetentionTime, IProgressMonitor monitor) throws IOException {
+
+		List<IVendorScan> scans = new ArrayList<>();
+		ScanIndex scanIndex = ScanIndex.read(file, inputFactory);
+		if(scanIndex != null) {
+			/*
+			 * The retention times increase with the scan offsets.
+			 */
+			int low = 0;
+			int high = scanIndex.size() - 1;
+			while(low <= high) {
+				int middle = (low + high) >>> 1;
+				ScanData scanData = readScanData(file, scanIndex, middle, true);
+				if(scanData == null) {
+					return scans;
+				}
+				if(scanData.retentionTime < startRetentionTime) {
+					low = middle + 1;
+				} else {
+					high = middle - 1;
+				}
+			}
+			//
+			for(int position = low; position < scanIndex.size(); position++) {
+				if(monitor.isCanceled()) {
+					break;
+				}
+				ScanData scanData = readScanData(file, scanIndex, position, false);
+				if(scanData == null || scanData.retentionTime > stopRetentionTime) {
+					break;
+				}
+				scans.add(decodeScan(scanData));
+			}
+		} else {
+			readScans(file, scanData -> scanData.retentionTime >= startRetentionTime && scanData.retentionTime <= stopRetentionTime, scans);
+		}
+		return scans;
+	}
+
+	private void readScans(File file, ScanFilter scanFilter, List<IVendorScan> scans) throws IOException {
+
+		try(InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+			try {
+				int depth = 0;
+				while(reader.hasNext()) {
+					int event = reader.next();
+					if(event == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+						if(depth == 3 && NODE_SCAN.equals(reader.getLocalName())) {
+							ScanData scanData = parseScan(reader);
+							depth--;
+							if(scanFilter.accept(scanData)) {
+								scans.add(decodeScan(scanData));
+							}
+						}
+					} else if(event == XMLStreamConstants.END_ELEMENT) {
+						depth--;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch(XMLStreamException e) {
+			throw createException(file, e);
+		}
+	}
+
+	private ScanData readScanData(File file, ScanIndex scanIndex, int position, boolean headerOnly) throws IOException {
+
+		try(InputStream inputStream = new BufferedInputStream(scanIndex.openStream(file, position))) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream, "UTF-8");
+			try {
+				while(reader.hasNext()) {
+					if(reader.next() == XMLStreamConstants.START_ELEMENT && NODE_SCAN.equals(reader.getLocalName())) {
+						return headerOnly ? parseScanHeader(reader) : parseScan(reader);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch(XMLStreamException e) {
+			throw createException(file, e);
+		}
+		return null;
+	}
+
+	private FileIsNotReadableException createException(File file, Exception e) {
+
+		FileIsNotReadableException exception = new FileIsNotReadableException("The mzXML file is malformed: " + file.getAbsolutePath());
+		exception.initCause(e);
+		return exception;
+	}
+
+	/**
+	 * Reads the attributes of the scan. The cursor stays at the start element.
+	 */
+	private ScanData parseScanHeader(XMLStreamReader reader) {
+
+		ScanData scanData = new ScanData();
+		scanData.scanNumber = parseInt(reader.getAttributeValue(null, ATTRIBUTE_NUM), 0);
+		scanData.msLevel = (short)parseInt(reader.getAttributeValue(null, ATTRIBUTE_MS_LEVEL), 1);
+		scanData.peaksCount = parseInt(reader.getAttributeValue(null, ATTRIBUTE_PEAKS_COUNT), 0);
+		scanData.retentionTime = parseRetentionTime(reader.getAttributeValue(null, ATTRIBUTE_RETENTION_TIME));
+		return scanData;
+	}
+
+	/**
+	 * Reads the scan including its peaks. The cursor is moved to the end element of the scan.
+	 * Nested scans are skipped.
+	 */
+	private ScanData parseScan(XMLStreamReader reader) throws XMLStreamException {
+
+		ScanData scanData = parseScanHeader(reader);
+		while(reader.hasNext()) {
+			int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				String name = reader.getLocalName();
+				if(NODE_PEAKS.equals(name)) {
+					PeaksData peaksData = new PeaksData();
+					peaksData.precision = parseInt(reader.getAttributeValue(null, ATTRIBUTE_PRECISION), 32);
+					peaksData.byteOrder = reader.getAttributeValue(null, ATTRIBUTE_BYTE_ORDER);
+					peaksData.compressionType = reader.getAttributeValue(null, ATTRIBUTE_COMPRESSION_TYPE);
+					peaksData.content = reader.getElementText();
+					scanData.peaks.add(peaksData);
+				} else if(NODE_SCAN.equals(name)) {
+					skipElement(reader);
+				}
+			} else if(event == XMLStreamConstants.END_ELEMENT && NODE_SCAN.equals(reader.getLocalName())) {
+				break;
+			}
+		}
+		return scanData;
+	}
+
+	private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+
+		int depth = 1;
+		while(depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if(event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private IVendorScan decodeScan(ScanData scanData) {
+
+		IVendorScan massSpectrum = new VendorScan();
+		massSpectrum.setMassSpectrometer(scanData.msLevel);
+		massSpectrum.setRetentionTime(scanData.retentionTime);
+		massSpectrum.setScanNumber(scanData.scanNumber);
+		for(PeaksData peaksData : scanData.peaks) {
+			try {
+				double[] values = PeaksDecoder.decode(peaksData.content, peaksData.precision, peaksData.byteOrder, peaksData.compressionType, scanData.peaksCount * 2);
+				addIons(massSpectrum, values);
+			} catch(DataFormatException | IllegalArgumentException e) {
+				logger.warn(e);
+			}
+		}
+		return massSpectrum;
+	}
+
+	/**
+	 * The m/z values are usually sorted ascending. Then, ions with the same
+	 * rounded m/z are merged directly and the ions are added without checking
+	 * the complete ion list. Otherwise, the ions are added checked.
+	 */
+	private void addIons(IVendorScan massSpectrum, double[] values) {
+
+		boolean sorted = massSpectrum.getNumberOfIons() == 0;
+		IIon lastIon = null;
+		for(int index = 0; index < values.length - 1; index += 2) {
+			double mz = AbstractIon.getIon(values[index], ION_PRECISION);
+			float intensity = (float)values[index + 1];
+			if(intensity >= VendorIon.MIN_ABUNDANCE && intensity <= VendorIon.MAX_ABUNDANCE) {
+				try {
+					if(sorted && lastIon != null && mz <= lastIon.getIon()) {
+						if(mz == lastIon.getIon()) {
+							if(intensity >= lastIon.getAbundance()) {
+								lastIon.setAbundance(intensity);
+							}
+							continue;
+						}
+						sorted = false;
+					}
+					IIon ion = new VendorIon(mz, intensity);
+					massSpectrum.addIon(ion, !sorted);
+					lastIon = ion;
+				} catch(AbundanceLimitExceededException e) {
+					logger.warn(e);
+				} catch(IonLimitExceededException e) {
+					logger.warn(e);
+				}
+			}
+		}
+	}
+
+	private void assignCycleNumbers(List<IScan> scans) {
+
+		boolean isTandemMeasurement = false;
+		for(IScan scan : scans) {
+			if(((IVendorScan)scan).getMassSpectrometer() > 1) {
+				isTandemMeasurement = true;
+				break;
+			}
+		}
+		//
+		int cycleNumber = isTandemMeasurement ? 1 : 0;
+		for(IScan scan : scans) {
+			if(((IVendorScan)scan).getMassSpectrometer() < 2) {
+				cycleNumber++;
+			}
+			if(cycleNumber >= 1) {
+				scan.setCycleNumber(cycleNumber);
+			}
+		}
+	}
+
+	/**
+	 * Parses the xs:duration, e.g. PT12.345S, to milliseconds.
+	 */
+	private int parseRetentionTime(String value) {
+
+		if(value == null) {
+			return 0;
+		}
+		if(value.startsWith("PT") && value.endsWith("S") && value.indexOf('M') < 0 && value.indexOf('H') < 0) {
+			try {
+				return new BigDecimal(value.substring(2, value.length() - 1)).movePointRight(3).intValue();
+			} catch(NumberFormatException e) {
+				// Use the duration below.
+			}
+		}
+		//
+		try {
+			if(datatypeFactory == null) {
+				datatypeFactory = DatatypeFactory.newInstance();
+			}
+			return datatypeFactory.newDuration(value).multiply(1000).getSeconds();
+		} catch(DatatypeConfigurationException | IllegalArgumentException e) {
+			logger.warn(e);
+			return 0;
+		}
+	}
+
+	private int parseInt(String value, int defaultValue) {
+
+		if(value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch(NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private interface ScanFilter {
+
+		boolean accept(ScanData scanData);
+	}
+
+	private static class ScanData {
+
+		private int scanNumber;
+		private short msLevel;
+		private int peaksCount;
+		private int retentionTime;
+		private final List<PeaksData> peaks = new ArrayList<>(1);
+	}
+
+	private static class PeaksData {
+
+		private int precision;
+		private String byteOrder;
+		private String compressionType;
+		private String content;
+	}
+}
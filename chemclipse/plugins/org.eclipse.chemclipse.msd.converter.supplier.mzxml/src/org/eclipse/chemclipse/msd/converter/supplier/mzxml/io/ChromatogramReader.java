@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  *
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -16,29 +16,21 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.chemclipse.converter.exceptions.FileIsEmptyException;
 import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
 import org.eclipse.chemclipse.model.core.IChromatogramOverview;
 import org.eclipse.chemclipse.msd.converter.io.AbstractChromatogramMSDReader;
 import org.eclipse.chemclipse.msd.converter.io.IChromatogramMSDReader;
-import org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io.ReaderVersion20;
-import org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io.ReaderVersion21;
-import org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io.ReaderVersion30;
-import org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io.ReaderVersion31;
-import org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io.ReaderVersion32;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io.StreamingReader;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.IVendorScan;
 import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
 import org.eclipse.chemclipse.xxd.converter.supplier.io.exception.UnknownVersionException;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 public class ChromatogramReader extends AbstractChromatogramMSDReader implements IChromatogramMSDReader {
 
-	private static final String CONTEXT_PATH_V_200 = "org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.v20.model";
-	private static final String CONTEXT_PATH_V_210 = "org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.v21.model";
-	private static final String CONTEXT_PATH_V_220 = "org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.v22.model";
-	private static final String CONTEXT_PATH_V_300 = "org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.v30.model";
-	private static final String CONTEXT_PATH_V_310 = "org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.v31.model";
-	private static final String CONTEXT_PATH_V_320 = "org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.v32.model";
 	private static final String MZXML_V_200 = "mzXML_2.0";
 	private static final String MZXML_V_210 = "mzXML_2.1";
 	private static final String MZXML_V_220 = "mzXML_2.2";
@@ -56,18 +48,10 @@ public class ChromatogramReader extends AbstractChromatogramMSDReader implements
 		fileReader.close();
 		//
 		final String header = new String(charBuffer);
-		if(header.contains(MZXML_V_200)) {
-			chromatogramReader = new ReaderVersion20(CONTEXT_PATH_V_200);
-		} else if(header.contains(MZXML_V_210)) {
-			chromatogramReader = new ReaderVersion21(CONTEXT_PATH_V_210);
-		} else if(header.contains(MZXML_V_220)) {
-			chromatogramReader = new ReaderVersion21(CONTEXT_PATH_V_220);
-		} else if(header.contains(MZXML_V_300)) {
-			chromatogramReader = new ReaderVersion30(CONTEXT_PATH_V_300);
-		} else if(header.contains(MZXML_V_310)) {
-			chromatogramReader = new ReaderVersion31(CONTEXT_PATH_V_310);
+		if(header.contains(MZXML_V_200) || header.contains(MZXML_V_210) || header.contains(MZXML_V_220) || header.contains(MZXML_V_300) || header.contains(MZXML_V_310)) {
+			chromatogramReader = new StreamingReader(false);
 		} else if(header.contains(MZXML_V_320)) {
-			chromatogramReader = new ReaderVersion32(CONTEXT_PATH_V_320);
+			chromatogramReader = new StreamingReader(true);
 		} else {
 			throw new UnknownVersionException();
 		}
@@ -86,6 +70,36 @@ public class ChromatogramReader extends AbstractChromatogramMSDReader implements
 		}
 	}
 
+	/**
+	 * Returns the scan with the given number or null if it is not available.
+	 * Indexed files are not parsed completely.
+	 *
+	 * @param file
+	 * @param scanNumber
+	 * @return {@link IVendorScan}
+	 * @throws IOException
+	 */
+	public IVendorScan readScan(final File file, final int scanNumber) throws IOException {
+
+		return getStreamingReader(file).readScan(file, scanNumber);
+	}
+
+	/**
+	 * Returns the scans of the given retention time range (milliseconds).
+	 * Indexed files are not parsed completely.
+	 *
+	 * @param file
+	 * @param startRetentionTime
+	 * @param stopRetentionTime
+	 * @param monitor
+	 * @return List<IVendorScan>
+	 * @throws IOException
+	 */
+	public List<IVendorScan> readScans(final File file, final int startRetentionTime, final int stopRetentionTime, final IProgressMonitor monitor) throws IOException {
+
+		return getStreamingReader(file).readScans(file, startRetentionTime, stopRetentionTime, monitor);
+	}
+
 	@Override
 	public IChromatogramOverview readOverview(final File file, final IProgressMonitor monitor) throws FileNotFoundException, FileIsNotReadableException, FileIsEmptyException, IOException {
 
@@ -96,4 +110,13 @@ public class ChromatogramReader extends AbstractChromatogramMSDReader implements
 			return null;
 		}
 	}
+
+	private static StreamingReader getStreamingReader(final File file) throws IOException {
+
+		IChromatogramMSDReader chromatogramReader = getReader(file);
+		if(chromatogramReader instanceof StreamingReader) {
+			return (StreamingReader)chromatogramReader;
+		}
+		throw new UnknownVersionException("The scans can't be read separately from the file: " + file.getAbsolutePath());
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Lablicate GmbH.
+ * Copyright (c) 2018, 2020 Lablicate GmbH.
  *
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -31,6 +31,7 @@ import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Platform;
+import org.osgi.framework.Bundle;
 
 /**
  * This class offers several methods to import and export mass spectra.<br/>
@@ -244,6 +245,26 @@ public class DatabaseConverter {
 		return instance;
 	}
 
+	/**
+	 * Returns the version of the bundle which contributes the converter,
+	 * e.g. to invalidate persisted results when the parser has been updated.
+	 * An empty string is returned if the converter is not available.
+	 *
+	 * @param converterId
+	 * @return String
+	 */
+	public static String getConverterVersion(final String converterId) {
+
+		IConfigurationElement element = getConfigurationElement(converterId);
+		if(element != null) {
+			Bundle bundle = Platform.getBundle(element.getContributor().getName());
+			if(bundle != null) {
+				return bundle.getVersion().toString();
+			}
+		}
+		return "";
+	}
+
 	/**
 	 * Returns an IChromatogramExportConverter instance or null if none is
 	 * available.
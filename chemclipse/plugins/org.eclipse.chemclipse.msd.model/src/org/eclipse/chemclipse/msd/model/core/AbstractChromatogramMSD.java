@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -13,7 +13,10 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.msd.model.core;
 
+import java.util.Objects;
+
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.INoiseCalculator;
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCache;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCalculator;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.logging.core.Logger;
@@ -31,6 +34,7 @@ import org.eclipse.chemclipse.msd.model.core.support.IMarkedIons;
 import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
 import org.eclipse.chemclipse.msd.model.implementation.ImmutableZeroIon;
 import org.eclipse.chemclipse.msd.model.implementation.IonTransitionSettings;
+import org.eclipse.chemclipse.msd.model.xic.ExtractedIonSignalStore;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
@@ -68,7 +72,9 @@ public abstract class AbstractChromatogramMSD extends AbstractChromatogram<IChro
 	private static final Logger logger = Logger.getLogger(AbstractChromatogramMSD.class);
 	private final IIonTransitionSettings ionTransitionSettings;
 	private INoiseCalculator noiseCalculator;
+	private String noiseCalculatorId;
 	private ImmutableZeroIon immutableZeroIon;
+	private transient ExtractedIonSignalStore extractedIonSignalStore;
 
 	public AbstractChromatogramMSD() {
 		ionTransitionSettings = new IonTransitionSettings();
@@ -89,13 +95,19 @@ public abstract class AbstractChromatogramMSD extends AbstractChromatogram<IChro
 		} else {
 			noiseCalculatorId = PreferenceSupplier.getSelectedNoiseCalculatorId();
 		}
-		noiseCalculator = NoiseCalculator.getNoiseCalculator(noiseCalculatorId);
+		/*
+		 * The noise factors are cached by the NoiseCache, hence the
+		 * calculator needs to be replaced only if another one is selected.
+		 */
+		if(noiseCalculator == null || !Objects.equals(noiseCalculatorId, this.noiseCalculatorId)) {
+			noiseCalculator = NoiseCalculator.getNoiseCalculator(noiseCalculatorId);
+			this.noiseCalculatorId = noiseCalculatorId;
+		}
 	}
 
 	@Override
 	public void recalculateTheNoiseFactor() {
 
-		// this effectively resets the calculator
 		loadNoiseCalculator();
 	}
 
@@ -295,6 +307,27 @@ public abstract class AbstractChromatogramMSD extends AbstractChromatogram<IChro
 		}
 	}
 
+	@Override
+	public synchronized ExtractedIonSignalStore getExtractedIonSignalStore() {
+
+		if(extractedIonSignalStore == null) {
+			extractedIonSignalStore = new ExtractedIonSignalStore(this);
+		}
+		return extractedIonSignalStore;
+	}
+
+	@Override
+	public void dispose() {
+
+		synchronized(this) {
+			if(extractedIonSignalStore != null) {
+				extractedIonSignalStore.clear();
+				extractedIonSignalStore = null;
+			}
+		}
+		super.dispose();
+	}
+
 	@Override
 	public <ResultType extends IMeasurementResult<?>> ResultType getMeasurementResult(Class<ResultType> type) {
 
@@ -309,6 +342,9 @@ public abstract class AbstractChromatogramMSD extends AbstractChromatogram<IChro
 	public void addMeasurementResult(IMeasurementResult<?> chromatogramResult) {
 
 		super.addMeasurementResult(chromatogramResult);
+		if(chromatogramResult instanceof ChromatogramSegmentation || chromatogramResult instanceof NoiseSegmentMeasurementResult) {
+			NoiseCache.clear(this);
+		}
 		if(chromatogramResult instanceof NoiseSegmentMeasurementResult) {
 			recalculateTheNoiseFactor();
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  *
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -206,6 +206,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 	public AbstractScanMSD removeIon(IIon ion) {
 
 		ionsList.remove(ion);
+		invalidateSignalStatistics();
 		return this;
 	}
 
@@ -213,6 +214,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 	public AbstractScanMSD removeAllIons() {
 
 		ionsList.clear();
+		invalidateSignalStatistics();
 		return this;
 	}
 
@@ -302,6 +304,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 	public void clearIons() {
 
 		this.ionsList.clear();
+		invalidateSignalStatistics();
 	}
 
 	@Override
@@ -548,6 +551,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 				logger.warn(e);
 			}
 		}
+		invalidateSignalStatistics();
 	}
 
 	@Override
@@ -578,6 +582,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 				logger.warn(e);
 			}
 		}
+		invalidateSignalStatistics();
 	}
 
 	@Override
@@ -704,6 +709,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 				logger.warn(e);
 			}
 		}
+		invalidateSignalStatistics();
 		return this;
 	}
 
@@ -936,6 +942,7 @@ public abstract class AbstractScanMSD extends AbstractScan implements IScanMSD {
 		for(IIon ion : ionsToRemove) {
 			ionsList.remove(ion);
 		}
+		invalidateSignalStatistics();
 	}
 
 	private boolean checkIon(IIon ion1, IIon ion2) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2018 Lablicate GmbH.
+ * Copyright (c) 2015, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -25,7 +25,8 @@ import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
  * Hence, each scan shall be imported just on demand.
  * This proxy encapsulates the normal mass spectrum to ensure that
  * the complete ion data is loaded when it is needed.
- *
+ * The ions are imported only once, even if several threads access
+ * the scan concurrently, e.g. when processing the scans in parallel.
  */
 public abstract class AbstractVendorMassSpectrumProxy extends AbstractVendorMassSpectrum implements IVendorMassSpectrumProxy {
 
@@ -35,7 +36,8 @@ public abstract class AbstractVendorMassSpectrumProxy extends AbstractVendorMass
 	 */
 	private static final long serialVersionUID = 6994933565324921239L;
 	//
-	private boolean isProxy = true;
+	private volatile boolean isProxy = true;
+	private transient boolean importing = false;
 	/*
 	 * Both values are used in proxy modus to display
 	 * the chromatogram TIC.
@@ -263,11 +265,35 @@ public abstract class AbstractVendorMassSpectrumProxy extends AbstractVendorMass
 		return super.normalize(base);
 	}
 
+	/**
+	 * Returns true as long as the ions have not been imported.
+	 * 
+	 * @return boolean
+	 */
+	protected boolean isProxy() {
+
+		return isProxy;
+	}
+
 	private void checkProxyAndImportOnDemand() {
 
 		if(isProxy) {
-			isProxy = false;
-			importIons();
+			synchronized(this) {
+				/*
+				 * The import adds the ions via addIon(...), which
+				 * calls this method again on the importing thread.
+				 * Other threads wait until the import has finished.
+				 */
+				if(isProxy && !importing) {
+					importing = true;
+					try {
+						importIons();
+					} finally {
+						importing = false;
+						isProxy = false;
+					}
+				}
+			}
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -14,6 +14,7 @@ package org.eclipse.chemclipse.msd.model.core;
 import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.core.IChromatogramOverview;
 import org.eclipse.chemclipse.msd.model.core.support.IMarkedIons;
+import org.eclipse.chemclipse.msd.model.xic.ExtractedIonSignalStore;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
@@ -107,4 +108,13 @@ public interface IChromatogramMSD extends IChromatogram<IChromatogramPeakMSD> {
 	 * 
 	 */
 	IIonTransitionSettings getIonTransitionSettings();
+
+	/**
+	 * Returns the store of the extracted ion signals of this chromatogram.
+	 * The signals are extracted on demand and are shared by all consumers
+	 * until the chromatogram is disposed.
+	 * 
+	 * @return {@link ExtractedIonSignalStore}
+	 */
+	ExtractedIonSignalStore getExtractedIonSignalStore();
 }
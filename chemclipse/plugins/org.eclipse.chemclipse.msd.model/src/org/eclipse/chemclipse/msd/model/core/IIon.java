@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  *
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -70,6 +70,9 @@ public interface IIon extends IIonSerializable, IAdaptable, Comparable<IIon> {
 
 	/**
 	 * Sets an abundance value for the ion.
+	 * The ion doesn't know its scan. If the ion is part of a scan of a chromatogram,
+	 * call scan.setDirty(true) afterwards, otherwise the cached signal statistics
+	 * of the chromatogram, e.g. the total signal, are outdated.
 	 *
 	 * @param abundance
 	 * @throws AbundanceLimitExceededException
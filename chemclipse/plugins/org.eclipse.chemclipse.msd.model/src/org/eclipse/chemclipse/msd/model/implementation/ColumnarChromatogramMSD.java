@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.implementation;
+
+import java.io.IOException;
+
+import org.eclipse.chemclipse.msd.model.core.AbstractChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IVendorMassSpectrum;
+
+/**
+ * The ions of all scans are stored in primitive columns of an {@link IonColumnStore}.
+ * Use this chromatogram for large profile or high resolution runs.
+ * Scans are added via addScan(int, double[], float[], int).
+ * The ion columns are released when the chromatogram is disposed or closed.
+ */
+public class ColumnarChromatogramMSD extends AbstractChromatogramMSD implements IChromatogramMSD {
+
+	private static final long serialVersionUID = -2263840171839049812L;
+	//
+	private final transient IonColumnStore ionColumnStore;
+
+	/**
+	 * Stores the ions on the heap.
+	 */
+	public ColumnarChromatogramMSD() {
+		ionColumnStore = new IonColumnStore();
+	}
+
+	/**
+	 * Stores the ions in a memory-mapped temporary file if memoryMapped is true.
+	 *
+	 * @param memoryMapped
+	 * @throws IOException
+	 */
+	public ColumnarChromatogramMSD(boolean memoryMapped) throws IOException {
+		ionColumnStore = new IonColumnStore(memoryMapped);
+	}
+
+	/**
+	 * Appends the given ions as a new scan.
+	 *
+	 * @param retentionTime
+	 * @param mzs
+	 * @param abundances
+	 * @param length
+	 * @return {@link IVendorMassSpectrum}
+	 * @throws IOException
+	 */
+	public IVendorMassSpectrum addScan(int retentionTime, double[] mzs, float[] abundances, int length) throws IOException {
+
+		if(ionColumnStore == null) {
+			throw new IOException("The ion store is not available, e.g. after deserialization.");
+		}
+		int scan = ionColumnStore.addScan(mzs, abundances, length);
+		ColumnarScanMSD massSpectrum = new ColumnarScanMSD(ionColumnStore, scan);
+		massSpectrum.setRetentionTime(retentionTime);
+		addScan(massSpectrum);
+		return massSpectrum;
+	}
+
+	public IonColumnStore getIonColumnStore() {
+
+		return ionColumnStore;
+	}
+
+	/**
+	 * Releases the ion columns.
+	 */
+	public void close() {
+
+		if(ionColumnStore != null) {
+			ionColumnStore.close();
+		}
+	}
+
+	@Override
+	public void dispose() {
+
+		close();
+		super.dispose();
+	}
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.implementation;
+
+import java.io.ObjectStreamException;
+import java.util.Set;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.msd.model.core.AbstractIon;
+import org.eclipse.chemclipse.msd.model.core.AbstractVendorMassSpectrumProxy;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IVendorMassSpectrum;
+import org.eclipse.chemclipse.msd.model.core.support.IMarkedIons;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+import org.eclipse.chemclipse.msd.model.xic.ExtractedIonSignal;
+import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignal;
+
+/**
+ * The scan is a view on the columns of an {@link IonColumnStore}.
+ * Ion instances are created only if the ions are requested or modified.
+ * The total signal and the extracted ion signal are calculated directly
+ * on the primitive columns.
+ * The store is not serialized. Hence, the ions are imported before the scan is serialized.
+ */
+public class ColumnarScanMSD extends AbstractVendorMassSpectrumProxy implements IVendorMassSpectrum {
+
+	/**
+	 * Renew the serialVersionUID any time you have changed some fields or
+	 * methods.
+	 */
+	private static final long serialVersionUID = -6219044718946178402L;
+	private static final Logger logger = Logger.getLogger(ColumnarScanMSD.class);
+	//
+	private final transient IonColumnStore ionColumnStore;
+	private final int scan;
+
+	public ColumnarScanMSD(IonColumnStore ionColumnStore, int scan) {
+		this.ionColumnStore = ionColumnStore;
+		this.scan = scan;
+		setNumberOfIons(ionColumnStore.getLength(scan));
+		setTotalSignal(ionColumnStore.getTotalSignal(scan));
+	}
+
+	@Override
+	public int getMaxPossibleIons() {
+
+		return VendorMassSpectrum.MAX_IONS;
+	}
+
+	@Override
+	public int getMinPossibleRetentionTime() {
+
+		return VendorMassSpectrum.MIN_RETENTION_TIME;
+	}
+
+	@Override
+	public int getMaxPossibleRetentionTime() {
+
+		return VendorMassSpectrum.MAX_RETENTION_TIME;
+	}
+
+	@Override
+	public void importIons() {
+
+		long offset = ionColumnStore.getOffset(scan);
+		int length = ionColumnStore.getLength(scan);
+		for(long index = offset; index < offset + length; index++) {
+			try {
+				addIon(new Ion(ionColumnStore.getMZ(index), ionColumnStore.getAbundance(index)), false);
+			} catch(AbundanceLimitExceededException e) {
+				logger.warn(e);
+			} catch(IonLimitExceededException e) {
+				logger.warn(e);
+			}
+		}
+	}
+
+	@Override
+	public float getTotalSignal(IMarkedIons markedIons) {
+
+		if(isProxy() && markedIons != null && !markedIons.isEmpty()) {
+			Set<Integer> ionsNominal = markedIons.getIonsNominal();
+			boolean exclude = IMarkedIons.IonMarkMode.EXCLUDE.equals(markedIons.getMode());
+			float totalSignal = 0.0f;
+			long offset = ionColumnStore.getOffset(scan);
+			int length = ionColumnStore.getLength(scan);
+			for(long index = offset; index < offset + length; index++) {
+				boolean contains = ionsNominal.contains(AbstractIon.getIon(ionColumnStore.getMZ(index)));
+				if(contains == exclude) {
+					totalSignal += ionColumnStore.getAbundance(index);
+				}
+			}
+			return totalSignal;
+		}
+		return super.getTotalSignal(markedIons);
+	}
+
+	@Override
+	public IExtractedIonSignal getExtractedIonSignal() {
+
+		if(isProxy()) {
+			long offset = ionColumnStore.getOffset(scan);
+			int length = ionColumnStore.getLength(scan);
+			if(length == 0) {
+				return new ExtractedIonSignal(0, 0);
+			}
+			double startIon = Double.MAX_VALUE;
+			double stopIon = 0.0d;
+			for(long index = offset; index < offset + length; index++) {
+				double mz = ionColumnStore.getMZ(index);
+				startIon = Math.min(startIon, mz);
+				stopIon = Math.max(stopIon, mz);
+			}
+			return getExtractedIonSignal(startIon, stopIon);
+		}
+		return super.getExtractedIonSignal();
+	}
+
+	@Override
+	public IExtractedIonSignal getExtractedIonSignal(double startIon, double stopIon) {
+
+		if(isProxy()) {
+			long offset = ionColumnStore.getOffset(scan);
+			int length = ionColumnStore.getLength(scan);
+			if(length == 0) {
+				return new ExtractedIonSignal(0, 0);
+			}
+			ExtractedIonSignal extractedIonSignal = new ExtractedIonSignal(startIon, stopIon);
+			for(long index = offset; index < offset + length; index++) {
+				extractedIonSignal.addAbundance(ionColumnStore.getMZ(index), ionColumnStore.getAbundance(index));
+			}
+			return extractedIonSignal;
+		}
+		return super.getExtractedIonSignal(startIon, stopIon);
+	}
+
+	/**
+	 * The ions are imported before the fields are serialized,
+	 * as the column store is transient.
+	 * 
+	 * @return Object
+	 * @throws ObjectStreamException
+	 */
+	protected Object writeReplace() throws ObjectStreamException {
+
+		enforceLoadScanProxy();
+		return this;
+	}
+
+	// -------------------------------IMassSpectrumCloneable
+	/**
+	 * Keep in mind, it is a covariant return.<br/>
+	 * The copy shares the columns as long as the ions have not been imported.
+	 */
+	@Override
+	public IVendorMassSpectrum makeDeepCopy() throws CloneNotSupportedException {
+
+		ColumnarScanMSD massSpectrum = (ColumnarScanMSD)super.clone();
+		if(!isProxy()) {
+			for(IIon ion : getIons()) {
+				try {
+					massSpectrum.addIon(new Ion(ion.getIon(), ion.getAbundance()), false);
+				} catch(AbundanceLimitExceededException e) {
+					logger.warn(e);
+				} catch(IonLimitExceededException e) {
+					logger.warn(e);
+				}
+			}
+		}
+		return massSpectrum;
+	}
+
+	@Override
+	protected Object clone() throws CloneNotSupportedException {
+
+		return makeDeepCopy();
+	}
+	// -------------------------------IMassSpectrumCloneable
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.implementation;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+
+/**
+ * Stores the ions of all scans of a chromatogram in two primitive columns
+ * (m/z and abundance) plus an offset index per scan.
+ * The columns are organized in blocks, which are either kept on the heap
+ * or mapped from a temporary file. Hence, runs with several GB of ions
+ * can be opened in a fixed heap.
+ * The store is append only. Scans are appended under a lock, but the columns
+ * are read without locking: the block arrays are replaced on growth and the
+ * scan counter is volatile and incremented only after the ions of a scan
+ * have been written. Hence, a scan is visible to a reader together with its ions.
+ */
+public class IonColumnStore implements Closeable {
+
+	private static final Logger logger = Logger.getLogger(IonColumnStore.class);
+	//
+	private static final int BLOCK_SIZE = 1 << 20; // ions per block
+	private static final int BLOCK_BYTES_MZ = BLOCK_SIZE * Double.BYTES;
+	private static final int BLOCK_BYTES_ABUNDANCE = BLOCK_SIZE * Float.BYTES;
+	private static final int INITIAL_SCANS = 1024;
+	//
+	private final boolean memoryMapped;
+	private File file = null;
+	private RandomAccessFile randomAccessFile = null;
+	private FileChannel fileChannel = null;
+	//
+	private volatile DoubleBuffer[] mzBlocks = new DoubleBuffer[0];
+	private volatile FloatBuffer[] abundanceBlocks = new FloatBuffer[0];
+	private volatile long size = 0;
+	//
+	private volatile long[] offsets = new long[INITIAL_SCANS];
+	private volatile int[] lengths = new int[INITIAL_SCANS];
+	private volatile int scans = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a heap based store.
+	 */
+	public IonColumnStore() {
+		this.memoryMapped = false;
+	}
+
+	/**
+	 * Creates a store which is backed by a memory-mapped temporary file
+	 * if memoryMapped is true.
+	 *
+	 * @param memoryMapped
+	 * @throws IOException
+	 */
+	public IonColumnStore(boolean memoryMapped) throws IOException {
+		this.memoryMapped = memoryMapped;
+		if(memoryMapped) {
+			file = File.createTempFile("ChemClipse", ".ions");
+			file.deleteOnExit();
+			randomAccessFile = new RandomAccessFile(file, "rw");
+			fileChannel = randomAccessFile.getChannel();
+		}
+	}
+
+	public boolean isMemoryMapped() {
+
+		return memoryMapped;
+	}
+
+	/**
+	 * Returns true if the store has been closed.
+	 *
+	 * @return boolean
+	 */
+	public boolean isClosed() {
+
+		return closed;
+	}
+
+	/**
+	 * Appends a scan and returns its index in the store.
+	 *
+	 * @param mzs
+	 * @param abundances
+	 * @param length
+	 * @return int
+	 * @throws IOException
+	 */
+	public synchronized int addScan(double[] mzs, float[] abundances, int length) throws IOException {
+
+		if(closed) {
+			throw new IOException("The ion store has been closed.");
+		}
+		int scan = scans;
+		long offset = size;
+		for(int i = 0; i < length; i++) {
+			long index = offset + i;
+			int block = (int)(index / BLOCK_SIZE);
+			int position = (int)(index % BLOCK_SIZE);
+			if(block == mzBlocks.length) {
+				createBlock(block);
+			}
+			mzBlocks[block].put(position, mzs[i]);
+			abundanceBlocks[block].put(position, abundances[i]);
+		}
+		//
+		if(scan == offsets.length) {
+			offsets = Arrays.copyOf(offsets, scan * 2);
+			lengths = Arrays.copyOf(lengths, scan * 2);
+		}
+		offsets[scan] = offset;
+		lengths[scan] = length;
+		size = offset + length;
+		/*
+		 * Publishes the scan.
+		 */
+		scans = scan + 1;
+		return scan;
+	}
+
+	public int getNumberOfScans() {
+
+		return scans;
+	}
+
+	/**
+	 * Returns the total number of stored ions.
+	 *
+	 * @return long
+	 */
+	public long size() {
+
+		return size;
+	}
+
+	public long getOffset(int scan) {
+
+		checkScan(scan);
+		return offsets[scan];
+	}
+
+	public int getLength(int scan) {
+
+		checkScan(scan);
+		return lengths[scan];
+	}
+
+	/**
+	 * Returns the m/z value at the given index. The index is derived from
+	 * the offset and length of a scan, see {@link #getOffset(int)}.
+	 *
+	 * @param index
+	 * @return double
+	 */
+	public double getMZ(long index) {
+
+		return mzBlocks[(int)(index / BLOCK_SIZE)].get((int)(index % BLOCK_SIZE));
+	}
+
+	public float getAbundance(long index) {
+
+		return abundanceBlocks[(int)(index / BLOCK_SIZE)].get((int)(index % BLOCK_SIZE));
+	}
+
+	/**
+	 * Returns the sum of all abundances of the given scan.
+	 *
+	 * @param scan
+	 * @return float
+	 */
+	public float getTotalSignal(int scan) {
+
+		float totalSignal = 0.0f;
+		long offset = getOffset(scan);
+		int length = lengths[scan];
+		for(long index = offset; index < offset + length; index++) {
+			totalSignal += getAbundance(index);
+		}
+		return totalSignal;
+	}
+
+	@Override
+	public synchronized void close() {
+
+		closed = true;
+		mzBlocks = new DoubleBuffer[0];
+		abundanceBlocks = new FloatBuffer[0];
+		if(fileChannel != null) {
+			try {
+				fileChannel.close();
+				randomAccessFile.close();
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+			fileChannel = null;
+			randomAccessFile = null;
+		}
+		if(file != null) {
+			if(!file.delete()) {
+				logger.info("The temporary ion store will be deleted on exit: " + file);
+			}
+			file = null;
+		}
+	}
+
+	/**
+	 * Reading the volatile scan counter makes the ions of the scan visible.
+	 */
+	private void checkScan(int scan) {
+
+		if(scan < 0 || scan >= scans) {
+			throw new IndexOutOfBoundsException("Scan: " + scan + ", Scans: " + scans);
+		}
+	}
+
+	private void createBlock(int block) throws IOException {
+
+		if(memoryMapped) {
+			if(fileChannel == null) {
+				throw new IOException("The ion store has been closed.");
+			}
+			long position = (long)block * (BLOCK_BYTES_MZ + BLOCK_BYTES_ABUNDANCE);
+			ByteBuffer mzBuffer = fileChannel.map(MapMode.READ_WRITE, position, BLOCK_BYTES_MZ).order(ByteOrder.nativeOrder());
+			ByteBuffer abundanceBuffer = fileChannel.map(MapMode.READ_WRITE, position + BLOCK_BYTES_MZ, BLOCK_BYTES_ABUNDANCE).order(ByteOrder.nativeOrder());
+			addBlock(mzBuffer.asDoubleBuffer(), abundanceBuffer.asFloatBuffer());
+		} else {
+			addBlock(DoubleBuffer.wrap(new double[BLOCK_SIZE]), FloatBuffer.wrap(new float[BLOCK_SIZE]));
+		}
+	}
+
+	/**
+	 * The block arrays are copied, so that readers always see a consistent array.
+	 */
+	private void addBlock(DoubleBuffer mzBlock, FloatBuffer abundanceBlock) {
+
+		DoubleBuffer[] mzBlocks = Arrays.copyOf(this.mzBlocks, this.mzBlocks.length + 1);
+		FloatBuffer[] abundanceBlocks = Arrays.copyOf(this.abundanceBlocks, this.abundanceBlocks.length + 1);
+		mzBlocks[mzBlocks.length - 1] = mzBlock;
+		abundanceBlocks[abundanceBlocks.length - 1] = abundanceBlock;
+		this.mzBlocks = mzBlocks;
+		this.abundanceBlocks = abundanceBlocks;
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.xic;
+
+import java.util.Arrays;
+
+/**
+ * An immutable extracted ion signal of the {@link ExtractedIonSignalStore}.
+ * Only the nominal ions with an abundance are stored, sorted ascending.
+ * The ion range is kept, hence the dense signal can be restored.
+ */
+final class CompressedIonSignal {
+
+	private final int startIon;
+	private final int stopIon;
+	private final int[] ions;
+	private final float[] abundances;
+	private final int retentionTime;
+	private final float retentionIndex;
+
+	public CompressedIonSignal(IExtractedIonSignal extractedIonSignal) {
+		startIon = extractedIonSignal.getStartIon();
+		stopIon = extractedIonSignal.getStopIon();
+		int count = 0;
+		int[] values = new int[Math.max(0, stopIon - startIon + 1)];
+		for(int ion = startIon; ion <= stopIon; ion++) {
+			if(extractedIonSignal.getAbundance(ion) != 0) {
+				values[count++] = ion;
+			}
+		}
+		ions = Arrays.copyOf(values, count);
+		abundances = new float[count];
+		for(int i = 0; i < count; i++) {
+			abundances[i] = extractedIonSignal.getAbundance(ions[i]);
+		}
+		retentionTime = extractedIonSignal.getRetentionTime();
+		retentionIndex = extractedIonSignal.getRetentionIndex();
+	}
+
+	public int getStartIon() {
+
+		return startIon;
+	}
+
+	public int getStopIon() {
+
+		return stopIon;
+	}
+
+	public int getNumberOfIonValues() {
+
+		return stopIon - startIon + 1;
+	}
+
+	public float getAbundance(int ion) {
+
+		int index = Arrays.binarySearch(ions, ion);
+		return (index >= 0) ? abundances[index] : 0.0f;
+	}
+
+	public int getRetentionTime() {
+
+		return retentionTime;
+	}
+
+	public float getRetentionIndex() {
+
+		return retentionIndex;
+	}
+
+	/**
+	 * Adds the abundances of the stored ions to the given arrays,
+	 * which start at the given ion.
+	 *
+	 * @param start
+	 * @param totals
+	 * @param maxima
+	 */
+	public void addTo(int start, double[] totals, float[] maxima) {
+
+		for(int i = 0; i < ions.length; i++) {
+			int index = ions[i] - start;
+			totals[index] += abundances[i];
+			if(abundances[i] > maxima[index]) {
+				maxima[index] = abundances[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns a new, modifiable dense signal.
+	 *
+	 * @return {@link ExtractedIonSignal}
+	 */
+	public ExtractedIonSignal toExtractedIonSignal() {
+
+		ExtractedIonSignal extractedIonSignal = new ExtractedIonSignal(startIon, stopIon);
+		for(int i = 0; i < ions.length; i++) {
+			extractedIonSignal.setAbundance(ions[i], abundances[i], true);
+		}
+		extractedIonSignal.setRetentionTime(retentionTime);
+		extractedIonSignal.setRetentionIndex(retentionIndex);
+		return extractedIonSignal;
+	}
+}
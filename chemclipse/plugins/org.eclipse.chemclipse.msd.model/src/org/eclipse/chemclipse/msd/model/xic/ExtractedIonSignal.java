@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Lablicate GmbH.
+ * Copyright (c) 2008, 2020 Lablicate GmbH.
  * 
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -21,7 +21,6 @@ import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.msd.model.core.AbstractIon;
 import org.eclipse.chemclipse.msd.model.core.IIon;
 import org.eclipse.chemclipse.msd.model.core.comparator.IonValueComparator;
-import org.eclipse.chemclipse.msd.model.implementation.Ion;
 import org.eclipse.chemclipse.numeric.statistics.Calculations;
 
 public class ExtractedIonSignal implements IExtractedIonSignal {
@@ -115,25 +114,45 @@ public class ExtractedIonSignal implements IExtractedIonSignal {
 		}
 	}
 
+	/**
+	 * Adds the abundance to the given m/z value without creating an ion instance.
+	 * 
+	 * @param ion
+	 * @param abundance
+	 */
+	public void addAbundance(double ion, float abundance) {
+
+		int ionActual = AbstractIon.getIon(ion);
+		if(isValidIon(ionActual)) {
+			int position = ionActual - startIon;
+			abundanceValues[position] += abundance;
+		}
+	}
+
 	@Override
 	public void setAbundance(int ion, float abundance) {
 
-		try {
-			Ion defaultIon = new Ion(ion, abundance);
-			setAbundance(defaultIon);
-		} catch(Exception e) {
-			logger.warn(e);
-		}
+		setAbundance(ion, abundance, false);
 	}
 
 	@Override
 	public void setAbundance(int ion, float abundance, boolean removePreviousAbundance) {
 
-		try {
-			Ion defaultIon = new Ion(ion, abundance);
-			setAbundance(defaultIon, removePreviousAbundance);
-		} catch(Exception e) {
-			logger.warn(e);
+		/*
+		 * The values are validated like the values of an ion,
+		 * without creating an ion instance for each value.
+		 */
+		if(ion < 0 || abundance < 0) {
+			logger.warn("The ion and the abundance value can't be negative. It is actual: " + ion + " " + abundance);
+			return;
+		}
+		if(isValidIon(ion)) {
+			int position = ion - startIon;
+			if(removePreviousAbundance) {
+				abundanceValues[position] = abundance;
+			} else {
+				abundanceValues[position] += abundance;
+			}
 		}
 	}
 
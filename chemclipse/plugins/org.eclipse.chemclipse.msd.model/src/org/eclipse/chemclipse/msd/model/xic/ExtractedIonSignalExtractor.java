@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2019 Lablicate GmbH.
+ * Copyright (c) 2012, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -72,6 +72,13 @@ public class ExtractedIonSignalExtractor implements IExtractedIonSignalExtractor
 
 	private IExtractedIonSignals getExtractedIonSignals(int startScan, int stopScan, float startIon, float stopIon) {
 
+		/*
+		 * The signals of the complete ion range are extracted once and are shared by all consumers.
+		 */
+		if(startIon == 0 && stopIon == 0) {
+			return chromatogram.getExtractedIonSignalStore().getExtractedIonSignals(startScan, stopScan);
+		}
+		//
 		if(chromatogram.getNumberOfScans() == 0) {
 			return new ExtractedIonSignals(0, chromatogram);
 		}
@@ -121,11 +128,7 @@ public class ExtractedIonSignalExtractor implements IExtractedIonSignalExtractor
 	private boolean extractSignals(IExtractedIonSignals extractedIonSignals, IScanMSD scanMSD, float startIon, float stopIon) {
 
 		if(scanMSD.getNumberOfIons() > 0) {
-			if(startIon == 0 && stopIon == 0) {
-				extractedIonSignals.add(scanMSD.getExtractedIonSignal());
-			} else {
-				extractedIonSignals.add(scanMSD.getExtractedIonSignal(startIon, stopIon));
-			}
+			extractedIonSignals.add(scanMSD.getExtractedIonSignal(startIon, stopIon));
 			return true;
 		}
 		return false;
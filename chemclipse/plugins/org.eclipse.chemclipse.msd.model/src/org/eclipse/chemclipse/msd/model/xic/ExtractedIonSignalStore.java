@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.xic;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+
+/**
+ * Stores the extracted ion signals of the scans of a chromatogram, see {@link IChromatogramMSD#getExtractedIonSignalStore()}.
+ * A signal is extracted lazily when a range containing the scan is requested the first time and is shared
+ * by all detectors, filters and charts requesting it. Only the ions with an abundance are stored.
+ * If the chromatogram has been modified, the signals of added or modified scans are extracted again
+ * when they are requested. A scan is modified if its modification count has changed, see {@link IScanMSD#getModificationCount()}.
+ * Hence, ions modified directly are only recognized if the scan has been marked dirty afterwards.
+ * The returned {@link IExtractedIonSignals} are views on the stored signals. A view copies a signal only
+ * if it is modified, hence the stored signals are never changed by the consumers.
+ * The signals are released when the chromatogram is disposed.
+ */
+public final class ExtractedIonSignalStore {
+
+	private final IChromatogramMSD chromatogram;
+	private int modificationCount = 0;
+	/*
+	 * Per scan (index = scan - 1), extracted on demand.
+	 */
+	private StoredScan[] storedScans = new StoredScan[0];
+	/*
+	 * Per nominal ion (index = ion - startIon), calculated on demand.
+	 */
+	private int startIon = IExtractedIonSignal.ION_NOT_SET;
+	private double[] ionTotalSignals = null;
+	private float[] ionMaxSignals = null;
+
+	public ExtractedIonSignalStore(IChromatogramMSD chromatogram) {
+		this.chromatogram = chromatogram;
+	}
+
+	/**
+	 * Returns the extracted ion signals of the given scan range.
+	 * Only the scans of the range are extracted, if they haven't been stored yet.
+	 * Leading and trailing scans without ions are not contained,
+	 * like in {@link ExtractedIonSignalExtractor#getExtractedIonSignals(int, int)}.
+	 *
+	 * @param startScan
+	 * @param stopScan
+	 * @return {@link IExtractedIonSignals}
+	 */
+	public synchronized IExtractedIonSignals getExtractedIonSignals(int startScan, int stopScan) {
+
+		update();
+		int numberOfScans = storedScans.length;
+		if(numberOfScans == 0) {
+			return new ExtractedIonSignals(0, chromatogram);
+		}
+		/*
+		 * Adjust the range.
+		 */
+		if(startScan > stopScan) {
+			int tmp = startScan;
+			startScan = stopScan;
+			stopScan = tmp;
+		}
+		stopScan = (stopScan > numberOfScans) ? numberOfScans : stopScan;
+		int start = (startScan < 1) ? 1 : startScan;
+		int stop = stopScan;
+		/*
+		 * Get the start and stop without empty scans.
+		 */
+		for(int scan = start; scan <= stop; scan++) {
+			if(getSignal(scan) != null) {
+				startScan = scan;
+				break;
+			}
+		}
+		for(int scan = stop; scan > startScan; scan--) {
+			if(getSignal(scan) == null) {
+				stopScan = scan - 1;
+			}
+		}
+		/*
+		 * Create the view.
+		 */
+		IExtractedIonSignals extractedIonSignals = new ExtractedIonSignals(startScan, stopScan, chromatogram);
+		for(int scan = Math.max(1, startScan); scan <= stopScan; scan++) {
+			CompressedIonSignal compressedIonSignal = getSignal(scan);
+			if(compressedIonSignal != null) {
+				extractedIonSignals.add(new SharedExtractedIonSignal(compressedIonSignal));
+			}
+		}
+		return extractedIonSignals;
+	}
+
+	/**
+	 * Returns the lowest nominal ion of all scans.
+	 * All scans are extracted, if they haven't been stored yet.
+	 *
+	 * @return int
+	 */
+	public synchronized int getStartIon() {
+
+		updateIonStatistics();
+		return startIon;
+	}
+
+	/**
+	 * Returns the highest nominal ion of all scans.
+	 * All scans are extracted, if they haven't been stored yet.
+	 *
+	 * @return int
+	 */
+	public synchronized int getStopIon() {
+
+		updateIonStatistics();
+		return (startIon == IExtractedIonSignal.ION_NOT_SET) ? IExtractedIonSignal.ION_NOT_SET : startIon + ionTotalSignals.length - 1;
+	}
+
+	/**
+	 * Returns the summed abundance of the given nominal ion over all scans.
+	 * All scans are extracted, if they haven't been stored yet.
+	 *
+	 * @param ion
+	 * @return float
+	 */
+	public synchronized float getTotalSignal(int ion) {
+
+		updateIonStatistics();
+		int index = ion - startIon;
+		if(index >= 0 && index < ionTotalSignals.length) {
+			return (float)ionTotalSignals[index];
+		}
+		return 0.0f;
+	}
+
+	/**
+	 * Returns the highest abundance of the given nominal ion over all scans.
+	 * All scans are extracted, if they haven't been stored yet.
+	 *
+	 * @param ion
+	 * @return float
+	 */
+	public synchronized float getMaxSignal(int ion) {
+
+		updateIonStatistics();
+		int index = ion - startIon;
+		if(index >= 0 && index < ionMaxSignals.length) {
+			return ionMaxSignals[index];
+		}
+		return 0.0f;
+	}
+
+	/**
+	 * Discards the stored signals, e.g. to release the memory.
+	 * They are extracted again on demand.
+	 */
+	public synchronized void clear() {
+
+		storedScans = new StoredScan[0];
+		clearIonStatistics();
+	}
+
+	/**
+	 * If the chromatogram has been modified, the stored signals are aligned to
+	 * the current scans. Added, removed or moved scans are matched by identity.
+	 * The stored signals are validated lazily, see getSignal(int).
+	 */
+	private void update() {
+
+		int modificationCount = chromatogram.getModificationCount();
+		int size = chromatogram.getNumberOfScans();
+		if(modificationCount == this.modificationCount && size == storedScans.length) {
+			return;
+		}
+		//
+		StoredScan[] currentScans = new StoredScan[size];
+		if(size == storedScans.length) {
+			System.arraycopy(storedScans, 0, currentScans, 0, size);
+		} else if(storedScans.length > 0) {
+			Map<IScanMSD, StoredScan> stored = new IdentityHashMap<>(storedScans.length);
+			for(StoredScan storedScan : storedScans) {
+				if(storedScan != null) {
+					stored.put(storedScan.scan, storedScan);
+				}
+			}
+			for(int i = 0; i < size; i++) {
+				currentScans[i] = stored.get(chromatogram.getSupplierScan(i + 1));
+			}
+		}
+		storedScans = currentScans;
+		this.modificationCount = modificationCount;
+		clearIonStatistics();
+	}
+
+	/**
+	 * Returns the stored signal of the scan or null if the scan has no ions.
+	 * The signal is extracted if it hasn't been stored yet or if the scan has been modified.
+	 *
+	 * @param scanNumber
+	 * @return {@link CompressedIonSignal}
+	 */
+	private CompressedIonSignal getSignal(int scanNumber) {
+
+		StoredScan storedScan = storedScans[scanNumber - 1];
+		if(storedScan != null && storedScan.validModificationCount == modificationCount) {
+			return storedScan.signal;
+		}
+		//
+		IScanMSD scan = chromatogram.getSupplierScan(scanNumber);
+		int scanModificationCount = scan.getModificationCount();
+		if(storedScan == null || storedScan.scan != scan || storedScan.scanModificationCount != scanModificationCount) {
+			CompressedIonSignal signal = (scan.getNumberOfIons() > 0) ? new CompressedIonSignal(scan.getExtractedIonSignal()) : null;
+			storedScan = new StoredScan(scan, scanModificationCount, signal);
+			storedScans[scanNumber - 1] = storedScan;
+		}
+		storedScan.validModificationCount = modificationCount;
+		return storedScan.signal;
+	}
+
+	private void updateIonStatistics() {
+
+		update();
+		if(ionTotalSignals != null) {
+			return;
+		}
+		/*
+		 * Get the ion range.
+		 */
+		int start = Integer.MAX_VALUE;
+		int stop = Integer.MIN_VALUE;
+		for(int scan = 1; scan <= storedScans.length; scan++) {
+			CompressedIonSignal signal = getSignal(scan);
+			if(signal != null) {
+				start = Math.min(start, signal.getStartIon());
+				stop = Math.max(stop, signal.getStopIon());
+			}
+		}
+		if(start > stop) {
+			startIon = IExtractedIonSignal.ION_NOT_SET;
+			ionTotalSignals = new double[0];
+			ionMaxSignals = new float[0];
+			return;
+		}
+		/*
+		 * Sum up the abundances per ion.
+		 */
+		double[] totals = new double[stop - start + 1];
+		float[] maxima = new float[stop - start + 1];
+		for(int scan = 1; scan <= storedScans.length; scan++) {
+			CompressedIonSignal signal = getSignal(scan);
+			if(signal != null) {
+				signal.addTo(start, totals, maxima);
+			}
+		}
+		startIon = start;
+		ionTotalSignals = totals;
+		ionMaxSignals = maxima;
+	}
+
+	private void clearIonStatistics() {
+
+		startIon = IExtractedIonSignal.ION_NOT_SET;
+		ionTotalSignals = null;
+		ionMaxSignals = null;
+	}
+
+	private static final class StoredScan {
+
+		private final IScanMSD scan;
+		private final int scanModificationCount;
+		private final CompressedIonSignal signal;
+		/*
+		 * The chromatogram modification count of the last validation.
+		 */
+		private int validModificationCount;
+
+		public StoredScan(IScanMSD scan, int scanModificationCount, CompressedIonSignal signal) {
+			this.scan = scan;
+			this.scanModificationCount = scanModificationCount;
+			this.signal = signal;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.xic;
+
+import org.eclipse.chemclipse.msd.model.core.IIon;
+
+/**
+ * A view on an extracted ion signal of the {@link ExtractedIonSignalStore}.
+ * The stored signal is shared by all views and is never modified.
+ * The abundances are read from the stored signal. The dense signal is
+ * restored only if the view is modified or if statistics are requested.
+ */
+final class SharedExtractedIonSignal implements IExtractedIonSignal {
+
+	private final CompressedIonSignal compressedIonSignal;
+	private ExtractedIonSignal extractedIonSignal = null;
+
+	public SharedExtractedIonSignal(CompressedIonSignal compressedIonSignal) {
+		this.compressedIonSignal = compressedIonSignal;
+	}
+
+	@Override
+	public void setAbundance(IIon ion, boolean removePreviousAbundance) {
+
+		getSignal().setAbundance(ion, removePreviousAbundance);
+	}
+
+	@Override
+	public void setAbundance(IIon ion) {
+
+		getSignal().setAbundance(ion);
+	}
+
+	@Override
+	public void setAbundance(int ion, float abundance) {
+
+		getSignal().setAbundance(ion, abundance);
+	}
+
+	@Override
+	public void setAbundance(int ion, float abundance, boolean removePreviousAbundance) {
+
+		getSignal().setAbundance(ion, abundance, removePreviousAbundance);
+	}
+
+	@Override
+	public float getAbundance(int ion) {
+
+		return (extractedIonSignal != null) ? extractedIonSignal.getAbundance(ion) : compressedIonSignal.getAbundance(ion);
+	}
+
+	@Override
+	public int getNumberOfIonValues() {
+
+		return (extractedIonSignal != null) ? extractedIonSignal.getNumberOfIonValues() : compressedIonSignal.getNumberOfIonValues();
+	}
+
+	@Override
+	public float getTotalSignal() {
+
+		return getSignal().getTotalSignal();
+	}
+
+	@Override
+	public int getIonMaxIntensity() {
+
+		return getSignal().getIonMaxIntensity();
+	}
+
+	@Override
+	public float getMaxIntensity() {
+
+		return getSignal().getMaxIntensity();
+	}
+
+	@Override
+	public float getMinIntensity() {
+
+		return getSignal().getMinIntensity();
+	}
+
+	@Override
+	public float getNthHighestIntensity(int n) {
+
+		return getSignal().getNthHighestIntensity(n);
+	}
+
+	@Override
+	public float getMeanIntensity() {
+
+		return getSignal().getMeanIntensity();
+	}
+
+	@Override
+	public float getMedianIntensity() {
+
+		return getSignal().getMedianIntensity();
+	}
+
+	@Override
+	public int getRetentionTime() {
+
+		return (extractedIonSignal != null) ? extractedIonSignal.getRetentionTime() : compressedIonSignal.getRetentionTime();
+	}
+
+	@Override
+	public void setRetentionTime(int retentionTime) {
+
+		getSignal().setRetentionTime(retentionTime);
+	}
+
+	@Override
+	public float getRetentionIndex() {
+
+		return (extractedIonSignal != null) ? extractedIonSignal.getRetentionIndex() : compressedIonSignal.getRetentionIndex();
+	}
+
+	@Override
+	public void setRetentionIndex(float retentionIndex) {
+
+		getSignal().setRetentionIndex(retentionIndex);
+	}
+
+	@Override
+	public int getStartIon() {
+
+		return (extractedIonSignal != null) ? extractedIonSignal.getStartIon() : compressedIonSignal.getStartIon();
+	}
+
+	@Override
+	public int getStopIon() {
+
+		return (extractedIonSignal != null) ? extractedIonSignal.getStopIon() : compressedIonSignal.getStopIon();
+	}
+
+	@Override
+	public IIonRange getIonRange() {
+
+		return getSignal().getIonRange();
+	}
+
+	@Override
+	public void normalize() {
+
+		getSignal().normalize();
+	}
+
+	@Override
+	public void normalize(float normalizationBase) {
+
+		getSignal().normalize(normalizationBase);
+	}
+
+	private IExtractedIonSignal getSignal() {
+
+		if(extractedIonSignal == null) {
+			extractedIonSignal = compressedIonSignal.toExtractedIonSignal();
+		}
+		return extractedIonSignal;
+	}
+
+	@Override
+	public boolean equals(Object otherObject) {
+
+		if(this == otherObject) {
+			return true;
+		}
+		if(otherObject == null) {
+			return false;
+		}
+		if(this.getClass() != otherObject.getClass()) {
+			return false;
+		}
+		return getSignal().equals(((SharedExtractedIonSignal)otherObject).getSignal());
+	}
+
+	@Override
+	public int hashCode() {
+
+		return getSignal().hashCode();
+	}
+
+	@Override
+	public String toString() {
+
+		return getSignal().toString();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2019 Lablicate GmbH.
+ * Copyright (c) 2013, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -50,17 +50,24 @@ public abstract class AbstractSupplierFileIdentifier implements ISupplierFileIde
 		List<ISupplier> list = new ArrayList<>();
 		if(file.isFile()) {
 			for(ISupplier supplier : getSupplier()) {
-				if(isValidFileSupplier(file, supplier) && isMatchMagicNumber(file)) {
+				if(isValidFileSupplier(file, supplier)) {
 					list.add(supplier);
 				}
 			}
 		} else if(file.isDirectory()) {
 			for(ISupplier supplier : getSupplier()) {
-				if(isValidDirectorySupplier(file, supplier) && isMatchMagicNumber(file)) {
+				if(isValidDirectorySupplier(file, supplier)) {
 					list.add(supplier);
 				}
 			}
 		}
+		/*
+		 * The magic numbers are checked only once per file
+		 * and only if a supplier handles the file name.
+		 */
+		if(!list.isEmpty() && !isMatchMagicNumber(file)) {
+			list.clear();
+		}
 		return list;
 	}
 
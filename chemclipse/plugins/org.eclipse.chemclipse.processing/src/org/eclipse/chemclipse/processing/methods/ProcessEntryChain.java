@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.methods;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiFunction;
+
+import org.eclipse.chemclipse.processing.profiling.ProcessProfiler;
+import org.eclipse.chemclipse.processing.supplier.IProcessSupplier;
+import org.eclipse.chemclipse.processing.supplier.ProcessChainExecutor;
+import org.eclipse.chemclipse.processing.supplier.ProcessExecutionConsumer;
+import org.eclipse.chemclipse.processing.supplier.ProcessExecutionContext;
+import org.eclipse.chemclipse.processing.supplier.ProcessorPreferences;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Collects consecutive process entries whose suppliers implement {@link ProcessChainExecutor}
+ * and applies them in one step, see {@link ProcessEntryContainer#applyProcessEntries(ProcessEntryContainer, ProcessExecutionContext, BiFunction, ProcessExecutionConsumer)}.
+ */
+final class ProcessEntryChain {
+
+	private static final String DELIMITER = " > ";
+
+	/**
+	 * Use only static methods.
+	 */
+	private ProcessEntryChain() {
+	}
+
+	/**
+	 * Returns the preferences of the entries which are chained to the entry at the given index.
+	 * The list contains at least the preferences of this entry. Entries with sub entries are not chained.
+	 * If a {@link ProcessProfiler} is set as context object, no entries are chained, as the time spent
+	 * in a chain can't be attributed to its single entries.
+	 *
+	 * @param processEntries
+	 * @param index
+	 * @param processorPreferences
+	 * @param consumer
+	 * @param context
+	 * @param preferenceSupplier
+	 * @return List<ProcessorPreferences<?>>
+	 */
+	static <X, T> List<ProcessorPreferences<?>> getChain(List<IProcessEntry> processEntries, int index, ProcessorPreferences<X> processorPreferences, ProcessExecutionConsumer<T> consumer, ProcessExecutionContext context, BiFunction<IProcessEntry, IProcessSupplier<X>, ProcessorPreferences<X>> preferenceSupplier) {
+
+		List<ProcessorPreferences<?>> chain = new ArrayList<>();
+		chain.add(processorPreferences);
+		IProcessSupplier<X> supplier = processorPreferences.getSupplier();
+		if(supplier instanceof ProcessChainExecutor && processEntries.get(index).getNumberOfEntries() == 0 && context.getContextObject(ProcessProfiler.class) == null) {
+			ProcessChainExecutor chainExecutor = (ProcessChainExecutor)supplier;
+			if(chainExecutor.isChainable(processorPreferences, consumer)) {
+				for(int i = index + 1; i < processEntries.size(); i++) {
+					IProcessEntry processEntry = processEntries.get(i);
+					IProcessSupplier<X> processor = context.getSupplier(processEntry.getProcessorId());
+					if(processor == null || processEntry.getNumberOfEntries() > 0) {
+						break;
+					}
+					ProcessorPreferences<X> preferences = preferenceSupplier.apply(processEntry, processor);
+					if(!chainExecutor.isChainable(preferences, consumer)) {
+						break;
+					}
+					chain.add(preferences);
+				}
+			}
+		}
+		return chain;
+	}
+
+	/**
+	 * Applies the chain.
+	 *
+	 * @param processEntries
+	 * @param chain
+	 * @param consumer
+	 * @param context
+	 */
+	static <T> void apply(List<IProcessEntry> processEntries, List<ProcessorPreferences<?>> chain, ProcessExecutionConsumer<T> consumer, ProcessExecutionContext context) {
+
+		ProcessorPreferences<?> processorPreferences = chain.get(0);
+		IProcessSupplier<?> supplier = processorPreferences.getSupplier();
+		StringBuilder name = new StringBuilder();
+		for(IProcessEntry processEntry : processEntries) {
+			if(name.length() > 0) {
+				name.append(DELIMITER);
+			}
+			name.append(processEntry.getName());
+		}
+		//
+		try {
+			((ProcessChainExecutor)supplier).executeChain(chain, consumer, context);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException("interrupted");
+		} catch(OperationCanceledException | CancellationException e) {
+			throw new OperationCanceledException(e.getMessage());
+		} catch(Exception e) {
+			context.addErrorMessage(name.toString(), "execution throws an error, processor chain is skipped", e);
+		}
+	}
+}
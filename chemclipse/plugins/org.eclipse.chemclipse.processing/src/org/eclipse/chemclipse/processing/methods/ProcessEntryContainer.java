@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Lablicate GmbH.
+ * Copyright (c) 2019, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -11,11 +11,16 @@
  *******************************************************************************/
 package org.eclipse.chemclipse.processing.methods;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.BiFunction;
 
 import org.eclipse.chemclipse.processing.methods.SubProcessExecutionConsumer.SubProcess;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfile;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfiler;
 import org.eclipse.chemclipse.processing.supplier.IProcessSupplier;
+import org.eclipse.chemclipse.processing.supplier.ProcessChainExecutor;
 import org.eclipse.chemclipse.processing.supplier.ProcessExecutionConsumer;
 import org.eclipse.chemclipse.processing.supplier.ProcessExecutionContext;
 import org.eclipse.chemclipse.processing.supplier.ProcessorPreferences;
@@ -89,10 +94,19 @@ public interface ProcessEntryContainer extends Iterable<IProcessEntry> {
 		}, consumer);
 	}
 
+	/**
+	 * Applies all entries of the container. If a {@link ProcessProfiler} is set as context object,
+	 * each entry (including sub entries) is measured.
+	 * Consecutive entries whose suppliers implement {@link ProcessChainExecutor} are applied in one step,
+	 * unless they are profiled.
+	 */
 	static <X, T> T applyProcessEntries(ProcessEntryContainer container, ProcessExecutionContext context, BiFunction<IProcessEntry, IProcessSupplier<X>, ProcessorPreferences<X>> preferenceSupplier, ProcessExecutionConsumer<T> consumer) {
 
 		context.setWorkRemaining(container.getNumberOfEntries());
-		for(IProcessEntry processEntry : container) {
+		List<IProcessEntry> processEntries = new ArrayList<>();
+		container.forEach(processEntries::add);
+		for(int index = 0; index < processEntries.size(); index++) {
+			IProcessEntry processEntry = processEntries.get(index);
 			IProcessSupplier<X> processor = context.getSupplier(processEntry.getProcessorId());
 			if(processor == null) {
 				context.addWarnMessage(processEntry.getName(), "processor not found, will be skipped");
@@ -100,11 +114,25 @@ public interface ProcessEntryContainer extends Iterable<IProcessEntry> {
 			}
 			try {
 				ProcessorPreferences<X> processorPreferences = preferenceSupplier.apply(processEntry, processor);
+				List<ProcessorPreferences<?>> chain = ProcessEntryChain.getChain(processEntries, index, processorPreferences, consumer, context, preferenceSupplier);
+				if(chain.size() > 1) {
+					ProcessEntryChain.apply(processEntries.subList(index, index + chain.size()), chain, consumer, context.split(processor.getContext()));
+					index += chain.size() - 1;
+					context.setWorkRemaining(processEntries.size() - index - 1);
+					continue;
+				}
 				context.setContextObject(IProcessEntry.class, processEntry);
 				context.setContextObject(IProcessSupplier.class, processor);
 				context.setContextObject(ProcessExecutionConsumer.class, consumer);
 				context.setContextObject(ProcessorPreferences.class, processorPreferences);
 				ProcessExecutionContext entryContext = context.split(processor.getContext());
+				ProcessProfiler processProfiler = context.getContextObject(ProcessProfiler.class);
+				ProcessProfile processProfile = null;
+				int errorMessages = context.getNumberOfErrorMessages();
+				if(processProfiler != null) {
+					processProfile = processProfiler.start(processEntry.getName(), processEntry.getProcessorId(), consumer.getResult());
+				}
+				boolean failed = true;
 				try {
 					if(processEntry.getNumberOfEntries() > 0) {
 						IProcessSupplier.applyProcessor(processorPreferences, new SubProcessExecutionConsumer<T>(consumer, new SubProcess<T>() {
@@ -118,7 +146,14 @@ public interface ProcessEntryContainer extends Iterable<IProcessEntry> {
 					} else {
 						IProcessSupplier.applyProcessor(processorPreferences, consumer, entryContext);
 					}
+					failed = false;
 				} finally {
+					if(processProfile != null) {
+						/*
+						 * The entry failed if it threw an exception or reported errors itself.
+						 */
+						processProfiler.stop(processProfile, consumer.getResult(), failed || context.getNumberOfErrorMessages() > errorMessages);
+					}
 					context.setContextObject(IProcessSupplier.class, null);
 					context.setContextObject(IProcessEntry.class, null);
 					context.setContextObject(ProcessExecutionConsumer.class, null);
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The measured resources of a single process entry.
+ * Sub entries are stored as children.
+ * Times are given in nanoseconds, the allocation in bytes.
+ * The CPU time and allocated bytes are -1 if the JVM doesn't support the measurement.
+ */
+public class ProcessProfile {
+
+	private final String name;
+	private final String processorId;
+	private long wallTime = 0;
+	private long cpuTime = -1;
+	private long allocatedBytes = -1;
+	private boolean failed = false;
+	private final Map<String, Long> countsBefore = new LinkedHashMap<>();
+	private final Map<String, Long> countsAfter = new LinkedHashMap<>();
+	private final List<ProcessProfile> children = new ArrayList<>();
+
+	public ProcessProfile(String name, String processorId) {
+		this.name = name;
+		this.processorId = processorId;
+	}
+
+	public String getName() {
+
+		return name;
+	}
+
+	public String getProcessorId() {
+
+		return processorId;
+	}
+
+	public long getWallTime() {
+
+		return wallTime;
+	}
+
+	public void setWallTime(long wallTime) {
+
+		this.wallTime = wallTime;
+	}
+
+	public long getCpuTime() {
+
+		return cpuTime;
+	}
+
+	public void setCpuTime(long cpuTime) {
+
+		this.cpuTime = cpuTime;
+	}
+
+	public long getAllocatedBytes() {
+
+		return allocatedBytes;
+	}
+
+	public void setAllocatedBytes(long allocatedBytes) {
+
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public boolean isFailed() {
+
+		return failed;
+	}
+
+	public void setFailed(boolean failed) {
+
+		this.failed = failed;
+	}
+
+	/**
+	 * E.g. the number of scans and peaks before the processor has been applied.
+	 * 
+	 * @return Map
+	 */
+	public Map<String, Long> getCountsBefore() {
+
+		return countsBefore;
+	}
+
+	public Map<String, Long> getCountsAfter() {
+
+		return countsAfter;
+	}
+
+	public List<ProcessProfile> getChildren() {
+
+		return Collections.unmodifiableList(children);
+	}
+
+	void addChild(ProcessProfile processProfile) {
+
+		children.add(processProfile);
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("%.3f ms wall", wallTime / 1000000.0d));
+		if(cpuTime >= 0) {
+			builder.append(String.format(", %.3f ms cpu", cpuTime / 1000000.0d));
+		}
+		if(allocatedBytes >= 0) {
+			builder.append(String.format(", %.3f MB allocated", allocatedBytes / (1024.0d * 1024.0d)));
+		}
+		for(Map.Entry<String, Long> entry : countsAfter.entrySet()) {
+			builder.append(", ");
+			builder.append(entry.getKey());
+			builder.append(" ");
+			builder.append(countsBefore.get(entry.getKey()));
+			builder.append(" -> ");
+			builder.append(entry.getValue());
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.profiling;
+
+import java.util.Map;
+
+/**
+ * Counts the items of the current processing result, e.g. scans and peaks.
+ * The processing bundle doesn't know the data model, hence the counters
+ * are supplied by the caller.
+ */
+@FunctionalInterface
+public interface ProcessProfileCounter {
+
+	/**
+	 * Adds the counts of the given result to the map.
+	 * Unknown result types shall be ignored.
+	 * 
+	 * @param result
+	 * @param counts
+	 */
+	void count(Object result, Map<String, Long> counts);
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.profiling;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Exports the process profiles as JSON (nested) or CSV (one line per entry).
+ */
+public class ProcessProfileWriter {
+
+	public static final String FILE_EXTENSION_JSON = ".json";
+	public static final String FILE_EXTENSION_CSV = ".csv";
+	//
+	private static final String DELIMITER = ";";
+	private static final String PATH_SEPARATOR = " / ";
+
+	/**
+	 * Writes the profiles. The format is selected by the file extension,
+	 * *.csv is written as CSV, all other files as JSON.
+	 * 
+	 * @param file
+	 * @param processProfiles
+	 * @throws IOException
+	 */
+	public void write(File file, List<ProcessProfile> processProfiles) throws IOException {
+
+		try(Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			if(file.getName().toLowerCase().endsWith(FILE_EXTENSION_CSV)) {
+				writeCSV(writer, processProfiles);
+			} else {
+				writeJSON(writer, processProfiles);
+			}
+		}
+	}
+
+	public void writeJSON(Writer writer, List<ProcessProfile> processProfiles) throws IOException {
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+		mapper.writerWithDefaultPrettyPrinter().writeValue(writer, getProfilesJSON(mapper, processProfiles));
+		writer.flush();
+	}
+
+	public void writeCSV(Writer writer, List<ProcessProfile> processProfiles) {
+
+		Set<String> keys = new LinkedHashSet<>();
+		collectKeys(processProfiles, keys);
+		PrintWriter printWriter = new PrintWriter(writer);
+		StringBuilder header = new StringBuilder();
+		header.append("Path");
+		header.append(DELIMITER);
+		header.append("Depth");
+		header.append(DELIMITER);
+		header.append("Processor");
+		header.append(DELIMITER);
+		header.append("Wall Time [ns]");
+		header.append(DELIMITER);
+		header.append("CPU Time [ns]");
+		header.append(DELIMITER);
+		header.append("Allocated [bytes]");
+		header.append(DELIMITER);
+		header.append("Failed");
+		for(String key : keys) {
+			header.append(DELIMITER);
+			header.append(key + " (before)");
+			header.append(DELIMITER);
+			header.append(key + " (after)");
+		}
+		printWriter.println(header.toString());
+		writeCSV(printWriter, processProfiles, "", 0, keys);
+		printWriter.flush();
+	}
+
+	private ArrayNode getProfilesJSON(ObjectMapper mapper, List<ProcessProfile> processProfiles) {
+
+		ArrayNode arrayNode = mapper.createArrayNode();
+		for(ProcessProfile processProfile : processProfiles) {
+			ObjectNode objectNode = arrayNode.addObject();
+			objectNode.put("name", processProfile.getName());
+			objectNode.put("processorId", processProfile.getProcessorId());
+			objectNode.put("wallTimeNanos", processProfile.getWallTime());
+			objectNode.put("cpuTimeNanos", processProfile.getCpuTime());
+			objectNode.put("allocatedBytes", processProfile.getAllocatedBytes());
+			objectNode.put("failed", processProfile.isFailed());
+			objectNode.set("countsBefore", getCountsJSON(mapper, processProfile.getCountsBefore()));
+			objectNode.set("countsAfter", getCountsJSON(mapper, processProfile.getCountsAfter()));
+			objectNode.set("children", getProfilesJSON(mapper, processProfile.getChildren()));
+		}
+		return arrayNode;
+	}
+
+	private void writeCSV(PrintWriter printWriter, List<ProcessProfile> processProfiles, String parentPath, int depth, Set<String> keys) {
+
+		for(ProcessProfile processProfile : processProfiles) {
+			String path = parentPath.isEmpty() ? processProfile.getName() : parentPath + PATH_SEPARATOR + processProfile.getName();
+			StringBuilder line = new StringBuilder();
+			line.append(quoteCSV(path));
+			line.append(DELIMITER);
+			line.append(depth);
+			line.append(DELIMITER);
+			line.append(quoteCSV(processProfile.getProcessorId()));
+			line.append(DELIMITER);
+			line.append(processProfile.getWallTime());
+			line.append(DELIMITER);
+			line.append(processProfile.getCpuTime());
+			line.append(DELIMITER);
+			line.append(processProfile.getAllocatedBytes());
+			line.append(DELIMITER);
+			line.append(processProfile.isFailed());
+			for(String key : keys) {
+				line.append(DELIMITER);
+				line.append(getCount(processProfile.getCountsBefore(), key));
+				line.append(DELIMITER);
+				line.append(getCount(processProfile.getCountsAfter(), key));
+			}
+			printWriter.println(line.toString());
+			writeCSV(printWriter, processProfile.getChildren(), path, depth + 1, keys);
+		}
+	}
+
+	private void collectKeys(List<ProcessProfile> processProfiles, Set<String> keys) {
+
+		for(ProcessProfile processProfile : processProfiles) {
+			keys.addAll(processProfile.getCountsBefore().keySet());
+			keys.addAll(processProfile.getCountsAfter().keySet());
+			collectKeys(processProfile.getChildren(), keys);
+		}
+	}
+
+	private String getCount(Map<String, Long> counts, String key) {
+
+		Long count = counts.get(key);
+		return (count != null) ? count.toString() : "";
+	}
+
+	private ObjectNode getCountsJSON(ObjectMapper mapper, Map<String, Long> counts) {
+
+		ObjectNode objectNode = mapper.createObjectNode();
+		for(Map.Entry<String, Long> entry : counts.entrySet()) {
+			objectNode.put(entry.getKey(), entry.getValue());
+		}
+		return objectNode;
+	}
+
+	private String quoteCSV(String value) {
+
+		if(value == null) {
+			return "";
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+}
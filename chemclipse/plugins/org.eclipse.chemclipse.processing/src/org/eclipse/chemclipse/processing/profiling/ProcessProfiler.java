@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.chemclipse.processing.core.MessageConsumer;
+
+/**
+ * Measures the wall time, CPU time and allocated bytes of the applied process entries.
+ * The profiler is activated by setting it as context object:
+ * 
+ * <pre>
+ * context.setContextObject(ProcessProfiler.class, new ProcessProfiler(counters));
+ * </pre>
+ * 
+ * The CPU time and allocation are measured for the calling thread only.
+ * Work delegated to other threads by a processor is not included.
+ * A profiler is meant to be used for one execution at a time.
+ */
+public class ProcessProfiler {
+
+	public static final String DESCRIPTION = "Process Profile";
+	//
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+	private static final Method ALLOCATED_BYTES = getAllocatedBytesMethod();
+	//
+	private final List<ProcessProfileCounter> counters;
+	private final List<ProcessProfile> profiles = new ArrayList<>();
+	private final Deque<Measurement> measurements = new ArrayDeque<>();
+
+	public ProcessProfiler(ProcessProfileCounter... counters) {
+		this.counters = Arrays.asList(counters);
+	}
+
+	/**
+	 * Starts the measurement of a process entry. If another measurement is running,
+	 * the new profile is added as a child.
+	 * 
+	 * @param name
+	 * @param processorId
+	 * @param result
+	 *            the current result, used by the counters
+	 * @return {@link ProcessProfile}
+	 */
+	public synchronized ProcessProfile start(String name, String processorId, Object result) {
+
+		ProcessProfile processProfile = new ProcessProfile(name, processorId);
+		Measurement parent = measurements.peek();
+		if(parent == null) {
+			profiles.add(processProfile);
+		} else {
+			parent.processProfile.addChild(processProfile);
+		}
+		count(result, processProfile.getCountsBefore());
+		measurements.push(new Measurement(processProfile));
+		return processProfile;
+	}
+
+	/**
+	 * Stops the measurement of the given profile.
+	 * 
+	 * @param processProfile
+	 * @param result
+	 *            the current result, used by the counters
+	 * @param failed
+	 */
+	public synchronized void stop(ProcessProfile processProfile, Object result, boolean failed) {
+
+		Measurement measurement = measurements.peek();
+		if(measurement == null || measurement.processProfile != processProfile) {
+			throw new IllegalStateException("The profile " + processProfile.getName() + " is not the current measurement.");
+		}
+		measurements.pop();
+		processProfile.setWallTime(System.nanoTime() - measurement.wallTime);
+		if(measurement.cpuTime >= 0) {
+			processProfile.setCpuTime(getCpuTime() - measurement.cpuTime);
+		}
+		if(measurement.allocatedBytes >= 0) {
+			processProfile.setAllocatedBytes(getAllocatedBytes() - measurement.allocatedBytes);
+		}
+		processProfile.setFailed(failed);
+		count(result, processProfile.getCountsAfter());
+	}
+
+	/**
+	 * Returns the top level profiles.
+	 * 
+	 * @return List
+	 */
+	public synchronized List<ProcessProfile> getProfiles() {
+
+		return Collections.unmodifiableList(new ArrayList<>(profiles));
+	}
+
+	/**
+	 * Adds an info message for each profile, sub entries are indented.
+	 * 
+	 * @param messageConsumer
+	 */
+	public void addMessages(MessageConsumer messageConsumer) {
+
+		for(ProcessProfile processProfile : getProfiles()) {
+			addMessages(messageConsumer, processProfile, "");
+		}
+	}
+
+	private void addMessages(MessageConsumer messageConsumer, ProcessProfile processProfile, String indent) {
+
+		messageConsumer.addInfoMessage(DESCRIPTION, indent + processProfile.getName() + ": " + processProfile);
+		for(ProcessProfile child : processProfile.getChildren()) {
+			addMessages(messageConsumer, child, indent + "  ");
+		}
+	}
+
+	private void count(Object result, Map<String, Long> counts) {
+
+		if(result != null) {
+			for(ProcessProfileCounter counter : counters) {
+				counter.count(result, counts);
+			}
+		}
+	}
+
+	private static long getCpuTime() {
+
+		try {
+			if(THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+				return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+			}
+		} catch(UnsupportedOperationException e) {
+			// not available
+		}
+		return -1;
+	}
+
+	private static long getAllocatedBytes() {
+
+		if(ALLOCATED_BYTES != null) {
+			try {
+				return (long)ALLOCATED_BYTES.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+			} catch(Exception e) {
+				// not available
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * The allocation counter is part of the com.sun.management extension.
+	 * It's accessed via reflection as it's not available on all JVMs.
+	 */
+	private static Method getAllocatedBytesMethod() {
+
+		try {
+			Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+			if(type.isInstance(THREAD_MX_BEAN)) {
+				Method method = type.getMethod("getThreadAllocatedBytes", long.class);
+				method.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+				return method;
+			}
+		} catch(Exception e) {
+			// not available
+		}
+		return null;
+	}
+
+	private static final class Measurement {
+
+		private final ProcessProfile processProfile;
+		private final long wallTime;
+		private final long cpuTime;
+		private final long allocatedBytes;
+
+		public Measurement(ProcessProfile processProfile) {
+			this.processProfile = processProfile;
+			this.cpuTime = getCpuTime();
+			this.allocatedBytes = getAllocatedBytes();
+			this.wallTime = System.nanoTime();
+		}
+	}
+}
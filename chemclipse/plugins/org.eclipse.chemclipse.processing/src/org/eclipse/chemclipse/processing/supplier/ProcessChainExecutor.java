@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.supplier;
+
+import java.util.List;
+
+/**
+ * Implemented by process suppliers which apply consecutive entries of a process method in one step,
+ * e.g. chromatogram filters which stream the scans through all filters in one pass.
+ * The chain is started by the first entry. The following entries are appended
+ * as long as the supplier of the first entry accepts them.
+ */
+public interface ProcessChainExecutor {
+
+	/**
+	 * Returns true if the preferences can be applied within a chain on the result of the consumer.
+	 * It's called for the preferences of the first entry, too.
+	 *
+	 * @param preferences
+	 * @param consumer
+	 * @return boolean
+	 */
+	<X, T> boolean isChainable(ProcessorPreferences<X> preferences, ProcessExecutionConsumer<T> consumer);
+
+	/**
+	 * Applies the chained preferences in the given order on the result of the consumer.
+	 *
+	 * @param chain
+	 * @param consumer
+	 * @param context
+	 * @throws Exception
+	 */
+	<T> void executeChain(List<ProcessorPreferences<?>> chain, ProcessExecutionConsumer<T> consumer, ProcessExecutionContext context) throws Exception;
+}
@@ -13,6 +13,7 @@ package org.eclipse.chemclipse.processing.supplier;
 
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -29,6 +30,7 @@ public class ProcessExecutionContext implements ProcessSupplierContext, MessageC
 	private final MessageConsumer consumer;
 	private ProcessExecutionContext parent;
 	private final Map<Class<?>, Object> contextMap = new IdentityHashMap<>();
+	private final AtomicInteger errorMessages = new AtomicInteger();
 
 	public ProcessExecutionContext(IProgressMonitor monitor, MessageConsumer rootConsumer, ProcessSupplierContext rootContext) {
 		this(monitor, rootConsumer, rootContext, null);
@@ -67,9 +69,25 @@ public class ProcessExecutionContext implements ProcessSupplierContext, MessageC
 	@Override
 	public void addMessage(String description, String message, String details, Throwable t, MessageType type) {
 
+		if(type == MessageType.ERROR) {
+			for(ProcessExecutionContext context = this; context != null; context = context.parent) {
+				context.errorMessages.incrementAndGet();
+			}
+		}
 		consumer.addMessage(description, message, details, t, type);
 	}
 
+	/**
+	 * Returns the number of error messages which have been added to this context
+	 * or to one of the contexts split from it.
+	 * 
+	 * @return int
+	 */
+	public int getNumberOfErrorMessages() {
+
+		return errorMessages.get();
+	}
+
 	@Override
 	public <T> IProcessSupplier<T> getSupplier(String id) {
 
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.support.files;
+
+import java.io.File;
+
+/**
+ * The size and the modification date of a file. Caches store the stamp of
+ * a file with the derived data and use it as long as the stamp is unchanged.
+ */
+public final class FileStamp {
+
+	private final long length;
+	private final long lastModified;
+
+	public FileStamp(File file) {
+		this(file.length(), file.lastModified());
+	}
+
+	public FileStamp(long length, long lastModified) {
+		this.length = length;
+		this.lastModified = lastModified;
+	}
+
+	public long getLength() {
+
+		return length;
+	}
+
+	public long getLastModified() {
+
+		return lastModified;
+	}
+
+	/**
+	 * Returns false if the file didn't exist or wasn't accessible
+	 * when the stamp was taken.
+	 *
+	 * @return boolean
+	 */
+	public boolean exists() {
+
+		return lastModified != 0;
+	}
+
+	/**
+	 * Returns true if the file still has the size and modification date of this stamp.
+	 *
+	 * @param file
+	 * @return boolean
+	 */
+	public boolean isValid(File file) {
+
+		return equals(new FileStamp(file));
+	}
+
+	@Override
+	public int hashCode() {
+
+		return 31 * Long.hashCode(length) + Long.hashCode(lastModified);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+
+		if(this == obj) {
+			return true;
+		}
+		if(obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		FileStamp other = (FileStamp)obj;
+		return length == other.length && lastModified == other.lastModified;
+	}
+
+	@Override
+	public String toString() {
+
+		return "FileStamp [length=" + length + ", lastModified=" + lastModified + "]";
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2019 Lablicate GmbH.
+ * Copyright (c) 2018, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -218,6 +218,13 @@ public abstract class AbstractChromatogramEditor extends AbstractDataUpdateSuppo
 				}
 			});
 		}
+		/*
+		 * Release the caches and open files of the chromatogram.
+		 */
+		IChromatogramSelection chromatogramSelection = (extendedChromatogramUI != null) ? extendedChromatogramUI.getChromatogramSelection() : null;
+		if(chromatogramSelection != null && chromatogramSelection.getChromatogram() != null) {
+			chromatogramSelection.getChromatogram().dispose();
+		}
 		partSupport.closePart(part);
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Lablicate GmbH.
+ * Copyright (c) 2018, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,9 +13,10 @@ package org.eclipse.chemclipse.ux.extension.xxd.ui.internal.provider;
 
 import org.eclipse.chemclipse.csd.model.core.IScanCSD;
 import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.core.IScan;
 import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
 import org.eclipse.chemclipse.msd.model.core.IIon;
-import org.eclipse.chemclipse.support.ui.swt.ExtendedTableViewer;
+import org.eclipse.chemclipse.ux.extension.xxd.ui.swt.ScanTableUI;
 import org.eclipse.chemclipse.wsd.model.core.IScanSignalWSD;
 import org.eclipse.jface.viewers.CellEditor;
 import org.eclipse.jface.viewers.EditingSupport;
@@ -26,10 +27,10 @@ public class ScanSignalEditingSupport extends EditingSupport {
 	private static final Logger logger = Logger.getLogger(ScanSignalEditingSupport.class);
 	//
 	private CellEditor cellEditor;
-	private ExtendedTableViewer tableViewer;
+	private ScanTableUI tableViewer;
 	private String column;
 
-	public ScanSignalEditingSupport(ExtendedTableViewer tableViewer, String column) {
+	public ScanSignalEditingSupport(ScanTableUI tableViewer, String column) {
 		super(tableViewer);
 		this.column = column;
 		this.cellEditor = new TextCellEditor(tableViewer.getTable());
@@ -90,6 +91,13 @@ public class ScanSignalEditingSupport extends EditingSupport {
 					// IScanCSD scanCSD = (IScanCSD)element;
 					logger.info("It's not possible to edit the CSD scan total signal at the moment.");
 				}
+				/*
+				 * The ions and signals don't know their scan.
+				 */
+				IScan scan = tableViewer.getScan();
+				if(scan != null) {
+					scan.setDirty(true);
+				}
 			}
 			tableViewer.refresh();
 		}
@@ -20,6 +20,7 @@ import java.util.Optional;
 
 import org.eclipse.chemclipse.csd.model.core.selection.IChromatogramSelectionCSD;
 import org.eclipse.chemclipse.model.baseline.IBaselineModel;
+import org.eclipse.chemclipse.model.core.ChromatogramCache;
 import org.eclipse.chemclipse.model.core.IChromatogram;
 import org.eclipse.chemclipse.model.core.IMarkedSignal;
 import org.eclipse.chemclipse.model.core.IMarkedSignals;
@@ -69,6 +70,10 @@ public class ChromatogramChartSupport {
 	public static final String DERIVATIVE_FIRST = "1st";
 	public static final String DERIVATIVE_SECOND = "2nd";
 	public static final String DERIVATIVE_THIRD = "3rd";
+	/*
+	 * The series pyramids are cached per chromatogram.
+	 */
+	private static final String CACHE_PREFIX = "Series#";
 	//
 	private IColorScheme colorSchemeNormal;
 	private Map<String, Color> usedColorsNormal;
@@ -87,6 +92,7 @@ public class ChromatogramChartSupport {
 	private LineStyle lineStyleDefault;
 	//
 	private boolean showArea = false;
+	private int seriesResolution = Integer.MAX_VALUE;
 
 	public ChromatogramChartSupport() {
 		usedColorsNormal = new HashMap<>();
@@ -259,9 +265,125 @@ public class ChromatogramChartSupport {
 		return lineSeriesData;
 	}
 
-	@SuppressWarnings({"rawtypes", "unchecked"})
+	/**
+	 * Sets the max number of points of the created series.
+	 * Longer series are reduced by their min/max pyramid, hence peaks are kept.
+	 * The default is Integer.MAX_VALUE, i.e. the series are not reduced.
+	 *
+	 * @param seriesResolution
+	 */
+	public void setSeriesResolution(int seriesResolution) {
+
+		this.seriesResolution = (seriesResolution > 0) ? seriesResolution : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the series of the chromatogram between the given retention times, reduced to maxPoints values.
+	 * The min/max pyramid of the whole chromatogram is cached, hence the visible section of a chart
+	 * can be updated on each zoom without reading the scans again.
+	 *
+	 * @param chromatogramSelection
+	 * @param seriesId
+	 * @param dataType
+	 * @param color
+	 * @param startRetentionTime
+	 * @param stopRetentionTime
+	 * @param maxPoints
+	 * @return {@link ILineSeriesData}
+	 */
+	public ILineSeriesData getLineSeriesData(IChromatogramSelection<?, ?> chromatogramSelection, String seriesId, DisplayType dataType, Color color, int startRetentionTime, int stopRetentionTime, int maxPoints) {
+
+		IChromatogram<?> chromatogram = chromatogramSelection.getChromatogram();
+		IMarkedSignals<?> markedSignals = getMarkedSignals(chromatogramSelection, dataType);
+		SeriesPyramid seriesPyramid = getSeriesPyramid(chromatogram, 1, chromatogram.getNumberOfScans(), dataType, DERIVATIVE_NONE, markedSignals, false);
+		double[][] series;
+		if(seriesPyramid.size() > 0) {
+			/*
+			 * The neighbors are included, so that the line is drawn to the borders of the chart.
+			 */
+			int startIndex = Math.max(0, seriesPyramid.getIndex(startRetentionTime) - 1);
+			int stopIndex = seriesPyramid.getIndex(stopRetentionTime);
+			series = seriesPyramid.getSeries(startIndex, stopIndex, maxPoints);
+		} else {
+			series = seriesPyramid.getSeries(maxPoints);
+		}
+		return createLineSeriesData(series, seriesId, dataType, color);
+	}
+
+	@SuppressWarnings("rawtypes")
 	private ILineSeriesData getLineSeriesData(IChromatogram chromatogram, int startScan, int stopScan, String seriesId, DisplayType dataType, String derivativeType, Color color, IMarkedSignals<? extends IMarkedSignal> signals, boolean baseline) {
 
+		SeriesPyramid seriesPyramid = getSeriesPyramid(chromatogram, startScan, stopScan, dataType, derivativeType, signals, baseline);
+		return createLineSeriesData(seriesPyramid.getSeries(seriesResolution), seriesId, dataType, color);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private SeriesPyramid getSeriesPyramid(IChromatogram chromatogram, int startScan, int stopScan, DisplayType dataType, String derivativeType, IMarkedSignals<? extends IMarkedSignal> signals, boolean baseline) {
+
+		IPreferenceStore preferenceStore = Activator.getDefault().getPreferenceStore();
+		boolean condenseCycleNumberScans = preferenceStore.getBoolean(PreferenceConstants.P_CONDENSE_CYCLE_NUMBER_SCANS);
+		/*
+		 * The baseline model could be modified without modifying the
+		 * chromatogram, hence the baseline is not cached.
+		 */
+		String key = baseline ? null : getSeriesKey(startScan, stopScan, dataType, derivativeType, signals, condenseCycleNumberScans);
+		if(key != null) {
+			return ChromatogramCache.getValue(chromatogram, key, c -> calculateSeries(chromatogram, startScan, stopScan, dataType, derivativeType, signals, baseline, condenseCycleNumberScans));
+		} else {
+			return calculateSeries(chromatogram, startScan, stopScan, dataType, derivativeType, signals, baseline, condenseCycleNumberScans);
+		}
+	}
+
+	private ILineSeriesData createLineSeriesData(double[][] series, String seriesId, DisplayType dataType, Color color) {
+
+		LineStyle lineStyle = getLineStyle(dataType);
+		ISeriesData seriesData = new SeriesData(series[0], series[1], seriesId);
+		ILineSeriesData lineSeriesData = new LineSeriesData(seriesData);
+		ILineSeriesSettings lineSeriesSettings = lineSeriesData.getSettings();
+		lineSeriesSettings.setLineColor(color);
+		lineSeriesSettings.setLineStyle(lineStyle);
+		lineSeriesSettings.setEnableArea(showArea);
+		ILineSeriesSettings lineSeriesSettingsHighlight = (ILineSeriesSettings)lineSeriesSettings.getSeriesSettingsHighlight();
+		lineSeriesSettingsHighlight.setLineWidth(2);
+		//
+		return lineSeriesData;
+	}
+
+	/**
+	 * Returns the cache key of the series or null, if the signals are not known.
+	 */
+	private String getSeriesKey(int startScan, int stopScan, DisplayType dataType, String derivativeType, IMarkedSignals<? extends IMarkedSignal> signals, boolean condenseCycleNumberScans) {
+
+		StringBuilder builder = new StringBuilder(CACHE_PREFIX);
+		builder.append(dataType);
+		builder.append("#");
+		builder.append(derivativeType);
+		builder.append("#");
+		builder.append(startScan);
+		builder.append("-");
+		builder.append(stopScan);
+		builder.append("#");
+		builder.append(condenseCycleNumberScans);
+		builder.append("#");
+		if(signals instanceof IMarkedIons) {
+			for(IMarkedIon markedIon : (IMarkedIons)signals) {
+				builder.append(markedIon.getIon());
+				builder.append(";");
+			}
+		} else if(signals instanceof IMarkedWavelengths) {
+			for(IMarkedWavelength markedWavelength : (IMarkedWavelengths)signals) {
+				builder.append(markedWavelength.getWavelength());
+				builder.append(";");
+			}
+		} else if(signals != null) {
+			return null;
+		}
+		return builder.toString();
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private SeriesPyramid calculateSeries(IChromatogram chromatogram, int startScan, int stopScan, DisplayType dataType, String derivativeType, IMarkedSignals<? extends IMarkedSignal> signals, boolean baseline, boolean condenseCycleNumberScans) {
+
 		IBaselineModel baselineModel = null;
 		if(baseline) {
 			if(dataType.equals(DisplayType.TIC)) {
@@ -277,9 +399,6 @@ public class ChromatogramChartSupport {
 				}
 			}
 		}
-		LineStyle lineStyle = getLineStyle(dataType);
-		IPreferenceStore preferenceStore = Activator.getDefault().getPreferenceStore();
-		boolean condenseCycleNumberScans = preferenceStore.getBoolean(PreferenceConstants.P_CONDENSE_CYCLE_NUMBER_SCANS);
 		//
 		double[] xSeries;
 		double[] ySeries;
@@ -359,19 +478,8 @@ public class ChromatogramChartSupport {
 		for(int i = 1; i <= derivatives; i++) {
 			ySeries = calculateDerivate(ySeries);
 		}
-		/*
-		 * Add the series.
-		 */
-		ISeriesData seriesData = new SeriesData(xSeries, ySeries, seriesId);
-		ILineSeriesData lineSeriesData = new LineSeriesData(seriesData);
-		ILineSeriesSettings lineSeriesSettings = lineSeriesData.getSettings();
-		lineSeriesSettings.setLineColor(color);
-		lineSeriesSettings.setLineStyle(lineStyle);
-		lineSeriesSettings.setEnableArea(showArea);
-		ILineSeriesSettings lineSeriesSettingsHighlight = (ILineSeriesSettings)lineSeriesSettings.getSeriesSettingsHighlight();
-		lineSeriesSettingsHighlight.setLineWidth(2);
 		//
-		return lineSeriesData;
+		return new SeriesPyramid(xSeries, ySeries);
 	}
 
 	public int getCompressionLength(String compressionType, int sizeLineSeries) {
@@ -430,6 +538,24 @@ public class ChromatogramChartSupport {
 		 */
 		//
 		IChromatogram<?> chromatogram = chromatogramSelection.getChromatogram();
+		IMarkedSignals<?> markedSignals = getMarkedSignals(chromatogramSelection, dataType);
+		if(dataType.equals(DisplayType.SWC) || dataType.equals(DisplayType.XWC)) {
+			return getLineSeriesData(chromatogram, seriesId, dataType, derivativeType, color, markedSignals, baseline);
+		}
+		int startScan;
+		int stopScan;
+		if(timeIntervalSelection) {
+			startScan = chromatogram.getScanNumber(chromatogramSelection.getStartRetentionTime());
+			stopScan = chromatogram.getScanNumber(chromatogramSelection.getStopRetentionTime());
+		} else {
+			startScan = 1;
+			stopScan = chromatogram.getNumberOfScans();
+		}
+		return getLineSeriesData(chromatogram, startScan, stopScan, seriesId, dataType, derivativeType, color, markedSignals, baseline);
+	}
+
+	private IMarkedSignals<?> getMarkedSignals(IChromatogramSelection<?, ?> chromatogramSelection, DisplayType dataType) {
+
 		IMarkedSignals<?> markedSignals = null;
 		//
 		if(dataType.equals(DisplayType.SIC) || dataType.equals(DisplayType.XIC)) {
@@ -443,8 +569,7 @@ public class ChromatogramChartSupport {
 			 * SWC
 			 */
 			IChromatogramSelectionWSD chromatogramSelectionWSD = (IChromatogramSelectionWSD)chromatogramSelection;
-			IMarkedWavelengths markedWavelengths = chromatogramSelectionWSD.getSelectedWavelengths();
-			return getLineSeriesData(chromatogram, seriesId, dataType, derivativeType, color, markedWavelengths, baseline);
+			markedSignals = chromatogramSelectionWSD.getSelectedWavelengths();
 		} else if(dataType.equals(DisplayType.TSC)) {
 			IChromatogramSelectionMSD chromatogramSelectionMSD = (IChromatogramSelectionMSD)chromatogramSelection;
 			markedSignals = chromatogramSelectionMSD.getExcludedIons();
@@ -452,7 +577,6 @@ public class ChromatogramChartSupport {
 			/*
 			 * BPC
 			 */
-			IChromatogramSelectionMSD chromatogramSelectionMSD = (IChromatogramSelectionMSD)chromatogramSelection;
 		} else if(dataType.equals(DisplayType.TIC)) {
 			/*
 			 * TIC
@@ -460,16 +584,7 @@ public class ChromatogramChartSupport {
 		} else {
 			throw new IllegalArgumentException("Type " + dataType + " is not supported");
 		}
-		int startScan;
-		int stopScan;
-		if(timeIntervalSelection) {
-			startScan = chromatogram.getScanNumber(chromatogramSelection.getStartRetentionTime());
-			stopScan = chromatogram.getScanNumber(chromatogramSelection.getStopRetentionTime());
-		} else {
-			startScan = 1;
-			stopScan = chromatogram.getNumberOfScans();
-		}
-		return getLineSeriesData(chromatogram, startScan, stopScan, seriesId, dataType, derivativeType, color, markedSignals, baseline);
+		return markedSignals;
 	}
 
 	private double getIntensity(IScan scan, DisplayType dataType, IMarkedSignals<? extends IMarkedSignal> signals) {
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.ux.extension.xxd.ui.support.charts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores a line series and a min/max level of detail pyramid.
+ * Level k contains the index of the lowest and highest value of each bucket of 2^k values.
+ * Hence, a section of the series can be reduced to a given number of points without
+ * walking all values. Each output bucket contributes its first, lowest, highest and
+ * last value (M4), so that peaks and valleys are kept at every resolution.
+ * The series must be sorted by x and must not be modified afterwards.
+ */
+public final class SeriesPyramid {
+
+	private static final int MIN_BUCKETS = 16;
+	//
+	private final double[] xSeries;
+	private final double[] ySeries;
+	private final List<int[]> minIndices = new ArrayList<>();
+	private final List<int[]> maxIndices = new ArrayList<>();
+
+	public SeriesPyramid(double[] xSeries, double[] ySeries) {
+		this.xSeries = xSeries;
+		this.ySeries = ySeries;
+		/*
+		 * Level 0 are the values itself, level 1 and higher are stored.
+		 */
+		int[] previousMin = null;
+		int[] previousMax = null;
+		int size = ySeries.length;
+		while(size > MIN_BUCKETS) {
+			int buckets = (size + 1) / 2;
+			int[] min = new int[buckets];
+			int[] max = new int[buckets];
+			for(int i = 0; i < buckets; i++) {
+				int left = 2 * i;
+				int right = Math.min(left + 1, size - 1);
+				int leftMin = (previousMin == null) ? left : previousMin[left];
+				int rightMin = (previousMin == null) ? right : previousMin[right];
+				int leftMax = (previousMax == null) ? left : previousMax[left];
+				int rightMax = (previousMax == null) ? right : previousMax[right];
+				min[i] = (ySeries[rightMin] < ySeries[leftMin]) ? rightMin : leftMin;
+				max[i] = (ySeries[rightMax] > ySeries[leftMax]) ? rightMax : leftMax;
+			}
+			minIndices.add(min);
+			maxIndices.add(max);
+			previousMin = min;
+			previousMax = max;
+			size = buckets;
+		}
+	}
+
+	/**
+	 * Returns the number of values.
+	 *
+	 * @return int
+	 */
+	public int size() {
+
+		return xSeries.length;
+	}
+
+	/**
+	 * Returns the index of the first value with x >= the given x.
+	 *
+	 * @param x
+	 * @return int
+	 */
+	public int getIndex(double x) {
+
+		int index = Arrays.binarySearch(xSeries, x);
+		if(index < 0) {
+			index = -(index + 1);
+		} else {
+			while(index > 0 && xSeries[index - 1] == x) {
+				index--;
+			}
+		}
+		return Math.min(index, xSeries.length - 1);
+	}
+
+	/**
+	 * Returns the x and y values of the complete series, reduced to about maxPoints values.
+	 *
+	 * @param maxPoints
+	 * @return double[][] {xSeries, ySeries}
+	 */
+	public double[][] getSeries(int maxPoints) {
+
+		return getSeries(0, xSeries.length - 1, maxPoints);
+	}
+
+	/**
+	 * Returns the x and y values between the start and stop index (inclusive),
+	 * reduced to about maxPoints values. The arrays are copies.
+	 *
+	 * @param startIndex
+	 * @param stopIndex
+	 * @param maxPoints
+	 * @return double[][] {xSeries, ySeries}
+	 */
+	public double[][] getSeries(int startIndex, int stopIndex, int maxPoints) {
+
+		if(xSeries.length == 0) {
+			return new double[][]{new double[0], new double[0]};
+		}
+		int start = Math.max(0, Math.min(startIndex, stopIndex));
+		int stop = Math.min(xSeries.length - 1, Math.max(startIndex, stopIndex));
+		int length = stop - start + 1;
+		if(length <= maxPoints || maxPoints < 4) {
+			return new double[][]{Arrays.copyOfRange(xSeries, start, stop + 1), Arrays.copyOfRange(ySeries, start, stop + 1)};
+		}
+		/*
+		 * M4: first, min, max and last index of each bucket in ascending order.
+		 */
+		int buckets = maxPoints / 4;
+		int[] indices = new int[buckets * 4];
+		int size = 0;
+		for(int bucket = 0; bucket < buckets; bucket++) {
+			int from = start + (int)((long)length * bucket / buckets);
+			int to = start + (int)((long)length * (bucket + 1) / buckets) - 1;
+			if(to < from) {
+				continue;
+			}
+			int[] minMax = getMinMaxIndex(from, to);
+			int lower = Math.min(minMax[0], minMax[1]);
+			int upper = Math.max(minMax[0], minMax[1]);
+			for(int index : new int[]{from, lower, upper, to}) {
+				if(size == 0 || indices[size - 1] != index) {
+					indices[size++] = index;
+				}
+			}
+		}
+		//
+		double[] x = new double[size];
+		double[] y = new double[size];
+		for(int i = 0; i < size; i++) {
+			x[i] = xSeries[indices[i]];
+			y[i] = ySeries[indices[i]];
+		}
+		return new double[][]{x, y};
+	}
+
+	/**
+	 * Returns the index of the lowest and highest value between from and to (inclusive).
+	 * The range is covered by the largest aligned buckets of the pyramid.
+	 */
+	private int[] getMinMaxIndex(int from, int to) {
+
+		int min = from;
+		int max = from;
+		int position = from;
+		while(position <= to) {
+			int level = 0;
+			while(level < minIndices.size()) {
+				int bucketSize = 1 << (level + 1);
+				if(position % bucketSize != 0 || position + bucketSize - 1 > to) {
+					break;
+				}
+				level++;
+			}
+			int bucketMin;
+			int bucketMax;
+			if(level == 0) {
+				bucketMin = position;
+				bucketMax = position;
+			} else {
+				int bucket = position >> level;
+				bucketMin = minIndices.get(level - 1)[bucket];
+				bucketMax = maxIndices.get(level - 1)[bucket];
+			}
+			if(ySeries[bucketMin] < ySeries[min]) {
+				min = bucketMin;
+			}
+			if(ySeries[bucketMax] > ySeries[max]) {
+				max = bucketMax;
+			}
+			position += 1 << level;
+		}
+		return new int[]{min, max};
+	}
+}
@@ -963,6 +963,13 @@ public class ExtendedChromatogramOverlayUI implements ConfigurableUI<Chromatogra
 			Set<String> availableSeriesIds = new HashSet<>();
 			BaseChart baseChart = chromatogramChart.getBaseChart();
 			List<ILineSeriesData> lineSeriesDataList = new ArrayList<>();
+			/*
+			 * The series are reduced by their min/max pyramid to the
+			 * compression length, which keeps the peaks of each series.
+			 */
+			String compressionType = preferenceStore.getString(PreferenceConstants.P_OVERLAY_CHART_COMPRESSION_TYPE);
+			int expectedSeries = chromatogramSelections.size() * getOverlayType().size();
+			chromatogramChartSupport.setSeriesResolution(chromatogramChartSupport.getCompressionLength(compressionType, expectedSeries));
 			int i = 0;
 			for(Entry<IChromatogramSelection, List<String>> entry : chromatogramSelections.entrySet()) {
 				IChromatogramSelection chromatogramSelection = entry.getKey();
@@ -1180,7 +1187,6 @@ public class ExtendedChromatogramOverlayUI implements ConfigurableUI<Chromatogra
 			/*
 			 * Add the selected series
 			 */
-			String compressionType = preferenceStore.getString(PreferenceConstants.P_OVERLAY_CHART_COMPRESSION_TYPE);
 			int compressionToLength = chromatogramChartSupport.getCompressionLength(compressionType, lineSeriesDataList.size());
 			chromatogramChart.addSeriesData(lineSeriesDataList, compressionToLength);
 			/*
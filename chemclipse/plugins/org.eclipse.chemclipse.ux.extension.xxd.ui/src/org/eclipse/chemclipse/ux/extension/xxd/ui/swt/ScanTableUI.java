@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Lablicate GmbH.
+ * Copyright (c) 2017, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -47,6 +47,7 @@ public class ScanTableUI extends ExtendedTableViewer {
 	private Map<DataType, IContentProvider> contentProviderMap;
 	//
 	private ScanSignalListFilter scanSignalListFilter;
+	private IScan scan;
 
 	public ScanTableUI(Composite parent, int style) {
 		super(parent, style);
@@ -62,8 +63,14 @@ public class ScanTableUI extends ExtendedTableViewer {
 		refresh();
 	}
 
+	public IScan getScan() {
+
+		return scan;
+	}
+
 	public void setInput(IScan scan) {
 
+		this.scan = scan;
 		if(scan instanceof IScanMSD) {
 			/*
 			 * MSD
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.ux.extension.xxd.ui.swt.editors;
+
+import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swtchart.ICustomPaintListener;
+
+/**
+ * The chromatogram series contains the visible range only. The range could be modified
+ * by the selection handlers, the mouse wheel or the range selector, hence the x-axis range
+ * is checked before each paint. If it has been modified, the series is replaced afterwards.
+ */
+public class ChromatogramSeriesRangeListener implements ICustomPaintListener {
+
+	private ExtendedChromatogramUI extendedChromatogramUI;
+	private boolean updateScheduled = false;
+
+	public ChromatogramSeriesRangeListener(ExtendedChromatogramUI extendedChromatogramUI) {
+		this.extendedChromatogramUI = extendedChromatogramUI;
+	}
+
+	@Override
+	public void paintControl(PaintEvent event) {
+
+		if(!updateScheduled && !extendedChromatogramUI.isChromatogramSeriesUpToDate()) {
+			/*
+			 * The series must not be modified while painting.
+			 */
+			updateScheduled = true;
+			event.display.asyncExec(new Runnable() {
+
+				@Override
+				public void run() {
+
+					updateScheduled = false;
+					extendedChromatogramUI.updateChromatogramSeries();
+				}
+			});
+		}
+	}
+
+	@Override
+	public boolean drawBehindSeries() {
+
+		return true;
+	}
+}
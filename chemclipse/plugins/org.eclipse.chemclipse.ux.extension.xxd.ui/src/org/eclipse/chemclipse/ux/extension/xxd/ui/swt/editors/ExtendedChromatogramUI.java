@@ -138,6 +138,7 @@ import org.eclipse.swtchart.ICustomPaintListener;
 import org.eclipse.swtchart.ILineSeries.PlotSymbolType;
 import org.eclipse.swtchart.IPlotArea;
 import org.eclipse.swtchart.LineStyle;
+import org.eclipse.swtchart.Range;
 import org.eclipse.swtchart.extensions.axisconverter.MillisecondsToScanNumberConverter;
 import org.eclipse.swtchart.extensions.core.BaseChart;
 import org.eclipse.swtchart.extensions.core.IAxisSettings;
@@ -211,6 +212,12 @@ public class ExtendedChromatogramUI implements ToolbarConfig {
 	private final ChartSupport chartSupport;
 	//
 	private DisplayType displayType = DisplayType.TIC;
+	/*
+	 * The chromatogram series contains the visible retention time range only,
+	 * reduced to the width of the plot area. It's replaced when the range changes.
+	 */
+	private Range chromatogramSeriesRange = null;
+	private int chromatogramSeriesWidth = 0;
 	//
 	private boolean suspendUpdate = false;
 	private final IPreferenceStore preferenceStore;
@@ -732,11 +739,64 @@ public class ExtendedChromatogramUI implements ToolbarConfig {
 		chromatogramChart.applySettings(chartSettings);
 	}
 
+	/**
+	 * Returns true if the chromatogram series covers the visible range with the resolution of the plot area.
+	 *
+	 * @return boolean
+	 */
+	protected boolean isChromatogramSeriesUpToDate() {
+
+		if(chromatogramSelection == null || chromatogramChart.isDisposed()) {
+			return true;
+		}
+		//
+		Range rangeX = chromatogramChart.getBaseChart().getAxisSet().getXAxis(BaseChart.ID_PRIMARY_X_AXIS).getRange();
+		Range range = chromatogramSeriesRange;
+		if(range == null || chromatogramSeriesWidth != getPlotAreaWidth()) {
+			return false;
+		}
+		/*
+		 * After zooming in, the series is reduced to the smaller range again.
+		 */
+		boolean covered = rangeX.lower >= range.lower && rangeX.upper <= range.upper;
+		return covered && (rangeX.upper - rangeX.lower) * 2 >= (range.upper - range.lower);
+	}
+
+	/**
+	 * Replaces the series by the visible range of the chromatogram.
+	 * The zoom and position of the chart are kept.
+	 */
+	protected void updateChromatogramSeries() {
+
+		if(isChromatogramSeriesUpToDate()) {
+			return;
+		}
+		//
+		BaseChart baseChart = chromatogramChart.getBaseChart();
+		Range rangeX = baseChart.getAxisSet().getXAxis(BaseChart.ID_PRIMARY_X_AXIS).getRange();
+		Range rangeY = baseChart.getAxisSet().getYAxis(BaseChart.ID_PRIMARY_Y_AXIS).getRange();
+		clearPeakAndScanLabels();
+		chromatogramChart.deleteSeries();
+		addChromatogramSeriesData(getTargetSettings(), (int)Math.floor(rangeX.lower), (int)Math.ceil(rangeX.upper));
+		chromatogramChart.setRange(IExtendedChart.X_AXIS, rangeX.lower, rangeX.upper);
+		chromatogramChart.setRange(IExtendedChart.Y_AXIS, rangeY.lower, rangeY.upper);
+	}
+
+	private int getPlotAreaWidth() {
+
+		return chromatogramChart.getBaseChart().getPlotArea().getSize().x;
+	}
+
 	private void addChromatogramSeriesData(TargetDisplaySettings settings) {
 
+		addChromatogramSeriesData(settings, chromatogramSelection.getStartRetentionTime(), chromatogramSelection.getStopRetentionTime());
+	}
+
+	private void addChromatogramSeriesData(TargetDisplaySettings settings, int startRetentionTime, int stopRetentionTime) {
+
 		List<ILineSeriesData> lineSeriesDataList = new ArrayList<>();
 		//
-		addChromatogramData(lineSeriesDataList);
+		addChromatogramData(lineSeriesDataList, startRetentionTime, stopRetentionTime);
 		addPeakData(lineSeriesDataList, settings);
 		addIdentifiedScansData(lineSeriesDataList, settings);
 		addSelectedPeakData(lineSeriesDataList, settings);
@@ -747,12 +807,18 @@ public class ExtendedChromatogramUI implements ToolbarConfig {
 		addLineSeriesData(lineSeriesDataList);
 	}
 
-	private void addChromatogramData(List<ILineSeriesData> lineSeriesDataList) {
+	private void addChromatogramData(List<ILineSeriesData> lineSeriesDataList, int startRetentionTime, int stopRetentionTime) {
 
 		Color color = Colors.getColor(preferenceStore.getString(PreferenceConstants.P_COLOR_CHROMATOGRAM));
 		boolean enableChromatogramArea = preferenceStore.getBoolean(PreferenceConstants.P_ENABLE_CHROMATOGRAM_AREA);
-		//
-		ILineSeriesData lineSeriesData = chromatogramChartSupport.getLineSeriesData(chromatogramSelection, SERIES_ID_CHROMATOGRAM, displayType, color, false);
+		/*
+		 * M4 reduction: first, min, max and last value per pixel.
+		 */
+		int width = getPlotAreaWidth();
+		int maxPoints = (width > 0) ? 4 * width : Integer.MAX_VALUE;
+		ILineSeriesData lineSeriesData = chromatogramChartSupport.getLineSeriesData(chromatogramSelection, SERIES_ID_CHROMATOGRAM, displayType, color, startRetentionTime, stopRetentionTime, maxPoints);
+		chromatogramSeriesRange = new Range(startRetentionTime, stopRetentionTime);
+		chromatogramSeriesWidth = width;
 		lineSeriesData.getSettings().setEnableArea(enableChromatogramArea);
 		lineSeriesDataList.add(lineSeriesData);
 	}
@@ -1180,6 +1246,7 @@ public class ExtendedChromatogramUI implements ToolbarConfig {
 		 */
 		BaseChart baseChart = chromatogramChart.getBaseChart();
 		baseChart.addCustomRangeSelectionHandler(new ChromatogramSelectionHandler(this));
+		baseChart.getPlotArea().addCustomPaintListener(new ChromatogramSeriesRangeListener(this));
 		/*
 		 * Chart Settings
 		 */
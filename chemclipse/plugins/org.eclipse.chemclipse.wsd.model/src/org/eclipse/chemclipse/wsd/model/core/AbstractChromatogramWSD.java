@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2019 Lablicate GmbH.
+ * Copyright (c) 2013, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -16,9 +16,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.INoiseCalculator;
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCache;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCalculator;
 import org.eclipse.chemclipse.chromatogram.xxd.calculator.preferences.PreferenceSupplier;
 import org.eclipse.chemclipse.model.baseline.BaselineModel;
@@ -36,6 +38,7 @@ public abstract class AbstractChromatogramWSD extends AbstractChromatogram<IChro
 	private static final long serialVersionUID = -7048942996283330150L;
 	//
 	private INoiseCalculator noiseCalculator;
+	private String noiseCalculatorId;
 	private final Map<Double, IBaselineModel> baselineModels;
 
 	public AbstractChromatogramWSD() {
@@ -52,7 +55,14 @@ public abstract class AbstractChromatogramWSD extends AbstractChromatogram<IChro
 		} else {
 			noiseCalculatorId = PreferenceSupplier.getSelectedNoiseCalculatorId();
 		}
-		noiseCalculator = NoiseCalculator.getNoiseCalculator(noiseCalculatorId);
+		/*
+		 * The noise factors are cached by the NoiseCache, hence the
+		 * calculator needs to be replaced only if another one is selected.
+		 */
+		if(noiseCalculator == null || !Objects.equals(noiseCalculatorId, this.noiseCalculatorId)) {
+			noiseCalculator = NoiseCalculator.getNoiseCalculator(noiseCalculatorId);
+			this.noiseCalculatorId = noiseCalculatorId;
+		}
 	}
 
 	@Override
@@ -154,6 +164,9 @@ public abstract class AbstractChromatogramWSD extends AbstractChromatogram<IChro
 	public void addMeasurementResult(IMeasurementResult<?> chromatogramResult) {
 
 		super.addMeasurementResult(chromatogramResult);
+		if(chromatogramResult instanceof ChromatogramSegmentation || chromatogramResult instanceof NoiseSegmentMeasurementResult) {
+			NoiseCache.clear(this);
+		}
 		if(chromatogramResult instanceof NoiseSegmentMeasurementResult) {
 			recalculateTheNoiseFactor();
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2018 Lablicate GmbH.
+ * Copyright (c) 2013, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -75,18 +75,21 @@ public abstract class AbstractScanWSD extends AbstractScan implements IScanWSD {
 	public void addScanSignal(IScanSignalWSD scanSignalWSD) {
 
 		scanSignals.add(scanSignalWSD);
+		invalidateSignalStatistics();
 	}
 
 	@Override
 	public void removeScanSignal(IScanSignalWSD scanSignalWSD) {
 
 		scanSignals.remove(scanSignalWSD);
+		invalidateSignalStatistics();
 	}
 
 	@Override
 	public void removeScanSignal(int scan) {
 
 		scanSignals.remove(scan);
+		invalidateSignalStatistics();
 	}
 
 	@Override
@@ -135,6 +138,7 @@ public abstract class AbstractScanWSD extends AbstractScan implements IScanWSD {
 			abundance *= correctionFactor;
 			scanSignal.setAbundance(abundance);
 		}
+		invalidateSignalStatistics();
 	}
 
 	@Override
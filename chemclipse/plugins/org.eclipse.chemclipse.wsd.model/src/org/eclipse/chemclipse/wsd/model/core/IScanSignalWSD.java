@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2019 Lablicate GmbH.
+ * Copyright (c) 2013, 2020 Lablicate GmbH.
  * 
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -35,6 +35,8 @@ public interface IScanSignalWSD {
 
 	/**
 	 * Sets an abundance value for the wavelength.
+	 * If the signal is part of a scan of a chromatogram, call scan.setDirty(true)
+	 * afterwards, otherwise the cached signal statistics of the chromatogram are outdated.
 	 * 
 	 * @param abundance
 	 */
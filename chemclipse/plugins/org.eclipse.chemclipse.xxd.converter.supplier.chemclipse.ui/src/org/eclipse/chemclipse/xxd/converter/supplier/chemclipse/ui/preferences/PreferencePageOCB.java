@@ -47,6 +47,7 @@ public class PreferencePageOCB extends FieldEditorPreferencePage implements IWor
 		addField(new BooleanFieldEditor(PreferenceSupplier.P_USE_SCAN_PROXIES, "Use scan proxies (experimental).", getFieldEditorParent()));
 		addField(new BooleanFieldEditor(PreferenceSupplier.P_LOAD_SCAN_PROXIES_IN_BACKGROUND, "Load scan proxies in background.", getFieldEditorParent()));
 		addField(new IntegerFieldEditor(PreferenceSupplier.P_MIN_BYTES_TO_LOAD_IN_BACKGROUND, "Min size (bytes) to load proxies in background.", getFieldEditorParent()));
+		addField(new BooleanFieldEditor(PreferenceSupplier.P_STORE_SCANS_UNCOMPRESSED, "Store scans uncompressed (fast scan proxy access).", getFieldEditorParent()));
 	}
 
 	/*
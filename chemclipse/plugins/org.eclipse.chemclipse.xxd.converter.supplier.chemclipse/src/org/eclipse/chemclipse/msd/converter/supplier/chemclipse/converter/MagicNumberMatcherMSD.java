@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 Lablicate GmbH.
+ * Copyright (c) 2016, 2020 Lablicate GmbH.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -24,6 +24,12 @@ import org.eclipse.chemclipse.xxd.converter.supplier.chemclipse.preferences.Pref
 
 public class MagicNumberMatcherMSD extends AbstractMagicNumberMatcher implements IMagicNumberMatcher {
 
+	@Override
+	public String getSettingsKey() {
+
+		return Boolean.toString(PreferenceSupplier.isForceLoadAlternateDetector());
+	}
+
 	@Override
 	public boolean checkFileFormat(File file) {
 
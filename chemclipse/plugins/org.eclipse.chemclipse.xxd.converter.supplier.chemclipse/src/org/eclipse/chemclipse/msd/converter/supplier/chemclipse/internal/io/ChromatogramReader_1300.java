@@ -303,10 +303,12 @@ public class ChromatogramReader_1300 extends AbstractChromatogramReader implemen
 		//
 		DataInputStream dataInputStream = getDataInputStream(zipFile, directoryPrefix + IFormat.FILE_SCANPROXIES_MSD);
 		int scans = dataInputStream.readInt();
+		int[] offsets = new int[scans];
 		//
 		for(int scan = 1; scan <= scans; scan++) {
 			//
 			int offset = dataInputStream.readInt(); // Offset
+			offsets[scan - 1] = offset;
 			int retentionTime = dataInputStream.readInt(); // Retention Time
 			int numberOfIons = dataInputStream.readInt(); // Number of Ions
 			float totalSignal = dataInputStream.readFloat(); // Total Signal
@@ -325,6 +327,10 @@ public class ChromatogramReader_1300 extends AbstractChromatogramReader implemen
 		}
 		//
 		dataInputStream.close();
+		/*
+		 * The proxies share an open store of the scans entry.
+		 */
+		ScanProxyStore.register(file, IFormat.FILE_SCANS_MSD, chromatogram, offsets);
 	}
 
 	private void readScans(DataInputStream dataInputStream, boolean closeStream, IChromatogramMSD chromatogram) throws IOException {
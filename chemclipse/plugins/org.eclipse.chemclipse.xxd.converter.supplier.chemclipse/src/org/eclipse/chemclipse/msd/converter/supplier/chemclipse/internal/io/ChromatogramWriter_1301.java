@@ -20,10 +20,13 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -222,8 +225,44 @@ public class ChromatogramWriter_1301 extends AbstractChromatogramWriter implemen
 		 * Scans
 		 */
 		zipEntry = new ZipEntry(directoryPrefix + IFormat.FILE_SCANS_MSD);
-		zipOutputStream.putNextEntry(zipEntry);
-		dataOutputStream = new DataOutputStream(zipOutputStream);
+		if(PreferenceSupplier.isStoreScansUncompressed()) {
+			/*
+			 * Uncompressed scans can be accessed randomly by the scan proxies.
+			 * A stored entry requires size and checksum in advance, hence the
+			 * scans are serialized once to a temporary file and copied afterwards.
+			 */
+			File scansFile = File.createTempFile("scans", ".bin");
+			try {
+				CRC32 crc32 = new CRC32();
+				try(DataOutputStream scansOutputStream = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(scansFile)), crc32))) {
+					writeScans(scansOutputStream, chromatogram, scanProxies, monitor);
+				}
+				zipEntry.setMethod(ZipEntry.STORED);
+				zipEntry.setSize(scansFile.length());
+				zipEntry.setCompressedSize(scansFile.length());
+				zipEntry.setCrc(crc32.getValue());
+				zipOutputStream.putNextEntry(zipEntry);
+				Files.copy(scansFile.toPath(), zipOutputStream);
+				zipOutputStream.closeEntry();
+			} finally {
+				Files.deleteIfExists(scansFile.toPath());
+			}
+		} else {
+			zipOutputStream.putNextEntry(zipEntry);
+			dataOutputStream = new DataOutputStream(zipOutputStream);
+			writeScans(dataOutputStream, chromatogram, scanProxies, monitor);
+			//
+			dataOutputStream.flush();
+			zipOutputStream.closeEntry();
+		}
+		/*
+		 * Scan Proxies
+		 */
+		writeChromatogramScanProxies(zipOutputStream, directoryPrefix, scanProxies);
+	}
+
+	private void writeScans(DataOutputStream dataOutputStream, IChromatogramMSD chromatogram, List<IScanProxy> scanProxies, IProgressMonitor monitor) throws IOException {
+
 		int scans = chromatogram.getNumberOfScans();
 		dataOutputStream.writeInt(scans); // Number of Scans
 		//
@@ -264,13 +303,6 @@ public class ChromatogramWriter_1301 extends AbstractChromatogramWriter implemen
 		} finally {
 			SubMonitor.done(subMonitor);
 		}
-		//
-		dataOutputStream.flush();
-		zipOutputStream.closeEntry();
-		/*
-		 * Scan Proxies
-		 */
-		writeChromatogramScanProxies(zipOutputStream, directoryPrefix, scanProxies);
 	}
 
 	private void writeChromatogramScanProxies(ZipOutputStream zipOutputStream, String directoryPrefix, List<IScanProxy> scanProxies) throws IOException {
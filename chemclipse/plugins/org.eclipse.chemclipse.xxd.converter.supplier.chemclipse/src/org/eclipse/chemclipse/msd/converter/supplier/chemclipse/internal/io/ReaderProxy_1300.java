@@ -16,7 +16,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.zip.ZipFile;
 
 import org.eclipse.chemclipse.logging.core.Logger;
 import org.eclipse.chemclipse.model.core.RetentionIndexType;
@@ -52,14 +51,16 @@ public class ReaderProxy_1300 extends AbstractZipReader implements IReaderProxy
 	@Override
 	public void readMassSpectrum(File file, int offset, IVendorScanProxy massSpectrum, IIonTransitionSettings ionTransitionSettings) throws IOException {
 
-		ZipFile zipFile = new ZipFile(file);
+		/*
+		 * The store is shared by all proxies of the file.
+		 * It keeps the file open until all pending proxies have been loaded
+		 * or the chromatogram has been disposed.
+		 */
+		ScanProxyStore scanProxyStore = ScanProxyStore.get(file, IFormat.FILE_SCANS_MSD);
 		try {
-			DataInputStream dataInputStream = getDataInputStream(zipFile, IFormat.FILE_SCANS_MSD);
-			dataInputStream.skipBytes(offset);
-			readMassSpectrum(massSpectrum, dataInputStream, ionTransitionSettings);
-			dataInputStream.close();
+			scanProxyStore.readMassSpectrum(offset, massSpectrum, this, ionTransitionSettings);
 		} finally {
-			zipFile.close();
+			scanProxyStore.release(offset);
 		}
 	}
 
@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.chemclipse.internal.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.core.ChromatogramCache;
+import org.eclipse.chemclipse.model.core.IChromatogram;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.io.IReaderProxy;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.model.chromatogram.IVendorScanProxy;
+import org.eclipse.chemclipse.msd.model.core.IIonTransitionSettings;
+import org.eclipse.chemclipse.support.files.FileStamp;
+
+/**
+ * The store is shared by all scan proxies of a *.ocb file.
+ * It keeps the zip file open as long as proxies are pending and
+ * holds a cursor in the scans entry. Hence, forward reads continue
+ * from the last position instead of inflating the entry from the start.
+ * If the scans entry has been stored uncompressed, jumping to an
+ * arbitrary offset is a cheap seek.
+ * The pending proxies are tracked by their offsets, so that copies of a proxy
+ * don't release the store twice. The store is attached to the chromatogram
+ * and is closed when the chromatogram is disposed, see {@link IChromatogram#dispose()}.
+ */
+public class ScanProxyStore implements Closeable {
+
+	private static final Logger logger = Logger.getLogger(ScanProxyStore.class);
+	//
+	private static final Map<File, ScanProxyStore> STORES = new HashMap<File, ScanProxyStore>();
+	//
+	private final File file;
+	private final String entryName;
+	private final FileStamp fileStamp;
+	private final Set<Integer> pendingOffsets = new HashSet<>();
+	//
+	private ZipFile zipFile = null;
+	private PositionInputStream positionInputStream = null;
+	private DataInputStream dataInputStream = null;
+
+	private ScanProxyStore(File file, String entryName) {
+		this.file = file;
+		this.entryName = entryName;
+		this.fileStamp = new FileStamp(file);
+	}
+
+	/**
+	 * Registers the pending proxies of the chromatogram, identified by their offsets.
+	 * Each proxy calls release(offset) once its ions have been imported.
+	 * The store is closed when all proxies have been released or when the chromatogram is disposed.
+	 *
+	 * @param file
+	 * @param entryName
+	 * @param chromatogram
+	 * @param offsets
+	 */
+	public static void register(File file, String entryName, IChromatogram<?> chromatogram, int[] offsets) {
+
+		if(file == null || offsets.length == 0) {
+			return;
+		}
+		//
+		ScanProxyStore scanProxyStore;
+		synchronized(STORES) {
+			File key = file.getAbsoluteFile();
+			scanProxyStore = STORES.get(key);
+			if(scanProxyStore == null || !scanProxyStore.isValid()) {
+				if(scanProxyStore != null) {
+					scanProxyStore.close();
+				}
+				scanProxyStore = new ScanProxyStore(key, entryName);
+				STORES.put(key, scanProxyStore);
+			}
+		}
+		scanProxyStore.addPendingOffsets(offsets);
+		ChromatogramCache.addResource(chromatogram, scanProxyStore);
+	}
+
+	/**
+	 * Returns the store of the given file. If no proxies are pending or
+	 * if the file has been modified since the proxies have been registered,
+	 * a temporary store is returned which is closed on release.
+	 *
+	 * @param file
+	 * @param entryName
+	 * @return {@link ScanProxyStore}
+	 */
+	public static ScanProxyStore get(File file, String entryName) {
+
+		synchronized(STORES) {
+			File key = file.getAbsoluteFile();
+			ScanProxyStore scanProxyStore = STORES.get(key);
+			if(scanProxyStore != null && scanProxyStore.isValid()) {
+				return scanProxyStore;
+			}
+			if(scanProxyStore != null) {
+				scanProxyStore.close();
+			}
+			return new ScanProxyStore(key, entryName);
+		}
+	}
+
+	/**
+	 * Reads the mass spectrum stored at the given offset of the scans entry.
+	 *
+	 * @param offset
+	 * @param massSpectrum
+	 * @param readerProxy
+	 * @param ionTransitionSettings
+	 * @throws IOException
+	 */
+	public synchronized void readMassSpectrum(int offset, IVendorScanProxy massSpectrum, IReaderProxy readerProxy, IIonTransitionSettings ionTransitionSettings) throws IOException {
+
+		DataInputStream dataInputStream = seek(offset);
+		readerProxy.readMassSpectrum(massSpectrum, dataInputStream, ionTransitionSettings);
+	}
+
+	/**
+	 * Releases the proxy stored at the given offset. Releasing an offset twice has no effect.
+	 * The zip file is closed if no further proxies are pending.
+	 *
+	 * @param offset
+	 */
+	public void release(int offset) {
+
+		boolean pending;
+		synchronized(this) {
+			pendingOffsets.remove(offset);
+			pending = !pendingOffsets.isEmpty();
+		}
+		if(!pending) {
+			close();
+		}
+	}
+
+	/**
+	 * Closes the zip file. The store is reopened temporarily if a proxy is loaded afterwards.
+	 */
+	@Override
+	public void close() {
+
+		synchronized(STORES) {
+			if(STORES.get(file) == this) {
+				STORES.remove(file);
+			}
+		}
+		synchronized(this) {
+			pendingOffsets.clear();
+			closeStream();
+			if(zipFile != null) {
+				try {
+					zipFile.close();
+				} catch(IOException e) {
+					logger.warn(e);
+				}
+				zipFile = null;
+			}
+		}
+	}
+
+	private synchronized void addPendingOffsets(int[] offsets) {
+
+		for(int offset : offsets) {
+			pendingOffsets.add(offset);
+		}
+	}
+
+	/**
+	 * The proxies are only valid as long as the file hasn't been modified.
+	 */
+	private boolean isValid() {
+
+		return fileStamp.isValid(file);
+	}
+
+	private DataInputStream seek(int offset) throws IOException {
+
+		if(zipFile == null) {
+			zipFile = new ZipFile(file);
+		}
+		/*
+		 * The stream can't be moved backwards, so reopen it.
+		 * Stored (uncompressed) entries are skipped without reading the data.
+		 */
+		if(dataInputStream == null || offset < positionInputStream.getPosition()) {
+			closeStream();
+			ZipEntry zipEntry = zipFile.getEntry(entryName);
+			if(zipEntry == null) {
+				throw new IOException("There could be found no entry given with the name: " + entryName);
+			}
+			positionInputStream = new PositionInputStream(new BufferedInputStream(zipFile.getInputStream(zipEntry)));
+			dataInputStream = new DataInputStream(positionInputStream);
+		}
+		//
+		long skip = offset - positionInputStream.getPosition();
+		while(skip > 0) {
+			long skipped = positionInputStream.skip(skip);
+			if(skipped <= 0) {
+				throw new IOException("The offset " + offset + " is not available in the entry: " + entryName);
+			}
+			skip -= skipped;
+		}
+		return dataInputStream;
+	}
+
+	private void closeStream() {
+
+		if(dataInputStream != null) {
+			try {
+				dataInputStream.close();
+			} catch(IOException e) {
+				logger.warn(e);
+			}
+			dataInputStream = null;
+			positionInputStream = null;
+		}
+	}
+
+	private static final class PositionInputStream extends FilterInputStream {
+
+		private long position = 0;
+
+		private PositionInputStream(InputStream inputStream) {
+			super(inputStream);
+		}
+
+		public long getPosition() {
+
+			return position;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			int value = super.read();
+			if(value >= 0) {
+				position++;
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+
+			int read = super.read(buffer, offset, length);
+			if(read > 0) {
+				position += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+
+			long skipped = super.skip(n);
+			if(skipped > 0) {
+				position += skipped;
+			}
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+
+			return false;
+		}
+	}
+}
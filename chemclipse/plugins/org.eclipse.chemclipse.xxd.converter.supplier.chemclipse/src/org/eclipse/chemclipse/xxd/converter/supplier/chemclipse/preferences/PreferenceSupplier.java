@@ -43,6 +43,8 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 	public static final boolean DEF_LOAD_SCAN_PROXIES_IN_BACKGROUND = false; // This could lead java.util.ConcurrentModificationException if true
 	public static final String P_MIN_BYTES_TO_LOAD_IN_BACKGROUND = "minBytesToLoadInBackground";
 	public static final int DEF_MIN_BYTES_TO_LOAD_IN_BACKGROUND = 2000000; // 2 MB
+	public static final String P_STORE_SCANS_UNCOMPRESSED = "storeScansUncompressed";
+	public static final boolean DEF_STORE_SCANS_UNCOMPRESSED = false; // Larger files, but scan proxies are read randomly
 	/*
 	 * *.ocm
 	 */
@@ -91,6 +93,7 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 		defaultValues.put(P_USE_SCAN_PROXIES, Boolean.toString(DEF_USE_SCAN_PROXIES));
 		defaultValues.put(P_LOAD_SCAN_PROXIES_IN_BACKGROUND, Boolean.toString(DEF_LOAD_SCAN_PROXIES_IN_BACKGROUND));
 		defaultValues.put(P_MIN_BYTES_TO_LOAD_IN_BACKGROUND, Integer.toString(DEF_MIN_BYTES_TO_LOAD_IN_BACKGROUND));
+		defaultValues.put(P_STORE_SCANS_UNCOMPRESSED, Boolean.toString(DEF_STORE_SCANS_UNCOMPRESSED));
 		//
 		defaultValues.put(P_METHOD_VERSION_SAVE, DEF_METHOD_VERSION_SAVE);
 		defaultValues.put(P_METHOD_COMPRESSION_LEVEL, Integer.toString(DEF_METHOD_COMPRESSION_LEVEL));
@@ -119,6 +122,12 @@ public class PreferenceSupplier implements IPreferenceSupplier {
 		return preferences.getInt(P_CHROMATOGRAM_COMPRESSION_LEVEL, DEF_CHROMATOGRAM_COMPRESSION_LEVEL);
 	}
 
+	public static boolean isStoreScansUncompressed() {
+
+		IEclipsePreferences preferences = INSTANCE().getPreferences();
+		return preferences.getBoolean(P_STORE_SCANS_UNCOMPRESSED, DEF_STORE_SCANS_UNCOMPRESSED);
+	}
+
 	public static String getMethodVersionSave() {
 
 		IEclipsePreferences preferences = INSTANCE().getPreferences();
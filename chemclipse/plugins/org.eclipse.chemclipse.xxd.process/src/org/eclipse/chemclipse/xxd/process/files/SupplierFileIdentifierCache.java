@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Lablicate GmbH.
+ * Copyright (c) 2019, 2020 Lablicate GmbH.
  *
  * All rights reserved.
  * This program and the accompanying materials are made available under the
@@ -18,28 +18,36 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+import org.eclipse.chemclipse.converter.core.MagicNumberCache;
 import org.eclipse.chemclipse.processing.converter.ISupplier;
 import org.eclipse.chemclipse.processing.converter.ISupplierFileIdentifier;
-
+import org.eclipse.chemclipse.support.files.FileStamp;
+
+/**
+ * Caches the suppliers per file. An entry is valid as long as the size and the
+ * modification date of the file are unchanged. The verdicts of the magic number
+ * matchers are additionally cached persistently by the converters, hence unchanged
+ * files are not probed again after a restart.
+ */
 public class SupplierFileIdentifierCache implements Function<File, Map<ISupplierFileIdentifier, Collection<ISupplier>>> {
 
 	private ISupplierFileIdentifier[] fileIdentifiers = new ISupplierFileIdentifier[0];
-	private Map<File, Map<ISupplierFileIdentifier, Collection<ISupplier>>> supplierCache;
+	private Map<File, CacheEntry> supplierCache;
 
 	public SupplierFileIdentifierCache(int maxFileSize) {
-		supplierCache = new LinkedHashMap<File, Map<ISupplierFileIdentifier, Collection<ISupplier>>>(maxFileSize, 0.75f, true) {
+		supplierCache = new LinkedHashMap<File, CacheEntry>(maxFileSize, 0.75f, true) {
 
 			private static final long serialVersionUID = 1L;
 
 			@Override
-			public boolean removeEldestEntry(Map.Entry<File, Map<ISupplierFileIdentifier, Collection<ISupplier>>> eldest) {
+			public boolean removeEldestEntry(Map.Entry<File, CacheEntry> eldest) {
 
 				return size() > maxFileSize;
 			}
 		};
 	}
 
-	public void setIdentifier(Collection<? extends ISupplierFileIdentifier> supplierFileIdentifier) {
+	public synchronized void setIdentifier(Collection<? extends ISupplierFileIdentifier> supplierFileIdentifier) {
 
 		fileIdentifiers = supplierFileIdentifier.toArray(new ISupplierFileIdentifier[0]);
 		refreshAll();
@@ -48,28 +56,54 @@ public class SupplierFileIdentifierCache implements Function<File, Map<ISupplier
 	@Override
 	public Map<ISupplierFileIdentifier, Collection<ISupplier>> apply(File file) {
 
-		Map<ISupplierFileIdentifier, Collection<ISupplier>> list = supplierCache.get(file);
-		if(list == null) {
-			list = new LinkedHashMap<>();
-			for(ISupplierFileIdentifier supplierFileIdentifier : fileIdentifiers) {
-				Collection<ISupplier> supplier = supplierFileIdentifier.getSupplier(file);
-				if(!supplier.isEmpty()) {
-					list.put(supplierFileIdentifier, Collections.unmodifiableCollection(supplier));
-				}
+		FileStamp fileStamp = new FileStamp(file);
+		ISupplierFileIdentifier[] identifiers;
+		synchronized(this) {
+			CacheEntry cacheEntry = supplierCache.get(file);
+			if(cacheEntry != null && cacheEntry.fileStamp.equals(fileStamp)) {
+				return cacheEntry.suppliers;
+			}
+			identifiers = fileIdentifiers;
+		}
+		/*
+		 * The file is probed outside of the lock, so that
+		 * several files can be identified in parallel.
+		 */
+		Map<ISupplierFileIdentifier, Collection<ISupplier>> list = new LinkedHashMap<>();
+		for(ISupplierFileIdentifier supplierFileIdentifier : identifiers) {
+			Collection<ISupplier> supplier = supplierFileIdentifier.getSupplier(file);
+			if(!supplier.isEmpty()) {
+				list.put(supplierFileIdentifier, Collections.unmodifiableCollection(supplier));
+			}
+		}
+		list = Collections.unmodifiableMap(list);
+		synchronized(this) {
+			if(identifiers == fileIdentifiers) {
+				supplierCache.put(file, new CacheEntry(fileStamp, list));
 			}
-			list = Collections.unmodifiableMap(list);
-			supplierCache.put(file, list);
 		}
 		return list;
 	}
 
-	public void refreshAll() {
+	public synchronized void refreshAll() {
 
 		supplierCache.clear();
 	}
 
-	public void refresh(File file) {
+	public synchronized void refresh(File file) {
 
 		supplierCache.remove(file);
+		MagicNumberCache.refresh(file);
+	}
+
+	private static final class CacheEntry {
+
+		private final FileStamp fileStamp;
+		private final Map<ISupplierFileIdentifier, Collection<ISupplier>> suppliers;
+
+		public CacheEntry(FileStamp fileStamp, Map<ISupplierFileIdentifier, Collection<ISupplier>> suppliers) {
+			this.fileStamp = fileStamp;
+			this.suppliers = suppliers;
+		}
 	}
 }
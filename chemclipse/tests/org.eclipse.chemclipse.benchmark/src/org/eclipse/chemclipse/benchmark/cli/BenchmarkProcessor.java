@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.eclipse.chemclipse.benchmark.core.BenchmarkBaseline;
+import org.eclipse.chemclipse.benchmark.core.BenchmarkDeviation;
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.rcp.app.cli.AbstractCommandLineProcessor;
+import org.eclipse.chemclipse.rcp.app.cli.ICommandLineProcessor;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks inside the running platform:
+ * 
+ * <pre>
+ * -benchmark &lt;directory&gt; [regular expression]
+ * </pre>
+ * 
+ * The results are stored as benchmark-&lt;date&gt;.json in the given directory.
+ * If the directory contains a baseline.json file, the results are compared
+ * against it. Otherwise, the results are stored as new baseline.
+ * The benchmarks are not forked, because the converters, detectors and identifiers
+ * need the OSGi environment.
+ */
+public class BenchmarkProcessor extends AbstractCommandLineProcessor implements ICommandLineProcessor {
+
+	private static final Logger logger = Logger.getLogger(BenchmarkProcessor.class);
+	//
+	public static final String BASELINE_FILE = "baseline.json";
+	private static final String DEFAULT_INCLUDE = "org\\.eclipse\\.chemclipse\\.benchmark\\..*";
+
+	@Override
+	public void process(String[] args) {
+
+		File directory = new File(args[0].trim());
+		String include = (args.length > 1) ? args[1].trim() : DEFAULT_INCLUDE;
+		if(!directory.exists() && !directory.mkdirs()) {
+			logger.warn("The benchmark directory couldn't be created: " + directory);
+			return;
+		}
+		//
+		File resultFile = new File(directory, "benchmark-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+		Options options = new OptionsBuilder() //
+				.include(include) //
+				.forks(0) //
+				.shouldDoGC(true) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(resultFile.getAbsolutePath()) //
+				.build();
+		/*
+		 * JMH reads the list of benchmarks as resource (META-INF/BenchmarkList).
+		 * It must be loaded from this bundle.
+		 */
+		Thread thread = Thread.currentThread();
+		ClassLoader classLoader = thread.getContextClassLoader();
+		try {
+			thread.setContextClassLoader(BenchmarkProcessor.class.getClassLoader());
+			new Runner(options).run();
+			compareWithBaseline(directory, resultFile);
+		} catch(RunnerException e) {
+			logger.warn(e);
+		} catch(IOException e) {
+			logger.warn(e);
+		} finally {
+			thread.setContextClassLoader(classLoader);
+		}
+	}
+
+	private void compareWithBaseline(File directory, File resultFile) throws IOException {
+
+		File baselineFile = new File(directory, BASELINE_FILE);
+		if(baselineFile.exists()) {
+			BenchmarkBaseline baseline = BenchmarkBaseline.read(baselineFile);
+			BenchmarkBaseline current = BenchmarkBaseline.read(resultFile);
+			int regressions = 0;
+			for(BenchmarkDeviation deviation : baseline.compare(current, BenchmarkBaseline.DEFAULT_TOLERANCE)) {
+				logger.info(deviation.toString());
+				if(deviation.isRegression()) {
+					regressions++;
+				}
+			}
+			logger.info("Benchmark regressions compared to " + baselineFile + ": " + regressions);
+		} else {
+			Files.copy(resultFile.toPath(), baselineFile.toPath());
+			logger.info("The results have been stored as baseline: " + baselineFile);
+		}
+	}
+}
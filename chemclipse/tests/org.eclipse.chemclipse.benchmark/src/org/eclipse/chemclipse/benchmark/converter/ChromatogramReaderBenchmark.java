@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.converter;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.chemclipse.benchmark.data.SyntheticChromatogramGenerator;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.io.ChromatogramReaderMSD;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.io.ChromatogramWriterMSD;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads a synthetic *.ocb chromatogram. The file is written with the default
+ * save version (1301), hence the scans are read by ChromatogramReader_1301.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChromatogramReaderBenchmark {
+
+	@Param({"2000", "10000"})
+	public int numberOfScans;
+	@Param({"100", "400"})
+	public int ionsPerScan;
+	//
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+
+		IChromatogramMSD chromatogram = new SyntheticChromatogramGenerator().create(numberOfScans, ionsPerScan, numberOfScans / 50);
+		file = File.createTempFile("ChromatogramReaderBenchmark", ".ocb");
+		new ChromatogramWriterMSD().writeChromatogram(file, chromatogram, new NullProgressMonitor());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+
+		if(file != null) {
+			file.delete();
+		}
+	}
+
+	@Benchmark
+	public IChromatogramMSD readChromatogram() throws Exception {
+
+		return new ChromatogramReaderMSD().read(file, new NullProgressMonitor());
+	}
+}
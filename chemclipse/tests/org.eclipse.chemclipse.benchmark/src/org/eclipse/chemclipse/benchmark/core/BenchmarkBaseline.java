@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the scores of a JMH result file (JSON) to compare the runs
+ * of different releases. A result file can be used as baseline.
+ */
+public class BenchmarkBaseline {
+
+	public static final double DEFAULT_TOLERANCE = 0.1; // 10%
+	//
+	private final Map<String, BenchmarkScore> scores;
+
+	private BenchmarkBaseline(Map<String, BenchmarkScore> scores) {
+		this.scores = scores;
+	}
+
+	/**
+	 * Reads the JMH result file.
+	 * 
+	 * @param file
+	 * @return {@link BenchmarkBaseline}
+	 * @throws IOException
+	 */
+	public static BenchmarkBaseline read(File file) throws IOException {
+
+		Map<String, BenchmarkScore> scores = new LinkedHashMap<>();
+		JsonNode results = new ObjectMapper().readTree(file);
+		for(JsonNode result : results) {
+			String key = getKey(result);
+			JsonNode primaryMetric = result.path("primaryMetric");
+			String mode = result.path("mode").asText();
+			double score = primaryMetric.path("score").asDouble();
+			double error = primaryMetric.path("scoreError").asDouble(0);
+			String unit = primaryMetric.path("scoreUnit").asText();
+			scores.put(key, new BenchmarkScore(key, mode, score, error, unit));
+		}
+		return new BenchmarkBaseline(scores);
+	}
+
+	public Map<String, BenchmarkScore> getScores() {
+
+		return scores;
+	}
+
+	/**
+	 * Compares the current run against this baseline. Benchmarks that are not
+	 * contained in both files are skipped.
+	 * 
+	 * @param current
+	 * @param tolerance
+	 * @return List
+	 */
+	public List<BenchmarkDeviation> compare(BenchmarkBaseline current, double tolerance) {
+
+		List<BenchmarkDeviation> deviations = new ArrayList<>();
+		for(Map.Entry<String, BenchmarkScore> entry : current.getScores().entrySet()) {
+			BenchmarkScore baseline = scores.get(entry.getKey());
+			if(baseline != null) {
+				deviations.add(new BenchmarkDeviation(baseline, entry.getValue(), tolerance));
+			}
+		}
+		return deviations;
+	}
+
+	/*
+	 * The parameters are sorted by name to get a stable key.
+	 */
+	private static String getKey(JsonNode result) {
+
+		StringBuilder builder = new StringBuilder(result.path("benchmark").asText());
+		JsonNode params = result.path("params");
+		if(params.size() > 0) {
+			Map<String, String> sorted = new TreeMap<>();
+			Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+			while(fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				sorted.put(field.getKey(), field.getValue().asText());
+			}
+			builder.append(" ");
+			builder.append(sorted.toString());
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.core;
+
+/**
+ * The deviation of a benchmark score compared to the baseline.
+ */
+public class BenchmarkDeviation {
+
+	private final BenchmarkScore baseline;
+	private final BenchmarkScore current;
+	private final double tolerance;
+
+	public BenchmarkDeviation(BenchmarkScore baseline, BenchmarkScore current, double tolerance) {
+		this.baseline = baseline;
+		this.current = current;
+		this.tolerance = tolerance;
+	}
+
+	public BenchmarkScore getBaseline() {
+
+		return baseline;
+	}
+
+	public BenchmarkScore getCurrent() {
+
+		return current;
+	}
+
+	/**
+	 * The relative change of the score, e.g. 0.25 = +25%.
+	 * 
+	 * @return double
+	 */
+	public double getChange() {
+
+		if(baseline.getScore() == 0) {
+			return 0;
+		}
+		return (current.getScore() - baseline.getScore()) / baseline.getScore();
+	}
+
+	/**
+	 * A score is a regression if it's worse than the baseline by more than the tolerance.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isRegression() {
+
+		double change = getChange();
+		return baseline.isLowerBetter() ? change > tolerance : change < -tolerance;
+	}
+
+	public boolean isImprovement() {
+
+		double change = getChange();
+		return baseline.isLowerBetter() ? change < -tolerance : change > tolerance;
+	}
+
+	@Override
+	public String toString() {
+
+		String state = isRegression() ? "REGRESSION" : (isImprovement() ? "IMPROVEMENT" : "OK");
+		return String.format("%s %s: %s -> %s (%+.1f%%)", state, current.getKey(), baseline, current, getChange() * 100.0d);
+	}
+}
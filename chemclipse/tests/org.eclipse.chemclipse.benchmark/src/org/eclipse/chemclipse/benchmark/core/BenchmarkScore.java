@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.core;
+
+/**
+ * The primary score of a benchmark run with a specific parameter set.
+ */
+public class BenchmarkScore {
+
+	private final String key;
+	private final String mode;
+	private final double score;
+	private final double error;
+	private final String unit;
+
+	public BenchmarkScore(String key, String mode, double score, double error, String unit) {
+		this.key = key;
+		this.mode = mode;
+		this.score = score;
+		this.error = error;
+		this.unit = unit;
+	}
+
+	/**
+	 * Benchmark method and parameters, e.g.:
+	 * org.eclipse.chemclipse.benchmark.detector.PeakDetectorBenchmark.detectPeaks {ionsPerScan=100, numberOfPeaks=20, numberOfScans=2000}
+	 * 
+	 * @return String
+	 */
+	public String getKey() {
+
+		return key;
+	}
+
+	/**
+	 * The JMH mode, e.g. avgt (lower is better) or thrpt (higher is better).
+	 * 
+	 * @return String
+	 */
+	public String getMode() {
+
+		return mode;
+	}
+
+	public double getScore() {
+
+		return score;
+	}
+
+	public double getError() {
+
+		return error;
+	}
+
+	public String getUnit() {
+
+		return unit;
+	}
+
+	/**
+	 * Returns true if a lower score is better.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isLowerBetter() {
+
+		return !"thrpt".equals(mode);
+	}
+
+	@Override
+	public String toString() {
+
+		return String.format("%.3f ± %.3f %s", score, error, unit);
+	}
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.data;
+
+import java.util.Random;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IVendorMassSpectrum;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.VendorMassSpectrum;
+
+/**
+ * Creates reproducible MSD chromatograms. The same seed and sizes
+ * always deliver the same chromatogram.
+ * <br/>
+ * Each scan contains the given number of nominal ions, starting at m/z 35.
+ * The abundances are the sum of a noisy baseline and gaussian shaped peaks.
+ * Each peak has its own compound spectrum.
+ */
+public class SyntheticChromatogramGenerator {
+
+	private static final Logger logger = Logger.getLogger(SyntheticChromatogramGenerator.class);
+	//
+	public static final long DEFAULT_SEED = 20200101L;
+	public static final int START_ION = 35;
+	public static final int SCAN_DELAY = 60000; // 1 minute
+	public static final int SCAN_INTERVAL = 200; // 5 scans per second
+	//
+	private static final float BASELINE = 1000.0f;
+	private static final float NOISE = 250.0f;
+	private static final float MIN_PEAK_HEIGHT = 20000.0f;
+	private static final float MAX_PEAK_HEIGHT = 2000000.0f;
+	private static final int IONS_PER_COMPOUND = 25;
+	//
+	private final long seed;
+
+	public SyntheticChromatogramGenerator() {
+		this(DEFAULT_SEED);
+	}
+
+	public SyntheticChromatogramGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Creates a chromatogram.
+	 * 
+	 * @param numberOfScans
+	 * @param ionsPerScan
+	 * @param numberOfPeaks
+	 * @return {@link IChromatogramMSD}
+	 */
+	public IChromatogramMSD create(int numberOfScans, int ionsPerScan, int numberOfPeaks) {
+
+		Random random = new Random(seed);
+		float[][] compounds = createCompounds(random, numberOfPeaks, ionsPerScan);
+		float[] centers = new float[numberOfPeaks];
+		float[] widths = new float[numberOfPeaks];
+		float[] heights = new float[numberOfPeaks];
+		for(int i = 0; i < numberOfPeaks; i++) {
+			/*
+			 * The peaks are distributed over the chromatogram with a jitter.
+			 */
+			float distance = numberOfScans / (float)(numberOfPeaks + 1);
+			centers[i] = distance * (i + 1) + (random.nextFloat() - 0.5f) * distance * 0.5f;
+			widths[i] = 2.0f + random.nextFloat() * 4.0f; // sigma in scans
+			heights[i] = MIN_PEAK_HEIGHT + random.nextFloat() * (MAX_PEAK_HEIGHT - MIN_PEAK_HEIGHT);
+		}
+		//
+		IChromatogramMSD chromatogram = new ChromatogramMSD();
+		chromatogram.setDataName("Synthetic Chromatogram (" + numberOfScans + " scans, " + ionsPerScan + " ions, " + numberOfPeaks + " peaks)");
+		chromatogram.setScanDelay(SCAN_DELAY);
+		chromatogram.setScanInterval(SCAN_INTERVAL);
+		float[] abundances = new float[ionsPerScan];
+		for(int scan = 0; scan < numberOfScans; scan++) {
+			for(int i = 0; i < ionsPerScan; i++) {
+				abundances[i] = BASELINE + random.nextFloat() * NOISE;
+			}
+			for(int peak = 0; peak < numberOfPeaks; peak++) {
+				float distance = (scan - centers[peak]) / widths[peak];
+				if(Math.abs(distance) < 4.0f) {
+					float factor = heights[peak] * (float)Math.exp(-0.5d * distance * distance);
+					float[] compound = compounds[peak];
+					for(int i = 0; i < ionsPerScan; i++) {
+						abundances[i] += compound[i] * factor;
+					}
+				}
+			}
+			chromatogram.addScan(createScan(abundances));
+		}
+		chromatogram.recalculateRetentionTimes();
+		return chromatogram;
+	}
+
+	/**
+	 * Each compound uses a few ions of the scan range with relative abundances (0 - 1).
+	 */
+	private float[][] createCompounds(Random random, int numberOfCompounds, int ionsPerScan) {
+
+		float[][] compounds = new float[numberOfCompounds][ionsPerScan];
+		int ions = Math.min(IONS_PER_COMPOUND, ionsPerScan);
+		for(float[] compound : compounds) {
+			for(int i = 0; i < ions; i++) {
+				compound[random.nextInt(ionsPerScan)] = random.nextFloat();
+			}
+		}
+		return compounds;
+	}
+
+	private IVendorMassSpectrum createScan(float[] abundances) {
+
+		IVendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+		for(int i = 0; i < abundances.length; i++) {
+			try {
+				massSpectrum.addIon(new Ion(START_ION + i, abundances[i]), false);
+			} catch(AbundanceLimitExceededException e) {
+				logger.warn(e);
+			} catch(IonLimitExceededException e) {
+				logger.warn(e);
+			}
+		}
+		return massSpectrum;
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.chemclipse.logging.core.Logger;
+import org.eclipse.chemclipse.model.exceptions.AbundanceLimitExceededException;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IRegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.exceptions.IonLimitExceededException;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.RegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.implementation.ScanMSD;
+
+/**
+ * Creates reproducible spectral libraries and unknowns derived from the library entries.
+ * The same seed and sizes always deliver the same mass spectra.
+ */
+public class SyntheticLibraryGenerator {
+
+	private static final Logger logger = Logger.getLogger(SyntheticLibraryGenerator.class);
+	//
+	public static final long DEFAULT_SEED = 20200102L;
+	public static final int START_ION = 35;
+	public static final int STOP_ION = 500;
+	public static final float MAX_ABUNDANCE = 999.0f;
+	public static final float MAX_RETENTION_INDEX = 3000.0f;
+	//
+	private final long seed;
+
+	public SyntheticLibraryGenerator() {
+		this(DEFAULT_SEED);
+	}
+
+	public SyntheticLibraryGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Creates a library with the given number of mass spectra.
+	 * Each library entry has a name and a retention index.
+	 * 
+	 * @param size
+	 * @param ionsPerSpectrum
+	 * @return List
+	 */
+	public List<IScanMSD> createLibrary(int size, int ionsPerSpectrum) {
+
+		Random random = new Random(seed);
+		List<IScanMSD> library = new ArrayList<>(size);
+		int range = STOP_ION - START_ION + 1;
+		int ions = Math.min(ionsPerSpectrum, range);
+		for(int i = 0; i < size; i++) {
+			IRegularLibraryMassSpectrum massSpectrum = new RegularLibraryMassSpectrum();
+			massSpectrum.getLibraryInformation().setName("Synthetic Compound " + (i + 1));
+			massSpectrum.setRetentionIndex(random.nextFloat() * MAX_RETENTION_INDEX);
+			boolean[] used = new boolean[range];
+			int added = 0;
+			while(added < ions) {
+				int index = random.nextInt(range);
+				if(!used[index]) {
+					used[index] = true;
+					/*
+					 * The base peak has the max abundance.
+					 */
+					float abundance = (added == 0) ? MAX_ABUNDANCE : 1.0f + random.nextFloat() * (MAX_ABUNDANCE - 1.0f);
+					addIon(massSpectrum, START_ION + index, abundance);
+					added++;
+				}
+			}
+			library.add(massSpectrum);
+		}
+		return library;
+	}
+
+	/**
+	 * Creates unknowns by picking random library entries. The abundances
+	 * are modified by the given relative noise (e.g. 0.1 = +/- 10%) and
+	 * some of the minor ions are removed.
+	 * 
+	 * @param library
+	 * @param count
+	 * @param noise
+	 * @return List
+	 */
+	public List<IScanMSD> createUnknowns(List<IScanMSD> library, int count, float noise) {
+
+		Random random = new Random(seed + 1);
+		List<IScanMSD> unknowns = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			IScanMSD reference = library.get(random.nextInt(library.size()));
+			IScanMSD unknown = new ScanMSD();
+			unknown.setRetentionIndex(reference.getRetentionIndex());
+			for(IIon ion : reference.getIons()) {
+				float abundance = ion.getAbundance();
+				if(abundance < MAX_ABUNDANCE * 0.05f && random.nextFloat() < 0.3f) {
+					continue;
+				}
+				abundance *= 1.0f + (random.nextFloat() * 2.0f - 1.0f) * noise;
+				addIon(unknown, ion.getIon(), Math.max(1.0f, abundance));
+			}
+			unknowns.add(unknown);
+		}
+		return unknowns;
+	}
+
+	private void addIon(IScanMSD massSpectrum, double mz, float abundance) {
+
+		try {
+			massSpectrum.addIon(new Ion(mz, abundance), false);
+		} catch(AbundanceLimitExceededException e) {
+			logger.warn(e);
+		} catch(IonLimitExceededException e) {
+			logger.warn(e);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.detector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.chemclipse.benchmark.data.SyntheticChromatogramGenerator;
+import org.eclipse.chemclipse.chromatogram.xxd.peak.detector.supplier.firstderivative.core.PeakDetectorMSD;
+import org.eclipse.chemclipse.chromatogram.xxd.peak.detector.supplier.firstderivative.settings.PeakDetectorSettingsMSD;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramPeakMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Detects the peaks of a synthetic chromatogram with the first derivative detector.
+ * The detected peaks are returned only, hence the chromatogram stays unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PeakDetectorBenchmark {
+
+	@Param({"2000", "10000"})
+	public int numberOfScans;
+	@Param({"100"})
+	public int ionsPerScan;
+	@Param({"20", "200"})
+	public int numberOfPeaks;
+	//
+	private IChromatogramSelectionMSD chromatogramSelection;
+	private PeakDetectorSettingsMSD peakDetectorSettings;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+
+		IChromatogramMSD chromatogram = new SyntheticChromatogramGenerator().create(numberOfScans, ionsPerScan, numberOfPeaks);
+		chromatogramSelection = new ChromatogramSelectionMSD(chromatogram, false);
+		peakDetectorSettings = new PeakDetectorSettingsMSD();
+	}
+
+	@Benchmark
+	public List<IChromatogramPeakMSD> detectPeaks() {
+
+		return new PeakDetectorMSD().detectPeaks(chromatogramSelection, peakDetectorSettings, new NullProgressMonitor());
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.chemclipse.benchmark.data.SyntheticChromatogramGenerator;
+import org.eclipse.chemclipse.chromatogram.msd.filter.supplier.denoising.core.ChromatogramFilter;
+import org.eclipse.chemclipse.chromatogram.msd.filter.supplier.denoising.settings.FilterSettings;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
+import org.eclipse.chemclipse.processing.core.IProcessingInfo;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Applies the denoising filter. The filter modifies the scans,
+ * hence a new chromatogram is created before each invocation (not measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DenoisingBenchmark {
+
+	@Param({"2000", "10000"})
+	public int numberOfScans;
+	@Param({"100"})
+	public int ionsPerScan;
+	//
+	private SyntheticChromatogramGenerator generator;
+	private FilterSettings filterSettings;
+	private IChromatogramSelectionMSD chromatogramSelection;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		generator = new SyntheticChromatogramGenerator();
+		filterSettings = new FilterSettings();
+	}
+
+	@Setup(Level.Invocation)
+	public void createChromatogram() throws Exception {
+
+		chromatogramSelection = new ChromatogramSelectionMSD(generator.create(numberOfScans, ionsPerScan, numberOfScans / 50), false);
+	}
+
+	@Benchmark
+	public IProcessingInfo<?> applyDenoisingFilter() {
+
+		return new ChromatogramFilter().applyFilter(chromatogramSelection, filterSettings, new NullProgressMonitor());
+	}
+}
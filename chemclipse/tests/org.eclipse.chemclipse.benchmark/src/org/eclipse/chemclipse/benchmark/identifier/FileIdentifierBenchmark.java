@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.benchmark.identifier;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.chemclipse.benchmark.data.SyntheticLibraryGenerator;
+import org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.comparator.CosineMassSpectrumComparator;
+import org.eclipse.chemclipse.chromatogram.msd.identifier.supplier.file.internal.identifier.FileIdentifier;
+import org.eclipse.chemclipse.chromatogram.msd.identifier.supplier.file.settings.MassSpectrumIdentifierSettings;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares synthetic unknowns against a synthetic library.
+ * The cosine comparator is set directly, hence no extension registry lookup is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FileIdentifierBenchmark {
+
+	private static final String IDENTIFIER = "Benchmark";
+	private static final String DATABASE = "Synthetic Library";
+	//
+	@Param({"10000", "100000"})
+	public int librarySize;
+	@Param({"100"})
+	public int numberOfUnknowns;
+	@Param({"0", "5"})
+	public int preSearchIons;
+	//
+	private List<IScanMSD> library;
+	private List<IScanMSD> unknowns;
+	private MassSpectrumIdentifierSettings identifierSettings;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		SyntheticLibraryGenerator generator = new SyntheticLibraryGenerator();
+		library = generator.createLibrary(librarySize, 40);
+		unknowns = generator.createUnknowns(library, numberOfUnknowns, 0.1f);
+		identifierSettings = new MassSpectrumIdentifierSettings();
+		identifierSettings.setMassSpectrumComparator(new CosineMassSpectrumComparator());
+		identifierSettings.setPreSearchIons(preSearchIons);
+		identifierSettings.setMinMatchFactor(70.0f);
+		identifierSettings.setMinReverseMatchFactor(70.0f);
+	}
+
+	/**
+	 * The identification adds targets to the unknowns. They are removed
+	 * before each iteration to avoid an increasing memory footprint.
+	 */
+	@Setup(Level.Iteration)
+	public void clearTargets() {
+
+		for(IScanMSD unknown : unknowns) {
+			unknown.getTargets().clear();
+		}
+	}
+
+	@Benchmark
+	public int compareMassSpectraAgainstDatabase() {
+
+		return FileIdentifier.compareMassSpectraAgainstDatabase(unknowns, library, identifierSettings, IDENTIFIER, DATABASE, new NullProgressMonitor());
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.comparison.internal.massspectrum;
+
+import org.eclipse.chemclipse.chromatogram.msd.comparison.massspectrum.ComparatorCacheStatistics;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.ScanMSD;
+
+import junit.framework.TestCase;
+
+public class ComparatorCache_1_Test extends TestCase {
+
+	private ComparatorCache comparatorCache;
+	private IScanMSD unknown;
+	private IScanMSD reference;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		comparatorCache = new ComparatorCache(32);
+		unknown = new ScanMSD();
+		unknown.addIon(new Ion(43.0d, 1000.0f));
+		unknown.addIon(new Ion(57.0d, 800.0f));
+		reference = new ScanMSD();
+		reference.addIon(new Ion(43.0d, 1000.0f));
+		reference.addIon(new Ion(91.0d, 500.0f));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		comparatorCache = null;
+		super.tearDown();
+	}
+
+	public void testUseReferenceForComparison_1() {
+
+		assertTrue("compare", comparatorCache.useReferenceForComparison(unknown, reference, 0.5d));
+		assertFalse("compare", comparatorCache.useReferenceForComparison(unknown, reference, 0.6d));
+	}
+
+	public void testStatistics_1() {
+
+		comparatorCache.useReferenceForComparison(unknown, reference, 0.5d);
+		comparatorCache.useReferenceForComparison(unknown, reference, 0.5d);
+		ComparatorCacheStatistics statistics = comparatorCache.getStatistics();
+		assertEquals("misses", 2L, statistics.getMisses());
+		assertEquals("hits", 2L, statistics.getHits());
+		assertEquals("size", 2, statistics.getSize());
+	}
+
+	public void testModification_1() throws Exception {
+
+		assertFalse("compare", comparatorCache.useReferenceForComparison(unknown, reference, 1.0d));
+		unknown.addIon(new Ion(91.0d, 100.0f));
+		assertTrue("compare", comparatorCache.useReferenceForComparison(unknown, reference, 1.0d));
+	}
+
+	public void testEviction_1() throws Exception {
+
+		for(int i = 0; i < 100; i++) {
+			IScanMSD massSpectrum = new ScanMSD();
+			massSpectrum.addIon(new Ion(50.0d + i, 100.0f));
+			comparatorCache.getTopIons(massSpectrum);
+		}
+		ComparatorCacheStatistics statistics = comparatorCache.getStatistics();
+		assertTrue("size", statistics.getSize() <= 32);
+		assertEquals("evictions", 100L - statistics.getSize(), statistics.getEvictions());
+	}
+
+	public void testClear_1() {
+
+		comparatorCache.useReferenceForComparison(unknown, reference, 0.5d);
+		comparatorCache.clear();
+		ComparatorCacheStatistics statistics = comparatorCache.getStatistics();
+		assertEquals("size", 0, statistics.getSize());
+		assertEquals("misses", 0L, statistics.getMisses());
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.comparator;
+
+import org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel.DistanceKernel;
+import org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel.SpectrumVector;
+import org.eclipse.chemclipse.chromatogram.msd.comparison.supplier.distance.internal.kernel.SpectrumVectorCache;
+import org.eclipse.chemclipse.model.identifier.IComparisonResult;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignal;
+
+/**
+ * The kernel must deliver the same results as the vector calculations.
+ */
+public class DistanceKernel_1_Test extends MassSpectrumSetTestCase {
+
+	private IScanMSD unknown;
+	private IScanMSD reference;
+	private IExtractedIonSignal unknownSignal;
+	private IExtractedIonSignal referenceSignal;
+	private SpectrumVectorCache spectrumVectorCache;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		unknown = sinapylAclohol.getMassSpectrum();
+		reference = syringylAcetone.getMassSpectrum();
+		unknownSignal = unknown.getExtractedIonSignal();
+		referenceSignal = reference.getExtractedIonSignal();
+		spectrumVectorCache = new SpectrumVectorCache(64);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		super.tearDown();
+	}
+
+	public void testCosine_1() {
+
+		CosineMassSpectrumComparator comparator = new CosineMassSpectrumComparator();
+		IComparisonResult result = DistanceKernel.calculateCosine(spectrumVectorCache.getVector(unknown), spectrumVectorCache.getVector(reference), false);
+		assertEquals("match", (float)comparator.calculateCosinePhi(unknownSignal, referenceSignal), result.getMatchFactor());
+		assertEquals("reverse match", (float)comparator.calculateCosinePhi(referenceSignal, unknownSignal), result.getReverseMatchFactor());
+		assertEquals("match direct", (float)comparator.calculateCosinePhiDirect(unknownSignal, referenceSignal), result.getMatchFactorDirect());
+		assertEquals("reverse match direct", (float)comparator.calculateCosinePhiDirect(referenceSignal, unknownSignal), result.getReverseMatchFactorDirect());
+	}
+
+	public void testCosineUnit_1() {
+
+		CosineUnitMassSpectrumComparator comparator = new CosineUnitMassSpectrumComparator();
+		IComparisonResult result = DistanceKernel.calculateCosine(spectrumVectorCache.getVector(unknown), spectrumVectorCache.getVector(reference), true);
+		assertEquals("match", (float)comparator.calculateCosinePhi(unknownSignal, referenceSignal), result.getMatchFactor());
+		assertEquals("reverse match", (float)comparator.calculateCosinePhi(referenceSignal, unknownSignal), result.getReverseMatchFactor());
+	}
+
+	public void testCache_1() {
+
+		SpectrumVector vector = spectrumVectorCache.getVector(unknown);
+		assertSame("cached", vector, spectrumVectorCache.getVector(unknown));
+		assertEquals("size", 1, spectrumVectorCache.size());
+	}
+
+	public void testCache_2() {
+
+		SpectrumVector vector = spectrumVectorCache.getVector(unknown);
+		unknown.removeIon(unknown.getIons().get(0));
+		assertNotSame("modified", vector, spectrumVectorCache.getVector(unknown));
+	}
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.filter.core.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.model.core.IScan;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.ScanMSD;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+public class ScanPipeline_1_Test extends TestCase {
+
+	private List<IScanMSD> scans;
+	private List<IScanMSD> results;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		scans = new ArrayList<>();
+		for(int i = 1; i <= 5; i++) {
+			ScanMSD scan = new ScanMSD();
+			scan.setRetentionTime(i * 1000);
+			scan.addIon(new Ion(100.0d, i));
+			scans.add(scan);
+		}
+		results = new ArrayList<>();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		scans = null;
+		results = null;
+		super.tearDown();
+	}
+
+	public void testProcess_1() {
+
+		ScanPipeline scanPipeline = new ScanPipeline();
+		assertEquals("scans", 5, scanPipeline.process(scans.iterator(), results::add, new NullProgressMonitor()));
+		assertEquals("window size", 0, scanPipeline.getWindowSize());
+		for(int i = 0; i < 5; i++) {
+			assertSame("scan", scans.get(i), results.get(i));
+		}
+	}
+
+	public void testProcess_2() {
+
+		ScanPipeline scanPipeline = new ScanPipeline();
+		scanPipeline.addOperator(new MovingSumOperator(1, 1));
+		scanPipeline.process(scans.iterator(), results::add, new NullProgressMonitor());
+		assertEquals("window size", 3, scanPipeline.getWindowSize());
+		assertEquals("size", 5, results.size());
+		assertEquals("sum", 3.0f, results.get(0).getTotalSignal());
+		assertEquals("sum", 6.0f, results.get(1).getTotalSignal());
+		assertEquals("sum", 9.0f, results.get(2).getTotalSignal());
+		assertEquals("sum", 12.0f, results.get(3).getTotalSignal());
+		assertEquals("sum", 9.0f, results.get(4).getTotalSignal());
+		assertEquals("retention time", 5000, results.get(4).getRetentionTime());
+	}
+
+	public void testProcess_3() {
+
+		/*
+		 * The second operator works on the results of the first one.
+		 */
+		ScanPipeline scanPipeline = new ScanPipeline();
+		scanPipeline.addOperator(new MovingSumOperator(0, 2));
+		scanPipeline.addOperator(new MovingSumOperator(1, 0));
+		scanPipeline.process(scans.iterator(), results::add, new NullProgressMonitor());
+		assertEquals("window size", 5, scanPipeline.getWindowSize());
+		assertEquals("size", 5, results.size());
+		assertEquals("sum", 6.0f, results.get(0).getTotalSignal()); // 6
+		assertEquals("sum", 15.0f, results.get(1).getTotalSignal()); // 6 + 9
+		assertEquals("sum", 21.0f, results.get(2).getTotalSignal()); // 9 + 12
+		assertEquals("sum", 21.0f, results.get(3).getTotalSignal()); // 12 + 9
+		assertEquals("sum", 14.0f, results.get(4).getTotalSignal()); // 9 + 5
+	}
+
+	public void testProcess_4() {
+
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		ScanPipeline scanPipeline = new ScanPipeline();
+		scanPipeline.addOperator(new MovingSumOperator(1, 1));
+		assertEquals("canceled", 0, scanPipeline.process(scans.iterator(), results::add, monitor));
+	}
+
+	public void testProcess_5() {
+
+		/*
+		 * The first operator passes the current scan of its window on.
+		 * The second operator modifies it in place, which must not
+		 * change the previous scans seen by the first operator.
+		 */
+		List<Float> previousSignals = new ArrayList<>();
+		ScanPipeline scanPipeline = new ScanPipeline();
+		scanPipeline.addOperator(new IScanOperator() {
+
+			@Override
+			public int getLookBehind() {
+
+				return 1;
+			}
+
+			@Override
+			public IScanMSD process(ScanWindow window) {
+
+				IScanMSD previous = window.get(-1);
+				if(previous != null) {
+					previousSignals.add(previous.getTotalSignal());
+				}
+				return window.getCurrent();
+			}
+		});
+		scanPipeline.addOperator(window -> {
+			IScanMSD scan = window.getCurrent();
+			scan.removeIon(100);
+			return scan;
+		});
+		scanPipeline.process(scans.iterator(), results::add, new NullProgressMonitor());
+		assertEquals("size", 5, results.size());
+		assertEquals("previous", 4, previousSignals.size());
+		for(int i = 0; i < 4; i++) {
+			assertEquals("previous", i + 1.0f, previousSignals.get(i).floatValue());
+		}
+		for(int i = 0; i < 5; i++) {
+			assertNotSame("copy", scans.get(i), results.get(i));
+			assertEquals("input", (float)(i + 1), scans.get(i).getTotalSignal());
+			assertEquals("result", 0.0f, results.get(i).getTotalSignal());
+		}
+	}
+
+	public void testApply_1() throws Exception {
+
+		IChromatogramMSD chromatogram = new ChromatogramMSD();
+		for(IScanMSD scan : scans) {
+			chromatogram.addScan(scan);
+		}
+		assertEquals("total signal", 15.0f, chromatogram.getTotalSignal());
+		/*
+		 * The first operator replaces the scans, the second one modifies them in place.
+		 */
+		ScanPipeline scanPipeline = new ScanPipeline();
+		scanPipeline.addOperator(new MovingSumOperator(0, 0));
+		scanPipeline.addOperator(window -> {
+			IScanMSD scan = window.getCurrent();
+			scan.adjustTotalSignal(scan.getTotalSignal() * 2.0f);
+			return scan;
+		});
+		assertEquals("scans", 5, scanPipeline.apply(new ChromatogramSelectionMSD(chromatogram, false), new NullProgressMonitor()));
+		assertEquals("total signal", 30.0f, chromatogram.getTotalSignal());
+		for(int i = 0; i < 5; i++) {
+			IScan scan = chromatogram.getScan(i + 1);
+			assertNotSame("replaced", scans.get(i), scan);
+			assertTrue("dirty", scan.isDirty());
+			assertEquals("scan number", i + 1, scan.getScanNumber());
+			assertSame("parent", chromatogram, scan.getParentChromatogram());
+		}
+	}
+
+	public void testWindow_1() {
+
+		ScanWindow scanWindow = new ScanWindow(1, 2);
+		scanWindow.shift(scans.get(0));
+		scanWindow.shift(scans.get(1));
+		scanWindow.shift(scans.get(2));
+		assertSame("current", scans.get(0), scanWindow.getCurrent());
+		assertNull("previous", scanWindow.get(-1));
+		assertSame("next", scans.get(2), scanWindow.get(2));
+		scanWindow.shift(scans.get(3));
+		assertSame("current", scans.get(1), scanWindow.getCurrent());
+		assertSame("previous", scans.get(0), scanWindow.get(-1));
+		try {
+			scanWindow.get(3);
+			fail("IndexOutOfBoundsException");
+		} catch(IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	private static class MovingSumOperator implements IScanOperator {
+
+		private final int lookBehind;
+		private final int lookAhead;
+
+		public MovingSumOperator(int lookBehind, int lookAhead) {
+			this.lookBehind = lookBehind;
+			this.lookAhead = lookAhead;
+		}
+
+		@Override
+		public int getLookBehind() {
+
+			return lookBehind;
+		}
+
+		@Override
+		public int getLookAhead() {
+
+			return lookAhead;
+		}
+
+		@Override
+		public IScanMSD process(ScanWindow window) {
+
+			float sum = 0;
+			for(int i = -lookBehind; i <= lookAhead; i++) {
+				IScanMSD scan = window.get(i);
+				if(scan != null) {
+					sum += scan.getTotalSignal();
+				}
+			}
+			ScanMSD result = new ScanMSD();
+			result.setRetentionTime(window.getCurrent().getRetentionTime());
+			try {
+				result.addIon(new Ion(100.0d, sum));
+			} catch(Exception e) {
+				fail(e.getMessage());
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This
+ * program and the accompanying materials are made available under the terms of
+ * the Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.filter.supplier.denoising.internal.core.support;
+
+import java.util.List;
+
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.ICombinedMassSpectrum;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.core.support.IMarkedIons;
+import org.eclipse.chemclipse.msd.model.core.support.MarkedIon;
+import org.eclipse.chemclipse.msd.model.core.support.MarkedIons;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.VendorMassSpectrum;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * The expected values have been calculated with the sequential implementation
+ * of the denoising filter on the same synthetic chromatogram.
+ */
+public class Denoising_2_Test extends TestCase {
+
+	private IChromatogramMSD chromatogram;
+	private List<ICombinedMassSpectrum> noiseMassSpectra;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		/*
+		 * 200 scans with a periodic noise on the ions 40 - 100 and
+		 * peaks on the ions 57, 71 and 85.
+		 */
+		chromatogram = new ChromatogramMSD();
+		for(int scan = 1; scan <= 200; scan++) {
+			VendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+			massSpectrum.setRetentionTime(scan * 500);
+			for(int ion = 40; ion <= 100; ion++) {
+				float abundance = 100.0f + ((ion * 7 + scan * 13) % 37) * 5.0f;
+				if(ion == 57 || ion == 71 || ion == 85) {
+					abundance += (float)(10000.0d * Math.exp(-Math.pow(scan - 60 - (ion - 57), 2) / 8.0d));
+					abundance += (float)(8000.0d * Math.exp(-Math.pow(scan - 140, 2) / 8.0d));
+				}
+				massSpectrum.addIon(new Ion(ion, abundance));
+			}
+			chromatogram.addScan(massSpectrum);
+		}
+		IChromatogramSelectionMSD chromatogramSelection = new ChromatogramSelectionMSD(chromatogram);
+		IMarkedIons ionsToRemove = new MarkedIons(IMarkedIons.IonMarkMode.INCLUDE);
+		ionsToRemove.add(new MarkedIon(44));
+		IMarkedIons ionsToPreserve = new MarkedIons(IMarkedIons.IonMarkMode.INCLUDE);
+		ionsToPreserve.add(new MarkedIon(103));
+		noiseMassSpectra = Denoising.applyDenoisingFilter(chromatogramSelection, ionsToRemove, ionsToPreserve, true, 1, 13, new NullProgressMonitor());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram = null;
+		noiseMassSpectra = null;
+		super.tearDown();
+	}
+
+	public void testNoiseMassSpectra_1() {
+
+		assertEquals("Noise Mass Spectra", 11, noiseMassSpectra.size());
+	}
+
+	public void testChromatogram_1() {
+
+		int numberOfIons = 0;
+		double totalSignal = 0.0d;
+		for(int scan = 1; scan <= chromatogram.getNumberOfScans(); scan++) {
+			IScanMSD massSpectrum = chromatogram.getSupplierScan(scan);
+			numberOfIons += massSpectrum.getNumberOfIons();
+			for(IIon ion : massSpectrum.getIons()) {
+				totalSignal += ion.getAbundance();
+			}
+		}
+		assertEquals("Number of Ions", 6220, numberOfIons);
+		assertEquals("Total Signal", 683604.7789230347d, totalSignal, 1.0E-6d);
+	}
+
+	public void testScan_1() {
+
+		IScanMSD massSpectrum = chromatogram.getSupplierScan(60);
+		assertEquals("Number of Ions", 22, massSpectrum.getNumberOfIons());
+		assertEquals("Ion 41", 43.518875f, getAbundance(massSpectrum, 41));
+		assertEquals("Ion 44", 0.0f, getAbundance(massSpectrum, 44));
+		assertEquals("Ion 57", 10050.7f, getAbundance(massSpectrum, 57));
+		assertEquals("Ion 99", 36.176178f, getAbundance(massSpectrum, 99));
+	}
+
+	public void testScan_2() {
+
+		IScanMSD massSpectrum = chromatogram.getSupplierScan(74);
+		assertEquals("Number of Ions", 29, massSpectrum.getNumberOfIons());
+		assertEquals("Ion 42", 85.87608f, getAbundance(massSpectrum, 42));
+		assertEquals("Ion 71", 9986.113f, getAbundance(massSpectrum, 71));
+		assertEquals("Ion 100", 71.35043f, getAbundance(massSpectrum, 100));
+	}
+
+	public void testScan_3() {
+
+		IScanMSD massSpectrum = chromatogram.getSupplierScan(140);
+		assertEquals("Number of Ions", 31, massSpectrum.getNumberOfIons());
+		assertEquals("Ion 57", 8105.9185f, getAbundance(massSpectrum, 57));
+		assertEquals("Ion 71", 8034.9736f, getAbundance(massSpectrum, 71));
+		assertEquals("Ion 85", 7970.9023f, getAbundance(massSpectrum, 85));
+		assertEquals("Ion 94", 105.91986f, getAbundance(massSpectrum, 94));
+	}
+
+	public void testScan_4() {
+
+		IScanMSD massSpectrum = chromatogram.getSupplierScan(200);
+		assertEquals("Number of Ions", 16, massSpectrum.getNumberOfIons());
+		assertEquals("Ion 40", 6.2499847f, getAbundance(massSpectrum, 40));
+		assertEquals("Ion 71", 12.5f, getAbundance(massSpectrum, 71));
+		assertEquals("Ion 98", 7.5f, getAbundance(massSpectrum, 98));
+	}
+
+	private float getAbundance(IScanMSD massSpectrum, int ion) {
+
+		for(IIon entry : massSpectrum.getIons()) {
+			if((int)Math.round(entry.getIon()) == ion) {
+				return entry.getAbundance();
+			}
+		}
+		return 0.0f;
+	}
+}
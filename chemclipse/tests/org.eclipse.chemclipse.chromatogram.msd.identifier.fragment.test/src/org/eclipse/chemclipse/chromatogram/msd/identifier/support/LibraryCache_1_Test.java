@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.identifier.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.chemclipse.model.identifier.ILibraryInformation;
+import org.eclipse.chemclipse.msd.model.core.IMassSpectra;
+import org.eclipse.chemclipse.msd.model.core.IRegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.MassSpectra;
+import org.eclipse.chemclipse.msd.model.implementation.RegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.implementation.ScanMSD;
+
+import junit.framework.TestCase;
+
+public class LibraryCache_1_Test extends TestCase {
+
+	private static final String PARSER_KEY = "org.eclipse.chemclipse.msd.converter.supplier.amdis.database.msl@0.8.0";
+	//
+	private File directory;
+	private File library;
+	private IMassSpectra massSpectra;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		directory = Files.createTempDirectory("LibraryCache").toFile();
+		library = new File(directory, "Library.msl");
+		writeLibrary(library, "NAME: Styrene");
+		massSpectra = new MassSpectra();
+		massSpectra.setName("Library");
+		RegularLibraryMassSpectrum libraryMassSpectrum = new RegularLibraryMassSpectrum();
+		libraryMassSpectrum.setRetentionTime(60000);
+		libraryMassSpectrum.setRetentionIndex(893.0f);
+		ILibraryInformation libraryInformation = libraryMassSpectrum.getLibraryInformation();
+		libraryInformation.setName("Styrene");
+		libraryInformation.setCasNumber("100-42-5");
+		libraryInformation.setFormula("C8H8");
+		libraryInformation.setMolWeight(104.15d);
+		libraryInformation.getSynonyms().add("Vinylbenzene");
+		libraryMassSpectrum.addIon(new Ion(104.0d, 1000.0f));
+		libraryMassSpectrum.addIon(new Ion(78.0d, 400.0f));
+		massSpectra.addMassSpectrum(libraryMassSpectrum);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		File[] files = directory.listFiles();
+		if(files != null) {
+			for(File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+		super.tearDown();
+	}
+
+	public void testRead_1() {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		assertNull("not cached", libraryCache.read(library, PARSER_KEY));
+	}
+
+	public void testRead_2() {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		assertTrue("write", libraryCache.write(library, PARSER_KEY, massSpectra));
+		/*
+		 * Use a new instance to restore the index from disk.
+		 */
+		IMassSpectra cached = new LibraryCache(directory).read(library, PARSER_KEY);
+		assertNotNull("cached", cached);
+		assertEquals("name", "Library", cached.getName());
+		assertEquals("size", 1, cached.size());
+		IRegularLibraryMassSpectrum libraryMassSpectrum = (IRegularLibraryMassSpectrum)cached.getMassSpectrum(1);
+		assertEquals("retention time", 60000, libraryMassSpectrum.getRetentionTime());
+		assertEquals("retention index", 893.0f, libraryMassSpectrum.getRetentionIndex());
+		ILibraryInformation libraryInformation = libraryMassSpectrum.getLibraryInformation();
+		assertEquals("library name", "Styrene", libraryInformation.getName());
+		assertEquals("cas number", "100-42-5", libraryInformation.getCasNumber());
+		assertEquals("formula", "C8H8", libraryInformation.getFormula());
+		assertEquals("mol weight", 104.15d, libraryInformation.getMolWeight());
+		assertTrue("synonym", libraryInformation.getSynonyms().contains("Vinylbenzene"));
+		assertEquals("ions", 2, libraryMassSpectrum.getNumberOfIons());
+		assertEquals("ion", 104.0d, libraryMassSpectrum.getIons().get(0).getIon());
+		assertEquals("abundance", 1000.0f, libraryMassSpectrum.getIons().get(0).getAbundance());
+	}
+
+	public void testRead_3() throws Exception {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		libraryCache.write(library, PARSER_KEY, massSpectra);
+		writeLibrary(library, "NAME: Ethylbenzene");
+		assertNull("modified", libraryCache.read(library, PARSER_KEY));
+	}
+
+	public void testRead_4() throws Exception {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		libraryCache.write(library, PARSER_KEY, massSpectra);
+		File copy = new File(directory, "Copy.msl");
+		writeLibrary(copy, "NAME: Styrene");
+		assertNotNull("same content", libraryCache.read(copy, PARSER_KEY));
+	}
+
+	public void testRead_5() {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		libraryCache.write(library, PARSER_KEY, massSpectra);
+		assertNull("other parser", libraryCache.read(library, PARSER_KEY + ".v2"));
+	}
+
+	public void testRead_6() {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		libraryCache.write(library, PARSER_KEY, massSpectra);
+		libraryCache.write(library, PARSER_KEY + ".v2", massSpectra);
+		assertNotNull("updated parser", libraryCache.read(library, PARSER_KEY + ".v2"));
+		assertNull("stale cache file deleted", libraryCache.read(library, PARSER_KEY));
+	}
+
+	public void testWrite_1() throws Exception {
+
+		IMassSpectra scans = new MassSpectra();
+		scans.addMassSpectrum(new ScanMSD());
+		LibraryCache libraryCache = new LibraryCache(directory);
+		assertFalse("no library mass spectra", libraryCache.write(library, PARSER_KEY, scans));
+	}
+
+	public void testClear_1() {
+
+		LibraryCache libraryCache = new LibraryCache(directory);
+		libraryCache.write(library, PARSER_KEY, massSpectra);
+		libraryCache.clear();
+		assertNull("cleared", libraryCache.read(library, PARSER_KEY));
+	}
+
+	private void writeLibrary(File file, String content) throws IOException {
+
+		try(FileOutputStream outputStream = new FileOutputStream(file)) {
+			outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+}
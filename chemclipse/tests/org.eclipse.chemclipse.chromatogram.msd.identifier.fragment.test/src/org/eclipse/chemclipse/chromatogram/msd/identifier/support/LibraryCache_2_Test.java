@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.identifier.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.chemclipse.model.core.RetentionIndexType;
+import org.eclipse.chemclipse.model.identifier.ILibraryInformation;
+import org.eclipse.chemclipse.msd.converter.supplier.amdis.io.MSPReader;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IMassSpectra;
+import org.eclipse.chemclipse.msd.model.core.IRegularLibraryMassSpectrum;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.IonTransition;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * A cached read must return the same mass spectra as a fresh parse of the library.
+ */
+public class LibraryCache_2_Test extends TestCase {
+
+	private static final String PARSER_KEY = "org.eclipse.chemclipse.msd.converter.supplier.amdis.database.msp@0.8.0";
+	private static final String LIBRARY = "" + //
+			"NAME: Styrene\n" + //
+			"FORMULA: C8H8\n" + //
+			"MW: 104\n" + //
+			"CAS#: 100-42-5\n" + //
+			"DB#: 42\n" + //
+			"SMILES: C=CC1=CC=CC=C1\n" + //
+			"COMMENTS: Demo\n" + //
+			"SYNON: Vinylbenzene\n" + //
+			"SYNON: Ethenylbenzene\n" + //
+			"RT: 5.5\n" + //
+			"RRT: 0.75\n" + //
+			"RI: 893.5, 1261.2\n" + //
+			"Num Peaks: 3\n" + //
+			"51 120; 78 400; 104 999;\n" + //
+			"\n" + //
+			"NAME: Toluene\n" + //
+			"FORMULA: C7H8\n" + //
+			"MW: 92\n" + //
+			"RT: 4.2\n" + //
+			"RI: 763.0\n" + //
+			"Num Peaks: 2\n" + //
+			"91 999; 92 620;\n";
+	//
+	private File directory;
+	private File library;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		directory = Files.createTempDirectory("LibraryCache").toFile();
+		library = new File(directory, "Library.msp");
+		try(FileOutputStream outputStream = new FileOutputStream(library)) {
+			outputStream.write(LIBRARY.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		File[] files = directory.listFiles();
+		if(files != null) {
+			for(File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+		super.tearDown();
+	}
+
+	public void test1() throws Exception {
+
+		IMassSpectra parsed = parse();
+		assertEquals("Size", 2, parsed.size());
+		assertTrue("Write", new LibraryCache(directory).write(library, PARSER_KEY, parsed));
+		IMassSpectra cached = new LibraryCache(directory).read(library, PARSER_KEY);
+		assertNotNull("Cached", cached);
+		assertEquals("Name", parsed.getName(), cached.getName());
+		assertEquals("Converter Id", parsed.getConverterId(), cached.getConverterId());
+		assertEquals("Size", parsed.size(), cached.size());
+		for(int i = 1; i <= parsed.size(); i++) {
+			assertMassSpectrum("Mass Spectrum " + i, (IRegularLibraryMassSpectrum)parse().getMassSpectrum(i), (IRegularLibraryMassSpectrum)cached.getMassSpectrum(i));
+		}
+	}
+
+	public void test2() throws Exception {
+
+		IRegularLibraryMassSpectrum massSpectrum = (IRegularLibraryMassSpectrum)parse().getMassSpectrum(1);
+		assertEquals("Relative Retention Time", 45000, massSpectrum.getRelativeRetentionTime());
+		assertEquals("Apolar", 893.5f, massSpectrum.getRetentionIndex(RetentionIndexType.APOLAR));
+		assertEquals("Polar", 1261.2f, massSpectrum.getRetentionIndex(RetentionIndexType.POLAR));
+	}
+
+	public void test3() throws Exception {
+
+		IMassSpectra parsed = parse();
+		IScanMSD massSpectrum = parsed.getMassSpectrum(1);
+		massSpectrum.addIon(new Ion(105.0d, 100.0f, new IonTransition(104.0d, 105.0d, 10, 1, 1, 0)));
+		assertFalse("Ion Transitions", new LibraryCache(directory).write(library, PARSER_KEY, parsed));
+		assertNull("Not Cached", new LibraryCache(directory).read(library, PARSER_KEY));
+	}
+
+	private IMassSpectra parse() throws IOException {
+
+		return new MSPReader().read(library, new NullProgressMonitor());
+	}
+
+	private void assertMassSpectrum(String message, IRegularLibraryMassSpectrum expected, IRegularLibraryMassSpectrum actual) {
+
+		assertEquals(message + " Class", expected.getClass(), actual.getClass());
+		assertEquals(message + " Retention Time", expected.getRetentionTime(), actual.getRetentionTime());
+		assertEquals(message + " Retention Time Column 1", expected.getRetentionTimeColumn1(), actual.getRetentionTimeColumn1());
+		assertEquals(message + " Retention Time Column 2", expected.getRetentionTimeColumn2(), actual.getRetentionTimeColumn2());
+		assertEquals(message + " Relative Retention Time", expected.getRelativeRetentionTime(), actual.getRelativeRetentionTime());
+		assertEquals(message + " Retention Index", expected.getRetentionIndex(), actual.getRetentionIndex());
+		assertEquals(message + " Retention Indices", expected.getRetentionIndicesTyped(), actual.getRetentionIndicesTyped());
+		assertEquals(message + " Time Segment Id", expected.getTimeSegmentId(), actual.getTimeSegmentId());
+		assertEquals(message + " Cycle Number", expected.getCycleNumber(), actual.getCycleNumber());
+		assertEquals(message + " Identifier", expected.getIdentifier(), actual.getIdentifier());
+		assertEquals(message + " Mass Spectrometer", expected.getMassSpectrometer(), actual.getMassSpectrometer());
+		assertEquals(message + " Mass Spectrum Type", expected.getMassSpectrumType(), actual.getMassSpectrumType());
+		assertEquals(message + " Precursor Ion", expected.getPrecursorIon(), actual.getPrecursorIon());
+		assertEquals(message + " Precursor Type", expected.getPrecursorType(), actual.getPrecursorType());
+		//
+		ILibraryInformation expectedInformation = expected.getLibraryInformation();
+		ILibraryInformation actualInformation = actual.getLibraryInformation();
+		assertEquals(message + " Name", expectedInformation.getName(), actualInformation.getName());
+		assertEquals(message + " Synonyms", expectedInformation.getSynonyms(), actualInformation.getSynonyms());
+		assertEquals(message + " CAS", expectedInformation.getCasNumber(), actualInformation.getCasNumber());
+		assertEquals(message + " Formula", expectedInformation.getFormula(), actualInformation.getFormula());
+		assertEquals(message + " SMILES", expectedInformation.getSmiles(), actualInformation.getSmiles());
+		assertEquals(message + " InChI", expectedInformation.getInChI(), actualInformation.getInChI());
+		assertEquals(message + " Mol Weight", expectedInformation.getMolWeight(), actualInformation.getMolWeight());
+		assertEquals(message + " Comments", expectedInformation.getComments(), actualInformation.getComments());
+		assertEquals(message + " Reference Identifier", expectedInformation.getReferenceIdentifier(), actualInformation.getReferenceIdentifier());
+		assertEquals(message + " Miscellaneous", expectedInformation.getMiscellaneous(), actualInformation.getMiscellaneous());
+		assertEquals(message + " Database", expectedInformation.getDatabase(), actualInformation.getDatabase());
+		assertEquals(message + " Contributor", expectedInformation.getContributor(), actualInformation.getContributor());
+		assertEquals(message + " Library Retention Time", expectedInformation.getRetentionTime(), actualInformation.getRetentionTime());
+		assertEquals(message + " Library Retention Index", expectedInformation.getRetentionIndex(), actualInformation.getRetentionIndex());
+		//
+		List<IIon> expectedIons = expected.getIons();
+		List<IIon> actualIons = actual.getIons();
+		assertEquals(message + " Ions", expectedIons.size(), actualIons.size());
+		for(int i = 0; i < expectedIons.size(); i++) {
+			assertEquals(message + " Ion", expectedIons.get(i).getIon(), actualIons.get(i).getIon());
+			assertEquals(message + " Abundance", expectedIons.get(i).getAbundance(), actualIons.get(i).getAbundance());
+			assertNull(message + " Ion Transition", actualIons.get(i).getIonTransition());
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.identifier.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.ScanMSD;
+
+import junit.framework.TestCase;
+
+public class MassSpectrumIndex_1_Test extends TestCase {
+
+	private List<IScanMSD> references;
+	private MassSpectrumIndex massSpectrumIndex;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		references = new ArrayList<>();
+		references.add(createMassSpectrum(1000.0f, new double[]{43.0d, 57.0d, 71.0d}, new float[]{1000.0f, 800.0f, 50.0f}));
+		references.add(createMassSpectrum(1200.0f, new double[]{91.0d, 92.0d, 65.0d}, new float[]{1000.0f, 600.0f, 100.0f}));
+		references.add(createMassSpectrum(0.0f, new double[]{57.1d, 85.0d, 43.0d}, new float[]{1000.0f, 700.0f, 10.0f}));
+		massSpectrumIndex = new MassSpectrumIndex(references, 2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		references = null;
+		massSpectrumIndex = null;
+		super.tearDown();
+	}
+
+	public void testGetDominantIons_1() throws Exception {
+
+		int[] ions = MassSpectrumIndex.getDominantIons(references.get(0), 2);
+		assertEquals("size", 2, ions.length);
+		assertEquals("ion", 43, ions[0]);
+		assertEquals("ion", 57, ions[1]);
+	}
+
+	public void testGetCandidates_1() throws Exception {
+
+		IScanMSD unknown = createMassSpectrum(1000.0f, new double[]{57.0d, 71.0d}, new float[]{1000.0f, 200.0f});
+		List<IScanMSD> candidates = massSpectrumIndex.getCandidates(unknown, 0.0f);
+		assertEquals("size", 2, candidates.size());
+		assertSame("reference", references.get(0), candidates.get(0));
+		assertSame("reference", references.get(2), candidates.get(1));
+	}
+
+	public void testGetCandidates_2() throws Exception {
+
+		IScanMSD unknown = createMassSpectrum(1000.0f, new double[]{105.0d, 77.0d}, new float[]{1000.0f, 200.0f});
+		assertEquals("size", 0, massSpectrumIndex.getCandidates(unknown, 0.0f).size());
+	}
+
+	public void testGetCandidates_3() throws Exception {
+
+		IScanMSD unknown = createMassSpectrum(1190.0f, new double[]{91.0d, 57.0d}, new float[]{1000.0f, 900.0f});
+		List<IScanMSD> candidates = massSpectrumIndex.getCandidates(unknown, 20.0f);
+		assertEquals("size", 2, candidates.size());
+		assertSame("reference", references.get(1), candidates.get(0));
+		assertSame("reference", references.get(2), candidates.get(1));
+	}
+
+	private IScanMSD createMassSpectrum(float retentionIndex, double[] ions, float[] abundances) throws Exception {
+
+		IScanMSD massSpectrum = new ScanMSD();
+		massSpectrum.setRetentionIndex(retentionIndex);
+		for(int i = 0; i < ions.length; i++) {
+			massSpectrum.addIon(new Ion(ions[i], abundances[i]));
+		}
+		return massSpectrum;
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.msd.process.supplier.batchprocess.internal.support;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+public class BatchProgress_1_Test extends TestCase {
+
+	private File file;
+	private File chromatogram1;
+	private File chromatogram2;
+	private File chromatogram3;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("BatchProgress", ".progress");
+		file.delete();
+		chromatogram1 = createChromatogram("Chromatogram1");
+		chromatogram2 = createChromatogram("Chromatogram2");
+		chromatogram3 = createChromatogram("Chromatogram3");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		chromatogram1.delete();
+		chromatogram2.delete();
+		chromatogram3.delete();
+		super.tearDown();
+	}
+
+	public void testResume_1() {
+
+		BatchProgress batchProgress = new BatchProgress(file);
+		assertFalse("completed", batchProgress.isCompleted(chromatogram1.getPath()));
+		batchProgress.setCompleted(chromatogram1.getPath());
+		batchProgress.setCompleted(chromatogram2.getPath());
+		batchProgress.close(false);
+		assertTrue("exists", file.exists());
+		//
+		BatchProgress resumed = new BatchProgress(file);
+		assertTrue("chromatogram1", resumed.isCompleted(chromatogram1.getPath()));
+		assertTrue("chromatogram2", resumed.isCompleted(chromatogram2.getPath()));
+		assertFalse("chromatogram3", resumed.isCompleted(chromatogram3.getPath()));
+		resumed.close(true);
+		assertFalse("deleted", file.exists());
+	}
+
+	public void testResume_2() throws Exception {
+
+		BatchProgress batchProgress = new BatchProgress(file);
+		batchProgress.setCompleted(chromatogram1.getPath());
+		batchProgress.setCompleted(chromatogram2.getPath());
+		batchProgress.close(false);
+		/*
+		 * The input files have been replaced in the meantime.
+		 */
+		Files.write(chromatogram1.toPath(), "Chromatogram1 Modified".getBytes(StandardCharsets.UTF_8));
+		chromatogram1.setLastModified(1577836800000L);
+		chromatogram2.setLastModified(1577840400000L);
+		//
+		BatchProgress resumed = new BatchProgress(file);
+		assertFalse("chromatogram1", resumed.isCompleted(chromatogram1.getPath()));
+		assertFalse("chromatogram2", resumed.isCompleted(chromatogram2.getPath()));
+		resumed.setCompleted(chromatogram1.getPath());
+		resumed.close(false);
+		assertTrue("chromatogram1", new BatchProgress(file).isCompleted(chromatogram1.getPath()));
+	}
+
+	public void testResume_3() throws Exception {
+
+		/*
+		 * Progress files which contain the paths only are not resumed.
+		 */
+		Files.write(file.toPath(), (chromatogram1.getPath() + "\n").getBytes(StandardCharsets.UTF_8));
+		assertFalse("chromatogram1", new BatchProgress(file).isCompleted(chromatogram1.getPath()));
+	}
+
+	public void testNoFile_1() {
+
+		BatchProgress batchProgress = new BatchProgress(null);
+		batchProgress.setCompleted(chromatogram1.getPath());
+		assertTrue("completed", batchProgress.isCompleted(chromatogram1.getPath()));
+		batchProgress.close(true);
+	}
+
+	private File createChromatogram(String content) throws Exception {
+
+		File chromatogram = File.createTempFile("BatchProgress", ".ocb");
+		Files.write(chromatogram.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		chromatogram.setLastModified(1577836800000L);
+		return chromatogram;
+	}
+}
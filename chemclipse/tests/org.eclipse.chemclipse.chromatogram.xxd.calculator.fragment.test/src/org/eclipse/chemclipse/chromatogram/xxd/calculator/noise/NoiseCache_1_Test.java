@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.calculator.noise;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.INoiseCalculator;
+import org.eclipse.chemclipse.chromatogram.xxd.calculator.core.noise.NoiseCache;
+import org.eclipse.chemclipse.model.core.IChromatogram;
+import org.eclipse.chemclipse.model.implementation.Chromatogram;
+import org.eclipse.chemclipse.model.support.NoiseSegment;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import junit.framework.TestCase;
+
+public class NoiseCache_1_Test extends TestCase {
+
+	private IChromatogram<?> chromatogram;
+	private INoiseCalculator noiseCalculator;
+	private int calculations;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		chromatogram = new Chromatogram();
+		noiseCalculator = new INoiseCalculator() {
+
+			@Override
+			public float getSignalToNoiseRatio(IChromatogram<?> chromatogram, float intensity) {
+
+				return intensity / NoiseCache.getNoiseFactor(chromatogram, this, c -> calculateNoiseFactor());
+			}
+
+			@Override
+			public List<NoiseSegment> getNoiseSegments(IChromatogram<?> chromatogram, IProgressMonitor monitor) {
+
+				return Collections.emptyList();
+			}
+		};
+		calculations = 0;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		NoiseCache.clear(chromatogram);
+		super.tearDown();
+	}
+
+	public void test1() {
+
+		assertEquals("S/N", 5.0f, noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f));
+		assertEquals("S/N", 10.0f, noiseCalculator.getSignalToNoiseRatio(chromatogram, 20.0f));
+		assertEquals("Calculations", 1, calculations);
+	}
+
+	public void test2() {
+
+		noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f);
+		int modificationCount = chromatogram.getModificationCount();
+		chromatogram.setDirty(true);
+		assertTrue("Modification Count", modificationCount != chromatogram.getModificationCount());
+		noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f);
+		assertEquals("Calculations", 2, calculations);
+	}
+
+	public void test3() {
+
+		noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f);
+		NoiseCache.clear(chromatogram);
+		noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f);
+		assertEquals("Calculations", 2, calculations);
+	}
+
+	public void test4() {
+
+		IChromatogram<?> other = new Chromatogram();
+		noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f);
+		noiseCalculator.getSignalToNoiseRatio(other, 10.0f);
+		noiseCalculator.getSignalToNoiseRatio(chromatogram, 10.0f);
+		assertEquals("Calculations", 2, calculations);
+		NoiseCache.clear(other);
+	}
+
+	private double calculateNoiseFactor() {
+
+		calculations++;
+		return 2.0d;
+	}
+}
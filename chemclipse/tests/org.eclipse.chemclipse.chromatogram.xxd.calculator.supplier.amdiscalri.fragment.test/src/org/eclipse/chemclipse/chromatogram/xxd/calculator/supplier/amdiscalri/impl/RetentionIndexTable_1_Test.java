@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.calculator.supplier.amdiscalri.impl;
+
+import org.eclipse.chemclipse.model.columns.ISeparationColumnIndices;
+import org.eclipse.chemclipse.model.columns.RetentionIndexEntry;
+import org.eclipse.chemclipse.model.columns.SeparationColumnIndices;
+
+import junit.framework.TestCase;
+
+/**
+ * The table must return exactly the values of
+ * {@link RetentionIndexCalculator#calculateRetentionIndex(int, ISeparationColumnIndices)}.
+ */
+public class RetentionIndexTable_1_Test extends TestCase {
+
+	private ISeparationColumnIndices separationColumnIndices;
+	private RetentionIndexCalculator retentionIndexCalculator;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		separationColumnIndices = new SeparationColumnIndices();
+		separationColumnIndices.put(new RetentionIndexEntry(60000, 1000.0f, "C10"));
+		separationColumnIndices.put(new RetentionIndexEntry(120000, 1100.0f, "C11"));
+		separationColumnIndices.put(new RetentionIndexEntry(210000, 1200.0f, "C12"));
+		separationColumnIndices.put(new RetentionIndexEntry(300000, 1300.0f, "C13"));
+		separationColumnIndices.put(new RetentionIndexEntry(317777, 1333.3f, "C13.3"));
+		retentionIndexCalculator = new RetentionIndexCalculator();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		separationColumnIndices = null;
+		retentionIndexCalculator = null;
+		super.tearDown();
+	}
+
+	public void test1() {
+
+		assertEquals("Size", 5, new RetentionIndexTable(separationColumnIndices).size());
+	}
+
+	public void test2() {
+
+		int[] retentionTimes = {60000, 120000, 210000, 300000, 317777};
+		assertRetentionIndices("Exact Keys", retentionTimes);
+		float[] retentionIndices = new RetentionIndexTable(separationColumnIndices).getRetentionIndices(retentionTimes);
+		assertEquals("C10", 1000.0f, retentionIndices[0], 0.0f);
+		assertEquals("C13", 1300.0f, retentionIndices[3], 0.0f);
+	}
+
+	public void test3() {
+
+		int[] retentionTimes = {Integer.MIN_VALUE, -1, 0, 59999, 317778, 400000, Integer.MAX_VALUE};
+		assertRetentionIndices("Out of Range", retentionTimes);
+		for(float retentionIndex : new RetentionIndexTable(separationColumnIndices).getRetentionIndices(retentionTimes)) {
+			assertEquals("Out of Range", 0.0f, retentionIndex, 0.0f);
+		}
+	}
+
+	public void test4() {
+
+		assertRetentionIndices("Ascending", getRetentionTimes(false));
+	}
+
+	public void test5() {
+
+		assertRetentionIndices("Descending", getRetentionTimes(true));
+	}
+
+	public void test6() {
+
+		int[] retentionTimes = {90000, 90000, 120000, 120000, 90000, 400000, 400000, 60000, 60000, 317777, 317777, 0};
+		assertRetentionIndices("Duplicate Retention Times", retentionTimes);
+		float[] retentionIndices = new RetentionIndexTable(separationColumnIndices).getRetentionIndices(retentionTimes);
+		assertEquals("Interpolated", 1050.0f, retentionIndices[0], 0.0f);
+		assertEquals("Interpolated", 1050.0f, retentionIndices[4], 0.0f);
+	}
+
+	public void test7() {
+
+		/*
+		 * Two calibration entries with the same retention time.
+		 */
+		separationColumnIndices.put(150000, new RetentionIndexEntry(120000, 1150.0f, "C11.5"));
+		assertRetentionIndices("Duplicate Calibration Entries", new int[]{119999, 120000, 130000, 150000, 150001, 209999});
+		assertRetentionIndices("Duplicate Calibration Entries", getRetentionTimes(false));
+		assertRetentionIndices("Duplicate Calibration Entries", getRetentionTimes(true));
+	}
+
+	public void test8() {
+
+		separationColumnIndices.clear();
+		RetentionIndexTable retentionIndexTable = new RetentionIndexTable(separationColumnIndices);
+		assertEquals("Size", 0, retentionIndexTable.size());
+		assertRetentionIndices("Empty", new int[]{0, 60000, 120000});
+	}
+
+	private void assertRetentionIndices(String message, int[] retentionTimes) {
+
+		RetentionIndexTable retentionIndexTable = new RetentionIndexTable(separationColumnIndices);
+		float[] retentionIndices = retentionIndexTable.getRetentionIndices(retentionTimes);
+		assertEquals(message, retentionTimes.length, retentionIndices.length);
+		for(int i = 0; i < retentionTimes.length; i++) {
+			float expected = retentionIndexCalculator.calculateRetentionIndex(retentionTimes[i], separationColumnIndices);
+			assertEquals(message + " " + retentionTimes[i], expected, retentionIndices[i], 0.0f);
+			assertEquals(message + " " + retentionTimes[i], expected, retentionIndexTable.getRetentionIndex(retentionTimes[i]), 0.0f);
+		}
+	}
+
+	private int[] getRetentionTimes(boolean descending) {
+
+		int[] retentionTimes = new int[400];
+		for(int i = 0; i < retentionTimes.length; i++) {
+			int retentionTime = 50000 + i * 777;
+			retentionTimes[descending ? retentionTimes.length - 1 - i : i] = retentionTime;
+		}
+		return retentionTimes;
+	}
+}
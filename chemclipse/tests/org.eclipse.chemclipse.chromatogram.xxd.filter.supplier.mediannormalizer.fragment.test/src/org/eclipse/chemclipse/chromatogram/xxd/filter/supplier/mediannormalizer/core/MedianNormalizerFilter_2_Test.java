@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.mediannormalizer.core;
+
+import org.eclipse.chemclipse.chromatogram.filter.core.chromatogram.IChromatogramFilter;
+import org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.mediannormalizer.settings.FilterSettings;
+import org.eclipse.chemclipse.wsd.model.core.IChromatogramWSD;
+import org.eclipse.chemclipse.wsd.model.core.IScanWSD;
+import org.eclipse.chemclipse.wsd.model.core.implementation.ChromatogramWSD;
+import org.eclipse.chemclipse.wsd.model.core.implementation.ScanSignalWSD;
+import org.eclipse.chemclipse.wsd.model.core.implementation.ScanWSD;
+import org.eclipse.chemclipse.wsd.model.core.selection.ChromatogramSelectionWSD;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * The filtered wavelength signals must be visible in the chromatogram TIC.
+ */
+public class MedianNormalizerFilter_2_Test extends TestCase {
+
+	private IChromatogramWSD chromatogram;
+	private IChromatogramFilter chromatogramFilter;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		chromatogram = new ChromatogramWSD();
+		for(int i = 1; i <= 5; i++) {
+			IScanWSD scan = new ScanWSD();
+			scan.setRetentionTime(i * 1000);
+			scan.addScanSignal(new ScanSignalWSD(254.0d, i * 100.0f));
+			chromatogram.addScan(scan);
+		}
+		chromatogramFilter = new ChromatogramFilter();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram = null;
+		chromatogramFilter = null;
+		super.tearDown();
+	}
+
+	public void testApplyFilter_1() throws Exception {
+
+		assertEquals("Total Signal", 1500.0f, chromatogram.getTotalSignal());
+		chromatogramFilter.applyFilter(new ChromatogramSelectionWSD(chromatogram, false), new FilterSettings(), new NullProgressMonitor());
+		/*
+		 * The median signal is 300, the scans are divided by this value.
+		 */
+		assertEquals("Total Signal", 5.0f, chromatogram.getTotalSignal(), 1.0E-6f);
+		for(int i = 1; i <= 5; i++) {
+			IScanWSD scan = chromatogram.getSupplierScan(i);
+			assertEquals("Scan Signal", i / 3.0f, scan.getTotalSignal(), 1.0E-6f);
+			assertTrue("Dirty", scan.isDirty());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.core;
+
+import org.eclipse.chemclipse.chromatogram.filter.result.IChromatogramFilterResult;
+import org.eclipse.chemclipse.chromatogram.filter.result.ResultStatus;
+import org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.settings.ChromatogramFilterSettings;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.VendorMassSpectrum;
+import org.eclipse.chemclipse.processing.core.IProcessingInfo;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+public class ChromatogramFilterXIC_1_Test extends TestCase {
+
+	private IChromatogramMSD chromatogram;
+	private ChromatogramFilterSettings filterSettings;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		/*
+		 * m/z 50: linear trace
+		 * m/z 70: spike in scan 10, contained in the scans 8 - 12 only
+		 */
+		chromatogram = new ChromatogramMSD();
+		for(int scan = 1; scan <= 20; scan++) {
+			VendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+			massSpectrum.setRetentionTime(scan * 1000);
+			massSpectrum.addIon(new Ion(50.0d, 100.0f + 10.0f * scan));
+			if(scan >= 8 && scan <= 12) {
+				massSpectrum.addIon(new Ion(70.0d, (scan == 10) ? 700.0f : 35.0f));
+			}
+			chromatogram.addScan(massSpectrum);
+		}
+		filterSettings = new ChromatogramFilterSettings();
+		filterSettings.setOrder(2);
+		filterSettings.setWidth(5);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram = null;
+		filterSettings = null;
+		super.tearDown();
+	}
+
+	public void testApplyFilter_1() throws Exception {
+
+		IProcessingInfo processingInfo = new ChromatogramFilterXIC().applyFilter(new ChromatogramSelectionMSD(chromatogram), filterSettings, new NullProgressMonitor());
+		assertFalse("Errors", processingInfo.hasErrorMessages());
+		IChromatogramFilterResult result = (IChromatogramFilterResult)processingInfo.getProcessingResult();
+		assertEquals("Result Status", ResultStatus.OK, result.getResultStatus());
+		for(int scan = 1; scan <= 20; scan++) {
+			assertEquals("Linear m/z 50 scan " + scan, 100.0f + 10.0f * scan, getAbundance(scan, 50.0d), 1.0E-3f);
+		}
+		/*
+		 * (-3 * 35 + 12 * 35 + 17 * 700 + 12 * 35 - 3 * 35) / 35 in the spike,
+		 * (12 * 35 + 17 * 35 + 12 * 700 - 3 * 35) / 35 next to it and
+		 * (17 * 35 + 12 * 35 - 3 * 700) / 35 < 0 two scans away, which is removed.
+		 */
+		assertEquals("Spike m/z 70", 358.0f, getAbundance(10, 70.0d), 1.0E-3f);
+		assertEquals("Spike m/z 70 scan 9", 266.0f, getAbundance(9, 70.0d), 1.0E-3f);
+		assertEquals("Spike m/z 70 scan 11", 266.0f, getAbundance(11, 70.0d), 1.0E-3f);
+		assertEquals("Removed m/z 70 scan 8", 1, chromatogram.getSupplierScan(8).getNumberOfIons());
+		assertEquals("Removed m/z 70 scan 12", 1, chromatogram.getSupplierScan(12).getNumberOfIons());
+	}
+
+	public void testApplyFilter_2() throws Exception {
+
+		/*
+		 * The filter settings don't support derivatives, hence the traces are smoothed.
+		 */
+		filterSettings.setDerivative(1);
+		new ChromatogramFilterXIC().applyFilter(new ChromatogramSelectionMSD(chromatogram), filterSettings, new NullProgressMonitor());
+		assertEquals("Linear m/z 50 scan 5", 150.0f, getAbundance(5, 50.0d), 1.0E-3f);
+		assertEquals("Spike m/z 70", 358.0f, getAbundance(10, 70.0d), 1.0E-3f);
+	}
+
+	public void testApplyFilter_3() {
+
+		IProcessingInfo processingInfo = new ChromatogramFilterXIC().applyFilter(null, filterSettings, new NullProgressMonitor());
+		assertTrue("Errors", processingInfo.hasErrorMessages());
+	}
+
+	private float getAbundance(int scan, double mz) {
+
+		for(IIon ion : chromatogram.getSupplierScan(scan).getIons()) {
+			if(ion.getIon() == mz) {
+				return ion.getAbundance();
+			}
+		}
+		return 0.0f;
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.processor;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+public class SavitzkyGolayKernel_1_Test extends TestCase {
+
+	/*
+	 * Calculated with the implementation without cached kernels.
+	 */
+	private static final double[] SMOOTHED = new double[]{ // derivative 0, order 3, width 9
+			120.45454545454547d, 112.09090909090908d, 110.70779220779217d, 114.0324675324675d, 119.79220779220778d,
+			122.79220779220776d, 127.41558441558439d, 128.79220779220773d, 131.79220779220776d, 136.4155844155844d,
+			137.7922077922078d, 140.79220779220776d, 145.41558441558442d, 146.79220779220776d, 149.79220779220776d,
+			154.41558441558442d, 155.79220779220776d, 158.79220779220773d, 163.4155844155844d, 164.7922077922078d,
+			167.79220779220776d, 172.4155844155844d, 173.79220779220776d, 176.79220779220776d, 181.4155844155844d,
+			182.79220779220776d, 185.79220779220776d, 190.41558441558436d, 191.79220779220776d, 194.79220779220776d,
+			199.4155844155844d, 200.7922077922078d, 203.79220779220776d, 208.41558441558442d, 209.79220779220773d,
+			212.79220779220773d, 217.41558441558436d, 218.7922077922078d, 221.79220779220773d, 226.4155844155844d,
+			227.79220779220773d, 230.79220779220776d, 235.41558441558442d, 236.79220779220773d, 239.79220779220776d,
+			244.41558441558436d, 247.2532467532467d, 249.76623376623377d, 251.95454545454538d, 253.81818181818176d};
+	private static final double[] FIRST_DERIVATIVE = new double[]{ // derivative 1, order 2, width 7
+			-7.714285714285673d, -4.142857142857123d, -0.5714285714285621d, 3.0000000000000053d, 3.8928571428571406d,
+			2.107142857142856d, 3.0d, 3.892857142857146d, 2.107142857142863d, 3.0000000000000053d,
+			3.8928571428571495d, 2.107142857142861d, 3.0000000000000018d, 3.8928571428571423d, 2.107142857142861d,
+			3.0000000000000107d, 3.8928571428571477d, 2.1071428571428577d, 3.0000000000000036d, 3.892857142857144d,
+			2.107142857142861d, 3.0000000000000036d, 3.892857142857144d, 2.1071428571428648d, 3.0000000000000107d,
+			3.892857142857144d, 2.107142857142861d, 3.000000000000007d, 3.8928571428571423d, 2.1071428571428683d,
+			2.9999999999999964d, 3.892857142857153d, 2.1071428571428577d, 3.0000000000000036d, 3.8928571428571495d,
+			2.1071428571428648d, 3.000000000000007d, 3.8928571428571423d, 2.1071428571428577d, 3.0000000000000036d,
+			3.892857142857153d, 2.107142857142861d, 3.0000000000000036d, 3.8928571428571566d, 2.1071428571428648d,
+			3.0000000000000107d, 3.8928571428571423d, 2.107142857142854d, 0.3214285714285552d, -1.4642857142857508d};
+	private static final double[] SECOND_DERIVATIVE = new double[]{ // derivative 2, order 4, width 11
+			9.746503496503522d, 6.599650349650368d, 3.977272727272746d, 1.8793706293706238d, 0.3059440559440496d,
+			-0.7430069930070022d, 1.486013986013977d, -0.7430069930069987d, -0.7430069930069987d, 1.4860139860139752d,
+			-0.7430069930070005d, -0.743006993007004d, 1.4860139860139787d, -0.7430069930069916d, -0.7430069930070005d,
+			1.4860139860139778d, -0.7430069930069987d, -0.7430069930069969d, 1.4860139860139796d, -0.7430069930069916d,
+			-0.743006993007004d, 1.4860139860139778d, -0.7430069930069916d, -0.743006993007004d, 1.4860139860139796d,
+			-0.7430069930069987d, -0.7430069930070005d, 1.4860139860139778d, -0.7430069930069969d, -0.7430069930070005d,
+			1.486013986013976d, -0.7430069930070022d, -0.7430069930070058d, 1.4860139860139778d, -0.7430069930069969d,
+			-0.7430069930070005d, 1.486013986013976d, -0.7430069930069987d, -0.7430069930070058d, 1.4860139860139778d,
+			-0.7430069930069969d, -0.7430069930070111d, 1.4860139860139725d, -0.7430069930070058d, -0.7430069930070164d,
+			-1.2674825174825166d, -1.267482517482506d, -0.7430069930069578d, 0.30594405594411d, 1.8793706293706975d};
+	//
+	private double[] values;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		values = new double[50];
+		for(int i = 0; i < values.length; i++) {
+			values[i] = 100.0d + 3.0d * i + ((i % 3 == 0) ? 25.0d : 0.0d);
+		}
+	}
+
+	public void test1() {
+
+		SavitzkyGolayKernel kernel = SavitzkyGolayKernel.getKernel(0, 2, 7);
+		assertSame("Cached", kernel, SavitzkyGolayKernel.getKernel(0, 2, 7));
+	}
+
+	public void test2() {
+
+		SavitzkyGolayKernel kernel = SavitzkyGolayKernel.getKernel(0, 2, 6);
+		assertEquals("Width", 5, kernel.getWidth());
+		assertSame("Cached", kernel, SavitzkyGolayKernel.getKernel(0, 2, 5));
+	}
+
+	public void test3() {
+
+		SavitzkyGolayKernel kernel = SavitzkyGolayKernel.getKernel(7, 9, 3);
+		assertEquals("Width", 5, kernel.getWidth());
+		assertEquals("Order", 4, kernel.getOrder());
+		assertEquals("Derivative", 4, kernel.getDerivative());
+	}
+
+	public void test4() {
+
+		double[] linear = new double[20];
+		for(int i = 0; i < linear.length; i++) {
+			linear[i] = 10.0d + 2.0d * i;
+		}
+		double[] smoothed = SavitzkyGolayKernel.getKernel(0, 2, 5).apply(linear);
+		for(int i = 0; i < linear.length; i++) {
+			assertEquals("Value " + i, linear[i], smoothed[i], 1.0E-9d);
+		}
+	}
+
+	public void test5() {
+
+		double[] result = new double[values.length];
+		SavitzkyGolayKernel.getKernel(0, 3, 9).apply(values, result);
+		for(int i = 0; i < values.length; i++) {
+			assertEquals("Value " + i, SMOOTHED[i], result[i]);
+		}
+	}
+
+	public void test6() {
+
+		double[] result = new SavitzkyGolayProcessor().smooth(values, 1, 2, 7, new NullProgressMonitor());
+		for(int i = 0; i < values.length; i++) {
+			assertEquals("Value " + i, FIRST_DERIVATIVE[i], result[i]);
+		}
+	}
+
+	public void test7() {
+
+		double[] result = SavitzkyGolayKernel.getKernel(2, 4, 11).apply(values);
+		for(int i = 0; i < values.length; i++) {
+			assertEquals("Value " + i, SECOND_DERIVATIVE[i], result[i]);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.filter.supplier.savitzkygolay.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.chromatogram.filter.result.IChromatogramFilterResult;
+import org.eclipse.chemclipse.chromatogram.filter.result.ResultStatus;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.Ion;
+import org.eclipse.chemclipse.msd.model.implementation.VendorMassSpectrum;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * The weights of the kernel (derivative 0, order 2, width 5) are (-3, 12, 17, 12, -3) / 35.
+ */
+public class SavitzkyGolayProcessor_6_Test extends TestCase {
+
+	private IChromatogramMSD chromatogram;
+	private SavitzkyGolayProcessor processor;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		/*
+		 * m/z 50: linear trace
+		 * m/z 60: constant trace, split into two ions in scan 10
+		 * m/z 70: dip in the scans 9 - 11, contained in the scans 8 - 12 only
+		 * m/z 90: decreasing linear trace
+		 */
+		chromatogram = new ChromatogramMSD();
+		for(int scan = 1; scan <= 20; scan++) {
+			VendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+			massSpectrum.setRetentionTime(scan * 1000);
+			massSpectrum.addIon(new Ion(50.0d, 100.0f + 10.0f * scan), false);
+			if(scan == 10) {
+				massSpectrum.addIon(new Ion(60.0d, 100.0f), false);
+				massSpectrum.addIon(new Ion(60.0d, 300.0f), false);
+			} else {
+				massSpectrum.addIon(new Ion(60.0d, 200.0f), false);
+			}
+			if(scan == 8 || scan == 12) {
+				massSpectrum.addIon(new Ion(70.0d, 1000.0f), false);
+			} else if(scan >= 9 && scan <= 11) {
+				massSpectrum.addIon(new Ion(70.0d, 10.0f), false);
+			}
+			massSpectrum.addIon(new Ion(90.0d, 500.0f - 10.0f * scan), false);
+			chromatogram.addScan(massSpectrum);
+		}
+		processor = new SavitzkyGolayProcessor();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram = null;
+		processor = null;
+		super.tearDown();
+	}
+
+	public void testSmoothIons_1() throws Exception {
+
+		IChromatogramFilterResult result = processor.smoothIons(new ChromatogramSelectionMSD(chromatogram), 0, 2, 5, new NullProgressMonitor());
+		assertEquals("Result Status", ResultStatus.OK, result.getResultStatus());
+		for(int scan = 1; scan <= 20; scan++) {
+			assertEquals("Linear m/z 50 scan " + scan, 100.0f + 10.0f * scan, getAbundances(scan, 50.0d).get(0), 1.0E-3f);
+			assertEquals("Linear m/z 90 scan " + scan, 500.0f - 10.0f * scan, getAbundances(scan, 90.0d).get(0), 1.0E-3f);
+		}
+	}
+
+	public void testSmoothIons_2() throws Exception {
+
+		processor.smoothIons(new ChromatogramSelectionMSD(chromatogram), 0, 2, 5, new NullProgressMonitor());
+		/*
+		 * The smoothed trace value (-3 * 200 + 12 * 200 + 17 * 400 + 12 * 200 - 3 * 200) / 35
+		 * is split by the ratio of the ions.
+		 */
+		List<Float> abundances = getAbundances(10, 60.0d);
+		assertEquals("Ions m/z 60", 2, abundances.size());
+		assertEquals("Ion m/z 60 (1)", 10400.0f / 35.0f * 0.25f, abundances.get(0), 1.0E-3f);
+		assertEquals("Ion m/z 60 (2)", 10400.0f / 35.0f * 0.75f, abundances.get(1), 1.0E-3f);
+		/*
+		 * (-3 * 200 + 12 * 200 + 17 * 200 + 12 * 200 - 3 * 400) / 35
+		 */
+		assertEquals("Ion m/z 60 scan 8", 6400.0f / 35.0f, getAbundances(8, 60.0d).get(0), 1.0E-3f);
+	}
+
+	public void testSmoothIons_3() throws Exception {
+
+		processor.smoothIons(new ChromatogramSelectionMSD(chromatogram), 0, 2, 5, new NullProgressMonitor());
+		/*
+		 * (-3 * 1000 + 12 * 10 + 17 * 10 + 12 * 10 - 3 * 1000) / 35 < 0
+		 */
+		assertTrue("Removed m/z 70 scan 10", getAbundances(10, 70.0d).isEmpty());
+		assertEquals("Ion m/z 70 scan 9", 12260.0f / 35.0f, getAbundances(9, 70.0d).get(0), 1.0E-3f);
+		assertEquals("Ion m/z 70 scan 11", 12260.0f / 35.0f, getAbundances(11, 70.0d).get(0), 1.0E-3f);
+		assertTrue("Not added m/z 70 scan 7", getAbundances(7, 70.0d).isEmpty());
+		assertEquals("Ions scan 10", 4, chromatogram.getSupplierScan(10).getNumberOfIons());
+	}
+
+	public void testSmoothIons_4() throws Exception {
+
+		/*
+		 * The first derivative of the increasing trace is positive,
+		 * the derivative of the decreasing trace is negative, hence it's removed.
+		 */
+		IChromatogramFilterResult result = processor.smoothIons(new ChromatogramSelectionMSD(chromatogram), 1, 2, 5, new NullProgressMonitor());
+		assertEquals("Result Status", ResultStatus.OK, result.getResultStatus());
+		for(int scan = 1; scan <= 20; scan++) {
+			assertEquals("Derivative m/z 50 scan " + scan, 10.0f, getAbundances(scan, 50.0d).get(0), 1.0E-3f);
+			assertTrue("Removed m/z 90 scan " + scan, getAbundances(scan, 90.0d).isEmpty());
+		}
+	}
+
+	public void testSmoothIons_5() throws Exception {
+
+		IChromatogramFilterResult result = processor.smoothIons(new ChromatogramSelectionMSD(chromatogram), 0, 2, 51, new NullProgressMonitor());
+		assertEquals("Result Status", ResultStatus.EXCEPTION, result.getResultStatus());
+		assertEquals("Unchanged", 300.0f, getAbundances(10, 60.0d).get(1), 0.0f);
+	}
+
+	private List<Float> getAbundances(int scan, double mz) {
+
+		List<Float> abundances = new ArrayList<>();
+		IScanMSD massSpectrum = chromatogram.getSupplierScan(scan);
+		for(IIon ion : massSpectrum.getIons()) {
+			if(ion.getIon() == mz) {
+				abundances.add(ion.getAbundance());
+			}
+		}
+		return abundances;
+	}
+}
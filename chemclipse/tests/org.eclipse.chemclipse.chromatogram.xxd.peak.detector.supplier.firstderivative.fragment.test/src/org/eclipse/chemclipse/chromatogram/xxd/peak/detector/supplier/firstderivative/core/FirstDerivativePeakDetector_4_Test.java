@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.peak.detector.supplier.firstderivative.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.chromatogram.xxd.peak.detector.supplier.firstderivative.settings.PeakDetectorSettingsMSD;
+import org.eclipse.chemclipse.model.support.IRetentionTimeRange;
+import org.eclipse.chemclipse.model.support.NoiseSegment;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.IChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ScanIon;
+import org.eclipse.chemclipse.msd.model.implementation.VendorMassSpectrum;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * The ranges between the noise segments are evaluated without modifying the chromatogram selection.
+ */
+public class FirstDerivativePeakDetector_4_Test extends TestCase {
+
+	private IChromatogramSelectionMSD chromatogramSelection;
+	private List<NoiseSegment> noiseSegments;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		IChromatogramMSD chromatogram = new ChromatogramMSD();
+		chromatogram.setScanDelay(1000);
+		chromatogram.setScanInterval(1000);
+		for(int i = 1; i <= 100; i++) {
+			VendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+			massSpectrum.setRetentionTime(i * 1000);
+			massSpectrum.addIon(new ScanIon(43.0f, 1000.0f + (i % 7) * 10.0f));
+			chromatogram.addScan(massSpectrum);
+		}
+		chromatogramSelection = new ChromatogramSelectionMSD(chromatogram);
+		noiseSegments = new ArrayList<>();
+		noiseSegments.add(createNoiseSegment(10, 20));
+		noiseSegments.add(createNoiseSegment(50, 60));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogramSelection = null;
+		noiseSegments = null;
+		super.tearDown();
+	}
+
+	public void testGetRetentionTimeRanges_1() {
+
+		List<IRetentionTimeRange> ranges = PeakDetectorMSD.getRetentionTimeRanges(chromatogramSelection, noiseSegments);
+		assertEquals("Ranges", 3, ranges.size());
+		assertEquals("Start Retention Time", 1000, ranges.get(0).getStartRetentionTime());
+		assertEquals("Stop Retention Time", 10000, ranges.get(0).getStopRetentionTime());
+		assertEquals("Start Retention Time", 20000, ranges.get(1).getStartRetentionTime());
+		assertEquals("Stop Retention Time", 50000, ranges.get(1).getStopRetentionTime());
+		assertEquals("Start Retention Time", 60000, ranges.get(2).getStartRetentionTime());
+		assertEquals("Stop Retention Time", 100000, ranges.get(2).getStopRetentionTime());
+	}
+
+	public void testGetRetentionTimeRanges_2() {
+
+		List<IRetentionTimeRange> ranges = PeakDetectorMSD.getRetentionTimeRanges(chromatogramSelection, null);
+		assertEquals("Ranges", 1, ranges.size());
+		assertEquals("Start Retention Time", 1000, ranges.get(0).getStartRetentionTime());
+		assertEquals("Stop Retention Time", 100000, ranges.get(0).getStopRetentionTime());
+	}
+
+	public void testDetectPeaks_1() {
+
+		new PeakDetectorMSD().detectPeaks(chromatogramSelection, new PeakDetectorSettingsMSD(), noiseSegments, new NullProgressMonitor());
+		assertEquals("Start Retention Time", 1000, chromatogramSelection.getStartRetentionTime());
+		assertEquals("Stop Retention Time", 100000, chromatogramSelection.getStopRetentionTime());
+	}
+
+	private NoiseSegment createNoiseSegment(int startScan, int stopScan) {
+
+		return new NoiseSegment() {
+
+			@Override
+			public int getStartScan() {
+
+				return startScan;
+			}
+
+			@Override
+			public int getStopScan() {
+
+				return stopScan;
+			}
+
+			@Override
+			public int getStartRetentionTime() {
+
+				return startScan * 1000;
+			}
+
+			@Override
+			public int getStopRetentionTime() {
+
+				return stopScan * 1000;
+			}
+
+			@Override
+			public double getNoiseFactor() {
+
+				return 1.0d;
+			}
+		};
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.chromatogram.xxd.peak.detector.supplier.firstderivative.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.chemclipse.chromatogram.xxd.peak.detector.supplier.firstderivative.settings.PeakDetectorSettingsMSD;
+import org.eclipse.chemclipse.model.support.NoiseSegment;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramPeakMSD;
+import org.eclipse.chemclipse.msd.model.core.selection.ChromatogramSelectionMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ColumnarChromatogramMSD;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * The parallel detection yields the same peaks as the sequential detection.
+ * The scans are proxies, hence the ions are imported concurrently on demand.
+ */
+public class FirstDerivativePeakDetector_5_Test extends TestCase {
+
+	private static final double[] IONS = {43.0d, 57.0d, 71.0d, 91.0d};
+	private static final int SCANS = 400;
+	//
+	private PeakDetectorSettingsMSD peakDetectorSettings;
+	private List<NoiseSegment> noiseSegments;
+	private ColumnarChromatogramMSD chromatogramParallel;
+	private ColumnarChromatogramMSD chromatogramSequential;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		peakDetectorSettings = new PeakDetectorSettingsMSD();
+		peakDetectorSettings.setFilterIonsString("43 57 71 91");
+		peakDetectorSettings.setUseIndividualTraces(true);
+		peakDetectorSettings.setMinimumSignalToNoiseRatio(0.0f);
+		noiseSegments = new ArrayList<>();
+		noiseSegments.add(createNoiseSegment(90, 110));
+		noiseSegments.add(createNoiseSegment(240, 260));
+		chromatogramParallel = createChromatogram();
+		chromatogramSequential = createChromatogram();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogramParallel.close();
+		chromatogramSequential.close();
+		chromatogramParallel = null;
+		chromatogramSequential = null;
+		peakDetectorSettings = null;
+		noiseSegments = null;
+		super.tearDown();
+	}
+
+	public void testDetectPeaks_1() {
+
+		List<IChromatogramPeakMSD> peaksParallel = new PeakDetectorMSD().detectPeaks(new ChromatogramSelectionMSD(chromatogramParallel), peakDetectorSettings, new NullProgressMonitor());
+		List<IChromatogramPeakMSD> peaksSequential = new PeakDetectorMSD().setParallel(false).detectPeaks(new ChromatogramSelectionMSD(chromatogramSequential), peakDetectorSettings, new NullProgressMonitor());
+		assertPeaks(peaksSequential, peaksParallel);
+	}
+
+	public void testDetectPeaks_2() {
+
+		List<IChromatogramPeakMSD> peaksParallel = new PeakDetectorMSD().detectPeaks(new ChromatogramSelectionMSD(chromatogramParallel), peakDetectorSettings, noiseSegments, new NullProgressMonitor());
+		List<IChromatogramPeakMSD> peaksSequential = new PeakDetectorMSD().setParallel(false).detectPeaks(new ChromatogramSelectionMSD(chromatogramSequential), peakDetectorSettings, noiseSegments, new NullProgressMonitor());
+		assertPeaks(peaksSequential, peaksParallel);
+	}
+
+	private void assertPeaks(List<IChromatogramPeakMSD> expected, List<IChromatogramPeakMSD> actual) {
+
+		assertTrue("Peaks", expected.size() > 0);
+		assertEquals("Peaks", expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			IChromatogramPeakMSD peakExpected = expected.get(i);
+			IChromatogramPeakMSD peakActual = actual.get(i);
+			assertEquals("Start Retention Time", peakExpected.getPeakModel().getStartRetentionTime(), peakActual.getPeakModel().getStartRetentionTime());
+			assertEquals("Stop Retention Time", peakExpected.getPeakModel().getStopRetentionTime(), peakActual.getPeakModel().getStopRetentionTime());
+			assertEquals("Scan Max", peakExpected.getScanMax(), peakActual.getScanMax());
+			assertEquals("Signal To Noise Ratio", peakExpected.getSignalToNoiseRatio(), peakActual.getSignalToNoiseRatio());
+			assertEquals("Classifier", new ArrayList<>(peakExpected.getClassifier()), new ArrayList<>(peakActual.getClassifier()));
+		}
+	}
+
+	private ColumnarChromatogramMSD createChromatogram() throws Exception {
+
+		ColumnarChromatogramMSD chromatogram = new ColumnarChromatogramMSD();
+		chromatogram.setScanDelay(1000);
+		chromatogram.setScanInterval(1000);
+		Random random = new Random(42);
+		double[] mzs = new double[IONS.length];
+		float[] abundances = new float[IONS.length];
+		for(int scan = 1; scan <= SCANS; scan++) {
+			for(int i = 0; i < IONS.length; i++) {
+				double signal = 200.0d + random.nextDouble() * 50.0d;
+				for(int peak = 1; peak <= 5; peak++) {
+					/*
+					 * Each trace has shifted gaussian peaks.
+					 */
+					double center = peak * 70 + i * 5;
+					signal += 20000.0d * Math.exp(-Math.pow(scan - center, 2) / (2.0d * Math.pow(3.0d + i, 2)));
+				}
+				mzs[i] = IONS[i];
+				abundances[i] = (float)signal;
+			}
+			chromatogram.addScan(scan * 1000, mzs, abundances, IONS.length);
+		}
+		return chromatogram;
+	}
+
+	private NoiseSegment createNoiseSegment(int startScan, int stopScan) {
+
+		return new NoiseSegment() {
+
+			@Override
+			public int getStartScan() {
+
+				return startScan;
+			}
+
+			@Override
+			public int getStopScan() {
+
+				return stopScan;
+			}
+
+			@Override
+			public int getStartRetentionTime() {
+
+				return startScan * 1000;
+			}
+
+			@Override
+			public int getStopRetentionTime() {
+
+				return stopScan * 1000;
+			}
+
+			@Override
+			public double getNoiseFactor() {
+
+				return 1.0d;
+			}
+		};
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.converter.chromatogram;
+
+import java.io.File;
+
+import org.eclipse.chemclipse.model.core.IChromatogram;
+import org.eclipse.chemclipse.model.core.IPeak;
+import org.eclipse.chemclipse.processing.DataCategory;
+import org.eclipse.chemclipse.processing.core.IProcessingInfo;
+import org.eclipse.chemclipse.processing.core.IProcessingMessage;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * A file that no converter handles produces an error message.
+ */
+public class ChromatogramConverter_1_Test extends TestCase {
+
+	private static final String NO_CONVERTER = "There is no suitable converter available to load the chromatogram file";
+
+	private class ChromatogramConverter extends AbstractChromatogramConverter<IPeak, IChromatogram<IPeak>> {
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public ChromatogramConverter() {
+			super("", (Class)IChromatogram.class, DataCategory.MSD);
+		}
+
+		@Override
+		public IChromatogramConverterSupport getChromatogramConverterSupport() {
+
+			ChromatogramConverterSupport chromatogramConverterSupport = new ChromatogramConverterSupport(DataCategory.MSD);
+			ChromatogramSupplier supplier = new ChromatogramSupplier();
+			supplier.setId("org.eclipse.chemclipse.converter.test");
+			supplier.setFileExtension(".abc");
+			supplier.setImportable(true);
+			chromatogramConverterSupport.add(supplier);
+			return chromatogramConverterSupport;
+		}
+
+		@Override
+		public void postProcessChromatogram(IProcessingInfo<IChromatogram<IPeak>> processingInfo, IProgressMonitor monitor) {
+
+		}
+	}
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("Chromatogram", ".xyz");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void test1() {
+
+		assertNoConverter(new ChromatogramConverter().convert(file, new NullProgressMonitor()));
+	}
+
+	public void test2() {
+
+		assertNoConverter(new ChromatogramConverter().convertOverview(file, new NullProgressMonitor()));
+	}
+
+	private void assertNoConverter(IProcessingInfo<?> processingInfo) {
+
+		assertTrue("Error", processingInfo.hasErrorMessages());
+		assertNull("Result", processingInfo.getProcessingResult());
+		boolean noConverter = false;
+		for(IProcessingMessage processingMessage : processingInfo.getMessages()) {
+			noConverter |= processingMessage.getMessage().startsWith(NO_CONVERTER);
+		}
+		assertTrue("No Converter", noConverter);
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.converter.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * The verdicts are cached until the file is modified.
+ */
+public class MagicNumberCache_1_Test extends TestCase {
+
+	private class MagicNumberMatcher extends AbstractMagicNumberMatcher implements IMagicNumberMatcher {
+
+		private int checks = 0;
+		private String settingsKey = "";
+
+		@Override
+		public boolean checkFileFormat(File file) {
+
+			checks++;
+			return checkMagicCode(file, new byte[]{'C', 'C'});
+		}
+
+		@Override
+		public String getSettingsKey() {
+
+			return settingsKey;
+		}
+	}
+
+	private File file;
+	private File cache;
+	private MagicNumberMatcher magicNumberMatcher;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		MagicNumberCache.clear();
+		file = File.createTempFile("MagicNumberCache", ".bin");
+		cache = File.createTempFile("MagicNumberCache", ".txt");
+		write(file, new byte[]{'C', 'C', 1, 2, 3});
+		magicNumberMatcher = new MagicNumberMatcher();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		MagicNumberCache.clear();
+		file.delete();
+		cache.delete();
+		super.tearDown();
+	}
+
+	public void test1() {
+
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		assertEquals("Checks", 1, magicNumberMatcher.checks);
+	}
+
+	public void test2() throws IOException {
+
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		write(file, new byte[]{'X', 'C'});
+		file.setLastModified(file.lastModified() + 2000);
+		assertFalse("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		assertEquals("Checks", 2, magicNumberMatcher.checks);
+	}
+
+	public void test3() {
+
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		magicNumberMatcher.settingsKey = "true";
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		assertEquals("Checks", 2, magicNumberMatcher.checks);
+	}
+
+	public void test4() {
+
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		MagicNumberCache.save(cache);
+		MagicNumberCache.clear();
+		MagicNumberCache.load(cache);
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		assertEquals("Checks", 1, magicNumberMatcher.checks);
+	}
+
+	public void test5() {
+
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		MagicNumberCache.refresh(file);
+		assertTrue("Match", MagicNumberCache.checkFileFormat(file, magicNumberMatcher));
+		assertEquals("Checks", 2, magicNumberMatcher.checks);
+	}
+
+	public void test6() throws IOException {
+
+		assertEquals("Header", 2, MagicNumberCache.getHeader(file, 2).length);
+		assertEquals("Header", 5, MagicNumberCache.getHeader(file, 10).length);
+		assertEquals("Header", 3, MagicNumberCache.getHeader(file, 10)[4]);
+	}
+
+	public void test7() {
+
+		/*
+		 * Directories are checked each time.
+		 */
+		File directory = file.getParentFile();
+		assertFalse("Match", MagicNumberCache.checkFileFormat(directory, magicNumberMatcher));
+		assertFalse("Match", MagicNumberCache.checkFileFormat(directory, magicNumberMatcher));
+		assertEquals("Checks", 2, magicNumberMatcher.checks);
+	}
+
+	private void write(File file, byte[] data) throws IOException {
+
+		try(FileOutputStream outputStream = new FileOutputStream(file)) {
+			outputStream.write(data);
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.converter.io.support;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * The mapped reader returns the same values as the array reader.
+ */
+public class MappedArrayReader_1_Test extends TestCase {
+
+	private File file;
+	private ArrayReaderTestImplementation arrayReader;
+	private MappedArrayReaderTestImplementation mappedReader;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		byte[] data = new byte[256];
+		for(int i = 0; i < data.length; i++) {
+			data[i] = (byte)(i * 37 + 11);
+		}
+		file = File.createTempFile("MappedArrayReader", ".bin");
+		try(FileOutputStream outputStream = new FileOutputStream(file)) {
+			outputStream.write(data);
+		}
+		arrayReader = new ArrayReaderTestImplementation(data);
+		mappedReader = new MappedArrayReaderTestImplementation(file);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		mappedReader.close();
+		file.delete();
+		super.tearDown();
+	}
+
+	public void test1() {
+
+		assertEquals("Length", arrayReader.getLength(), mappedReader.getLength());
+		assertEquals("Size", 256L, mappedReader.getSize());
+	}
+
+	public void test2() {
+
+		assertEquals("read1BUShortLE", arrayReader.read1BUShortLE(), mappedReader.read1BUShortLE());
+		assertEquals("read2BUIntegerLE", arrayReader.read2BUIntegerLE(), mappedReader.read2BUIntegerLE());
+		assertEquals("read4BULongLE", arrayReader.read4BULongLE(), mappedReader.read4BULongLE());
+		assertEquals("read8BULongLE", arrayReader.read8BULongLE(), mappedReader.read8BULongLE());
+		assertEquals("read2BShortLE", arrayReader.read2BShortLE(), mappedReader.read2BShortLE());
+		assertEquals("read4BIntegerLE", arrayReader.read4BIntegerLE(), mappedReader.read4BIntegerLE());
+		assertEquals("read8BLongLE", arrayReader.read8BLongLE(), mappedReader.read8BLongLE());
+		assertEquals("read4BFloatLE", arrayReader.read4BFloatLE(), mappedReader.read4BFloatLE());
+		assertEquals("read8BDoubleLE", arrayReader.read8BDoubleLE(), mappedReader.read8BDoubleLE());
+		assertEquals("readLongLE", arrayReader.readLongLE(3), mappedReader.readLongLE(3));
+		assertEquals("Position", arrayReader.getPosition(), mappedReader.getPosition());
+	}
+
+	public void test3() {
+
+		assertEquals("read1BUShortBE", arrayReader.read1BUShortBE(), mappedReader.read1BUShortBE());
+		assertEquals("read2BUIntegerBE", arrayReader.read2BUIntegerBE(), mappedReader.read2BUIntegerBE());
+		assertEquals("read4BULongBE", arrayReader.read4BULongBE(), mappedReader.read4BULongBE());
+		assertEquals("read8BULongBE", arrayReader.read8BULongBE(), mappedReader.read8BULongBE());
+		assertEquals("read2BShortBE", arrayReader.read2BShortBE(), mappedReader.read2BShortBE());
+		assertEquals("read4BIntegerBE", arrayReader.read4BIntegerBE(), mappedReader.read4BIntegerBE());
+		assertEquals("read8BLongBE", arrayReader.read8BLongBE(), mappedReader.read8BLongBE());
+		assertEquals("read4BFloatBE", arrayReader.read4BFloatBE(), mappedReader.read4BFloatBE());
+		assertEquals("read8BDoubleBE", arrayReader.read8BDoubleBE(), mappedReader.read8BDoubleBE());
+		assertEquals("readLongBE", arrayReader.readLongBE(5), mappedReader.readLongBE(5));
+		assertEquals("Position", arrayReader.getPosition(), mappedReader.getPosition());
+	}
+
+	public void test4() {
+
+		assertEquals("read4BUIntegerME", arrayReader.read4BUIntegerME(), mappedReader.read4BUIntegerME());
+		assertEquals("read4BULongME", arrayReader.read4BULongME(), mappedReader.read4BULongME());
+		arrayReader.seek(10);
+		mappedReader.seek(10);
+		assertEquals("readString", arrayReader.readString(12), mappedReader.readString(12));
+		/*
+		 * Length index 57
+		 */
+		assertEquals("readBytesAsStringWithLengthIndex", arrayReader.readBytesAsStringWithLengthIndex(60), mappedReader.readBytesAsStringWithLengthIndex(60));
+	}
+
+	public void test5() {
+
+		arrayReader.skipBytes(3);
+		mappedReader.skipBytes(3);
+		float[] expected = new float[20];
+		float[] values = new float[20];
+		for(int i = 0; i < expected.length; i++) {
+			expected[i] = arrayReader.read4BFloatLE();
+		}
+		mappedReader.read4BFloatsLE(values);
+		for(int i = 0; i < expected.length; i++) {
+			assertEquals("Value " + i, expected[i], values[i]);
+		}
+		assertEquals("Position", arrayReader.getPosition(), mappedReader.getPosition());
+	}
+
+	public void test6() {
+
+		int[] expected = new int[30];
+		int[] values = new int[30];
+		int[] bulk = new int[30];
+		for(int i = 0; i < expected.length; i++) {
+			expected[i] = arrayReader.read4BIntegerBE();
+		}
+		arrayReader.resetPosition();
+		arrayReader.read4BIntegersBE(bulk);
+		mappedReader.read4BIntegersBE(values);
+		for(int i = 0; i < expected.length; i++) {
+			assertEquals("Value " + i, expected[i], values[i]);
+			assertEquals("Value " + i, expected[i], bulk[i]);
+		}
+	}
+
+	public void test7() {
+
+		double[] expected = new double[10];
+		double[] values = new double[10];
+		for(int i = 0; i < expected.length; i++) {
+			expected[i] = arrayReader.read8BDoubleLE();
+		}
+		mappedReader.read8BDoublesLE(values);
+		for(int i = 0; i < expected.length; i++) {
+			assertEquals("Value " + i, expected[i], values[i]);
+		}
+	}
+
+	public void test8() {
+
+		mappedReader.seek(250L);
+		try {
+			mappedReader.read8BLongLE();
+			fail();
+		} catch(IndexOutOfBoundsException e) {
+			assertEquals("Position", 250L, mappedReader.getOffset());
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.core;
+
+import java.io.Closeable;
+
+import org.eclipse.chemclipse.model.implementation.Chromatogram;
+
+import junit.framework.TestCase;
+
+public class ChromatogramCache_1_Test extends TestCase {
+
+	private IChromatogram<?> chromatogram;
+	private int calculations;
+	private int closed;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		chromatogram = new Chromatogram();
+		calculations = 0;
+		closed = 0;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram.dispose();
+		chromatogram = null;
+		super.tearDown();
+	}
+
+	public void testGetValue_1() {
+
+		assertEquals("Value", "A", ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A")));
+		assertEquals("Value", "A", ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A")));
+		assertEquals("Calculations", 1, calculations);
+	}
+
+	public void testGetValue_2() {
+
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		chromatogram.setDirty(true);
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		assertEquals("Calculations", 2, calculations);
+	}
+
+	public void testGetValue_3() {
+
+		IChromatogram<?> other = new Chromatogram();
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		assertEquals("Value", "B", ChromatogramCache.getValue(other, "Test#A", c -> calculate("B")));
+		assertEquals("Value", "A", ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A")));
+		assertEquals("Calculations", 2, calculations);
+		other.dispose();
+	}
+
+	public void testClear_1() {
+
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		ChromatogramCache.getValue(chromatogram, "Other#A", c -> calculate("A"));
+		ChromatogramCache.clear(chromatogram, "Test#");
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		ChromatogramCache.getValue(chromatogram, "Other#A", c -> calculate("A"));
+		assertEquals("Calculations", 3, calculations);
+	}
+
+	public void testDispose_1() {
+
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		ChromatogramCache.addResource(chromatogram, createResource());
+		ChromatogramCache.addResource(chromatogram, createResource());
+		chromatogram.dispose();
+		assertEquals("Closed", 2, closed);
+		ChromatogramCache.getValue(chromatogram, "Test#A", c -> calculate("A"));
+		assertEquals("Calculations", 2, calculations);
+		chromatogram.dispose();
+		assertEquals("Closed", 2, closed);
+	}
+
+	public void testDispose_2() {
+
+		Closeable resource = createResource();
+		ChromatogramCache.addResource(chromatogram, resource);
+		ChromatogramCache.removeResource(chromatogram, resource);
+		chromatogram.dispose();
+		assertEquals("Closed", 0, closed);
+	}
+
+	private String calculate(String value) {
+
+		calculations++;
+		return value;
+	}
+
+	private Closeable createResource() {
+
+		return new Closeable() {
+
+			@Override
+			public void close() {
+
+				closed++;
+			}
+		};
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.core;
+
+import org.eclipse.chemclipse.model.support.IScanRange;
+
+import junit.framework.TestCase;
+
+public class RetentionTimeIndex_1_Test extends TestCase {
+
+	private RetentionTimeIndex index;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		index = new RetentionTimeIndex(new int[]{1000, 2000, 2000, 3000, 4000}, new int[]{1, 1, 2, 2, 3});
+	}
+
+	public void testSize_1() {
+
+		assertEquals("Size", 5, index.size());
+		assertTrue("Sorted", index.isRetentionTimesSorted());
+		assertTrue("Scan Cycles", index.containsScanCycles());
+	}
+
+	public void testGetScanNumber_1() {
+
+		assertEquals("Scan", 0, index.getScanNumber(999));
+		assertEquals("Scan", 1, index.getScanNumber(1000));
+		assertEquals("Scan", 1, index.getScanNumber(1999));
+		assertEquals("Scan", 3, index.getScanNumber(2000));
+		assertEquals("Scan", 4, index.getScanNumber(3999));
+		assertEquals("Scan", 0, index.getScanNumber(4000));
+	}
+
+	public void testGetScanNumber_2() {
+
+		/*
+		 * Not sorted, the first scan with a greater retention time is used.
+		 */
+		RetentionTimeIndex unsorted = new RetentionTimeIndex(new int[]{1000, 3000, 2000, 4000}, new int[]{1, 1, 1, 1});
+		assertFalse("Sorted", unsorted.isRetentionTimesSorted());
+		assertFalse("Scan Cycles", unsorted.containsScanCycles());
+		assertEquals("Scan", 1, unsorted.getScanNumber(2500));
+		assertEquals("Scan", 3, unsorted.getScanNumber(3000));
+	}
+
+	public void testGetScanRange_1() {
+
+		IScanRange scanRange = index.getScanRange(1500, 3000);
+		assertEquals("Start Scan", 2, scanRange.getStartScan());
+		assertEquals("Stop Scan", 4, scanRange.getStopScan());
+	}
+
+	public void testGetScanRange_2() {
+
+		IScanRange scanRange = index.getScanRange(0, 10000);
+		assertEquals("Start Scan", 1, scanRange.getStartScan());
+		assertEquals("Stop Scan", 5, scanRange.getStopScan());
+	}
+
+	public void testGetScanRange_3() {
+
+		assertNull("Scan Range", index.getScanRange(2100, 2900));
+		assertNull("Scan Range", index.getScanRange(4100, 5000));
+		assertNull("Scan Range", index.getScanRange(3000, 2000));
+	}
+
+	public void testGetScanCycleRange_1() {
+
+		IScanRange scanRange = index.getScanCycleRange(2);
+		assertEquals("Start Scan", 3, scanRange.getStartScan());
+		assertEquals("Stop Scan", 4, scanRange.getStopScan());
+		assertNull("Scan Range", index.getScanCycleRange(4));
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.versioning;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.model.core.IScan;
+import org.eclipse.chemclipse.model.implementation.Scan;
+
+import junit.framework.TestCase;
+
+public class ScanRevisionStore_1_Test extends TestCase {
+
+	private File directory;
+	private ScanRevisionStore scanRevisionStore;
+	private List<Scan> scans;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		directory = Files.createTempDirectory("ScanRevisionStore").toFile();
+		scanRevisionStore = new ScanRevisionStore(directory);
+		scans = new ArrayList<>();
+		for(int i = 1; i <= 3; i++) {
+			Scan scan = new Scan(i * 100.0f);
+			scan.setRetentionTime(i * 1000);
+			scans.add(scan);
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		scanRevisionStore.clear();
+		scanRevisionStore.flush();
+		for(File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+		super.tearDown();
+	}
+
+	public void testRead_1() throws Exception {
+
+		scanRevisionStore.write(0, scans);
+		List<IScan> revision = scanRevisionStore.read(0);
+		assertEquals("Scans", 3, revision.size());
+		for(int i = 0; i < 3; i++) {
+			assertEquals("Retention Time", scans.get(i).getRetentionTime(), revision.get(i).getRetentionTime());
+			assertEquals("Total Signal", scans.get(i).getTotalSignal(), revision.get(i).getTotalSignal());
+		}
+	}
+
+	public void testRead_2() throws Exception {
+
+		scanRevisionStore.write(0, scans);
+		scans.get(1).adjustTotalSignal(500.0f);
+		scanRevisionStore.write(1, scans);
+		assertEquals("Stored Scans", 4, scanRevisionStore.getNumberOfStoredScans());
+		assertEquals("Revision 0", 200.0f, scanRevisionStore.read(0).get(1).getTotalSignal());
+		assertEquals("Revision 1", 500.0f, scanRevisionStore.read(1).get(1).getTotalSignal());
+	}
+
+	public void testRead_3() throws Exception {
+
+		scanRevisionStore.write(0, scans);
+		scanRevisionStore.flush();
+		assertEquals("Pack Files", 1, directory.listFiles().length);
+		List<IScan> revision = scanRevisionStore.read(0);
+		assertEquals("Total Signal", 300.0f, revision.get(2).getTotalSignal());
+	}
+
+	public void testRead_4() throws Exception {
+
+		ScanRevisionStore uncompressedStore = new ScanRevisionStore(directory, false);
+		uncompressedStore.write(0, scans);
+		uncompressedStore.flush();
+		assertEquals("Total Signal", 100.0f, uncompressedStore.read(0).get(0).getTotalSignal());
+		uncompressedStore.clear();
+		uncompressedStore.flush();
+	}
+
+	public void testRemoveNewer_1() throws Exception {
+
+		scanRevisionStore.write(0, scans);
+		scans.get(0).adjustTotalSignal(50.0f);
+		scanRevisionStore.write(1, scans);
+		scanRevisionStore.removeNewer(0);
+		assertTrue("Revision 0", scanRevisionStore.contains(0));
+		assertFalse("Revision 1", scanRevisionStore.contains(1));
+		assertEquals("Stored Scans", 3, scanRevisionStore.getNumberOfStoredScans());
+	}
+
+	public void testClear_1() throws Exception {
+
+		scanRevisionStore.write(0, scans);
+		scans.get(2).adjustTotalSignal(50.0f);
+		scanRevisionStore.write(1, scans);
+		scanRevisionStore.flush();
+		assertEquals("Pack Files", 2, directory.listFiles().length);
+		scanRevisionStore.clear();
+		scanRevisionStore.flush();
+		assertEquals("Pack Files", 0, directory.listFiles().length);
+		assertEquals("Stored Scans", 0, scanRevisionStore.getNumberOfStoredScans());
+	}
+
+	public void testDispose_1() throws Exception {
+
+		scanRevisionStore.write(0, scans);
+		scanRevisionStore.flush();
+		assertEquals("Pack Files", 1, directory.listFiles().length);
+		scanRevisionStore.dispose();
+		scanRevisionStore.flush();
+		assertEquals("Pack Files", 0, directory.listFiles().length);
+		assertFalse("Revision 0", scanRevisionStore.contains(0));
+		try {
+			scanRevisionStore.write(1, scans);
+			fail("Disposed");
+		} catch(IOException e) {
+			// The store has been disposed.
+		}
+	}
+
+	public void testReplace_1() throws Exception {
+
+		scanRevisionStore.write(1, scans);
+		scans.get(0).adjustTotalSignal(50.0f);
+		scans.get(1).adjustTotalSignal(50.0f);
+		scans.get(2).adjustTotalSignal(50.0f);
+		scanRevisionStore.write(1, scans);
+		scanRevisionStore.flush();
+		assertEquals("Stored Scans", 3, scanRevisionStore.getNumberOfStoredScans());
+		assertEquals("Pack Files", 1, directory.listFiles().length);
+		assertEquals("Total Signal", 50.0f, scanRevisionStore.read(1).get(0).getTotalSignal());
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.model.versioning;
+
+import junit.framework.TestCase;
+
+/**
+ * A disposed version management doesn't create a new scan revision store.
+ */
+public class VersionManagement_7_Test extends TestCase {
+
+	private IVersionManagement versionManagement;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		versionManagement = new VersionManagement();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		versionManagement.dispose();
+		versionManagement = null;
+		super.tearDown();
+	}
+
+	public void testDispose_1() {
+
+		assertNotNull("scanRevisionStore", versionManagement.getScanRevisionStore());
+		versionManagement.dispose();
+		assertNull("scanRevisionStore", versionManagement.getScanRevisionStore());
+	}
+
+	public void testDispose_2() {
+
+		versionManagement.dispose();
+		versionManagement.dispose();
+		assertNull("scanRevisionStore", versionManagement.getScanRevisionStore());
+	}
+}
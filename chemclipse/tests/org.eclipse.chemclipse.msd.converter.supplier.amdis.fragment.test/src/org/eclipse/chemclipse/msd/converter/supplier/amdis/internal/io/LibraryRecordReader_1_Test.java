@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class LibraryRecordReader_1_Test extends TestCase {
+
+	private static final LibraryKeys KEYS = new LibraryKeys("NAME:");
+	//
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("LibraryRecordReader", ".msl");
+		String content = "NAME: A\r\nNum Peaks: 1\r\n1 10\r\n\r\n\r\nNAME: B\rNum Peaks: 1\r2 20\r\r \nNAME: C\nNum Peaks: 1\n3 30";
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void test1() throws Exception {
+
+		assertRecords(LibraryRecordReader.read(file));
+	}
+
+	public void test2() throws Exception {
+
+		/*
+		 * Records and line terminators span several windows.
+		 */
+		for(int windowSize = 1; windowSize < 64; windowSize++) {
+			assertRecords(LibraryRecordReader.read(file, windowSize));
+		}
+	}
+
+	public void test3() throws Exception {
+
+		Files.write(file.toPath(), new byte[0]);
+		assertEquals("Records", 0, LibraryRecordReader.read(file).size());
+	}
+
+	private void assertRecords(List<LibraryRecord> records) {
+
+		assertEquals("Records", 3, records.size());
+		assertEquals("Name", "A", getName(records.get(0)));
+		assertEquals("Name", "B", getName(records.get(1)));
+		assertEquals("Name", "C", getName(records.get(2)));
+	}
+
+	private String getName(LibraryRecord record) {
+
+		record.match(KEYS);
+		return record.getValue("NAME:");
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.amdis.internal.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class LibraryRecord_1_Test extends TestCase {
+
+	private static final LibraryKeys KEYS = new LibraryKeys("NAME:", "CASNO:", "CAS#:", "CAS:", "Synon:", "RT:", "RRT:", "Num Peaks:");
+
+	public void testGetValue_1() {
+
+		LibraryRecord record = create("name: Hexane (rt: 10.5 min)\nRRT: 2\nCAS#: 110-54-3\nNum Peaks: 2\n");
+		assertEquals("Name", "Hexane (rt: 10.5 min)", record.getValue("NAME:"));
+		assertEquals("CAS", "110-54-3", record.getValue("CASNO:", "CAS#:", "CAS:"));
+		assertEquals("RT", "10.5 min)", record.getValue("RT:"));
+		assertEquals("RRT", "2", record.getValue("RRT:"));
+	}
+
+	public void testGetValue_2() {
+
+		LibraryRecord record = create("NAME: Hexane\n");
+		assertEquals("CAS", "", record.getValue("CAS:"));
+	}
+
+	public void testGetValues_1() {
+
+		LibraryRecord record = create("Synon: A\nSYNON: B Synon: C\nsynon: A\n");
+		Set<String> synonyms = record.getValues("Synon:");
+		assertEquals("Size", 2, synonyms.size());
+		assertTrue("A", synonyms.contains("A"));
+		assertTrue("B", synonyms.contains("B Synon: C"));
+	}
+
+	public void testGetNumberAfterSpace_1() {
+
+		LibraryRecord record = create("CAS:x\nCASNO:  110-54-3 Hexane\n");
+		assertEquals("CAS", "110-54-3", record.getNumberAfterSpace("CASNO:", "CAS#:", "CAS:"));
+	}
+
+	public void testGetNumberWithUnit_1() {
+
+		LibraryRecord record = create("NAME: Hexane (rt: x) (RT:\n1.5e1 MIN)\n");
+		assertEquals("RT", "1.5e1", record.getNumberWithUnit("RT:", "min"));
+		assertNull("RT", create("NAME: Hexane (rt: 1.5 s)").getNumberWithUnit("RT:", "min"));
+	}
+
+	public void testGetPairs_1() {
+
+		LibraryRecord record = create("NAME: 1 2\nNum Peaks: 3\n(10 100) (+11 -5) (12.5\t1.2E3)\n");
+		List<String> pairs = new ArrayList<>();
+		record.getPairs(record.getDataPosition("Num Peaks:"), true, (first, second) -> pairs.add(first + "/" + second));
+		assertEquals("Pairs", "[10/100, +11/-5, 12.5/1.2E3]", pairs.toString());
+	}
+
+	public void testGetPairs_2() {
+
+		LibraryRecord record = create("Num Peaks: 2\n10,100;11:\n200\n");
+		List<String> pairs = new ArrayList<>();
+		record.getPairs(record.getDataPosition("Num Peaks:"), false, (first, second) -> pairs.add(first + "/" + second));
+		assertEquals("Pairs", "[10/100]", pairs.toString());
+	}
+
+	public void testSplit_1() {
+
+		LibraryRecord record = create("NAME: A\nNum Peaks: 1\n1 1\nname: B\nNum Peaks: 1\n2 2\n");
+		List<LibraryRecord> records = record.split("NAME:", "name:");
+		assertEquals("Records", 2, records.size());
+		records.get(0).match(KEYS);
+		records.get(1).match(KEYS);
+		assertEquals("Name", "A", records.get(0).getValue("NAME:"));
+		assertEquals("Name", "B", records.get(1).getValue("NAME:"));
+	}
+
+	public void testSplit_2() {
+
+		LibraryRecord record = create("Name: A\nNum Peaks: 1\n1 1\n");
+		List<LibraryRecord> records = record.split("NAME:", "name:");
+		assertEquals("Records", 1, records.size());
+		assertSame("Record", record, records.get(0));
+	}
+
+	private LibraryRecord create(String content) {
+
+		byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+		LibraryRecord record = new LibraryRecord(ByteBuffer.wrap(bytes), 0, bytes.length);
+		record.match(KEYS);
+		return record;
+	}
+}
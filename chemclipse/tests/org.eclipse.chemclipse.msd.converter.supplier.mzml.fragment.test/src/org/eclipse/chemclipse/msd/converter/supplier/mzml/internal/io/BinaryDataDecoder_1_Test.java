@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import junit.framework.TestCase;
+
+public class BinaryDataDecoder_1_Test extends TestCase {
+
+	public void testDecode_1() throws Exception {
+
+		double[] values = BinaryDataDecoder.decode("AADAPwAAAMA=", BinaryDataDecoder.PRECISION_32, false, false, BinaryDataDecoder.NUMPRESS_NONE, 2);
+		assertEquals("length", 2, values.length);
+		assertEquals("value", 1.5d, values[0]);
+		assertEquals("value", -2.0d, values[1]);
+	}
+
+	public void testDecode_2() throws Exception {
+
+		double[] values = BinaryDataDecoder.decode("eJxjYACBH/ZgioHFAQAMPwF8", BinaryDataDecoder.PRECISION_64, false, true, BinaryDataDecoder.NUMPRESS_NONE, 0);
+		assertEquals("length", 2, values.length);
+		assertEquals("value", 1.5d, values[0]);
+		assertEquals("value", 2.5d, values[1]);
+	}
+
+	public void testDecode_3() throws Exception {
+
+		double[] values = BinaryDataDecoder.decode("BwAAAP3///8=", BinaryDataDecoder.PRECISION_32, true, false, BinaryDataDecoder.NUMPRESS_NONE, 2);
+		assertEquals("length", 2, values.length);
+		assertEquals("value", 7.0d, values[0]);
+		assertEquals("value", -3.0d, values[1]);
+	}
+
+	public void testDecode_4() throws Exception {
+
+		double[] values = BinaryDataDecoder.decode("QPhqAAAAAACAlpgA0FmZAEihYkVQLg==", BinaryDataDecoder.PRECISION_64, false, false, BinaryDataDecoder.NUMPRESS_LINEAR, 4);
+		assertEquals("length", 4, values.length);
+		assertEquals("value", 100.0d, values[0], 1.0E-5d);
+		assertEquals("value", 100.5d, values[1], 1.0E-5d);
+		assertEquals("value", 101.25d, values[2], 1.0E-5d);
+		assertEquals("value", 250.125d, values[3], 1.0E-5d);
+	}
+
+	public void testDecode_5() throws Exception {
+
+		double[] values = BinaryDataDecoder.decode("hxf2/0//8A==", BinaryDataDecoder.PRECISION_64, false, false, BinaryDataDecoder.NUMPRESS_PIC, 5);
+		assertEquals("length", 5, values.length);
+		assertEquals("value", 0.0d, values[0]);
+		assertEquals("value", 1.0d, values[1]);
+		assertEquals("value", 15.0d, values[2]);
+		assertEquals("value", 255.0d, values[3]);
+		assertEquals("value", 65535.0d, values[4]);
+	}
+
+	public void testDecode_6() throws Exception {
+
+		double[] values = BinaryDataDecoder.decode("QLOIAAAAAAAAANUu8IY=", BinaryDataDecoder.PRECISION_64, false, false, BinaryDataDecoder.NUMPRESS_SLOF, 3);
+		assertEquals("length", 3, values.length);
+		assertEquals("value", 0.0d, values[0], 0.01d);
+		assertEquals("value", 10.0d, values[1], 0.01d);
+		assertEquals("value", 1000.0d, values[2], 0.1d);
+	}
+
+	public void testDecode_7() throws Exception {
+
+		assertEquals("length", 0, BinaryDataDecoder.decode("", BinaryDataDecoder.PRECISION_32, false, true, BinaryDataDecoder.NUMPRESS_NONE, 0).length);
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import javax.xml.stream.XMLInputFactory;
+
+import junit.framework.TestCase;
+
+public class SpectrumIndex_1_Test extends TestCase {
+
+	private File file;
+	private XMLInputFactory inputFactory;
+	private long[] offsets;
+	private int indexListOffset;
+	private String content;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("SpectrumIndex", ".mzML");
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		//
+		StringBuilder builder = new StringBuilder();
+		builder.append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<indexedmzML>\n<mzML>\n<run>\n<spectrumList count=\"3\">\n");
+		offsets = new long[3];
+		for(int i = 0; i < offsets.length; i++) {
+			offsets[i] = builder.length();
+			builder.append("<spectrum index=\"" + i + "\" id=\"scan=" + (i + 1) + "\" defaultArrayLength=\"0\">\n</spectrum>\n");
+		}
+		builder.append("</spectrumList>\n</run>\n</mzML>\n");
+		indexListOffset = builder.length();
+		builder.append("<indexList count=\"1\">\n<index name=\"spectrum\">\n");
+		for(int i = 0; i < offsets.length; i++) {
+			builder.append("<offset idRef=\"scan=" + (i + 1) + "\">" + offsets[i] + "</offset>\n");
+		}
+		builder.append("</index>\n</indexList>\n<indexListOffset>" + indexListOffset + "</indexListOffset>\n</indexedmzML>\n");
+		content = builder.toString();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testRead_1() throws Exception {
+
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumIndex spectrumIndex = SpectrumIndex.read(fileChannel, inputFactory);
+			assertTrue("indexed", spectrumIndex.isIndexed());
+			assertEquals("size", 3, spectrumIndex.size());
+			for(int i = 0; i < offsets.length; i++) {
+				assertEquals("offset", offsets[i], spectrumIndex.getOffset(i));
+			}
+		}
+	}
+
+	public void testRead_2() throws Exception {
+
+		/*
+		 * Without index, the offsets are located by scanning the file.
+		 */
+		Files.write(file.toPath(), content.substring(0, indexListOffset).getBytes(StandardCharsets.ISO_8859_1));
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumIndex spectrumIndex = SpectrumIndex.read(fileChannel, inputFactory);
+			assertFalse("indexed", spectrumIndex.isIndexed());
+			assertEquals("size", 3, spectrumIndex.size());
+			for(int i = 0; i < offsets.length; i++) {
+				assertEquals("offset", offsets[i], spectrumIndex.getOffset(i));
+			}
+		}
+	}
+
+	public void testRead_3() throws Exception {
+
+		/*
+		 * The index offsets are wrong, e.g. after changing the line endings.
+		 */
+		Files.write(file.toPath(), content.replace("\n", "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			SpectrumIndex spectrumIndex = SpectrumIndex.read(fileChannel, inputFactory);
+			assertFalse("indexed", spectrumIndex.isIndexed());
+			assertEquals("size", 3, spectrumIndex.size());
+			assertEquals("offset", offsets[0] + 5, spectrumIndex.getOffset(0));
+		}
+	}
+}
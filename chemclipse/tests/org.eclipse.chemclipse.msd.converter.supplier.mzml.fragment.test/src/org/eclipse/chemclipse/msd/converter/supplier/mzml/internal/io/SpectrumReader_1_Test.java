@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.converter.model.IVendorScan;
+import org.eclipse.chemclipse.msd.converter.supplier.mzml.internal.io.ReferenceableParamGroups.CvParam;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * The ms level and the binary data array parameters are defined
+ * in the referenceableParamGroupList only.
+ */
+public class SpectrumReader_1_Test extends TestCase {
+
+	private static final String MZ_VALUES = "AAAAAACARUAAAAAAAIBMQAAAAAAAwFZA"; // 43.0, 57.0, 91.0 (64 bit)
+	private static final String INTENSITY_VALUES = "eJxjYDjhxNBQ5czAUOUCABMRAwY="; // 100.0, 250.5, 1000.0 (32 bit, zlib)
+	//
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("SpectrumReader", ".mzML");
+		StringBuilder builder = new StringBuilder();
+		builder.append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<mzML>\n");
+		builder.append("<referenceableParamGroupList count=\"3\">\n");
+		builder.append("<referenceableParamGroup id=\"CommonSpectrumParams\">\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000511\" name=\"ms level\" value=\"2\"/>\n");
+		builder.append("</referenceableParamGroup>\n");
+		builder.append("<referenceableParamGroup id=\"MzArrayParams\">\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000514\" name=\"m/z array\"/>\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000523\" name=\"64-bit float\"/>\n");
+		builder.append("</referenceableParamGroup>\n");
+		builder.append("<referenceableParamGroup id=\"IntensityArrayParams\">\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000515\" name=\"intensity array\"/>\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000521\" name=\"32-bit float\"/>\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000574\" name=\"zlib compression\"/>\n");
+		builder.append("</referenceableParamGroup>\n");
+		builder.append("</referenceableParamGroupList>\n");
+		builder.append("<run>\n<spectrumList count=\"1\">\n");
+		builder.append("<spectrum index=\"0\" id=\"scan=1\" defaultArrayLength=\"3\">\n");
+		builder.append("<referenceableParamGroupRef ref=\"CommonSpectrumParams\"/>\n");
+		builder.append("<scanList count=\"1\">\n<scan>\n");
+		builder.append("<cvParam cvRef=\"MS\" accession=\"MS:1000016\" name=\"scan start time\" value=\"1.5\" unitCvRef=\"UO\" unitAccession=\"UO:0000031\" unitName=\"minute\"/>\n");
+		builder.append("</scan>\n</scanList>\n");
+		builder.append("<binaryDataArrayList count=\"2\">\n");
+		builder.append("<binaryDataArray encodedLength=\"" + MZ_VALUES.length() + "\">\n");
+		builder.append("<referenceableParamGroupRef ref=\"MzArrayParams\"/>\n");
+		builder.append("<binary>" + MZ_VALUES + "</binary>\n");
+		builder.append("</binaryDataArray>\n");
+		builder.append("<binaryDataArray encodedLength=\"" + INTENSITY_VALUES.length() + "\">\n");
+		builder.append("<referenceableParamGroupRef ref=\"IntensityArrayParams\"/>\n");
+		builder.append("<binary>" + INTENSITY_VALUES + "</binary>\n");
+		builder.append("</binaryDataArray>\n");
+		builder.append("</binaryDataArrayList>\n");
+		builder.append("</spectrum>\n");
+		builder.append("</spectrumList>\n</run>\n</mzML>\n");
+		Files.write(file.toPath(), builder.toString().getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testReadGroups_1() throws Exception {
+
+		XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		try(FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ReferenceableParamGroups referenceableParamGroups = ReferenceableParamGroups.read(fileChannel, inputFactory);
+			assertEquals("groups", 3, referenceableParamGroups.size());
+			List<CvParam> cvParams = referenceableParamGroups.get("CommonSpectrumParams");
+			assertEquals("params", 1, cvParams.size());
+			assertEquals("accession", "MS:1000511", cvParams.get(0).getAccession());
+			assertEquals("value", "2", cvParams.get(0).getValue());
+			assertEquals("params", 3, referenceableParamGroups.get("IntensityArrayParams").size());
+			assertTrue("unknown", referenceableParamGroups.get("Unknown").isEmpty());
+		}
+	}
+
+	public void testReadScan_1() throws Exception {
+
+		IVendorScan massSpectrum = new SpectrumReader().readScan(file, 1);
+		assertNotNull("scan", massSpectrum);
+		assertEquals("ms level", 2, massSpectrum.getMassSpectrometer());
+		assertEquals("retention time", 90000, massSpectrum.getRetentionTime());
+		List<IIon> ions = massSpectrum.getIons();
+		assertEquals("ions", 3, ions.size());
+		assertEquals("ion", 43.0d, ions.get(0).getIon());
+		assertEquals("abundance", 100.0f, ions.get(0).getAbundance());
+		assertEquals("ion", 57.0d, ions.get(1).getIon());
+		assertEquals("abundance", 250.5f, ions.get(1).getAbundance());
+		assertEquals("ion", 91.0d, ions.get(2).getIon());
+		assertEquals("abundance", 1000.0f, ions.get(2).getAbundance());
+	}
+
+	public void testReadOverview_1() throws Exception {
+
+		/*
+		 * The total ion current is calculated from the intensity array.
+		 */
+		IChromatogramMSD chromatogram = (IChromatogramMSD)new SpectrumReader().readOverview(file, new NullProgressMonitor());
+		assertEquals("scans", 1, chromatogram.getNumberOfScans());
+		IVendorScan scan = (IVendorScan)chromatogram.getSupplierScan(1);
+		assertEquals("ms level", 2, scan.getMassSpectrometer());
+		assertEquals("total signal", 1350.5f, scan.getTotalSignal());
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Builds small mzXML files for the tests.
+ * The scan offsets are recorded, so that an index can be appended.
+ */
+public class MzXMLTestFile {
+
+	public static final String VERSION_21 = "http://sashimi.sourceforge.net/schema_revision/mzXML_2.1";
+	public static final String VERSION_32 = "http://sashimi.sourceforge.net/schema_revision/mzXML_3.2";
+	//
+	private final StringBuilder builder = new StringBuilder();
+	private final List<Integer> scanNumbers = new ArrayList<>();
+	private final List<Integer> offsets = new ArrayList<>();
+	private final int precision;
+	private final boolean compress;
+
+	public MzXMLTestFile(String namespace, int precision, boolean compress) {
+		this.precision = precision;
+		this.compress = compress;
+		builder.append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n");
+		builder.append("<mzXML xmlns=\"" + namespace + "\">\n");
+		builder.append("<msRun>\n");
+	}
+
+	/**
+	 * Opens a scan. The values are m/z-int pairs.
+	 * Nested scans can be added before the scan is closed.
+	 *
+	 * @param scanNumber
+	 * @param msLevel
+	 * @param retentionTime
+	 * @param values
+	 * @return {@link MzXMLTestFile}
+	 */
+	public MzXMLTestFile startScan(int scanNumber, int msLevel, String retentionTime, double... values) {
+
+		scanNumbers.add(scanNumber);
+		offsets.add(builder.length());
+		builder.append("<scan num=\"" + scanNumber + "\" msLevel=\"" + msLevel + "\" peaksCount=\"" + values.length / 2 + "\" retentionTime=\"" + retentionTime + "\">\n");
+		builder.append("<peaks precision=\"" + precision + "\" byteOrder=\"network\" pairOrder=\"m/z-int\"");
+		if(compress) {
+			builder.append(" compressionType=\"zlib\"");
+		}
+		builder.append(">" + encode(values, precision, compress) + "</peaks>\n");
+		return this;
+	}
+
+	public MzXMLTestFile endScan() {
+
+		builder.append("</scan>\n");
+		return this;
+	}
+
+	public MzXMLTestFile addScan(int scanNumber, int msLevel, String retentionTime, double... values) {
+
+		return startScan(scanNumber, msLevel, retentionTime, values).endScan();
+	}
+
+	public int getOffset(int position) {
+
+		return offsets.get(position);
+	}
+
+	/**
+	 * Returns the file content.
+	 *
+	 * @param index
+	 * @return String
+	 */
+	public String getContent(boolean index) {
+
+		StringBuilder content = new StringBuilder(builder);
+		content.append("</msRun>\n");
+		if(index) {
+			int indexOffset = content.length();
+			content.append("<index name=\"scan\">\n");
+			for(int i = 0; i < offsets.size(); i++) {
+				content.append("<offset id=\"" + scanNumbers.get(i) + "\">" + offsets.get(i) + "</offset>\n");
+			}
+			content.append("</index>\n");
+			content.append("<indexOffset>" + indexOffset + "</indexOffset>\n");
+		}
+		content.append("</mzXML>\n");
+		return content.toString();
+	}
+
+	public static File write(String content) throws IOException {
+
+		File file = File.createTempFile("MzXML", ".mzXML");
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+		return file;
+	}
+
+	/**
+	 * Returns the base64 encoded values in network byte order.
+	 *
+	 * @param values
+	 * @param precision
+	 * @param compress
+	 * @return String
+	 */
+	public static String encode(double[] values, int precision, boolean compress) {
+
+		int bytesPerValue = (precision == PeaksDecoder.PRECISION_64) ? Double.BYTES : Float.BYTES;
+		ByteBuffer byteBuffer = ByteBuffer.allocate(values.length * bytesPerValue);
+		byteBuffer.order(ByteOrder.BIG_ENDIAN);
+		for(double value : values) {
+			if(precision == PeaksDecoder.PRECISION_64) {
+				byteBuffer.putDouble(value);
+			} else {
+				byteBuffer.putFloat((float)value);
+			}
+		}
+		byte[] bytes = byteBuffer.array();
+		if(compress) {
+			Deflater deflater = new Deflater();
+			try {
+				deflater.setInput(bytes);
+				deflater.finish();
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				while(!deflater.finished()) {
+					outputStream.write(buffer, 0, deflater.deflate(buffer));
+				}
+				bytes = outputStream.toByteArray();
+			} finally {
+				deflater.end();
+			}
+		}
+		return Base64.getEncoder().encodeToString(bytes);
+	}
+}
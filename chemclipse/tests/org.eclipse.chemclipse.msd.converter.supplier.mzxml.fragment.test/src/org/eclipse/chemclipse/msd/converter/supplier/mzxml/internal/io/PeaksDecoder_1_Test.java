@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+import junit.framework.TestCase;
+
+public class PeaksDecoder_1_Test extends TestCase {
+
+	private static final double[] VALUES = new double[]{18.0d, 1000.0d, 28.5d, 250.25d, 44.125d, 12.0d};
+
+	public void testDecode_1() throws Exception {
+
+		String content = MzXMLTestFile.encode(VALUES, 32, false);
+		assertValues(PeaksDecoder.decode(content, 32, PeaksDecoder.BYTE_ORDER_NETWORK, null, VALUES.length));
+	}
+
+	public void testDecode_2() throws Exception {
+
+		String content = MzXMLTestFile.encode(VALUES, 64, false);
+		assertValues(PeaksDecoder.decode(content, 64, PeaksDecoder.BYTE_ORDER_NETWORK, null, VALUES.length));
+	}
+
+	public void testDecode_3() throws Exception {
+
+		String content = MzXMLTestFile.encode(VALUES, 32, true);
+		assertValues(PeaksDecoder.decode(content, 32, PeaksDecoder.BYTE_ORDER_NETWORK, PeaksDecoder.COMPRESSION_ZLIB, VALUES.length));
+	}
+
+	public void testDecode_4() throws Exception {
+
+		String content = MzXMLTestFile.encode(VALUES, 64, true);
+		assertValues(PeaksDecoder.decode(content, 64, PeaksDecoder.BYTE_ORDER_NETWORK, PeaksDecoder.COMPRESSION_ZLIB, VALUES.length));
+	}
+
+	public void testDecode_5() throws Exception {
+
+		/*
+		 * The peaks count is unknown, hence the inflate buffer grows on demand.
+		 */
+		String content = MzXMLTestFile.encode(VALUES, 64, true);
+		assertValues(PeaksDecoder.decode(content, 64, PeaksDecoder.BYTE_ORDER_NETWORK, PeaksDecoder.COMPRESSION_ZLIB, 0));
+	}
+
+	public void testDecode_6() throws Exception {
+
+		ByteBuffer byteBuffer = ByteBuffer.allocate(VALUES.length * Float.BYTES);
+		byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+		for(double value : VALUES) {
+			byteBuffer.putFloat((float)value);
+		}
+		String content = Base64.getEncoder().encodeToString(byteBuffer.array());
+		assertValues(PeaksDecoder.decode(content, 32, "little", null, VALUES.length));
+	}
+
+	public void testDecode_7() throws Exception {
+
+		/*
+		 * Line breaks in the base64 content are ignored.
+		 */
+		String content = MzXMLTestFile.encode(VALUES, 64, false);
+		content = content.substring(0, 10) + "\n" + content.substring(10);
+		assertValues(PeaksDecoder.decode(content, 64, PeaksDecoder.BYTE_ORDER_NETWORK, null, VALUES.length));
+	}
+
+	public void testDecode_8() throws Exception {
+
+		assertEquals("values", 0, PeaksDecoder.decode("", 32, PeaksDecoder.BYTE_ORDER_NETWORK, null, 0).length);
+		assertEquals("values", 0, PeaksDecoder.decode(null, 32, PeaksDecoder.BYTE_ORDER_NETWORK, null, 0).length);
+	}
+
+	private void assertValues(double[] values) {
+
+		assertEquals("values", VALUES.length, values.length);
+		for(int i = 0; i < VALUES.length; i++) {
+			assertEquals("value", VALUES[i], values[i]);
+		}
+	}
+}
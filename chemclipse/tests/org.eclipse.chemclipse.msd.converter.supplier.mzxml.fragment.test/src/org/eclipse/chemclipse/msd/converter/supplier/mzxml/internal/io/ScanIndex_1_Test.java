@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLInputFactory;
+
+import junit.framework.TestCase;
+
+public class ScanIndex_1_Test extends TestCase {
+
+	private MzXMLTestFile mzXMLTestFile;
+	private XMLInputFactory inputFactory;
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+		mzXMLTestFile = new MzXMLTestFile(MzXMLTestFile.VERSION_32, 32, false);
+		mzXMLTestFile.addScan(1, 1, "PT1S", 18.0d, 100.0d);
+		mzXMLTestFile.addScan(2, 1, "PT2S", 18.0d, 200.0d);
+		mzXMLTestFile.addScan(5, 1, "PT3S", 18.0d, 300.0d);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		if(file != null) {
+			file.delete();
+		}
+		super.tearDown();
+	}
+
+	public void testRead_1() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true));
+		ScanIndex scanIndex = ScanIndex.read(file, inputFactory);
+		assertNotNull("index", scanIndex);
+		assertEquals("size", 3, scanIndex.size());
+		for(int i = 0; i < scanIndex.size(); i++) {
+			assertEquals("offset", mzXMLTestFile.getOffset(i), scanIndex.getOffset(i));
+		}
+		assertEquals("scan number", 5, scanIndex.getScanNumber(2));
+	}
+
+	public void testRead_2() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(false));
+		assertNull("index", ScanIndex.read(file, inputFactory));
+	}
+
+	public void testRead_3() throws Exception {
+
+		/*
+		 * The index offsets are wrong, e.g. after changing the line endings.
+		 */
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true).replace("\n", "\r\n"));
+		assertNull("index", ScanIndex.read(file, inputFactory));
+	}
+
+	public void testGetPosition_1() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true));
+		ScanIndex scanIndex = ScanIndex.read(file, inputFactory);
+		assertEquals("position", 0, scanIndex.getPosition(1));
+		assertEquals("position", 1, scanIndex.getPosition(2));
+		assertEquals("position", 2, scanIndex.getPosition(5));
+		assertEquals("position", -1, scanIndex.getPosition(3));
+	}
+
+	public void testOpenStream_1() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true));
+		ScanIndex scanIndex = ScanIndex.read(file, inputFactory);
+		try(InputStream inputStream = scanIndex.openStream(file, 1)) {
+			byte[] start = new byte[12];
+			assertEquals("bytes", start.length, inputStream.read(start));
+			assertEquals("start", "<scan num=\"2", new String(start, StandardCharsets.US_ASCII));
+		}
+	}
+}
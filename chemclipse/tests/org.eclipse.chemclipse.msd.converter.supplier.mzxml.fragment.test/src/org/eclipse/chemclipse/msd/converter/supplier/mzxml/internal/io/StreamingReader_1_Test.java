@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.converter.exceptions.FileIsNotReadableException;
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.IVendorScan;
+import org.eclipse.chemclipse.msd.model.core.IIon;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * mzXML 2.1 files with nested MS/MS scans and without index.
+ */
+public class StreamingReader_1_Test extends TestCase {
+
+	private StreamingReader streamingReader;
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		streamingReader = new StreamingReader(true, 2);
+		MzXMLTestFile mzXMLTestFile = new MzXMLTestFile(MzXMLTestFile.VERSION_21, 32, false);
+		mzXMLTestFile.startScan(1, 1, "PT1.5S", 18.0d, 100.0d, 28.0d, 200.0d);
+		mzXMLTestFile.addScan(2, 2, "PT1.6S", 16.0d, 50.0d);
+		mzXMLTestFile.endScan();
+		mzXMLTestFile.startScan(3, 1, "PT3S", 32.0d, 300.0d);
+		mzXMLTestFile.addScan(4, 2, "PT3.1S", 16.0d, 60.0d);
+		mzXMLTestFile.addScan(5, 2, "PT3.2S", 17.0d, 70.0d);
+		mzXMLTestFile.endScan();
+		mzXMLTestFile.addScan(6, 1, "PT4.5S", 44.0d, 400.0d, 44.0d, 450.0d);
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(false));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testRead_1() throws Exception {
+
+		/*
+		 * Only the direct children of msRun are read.
+		 */
+		List<IVendorScan> scans = new ArrayList<>();
+		streamingReader.read(file, scans::add, new NullProgressMonitor());
+		assertEquals("scans", 3, scans.size());
+		assertEquals("scan number", 1, scans.get(0).getScanNumber());
+		assertEquals("scan number", 3, scans.get(1).getScanNumber());
+		assertEquals("scan number", 6, scans.get(2).getScanNumber());
+		assertEquals("retention time", 1500, scans.get(0).getRetentionTime());
+		assertEquals("retention time", 3000, scans.get(1).getRetentionTime());
+		assertEquals("retention time", 4500, scans.get(2).getRetentionTime());
+	}
+
+	public void testRead_2() throws Exception {
+
+		List<IVendorScan> scans = new ArrayList<>();
+		streamingReader.read(file, scans::add, new NullProgressMonitor());
+		List<IIon> ions = scans.get(0).getIons();
+		assertEquals("ions", 2, ions.size());
+		assertEquals("ion", 18.0d, ions.get(0).getIon());
+		assertEquals("abundance", 100.0f, ions.get(0).getAbundance());
+		assertEquals("ion", 28.0d, ions.get(1).getIon());
+		assertEquals("abundance", 200.0f, ions.get(1).getAbundance());
+	}
+
+	public void testRead_3() throws Exception {
+
+		/*
+		 * Ions with the same m/z are merged, the highest abundance is kept.
+		 */
+		List<IVendorScan> scans = new ArrayList<>();
+		streamingReader.read(file, scans::add, new NullProgressMonitor());
+		List<IIon> ions = scans.get(2).getIons();
+		assertEquals("ions", 1, ions.size());
+		assertEquals("abundance", 450.0f, ions.get(0).getAbundance());
+	}
+
+	public void testRead_4() throws Exception {
+
+		assertEquals("scans", 3, streamingReader.read(file, new NullProgressMonitor()).getNumberOfScans());
+	}
+
+	public void testReadScan_1() throws Exception {
+
+		IVendorScan scan = streamingReader.readScan(file, 3);
+		assertNotNull("scan", scan);
+		assertEquals("retention time", 3000, scan.getRetentionTime());
+		assertEquals("ions", 1, scan.getNumberOfIons());
+		assertNull("scan", streamingReader.readScan(file, 7));
+	}
+
+	public void testReadScans_1() throws Exception {
+
+		List<IVendorScan> scans = streamingReader.readScans(file, 2000, 5000, new NullProgressMonitor());
+		assertEquals("scans", 2, scans.size());
+		assertEquals("scan number", 3, scans.get(0).getScanNumber());
+		assertEquals("scan number", 6, scans.get(1).getScanNumber());
+	}
+
+	public void testRead_5() throws Exception {
+
+		File malformed = MzXMLTestFile.write("<?xml version=\"1.0\"?>\n<mzXML>\n<msRun>\n<scan num=\"1\">\n</msRun>\n");
+		try {
+			streamingReader.read(malformed, new NullProgressMonitor());
+			fail("FileIsNotReadableException expected");
+		} catch(FileIsNotReadableException e) {
+			assertNotNull("cause", e.getCause());
+		} finally {
+			malformed.delete();
+		}
+	}
+
+	public void testReadScan_2() throws Exception {
+
+		File malformed = MzXMLTestFile.write("<?xml version=\"1.0\"?>\n<mzXML>\n<msRun>\n<scan num=\"1\"></peaks>\n");
+		try {
+			streamingReader.readScan(malformed, 2);
+			fail("FileIsNotReadableException expected");
+		} catch(FileIsNotReadableException e) {
+			assertNotNull("cause", e.getCause());
+		} finally {
+			malformed.delete();
+		}
+	}
+
+	public void testRead_6() throws Exception {
+
+		/*
+		 * An interrupted read must not return a truncated chromatogram.
+		 */
+		List<IVendorScan> scans = new ArrayList<>();
+		Thread.currentThread().interrupt();
+		try {
+			streamingReader.read(file, scans::add, new NullProgressMonitor());
+			fail("InterruptedIOException expected");
+		} catch(InterruptedIOException e) {
+			assertTrue("interrupted", Thread.interrupted());
+			assertEquals("scans", 0, scans.size());
+		}
+		streamingReader.read(file, scans::add, new NullProgressMonitor());
+		assertEquals("scans", 3, scans.size());
+	}
+}
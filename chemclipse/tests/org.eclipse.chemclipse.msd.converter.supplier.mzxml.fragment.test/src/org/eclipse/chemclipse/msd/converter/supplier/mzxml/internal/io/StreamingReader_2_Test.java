@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.mzxml.internal.io;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.chemclipse.msd.converter.supplier.mzxml.model.IVendorScan;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * mzXML 3.2 files with zlib compressed 64 bit peaks and an index.
+ */
+public class StreamingReader_2_Test extends TestCase {
+
+	private StreamingReader streamingReader;
+	private MzXMLTestFile mzXMLTestFile;
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		streamingReader = new StreamingReader(false, 1);
+		mzXMLTestFile = new MzXMLTestFile(MzXMLTestFile.VERSION_32, 64, true);
+		for(int i = 1; i <= 10; i++) {
+			mzXMLTestFile.addScan(i, 1, "PT" + i + "S", 50.0d + i, 1000.0d * i, 100.0d + i, 0.5d * i);
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testRead_1() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true));
+		List<IVendorScan> scans = new ArrayList<>();
+		streamingReader.read(file, scans::add, new NullProgressMonitor());
+		assertEquals("scans", 10, scans.size());
+		for(int i = 0; i < scans.size(); i++) {
+			IVendorScan scan = scans.get(i);
+			assertEquals("scan number", i + 1, scan.getScanNumber());
+			assertEquals("retention time", (i + 1) * 1000, scan.getRetentionTime());
+			assertEquals("ions", 2, scan.getNumberOfIons());
+			assertEquals("ion", 51.0d + i, scan.getIons().get(0).getIon());
+			assertEquals("abundance", 1000.0f * (i + 1), scan.getIons().get(0).getAbundance());
+			assertEquals("abundance", 0.5f * (i + 1), scan.getIons().get(1).getAbundance());
+		}
+	}
+
+	public void testReadScan_1() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true));
+		IVendorScan scan = streamingReader.readScan(file, 7);
+		assertEquals("scan number", 7, scan.getScanNumber());
+		assertEquals("retention time", 7000, scan.getRetentionTime());
+		assertEquals("ion", 57.0d, scan.getIons().get(0).getIon());
+		assertNull("scan", streamingReader.readScan(file, 11));
+	}
+
+	public void testReadScans_1() throws Exception {
+
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true));
+		assertScans(streamingReader.readScans(file, 3500, 6000, new NullProgressMonitor()), 4, 6);
+		assertScans(streamingReader.readScans(file, 0, 1000, new NullProgressMonitor()), 1, 1);
+		assertScans(streamingReader.readScans(file, 10000, 20000, new NullProgressMonitor()), 10, 10);
+		assertEquals("scans", 0, streamingReader.readScans(file, 10500, 20000, new NullProgressMonitor()).size());
+	}
+
+	public void testReadScans_2() throws Exception {
+
+		/*
+		 * The same ranges without index.
+		 */
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(false));
+		assertScans(streamingReader.readScans(file, 3500, 6000, new NullProgressMonitor()), 4, 6);
+		assertScans(streamingReader.readScans(file, 0, 1000, new NullProgressMonitor()), 1, 1);
+		assertEquals("scans", 0, streamingReader.readScans(file, 10500, 20000, new NullProgressMonitor()).size());
+	}
+
+	public void testReadScans_3() throws Exception {
+
+		/*
+		 * The index offsets are wrong, hence the whole file is parsed.
+		 */
+		file = MzXMLTestFile.write(mzXMLTestFile.getContent(true).replace("\n", "\r\n"));
+		assertScans(streamingReader.readScans(file, 3500, 6000, new NullProgressMonitor()), 4, 6);
+		assertEquals("retention time", 2000, streamingReader.readScan(file, 2).getRetentionTime());
+	}
+
+	private void assertScans(List<IVendorScan> scans, int firstScanNumber, int lastScanNumber) {
+
+		assertEquals("scans", lastScanNumber - firstScanNumber + 1, scans.size());
+		assertEquals("first scan", firstScanNumber, scans.get(0).getScanNumber());
+		assertEquals("last scan", lastScanNumber, scans.get(scans.size() - 1).getScanNumber());
+	}
+}
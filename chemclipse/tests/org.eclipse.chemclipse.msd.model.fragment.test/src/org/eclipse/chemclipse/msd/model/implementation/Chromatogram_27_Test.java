@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.implementation;
+
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the cached signal statistics follow the modifications of the scans.
+ */
+public class Chromatogram_27_Test extends TestCase {
+
+	private IChromatogramMSD chromatogram;
+	private VendorMassSpectrum massSpectrum;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		chromatogram = new ChromatogramMSD();
+		chromatogram.setScanDelay(1000);
+		chromatogram.setScanInterval(1000);
+		chromatogram.addScan(createMassSpectrum(1000, 100.0f));
+		massSpectrum = createMassSpectrum(2000, 500.0f);
+		chromatogram.addScan(massSpectrum);
+		chromatogram.addScan(createMassSpectrum(3000, 300.0f));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram = null;
+		massSpectrum = null;
+		super.tearDown();
+	}
+
+	public void testStatistics_1() {
+
+		assertEquals("Min Signal", 100.0f, chromatogram.getMinSignal());
+		assertEquals("Max Signal", 500.0f, chromatogram.getMaxSignal());
+		assertEquals("Total Signal", 900.0f, chromatogram.getTotalSignal());
+	}
+
+	public void testStatistics_2() throws Exception {
+
+		assertEquals("Max Signal", 500.0f, chromatogram.getMaxSignal());
+		massSpectrum.addIon(new ScanIon(44.0f, 700.0f));
+		assertEquals("Max Signal", 1200.0f, chromatogram.getMaxSignal());
+		assertEquals("Total Signal", 1600.0f, chromatogram.getTotalSignal());
+	}
+
+	public void testStatistics_3() {
+
+		assertEquals("Min Signal", 100.0f, chromatogram.getMinSignal());
+		massSpectrum.removeAllIons();
+		assertEquals("Min Signal", 0.0f, chromatogram.getMinSignal());
+		assertEquals("Max Signal", 300.0f, chromatogram.getMaxSignal());
+		assertEquals("Total Signal", 400.0f, chromatogram.getTotalSignal());
+	}
+
+	public void testStatistics_4() throws Exception {
+
+		assertEquals("Total Signal", 900.0f, chromatogram.getTotalSignal());
+		chromatogram.addScan(createMassSpectrum(4000, 50.0f));
+		assertEquals("Min Signal", 50.0f, chromatogram.getMinSignal());
+		assertEquals("Total Signal", 950.0f, chromatogram.getTotalSignal());
+		chromatogram.removeScan(4);
+		assertEquals("Min Signal", 100.0f, chromatogram.getMinSignal());
+		assertEquals("Total Signal", 900.0f, chromatogram.getTotalSignal());
+	}
+
+	public void testStatistics_5() throws Exception {
+
+		assertEquals("Max Signal", 500.0f, chromatogram.getMaxSignal());
+		massSpectrum.getIons().get(0).setAbundance(50.0f);
+		chromatogram.setDirty(true);
+		assertEquals("Min Signal", 50.0f, chromatogram.getMinSignal());
+		assertEquals("Max Signal", 300.0f, chromatogram.getMaxSignal());
+		assertEquals("Total Signal", 450.0f, chromatogram.getTotalSignal());
+	}
+
+	public void testStatistics_6() throws Exception {
+
+		assertEquals("Total Signal", 900.0f, chromatogram.getTotalSignal());
+		massSpectrum.getIons().get(0).setAbundance(50.0f);
+		massSpectrum.setDirty(true);
+		assertEquals("Min Signal", 50.0f, chromatogram.getMinSignal());
+		assertEquals("Max Signal", 300.0f, chromatogram.getMaxSignal());
+		assertEquals("Total Signal", 450.0f, chromatogram.getTotalSignal());
+	}
+
+	private VendorMassSpectrum createMassSpectrum(int retentionTime, float abundance) throws Exception {
+
+		VendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+		massSpectrum.setRetentionTime(retentionTime);
+		massSpectrum.addIon(new ScanIon(43.0f, abundance));
+		return massSpectrum;
+	}
+}
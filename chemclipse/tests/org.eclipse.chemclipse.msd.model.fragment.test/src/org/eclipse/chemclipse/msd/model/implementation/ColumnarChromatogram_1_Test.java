@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.implementation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.xic.IExtractedIonSignal;
+
+public class ColumnarChromatogram_1_Test extends TestCase {
+
+	private ColumnarChromatogramMSD chromatogram;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		chromatogram = new ColumnarChromatogramMSD();
+		chromatogram.addScan(1500, new double[]{18.0d, 28.1d, 32.0d}, new float[]{100.0f, 200.0f, 300.0f}, 3);
+		chromatogram.addScan(2000, new double[]{43.0d, 44.0d, 0.0d}, new float[]{50.0f, 25.0f, 0.0f}, 2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram.close();
+		chromatogram = null;
+		super.tearDown();
+	}
+
+	public void testGetNumberOfScans_1() {
+
+		assertEquals("scans", 2, chromatogram.getNumberOfScans());
+	}
+
+	public void testGetTotalSignal_1() {
+
+		assertEquals("totalSignal", 675.0f, chromatogram.getTotalSignal());
+	}
+
+	public void testGetScan_1() {
+
+		IScanMSD scan = chromatogram.getSupplierScan(1);
+		assertEquals("retentionTime", 1500, scan.getRetentionTime());
+		assertEquals("ions", 3, scan.getNumberOfIons());
+		assertEquals("totalSignal", 600.0f, scan.getTotalSignal());
+	}
+
+	public void testGetExtractedIonSignal_1() {
+
+		IExtractedIonSignal extractedIonSignal = chromatogram.getSupplierScan(1).getExtractedIonSignal(18, 32);
+		assertEquals("abundance", 100.0f, extractedIonSignal.getAbundance(18));
+		assertEquals("abundance", 200.0f, extractedIonSignal.getAbundance(28));
+		assertEquals("abundance", 300.0f, extractedIonSignal.getAbundance(32));
+		assertEquals("abundance", 0.0f, extractedIonSignal.getAbundance(20));
+	}
+
+	public void testGetIons_1() {
+
+		IScanMSD scan = chromatogram.getSupplierScan(2);
+		assertEquals("ions", 2, scan.getIons().size());
+		assertEquals("ion", 43.0d, scan.getIons().get(0).getIon());
+		assertEquals("abundance", 25.0f, scan.getIons().get(1).getAbundance());
+	}
+
+	public void testRemoveIon_1() {
+
+		IScanMSD scan = chromatogram.getSupplierScan(2);
+		scan.removeIon(43);
+		assertEquals("ions", 1, scan.getNumberOfIons());
+		assertEquals("totalSignal", 25.0f, scan.getTotalSignal());
+		assertEquals("stored ions", 2, chromatogram.getIonColumnStore().getLength(1));
+	}
+
+	public void testSerialize_1() throws Exception {
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try(ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+			objectOutputStream.writeObject(chromatogram.getSupplierScan(1));
+		}
+		try(ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+			IScanMSD scan = (IScanMSD)objectInputStream.readObject();
+			assertEquals("ions", 3, scan.getNumberOfIons());
+			assertEquals("totalSignal", 600.0f, scan.getTotalSignal());
+			assertEquals("ion", 28.1d, scan.getIons().get(1).getIon());
+			assertEquals("abundance", 300.0f, scan.getExtractedIonSignal().getAbundance(32));
+		}
+	}
+
+	public void testDispose_1() throws Exception {
+
+		ColumnarChromatogramMSD chromatogram = new ColumnarChromatogramMSD(true);
+		chromatogram.addScan(1500, new double[]{18.0d}, new float[]{100.0f}, 1);
+		chromatogram.dispose();
+		assertTrue("closed", chromatogram.getIonColumnStore().isClosed());
+		try {
+			chromatogram.addScan(2000, new double[]{18.0d}, new float[]{100.0f}, 1);
+			fail("The ion store has been closed.");
+		} catch(IOException e) {
+			assertNotNull("exception", e);
+		}
+	}
+}
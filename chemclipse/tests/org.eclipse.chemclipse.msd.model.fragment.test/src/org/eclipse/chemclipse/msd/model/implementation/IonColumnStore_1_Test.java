@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.implementation;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+/**
+ * The columns are read while further scans are appended.
+ */
+public class IonColumnStore_1_Test extends TestCase {
+
+	private static final int SCANS = 3000;
+	private static final int IONS = 1000;
+	//
+	private IonColumnStore ionColumnStore;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		ionColumnStore = new IonColumnStore();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		ionColumnStore.close();
+		ionColumnStore = null;
+		super.tearDown();
+	}
+
+	public void testAddScan_1() throws Exception {
+
+		double[] mzs = new double[IONS];
+		float[] abundances = new float[IONS];
+		for(int i = 0; i < IONS; i++) {
+			mzs[i] = i + 1;
+		}
+		AtomicReference<String> failure = new AtomicReference<>();
+		Thread reader = new Thread(() -> {
+			int scan = 0;
+			while(scan < SCANS && failure.get() == null) {
+				if(scan < ionColumnStore.getNumberOfScans()) {
+					long offset = ionColumnStore.getOffset(scan);
+					int length = ionColumnStore.getLength(scan);
+					for(long index = offset; index < offset + length; index++) {
+						if(ionColumnStore.getAbundance(index) != scan || ionColumnStore.getMZ(index) != index - offset + 1) {
+							failure.set("Scan " + scan + " at index " + index);
+						}
+					}
+					scan++;
+				}
+			}
+		});
+		reader.start();
+		for(int scan = 0; scan < SCANS; scan++) {
+			for(int i = 0; i < IONS; i++) {
+				abundances[i] = scan;
+			}
+			assertEquals("scan", scan, ionColumnStore.addScan(mzs, abundances, IONS));
+		}
+		reader.join();
+		assertNull("failure", failure.get());
+		assertEquals("size", (long)SCANS * IONS, ionColumnStore.size());
+	}
+
+	public void testGetOffset_1() throws Exception {
+
+		ionColumnStore.addScan(new double[]{18.0d}, new float[]{100.0f}, 1);
+		try {
+			ionColumnStore.getOffset(1);
+			fail("The scan is not available.");
+		} catch(IndexOutOfBoundsException e) {
+			assertNotNull("exception", e);
+		}
+	}
+}
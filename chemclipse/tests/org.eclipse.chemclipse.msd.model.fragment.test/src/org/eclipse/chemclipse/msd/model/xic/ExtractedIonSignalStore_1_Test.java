@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.model.xic;
+
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IScanMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.implementation.ScanIon;
+import org.eclipse.chemclipse.msd.model.implementation.VendorMassSpectrum;
+
+import junit.framework.TestCase;
+
+/**
+ * The extracted ion signals are shared and updated only for the modified scans.
+ */
+public class ExtractedIonSignalStore_1_Test extends TestCase {
+
+	private IChromatogramMSD chromatogram;
+	private int extractions;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		chromatogram = new ChromatogramMSD();
+		extractions = 0;
+		for(int i = 1; i <= 10; i++) {
+			VendorMassSpectrum massSpectrum = new VendorMassSpectrum() {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public IExtractedIonSignal getExtractedIonSignal() {
+
+					extractions++;
+					return super.getExtractedIonSignal();
+				}
+			};
+			massSpectrum.setRetentionTime(i * 1000);
+			/*
+			 * The first and last scan are empty.
+			 */
+			if(i > 1 && i < 10) {
+				massSpectrum.addIon(new ScanIon(43.0f, 100.0f * i));
+				massSpectrum.addIon(new ScanIon(57.0f, 50.0f));
+			}
+			chromatogram.addScan(massSpectrum);
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram = null;
+		super.tearDown();
+	}
+
+	public void test1() throws Exception {
+
+		IExtractedIonSignals extractedIonSignals = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		assertEquals("Start Scan", 2, extractedIonSignals.getStartScan());
+		assertEquals("Stop Scan", 9, extractedIonSignals.getStopScan());
+		assertEquals("Size", 8, extractedIonSignals.size());
+		assertEquals("Start Ion", 43, extractedIonSignals.getStartIon());
+		assertEquals("Stop Ion", 57, extractedIonSignals.getStopIon());
+		assertEquals("Abundance", 500.0f, extractedIonSignals.getExtractedIonSignal(5).getAbundance(43));
+		assertEquals("Extractions", 8, extractions);
+	}
+
+	public void test2() throws Exception {
+
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals(3, 6);
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		assertEquals("Extractions", 8, extractions);
+	}
+
+	public void test3() throws Exception {
+
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		chromatogram.getSupplierScan(5).addIon(new ScanIon(43.0f, 100.0f));
+		IExtractedIonSignals extractedIonSignals = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		assertEquals("Abundance", 600.0f, extractedIonSignals.getExtractedIonSignal(5).getAbundance(43));
+		assertEquals("Extractions", 9, extractions);
+	}
+
+	public void test4() throws Exception {
+
+		IExtractedIonSignals extractedIonSignals1 = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		IExtractedIonSignals extractedIonSignals2 = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		extractedIonSignals1.getExtractedIonSignal(5).setAbundance(43, 0.0f, true);
+		assertEquals("Abundance", 0.0f, extractedIonSignals1.getExtractedIonSignal(5).getAbundance(43));
+		assertEquals("Abundance", 500.0f, extractedIonSignals2.getExtractedIonSignal(5).getAbundance(43));
+		assertEquals("Abundance", 500.0f, new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals().getExtractedIonSignal(5).getAbundance(43));
+	}
+
+	public void test5() {
+
+		ExtractedIonSignalStore store = chromatogram.getExtractedIonSignalStore();
+		assertEquals("Start Ion", 43, store.getStartIon());
+		assertEquals("Stop Ion", 57, store.getStopIon());
+		assertEquals("Total Signal", 4400.0f, store.getTotalSignal(43));
+		assertEquals("Max Signal", 900.0f, store.getMaxSignal(43));
+		assertEquals("Total Signal", 400.0f, store.getTotalSignal(57));
+		assertEquals("Total Signal", 0.0f, store.getTotalSignal(50));
+	}
+
+	public void test6() throws Exception {
+
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		chromatogram.removeScan(10);
+		VendorMassSpectrum massSpectrum = new VendorMassSpectrum();
+		massSpectrum.setRetentionTime(11000);
+		massSpectrum.addIon(new ScanIon(60.0f, 200.0f));
+		chromatogram.addScan(massSpectrum);
+		IExtractedIonSignals extractedIonSignals = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		assertEquals("Stop Scan", 10, extractedIonSignals.getStopScan());
+		assertEquals("Stop Ion", 60, extractedIonSignals.getStopIon());
+		assertEquals("Extractions", 8, extractions);
+	}
+
+	public void test7() throws Exception {
+
+		IExtractedIonSignals extractedIonSignals = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals(3, 6);
+		assertEquals("Size", 4, extractedIonSignals.size());
+		assertEquals("Extractions", 4, extractions);
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		assertEquals("Extractions", 8, extractions);
+	}
+
+	public void test8() throws Exception {
+
+		IExtractedIonSignal extractedIonSignal = new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals().getExtractedIonSignal(5);
+		assertEquals("Start Ion", 43, extractedIonSignal.getStartIon());
+		assertEquals("Stop Ion", 57, extractedIonSignal.getStopIon());
+		assertEquals("Ion Values", 15, extractedIonSignal.getNumberOfIonValues());
+		assertEquals("Abundance", 0.0f, extractedIonSignal.getAbundance(50));
+		assertEquals("Abundance", 50.0f, extractedIonSignal.getAbundance(57));
+		assertEquals("Total Signal", 550.0f, extractedIonSignal.getTotalSignal());
+		assertEquals("Retention Time", 5000, extractedIonSignal.getRetentionTime());
+	}
+
+	public void test9() throws Exception {
+
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		IScanMSD scan = chromatogram.getSupplierScan(5);
+		scan.getIons().get(0).setAbundance(1000.0f);
+		assertEquals("Not marked dirty", 500.0f, new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals().getExtractedIonSignal(5).getAbundance(43));
+		scan.setDirty(true);
+		assertEquals("Marked dirty", 1000.0f, new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals().getExtractedIonSignal(5).getAbundance(43));
+		assertEquals("Extractions", 9, extractions);
+	}
+
+	public void test10() throws Exception {
+
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		chromatogram.dispose();
+		new ExtractedIonSignalExtractor(chromatogram).getExtractedIonSignals();
+		assertEquals("Extractions", 16, extractions);
+	}
+}
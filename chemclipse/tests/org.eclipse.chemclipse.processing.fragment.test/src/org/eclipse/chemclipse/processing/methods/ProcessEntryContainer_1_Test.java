@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.methods;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.chemclipse.processing.DataCategory;
+import org.eclipse.chemclipse.processing.core.IProcessingInfo;
+import org.eclipse.chemclipse.processing.core.ProcessingInfo;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfile;
+import org.eclipse.chemclipse.processing.profiling.ProcessProfiler;
+import org.eclipse.chemclipse.processing.supplier.AbstractProcessSupplier;
+import org.eclipse.chemclipse.processing.supplier.IProcessSupplier;
+import org.eclipse.chemclipse.processing.supplier.ProcessChainExecutor;
+import org.eclipse.chemclipse.processing.supplier.ProcessExecutionConsumer;
+import org.eclipse.chemclipse.processing.supplier.ProcessExecutionContext;
+import org.eclipse.chemclipse.processing.supplier.ProcessSupplierContext;
+import org.eclipse.chemclipse.processing.supplier.ProcessorPreferences;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * Consecutive entries of chain executors are applied in one step.
+ */
+public class ProcessEntryContainer_1_Test extends TestCase {
+
+	private Map<String, IProcessSupplier<?>> suppliers;
+	private ProcessSupplierContext supplierContext;
+	private IProcessingInfo<?> processingInfo;
+	private ProcessExecutionContext context;
+	private StringBuilder result;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		suppliers = new HashMap<>();
+		supplierContext = new ProcessSupplierContext() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public <T> IProcessSupplier<T> getSupplier(String id) {
+
+				return (IProcessSupplier<T>)suppliers.get(id);
+			}
+
+			@Override
+			public void visitSupplier(Consumer<? super IProcessSupplier<?>> consumer) {
+
+				suppliers.values().forEach(consumer);
+			}
+		};
+		for(String id : new String[]{"a", "d", "h"}) {
+			suppliers.put(id, new TestSupplier(id));
+		}
+		for(String id : new String[]{"b", "c", "e", "f", "g"}) {
+			suppliers.put(id, new ChainSupplier(id));
+		}
+		processingInfo = new ProcessingInfo<>();
+		context = new ProcessExecutionContext(new NullProgressMonitor(), processingInfo, supplierContext);
+		result = new StringBuilder();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		suppliers = null;
+		super.tearDown();
+	}
+
+	public void testApply_1() {
+
+		ProcessEntryContainer.applyProcessEntries(new TestContainer("a", "b", "c", "d", "e", "x", "f", "g"), context, new TestConsumer());
+		assertEquals("result", "a[bc]de[fg]", result.toString());
+		assertEquals("warnings", 1, processingInfo.getMessages().size());
+	}
+
+	public void testApply_2() {
+
+		ProcessEntryContainer.applyProcessEntries(new TestContainer("b", "c", "e"), context, new TestConsumer());
+		assertEquals("result", "[bce]", result.toString());
+	}
+
+	public void testApply_3() {
+
+		ProcessEntryContainer.applyProcessEntries(new TestContainer("b", "a", "c"), context, new TestConsumer());
+		assertEquals("result", "bac", result.toString());
+	}
+
+	public void testProfile_1() {
+
+		ProcessProfiler processProfiler = new ProcessProfiler();
+		context.setContextObject(ProcessProfiler.class, processProfiler);
+		ProcessEntryContainer.applyProcessEntries(new TestContainer("a", "b", "c"), context, new TestConsumer());
+		List<ProcessProfile> profiles = processProfiler.getProfiles();
+		assertEquals("result", "abc", result.toString());
+		assertEquals("profiles", 3, profiles.size());
+		assertEquals("name", "A", profiles.get(0).getName());
+		assertEquals("name", "B", profiles.get(1).getName());
+		assertEquals("name", "C", profiles.get(2).getName());
+		assertFalse("failed", profiles.get(1).isFailed());
+	}
+
+	public void testProfile_2() {
+
+		ProcessProfiler processProfiler = new ProcessProfiler();
+		context.setContextObject(ProcessProfiler.class, processProfiler);
+		ProcessEntryContainer.applyProcessEntries(new TestContainer("a", "h", "b"), context, new TestConsumer());
+		List<ProcessProfile> profiles = processProfiler.getProfiles();
+		assertEquals("profiles", 3, profiles.size());
+		assertFalse("failed", profiles.get(0).isFailed());
+		assertTrue("failed", profiles.get(1).isFailed());
+		assertFalse("failed", profiles.get(2).isFailed());
+		assertEquals("errors", 1, context.getNumberOfErrorMessages());
+	}
+
+	private class TestConsumer implements ProcessExecutionConsumer<StringBuilder> {
+
+		@Override
+		public <X> void execute(ProcessorPreferences<X> preferences, ProcessExecutionContext context) throws Exception {
+
+			String id = preferences.getSupplier().getId();
+			if("h".equals(id)) {
+				context.addErrorMessage(id, "failed");
+			}
+			result.append(id);
+		}
+
+		@Override
+		public StringBuilder getResult() {
+
+			return result;
+		}
+	}
+
+	private class TestSupplier extends AbstractProcessSupplier<Object> {
+
+		public TestSupplier(String id) {
+			super(id, id.toUpperCase(), "", null, null);
+		}
+
+		@Override
+		public ProcessSupplierContext getContext() {
+
+			return supplierContext;
+		}
+	}
+
+	private class ChainSupplier extends TestSupplier implements ProcessChainExecutor {
+
+		public ChainSupplier(String id) {
+			super(id);
+		}
+
+		@Override
+		public <X, T> boolean isChainable(ProcessorPreferences<X> preferences, ProcessExecutionConsumer<T> consumer) {
+
+			return preferences.getSupplier() instanceof ChainSupplier;
+		}
+
+		@Override
+		public <T> void executeChain(List<ProcessorPreferences<?>> chain, ProcessExecutionConsumer<T> consumer, ProcessExecutionContext context) throws Exception {
+
+			result.append("[");
+			for(ProcessorPreferences<?> preferences : chain) {
+				result.append(preferences.getSupplier().getId());
+			}
+			result.append("]");
+		}
+	}
+
+	private static class TestContainer implements ProcessEntryContainer {
+
+		private final List<IProcessEntry> processEntries = new ArrayList<>();
+
+		public TestContainer(String... processorIds) {
+			for(String processorId : processorIds) {
+				processEntries.add(new TestEntry(processorId, this));
+			}
+		}
+
+		@Override
+		public Iterator<IProcessEntry> iterator() {
+
+			return processEntries.iterator();
+		}
+
+		@Override
+		public String getName() {
+
+			return "Test";
+		}
+
+		@Override
+		public int getNumberOfEntries() {
+
+			return processEntries.size();
+		}
+	}
+
+	private static class TestEntry implements IProcessEntry {
+
+		private final String processorId;
+		private final ProcessEntryContainer parent;
+
+		public TestEntry(String processorId, ProcessEntryContainer parent) {
+			this.processorId = processorId;
+			this.parent = parent;
+		}
+
+		@Override
+		public Iterator<IProcessEntry> iterator() {
+
+			return Collections.emptyIterator();
+		}
+
+		@Override
+		public int getNumberOfEntries() {
+
+			return 0;
+		}
+
+		@Override
+		public String getProcessorId() {
+
+			return processorId;
+		}
+
+		@Override
+		public String getName() {
+
+			return processorId.toUpperCase();
+		}
+
+		@Override
+		public String getDescription() {
+
+			return "";
+		}
+
+		@Override
+		public String getSettings() {
+
+			return null;
+		}
+
+		@Override
+		public Set<DataCategory> getDataCategories() {
+
+			return Collections.emptySet();
+		}
+
+		@Override
+		public void setSettings(String settings) throws IllegalArgumentException {
+
+		}
+
+		@Override
+		public boolean isReadOnly() {
+
+			return true;
+		}
+
+		@Override
+		public ProcessEntryContainer getParent() {
+
+			return parent;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.processing.profiling;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.eclipse.chemclipse.processing.core.IProcessingInfo;
+import org.eclipse.chemclipse.processing.core.ProcessingInfo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import junit.framework.TestCase;
+
+public class ProcessProfiler_1_Test extends TestCase {
+
+	private ProcessProfiler processProfiler;
+	private ProcessProfile sample;
+	private ProcessProfile filter;
+	private ProcessProfile detector;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		processProfiler = new ProcessProfiler((result, counts) -> {
+			if(result instanceof StringBuilder) {
+				counts.put("Length", (long)((StringBuilder)result).length());
+			}
+		});
+		/*
+		 * Sample -> Filter -> Detector (sub entry)
+		 */
+		StringBuilder result = new StringBuilder("ab");
+		sample = processProfiler.start("Sample", null, result);
+		filter = processProfiler.start("Filter", "filter.id", result);
+		result.append("cd");
+		detector = processProfiler.start("Detector", "detector.id", result);
+		result.append("ef");
+		processProfiler.stop(detector, result, true);
+		processProfiler.stop(filter, result, false);
+		processProfiler.stop(sample, result, false);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		super.tearDown();
+	}
+
+	public void testNesting_1() {
+
+		List<ProcessProfile> profiles = processProfiler.getProfiles();
+		assertEquals("roots", 1, profiles.size());
+		assertSame("sample", sample, profiles.get(0));
+		assertEquals("sample children", 1, sample.getChildren().size());
+		assertSame("filter", filter, sample.getChildren().get(0));
+		assertSame("detector", detector, filter.getChildren().get(0));
+	}
+
+	public void testCounts_1() {
+
+		assertEquals("filter before", Long.valueOf(2), filter.getCountsBefore().get("Length"));
+		assertEquals("filter after", Long.valueOf(6), filter.getCountsAfter().get("Length"));
+		assertEquals("detector before", Long.valueOf(4), detector.getCountsBefore().get("Length"));
+		assertTrue("detector failed", detector.isFailed());
+		assertFalse("filter failed", filter.isFailed());
+	}
+
+	public void testTimes_1() {
+
+		assertTrue("sample >= filter", sample.getWallTime() >= filter.getWallTime());
+		assertTrue("filter >= detector", filter.getWallTime() >= detector.getWallTime());
+		assertTrue("detector", detector.getWallTime() >= 0);
+	}
+
+	public void testStop_1() {
+
+		ProcessProfile outer = processProfiler.start("Outer", null, null);
+		processProfiler.start("Inner", null, null);
+		try {
+			processProfiler.stop(outer, null, false);
+			fail("The inner profile must be stopped first.");
+		} catch(IllegalStateException e) {
+			// expected
+		}
+	}
+
+	public void testMessages_1() {
+
+		IProcessingInfo<?> processingInfo = new ProcessingInfo<>();
+		processProfiler.addMessages(processingInfo);
+		assertEquals("messages", 3, processingInfo.getMessages().size());
+		assertTrue("indent", processingInfo.getMessages().get(2).getMessage().startsWith("    Detector"));
+	}
+
+	public void testWriter_1() {
+
+		StringWriter writer = new StringWriter();
+		new ProcessProfileWriter().writeCSV(writer, processProfiler.getProfiles());
+		String[] lines = writer.toString().split("\\r?\\n");
+		assertEquals("lines", 4, lines.length);
+		assertTrue("header", lines[0].endsWith("Length (before);Length (after)"));
+		assertTrue("detector", lines[3].startsWith("\"Sample / Filter / Detector\";2;\"detector.id\";"));
+		assertTrue("counts", lines[3].endsWith(";true;4;6"));
+	}
+
+	public void testWriter_2() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		new ProcessProfileWriter().writeJSON(writer, processProfiler.getProfiles());
+		JsonNode sampleNode = new ObjectMapper().readTree(writer.toString()).get(0);
+		JsonNode detectorNode = sampleNode.get("children").get(0).get("children").get(0);
+		assertEquals("name", "Detector", detectorNode.get("name").asText());
+		assertEquals("processor", "detector.id", detectorNode.get("processorId").asText());
+		assertTrue("processor", sampleNode.get("processorId").isNull());
+		assertTrue("failed", detectorNode.get("failed").asBoolean());
+		assertEquals("counts", 6, detectorNode.get("countsAfter").get("Length").asLong());
+		assertEquals("children", 0, detectorNode.get("children").size());
+	}
+
+	public void testWriter_3() throws IOException {
+
+		/*
+		 * Names and counts are escaped.
+		 */
+		ProcessProfiler profiler = new ProcessProfiler((result, counts) -> counts.put("\"Peaks\"", 1L));
+		StringBuilder result = new StringBuilder();
+		ProcessProfile processProfile = profiler.start("Filter \"A\"\n\\B\t", "filter.id", result);
+		profiler.stop(processProfile, result, false);
+		StringWriter writer = new StringWriter();
+		new ProcessProfileWriter().writeJSON(writer, profiler.getProfiles());
+		JsonNode profileNode = new ObjectMapper().readTree(writer.toString()).get(0);
+		assertEquals("name", "Filter \"A\"\n\\B\t", profileNode.get("name").asText());
+		assertEquals("counts", 1, profileNode.get("countsAfter").get("\"Peaks\"").asLong());
+	}
+}
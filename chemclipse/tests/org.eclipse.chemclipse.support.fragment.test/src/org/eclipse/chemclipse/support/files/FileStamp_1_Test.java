@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.support.files;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+public class FileStamp_1_Test extends TestCase {
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("FileStamp", ".txt");
+		Files.write(file.toPath(), "Test".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(1577836800000L);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+		super.tearDown();
+	}
+
+	public void test1() {
+
+		FileStamp fileStamp = new FileStamp(file);
+		assertEquals("Length", 4, fileStamp.getLength());
+		assertEquals("Last Modified", 1577836800000L, fileStamp.getLastModified());
+		assertTrue("Exists", fileStamp.exists());
+		assertTrue("Valid", fileStamp.isValid(file));
+	}
+
+	public void test2() {
+
+		assertEquals("Equals", new FileStamp(4, 1577836800000L), new FileStamp(file));
+		assertEquals("Hash Code", new FileStamp(4, 1577836800000L).hashCode(), new FileStamp(file).hashCode());
+		assertFalse("Length", new FileStamp(5, 1577836800000L).equals(new FileStamp(file)));
+		assertFalse("Last Modified", new FileStamp(4, 1577836801000L).equals(new FileStamp(file)));
+	}
+
+	public void test3() throws Exception {
+
+		FileStamp fileStamp = new FileStamp(file);
+		Files.write(file.toPath(), "Test Modified".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(1577836800000L);
+		assertFalse("Modified Length", fileStamp.isValid(file));
+	}
+
+	public void test4() {
+
+		FileStamp fileStamp = new FileStamp(file);
+		file.setLastModified(1577840400000L);
+		assertFalse("Modified Date", fileStamp.isValid(file));
+	}
+
+	public void test5() {
+
+		file.delete();
+		FileStamp fileStamp = new FileStamp(file);
+		assertFalse("Exists", fileStamp.exists());
+		assertEquals("Length", 0, fileStamp.getLength());
+	}
+}
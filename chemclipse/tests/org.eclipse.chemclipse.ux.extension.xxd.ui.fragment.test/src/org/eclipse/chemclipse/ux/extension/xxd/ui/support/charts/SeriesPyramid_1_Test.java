@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.ux.extension.xxd.ui.support.charts;
+
+import junit.framework.TestCase;
+
+public class SeriesPyramid_1_Test extends TestCase {
+
+	private SeriesPyramid seriesPyramid;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		double[] xSeries = new double[40];
+		double[] ySeries = new double[40];
+		for(int i = 0; i < xSeries.length; i++) {
+			xSeries[i] = 1000 + i * 100;
+		}
+		ySeries[5] = 10.0d;
+		ySeries[33] = -3.0d;
+		seriesPyramid = new SeriesPyramid(xSeries, ySeries);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		seriesPyramid = null;
+		super.tearDown();
+	}
+
+	public void testSize_1() {
+
+		assertEquals("Size", 40, seriesPyramid.size());
+	}
+
+	public void testGetSeries_1() {
+
+		/*
+		 * 2 buckets: 0-19 and 20-39
+		 * first, min, max, last of each bucket without duplicates
+		 */
+		double[][] series = seriesPyramid.getSeries(8);
+		assertEquals("X", 6, series[0].length);
+		assertEquals("X", 1000.0d, series[0][0]);
+		assertEquals("X", 1500.0d, series[0][1]);
+		assertEquals("X", 2900.0d, series[0][2]);
+		assertEquals("X", 3000.0d, series[0][3]);
+		assertEquals("X", 4300.0d, series[0][4]);
+		assertEquals("X", 4900.0d, series[0][5]);
+		assertEquals("Y", 0.0d, series[1][0]);
+		assertEquals("Y", 10.0d, series[1][1]);
+		assertEquals("Y", 0.0d, series[1][2]);
+		assertEquals("Y", 0.0d, series[1][3]);
+		assertEquals("Y", -3.0d, series[1][4]);
+		assertEquals("Y", 0.0d, series[1][5]);
+	}
+
+	public void testGetSeries_2() {
+
+		double[][] series = seriesPyramid.getSeries(40);
+		assertEquals("X", 40, series[0].length);
+		assertEquals("X", 1000.0d, series[0][0]);
+		assertEquals("X", 4900.0d, series[0][39]);
+		assertEquals("Y", 10.0d, series[1][5]);
+	}
+
+	public void testGetSeries_3() {
+
+		double[][] series = seriesPyramid.getSeries(30, 35, 100);
+		assertEquals("X", 6, series[0].length);
+		assertEquals("X", 4000.0d, series[0][0]);
+		assertEquals("Y", -3.0d, series[1][3]);
+	}
+
+	public void testGetSeries_4() {
+
+		double[][] series = seriesPyramid.getSeries(35, 30, 100);
+		assertEquals("X", 6, series[0].length);
+		assertEquals("X", 4000.0d, series[0][0]);
+		assertEquals("X", 4500.0d, series[0][5]);
+	}
+
+	public void testGetSeries_5() {
+
+		double[][] series = seriesPyramid.getSeries(-10, 100, 100);
+		assertEquals("X", 40, series[0].length);
+	}
+
+	public void testGetSeries_6() {
+
+		double[][] series = new SeriesPyramid(new double[0], new double[0]).getSeries(100);
+		assertEquals("X", 0, series[0].length);
+		assertEquals("Y", 0, series[1].length);
+	}
+
+	public void testGetSeries_7() {
+
+		/*
+		 * The arrays are copies.
+		 */
+		double[][] series = seriesPyramid.getSeries(100);
+		series[1][5] = 0.0d;
+		assertEquals("Y", 10.0d, seriesPyramid.getSeries(100)[1][5]);
+	}
+
+	public void testGetIndex_1() {
+
+		assertEquals("Index", 0, seriesPyramid.getIndex(1000));
+		assertEquals("Index", 5, seriesPyramid.getIndex(1500));
+	}
+
+	public void testGetIndex_2() {
+
+		assertEquals("Index", 6, seriesPyramid.getIndex(1550));
+	}
+
+	public void testGetIndex_3() {
+
+		assertEquals("Index", 0, seriesPyramid.getIndex(0));
+		assertEquals("Index", 39, seriesPyramid.getIndex(10000));
+	}
+
+	public void testGetIndex_4() {
+
+		SeriesPyramid seriesPyramid = new SeriesPyramid(new double[]{1.0d, 2.0d, 2.0d, 2.0d, 3.0d}, new double[5]);
+		assertEquals("Index", 1, seriesPyramid.getIndex(2.0d));
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.ux.extension.xxd.ui.support.charts;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the min/max queries of the pyramid with a linear search over each bucket.
+ */
+public class SeriesPyramid_2_Test extends TestCase {
+
+	private double[] xSeries;
+	private double[] ySeries;
+	private SeriesPyramid seriesPyramid;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		Random random = new Random(4711);
+		xSeries = new double[1001];
+		ySeries = new double[1001];
+		for(int i = 0; i < xSeries.length; i++) {
+			xSeries[i] = i;
+			ySeries[i] = random.nextInt(100000) - 1000;
+		}
+		seriesPyramid = new SeriesPyramid(xSeries, ySeries);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		seriesPyramid = null;
+		super.tearDown();
+	}
+
+	public void testBuckets_1() {
+
+		assertBuckets(0, 1000, 100);
+	}
+
+	public void testBuckets_2() {
+
+		assertBuckets(0, 1000, 4);
+	}
+
+	public void testBuckets_3() {
+
+		assertBuckets(17, 923, 64);
+	}
+
+	public void testBuckets_4() {
+
+		assertBuckets(511, 513, 4);
+	}
+
+	public void testBuckets_5() {
+
+		assertBuckets(1, 998, 250);
+	}
+
+	private void assertBuckets(int start, int stop, int maxPoints) {
+
+		double[][] series = seriesPyramid.getSeries(start, stop, maxPoints);
+		double[] x = series[0];
+		double[] y = series[1];
+		assertTrue("Points", x.length <= maxPoints);
+		for(int i = 1; i < x.length; i++) {
+			assertTrue("Ascending", x[i] > x[i - 1]);
+		}
+		//
+		int length = stop - start + 1;
+		int buckets = maxPoints / 4;
+		for(int bucket = 0; bucket < buckets; bucket++) {
+			int from = start + (int)((long)length * bucket / buckets);
+			int to = start + (int)((long)length * (bucket + 1) / buckets) - 1;
+			double min = Double.MAX_VALUE;
+			double max = -Double.MAX_VALUE;
+			for(int i = from; i <= to; i++) {
+				min = Math.min(min, ySeries[i]);
+				max = Math.max(max, ySeries[i]);
+			}
+			double reducedMin = Double.MAX_VALUE;
+			double reducedMax = -Double.MAX_VALUE;
+			boolean first = false;
+			boolean last = false;
+			for(int i = 0; i < x.length; i++) {
+				if(x[i] >= xSeries[from] && x[i] <= xSeries[to]) {
+					reducedMin = Math.min(reducedMin, y[i]);
+					reducedMax = Math.max(reducedMax, y[i]);
+					first |= x[i] == xSeries[from];
+					last |= x[i] == xSeries[to];
+				}
+			}
+			assertEquals("Min " + from + "-" + to, min, reducedMin);
+			assertEquals("Max " + from + "-" + to, max, reducedMax);
+			assertTrue("First " + from, first);
+			assertTrue("Last " + to, last);
+		}
+	}
+}
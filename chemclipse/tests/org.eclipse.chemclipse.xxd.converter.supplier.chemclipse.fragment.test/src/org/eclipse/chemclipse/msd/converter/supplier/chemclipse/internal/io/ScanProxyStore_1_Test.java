@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Lablicate GmbH.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Dr. Philip Wenig - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.chemclipse.msd.converter.supplier.chemclipse.internal.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.io.IReaderProxy;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.model.chromatogram.IVendorScan;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.model.chromatogram.IVendorScanProxy;
+import org.eclipse.chemclipse.msd.converter.supplier.chemclipse.model.chromatogram.VendorScanProxy;
+import org.eclipse.chemclipse.msd.model.core.IChromatogramMSD;
+import org.eclipse.chemclipse.msd.model.core.IIonTransitionSettings;
+import org.eclipse.chemclipse.msd.model.implementation.ChromatogramMSD;
+
+import junit.framework.TestCase;
+
+public class ScanProxyStore_1_Test extends TestCase {
+
+	private static final String ENTRY_NAME = "Scans";
+	//
+	private File file;
+	private IChromatogramMSD chromatogram;
+	private int value;
+	private IReaderProxy readerProxy;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		super.setUp();
+		file = File.createTempFile("ScanProxyStore", ".ocb");
+		try(ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(file))) {
+			zipOutputStream.putNextEntry(new ZipEntry(ENTRY_NAME));
+			DataOutputStream dataOutputStream = new DataOutputStream(zipOutputStream);
+			for(int i = 0; i < 100; i++) {
+				dataOutputStream.writeInt(i);
+			}
+			dataOutputStream.flush();
+			zipOutputStream.closeEntry();
+		}
+		chromatogram = new ChromatogramMSD();
+		value = -1;
+		readerProxy = new IReaderProxy() {
+
+			@Override
+			public void readMassSpectrum(File file, int offset, IVendorScanProxy massSpectrum, IIonTransitionSettings ionTransitionSettings) throws IOException {
+
+			}
+
+			@Override
+			public void readMassSpectrum(IVendorScan massSpectrum, DataInputStream dataInputStream, IIonTransitionSettings ionTransitionSettings) throws IOException {
+
+				value = dataInputStream.readInt();
+			}
+		};
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		chromatogram.dispose();
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testRead_1() throws IOException {
+
+		ScanProxyStore.register(file, ENTRY_NAME, chromatogram, new int[]{0, 40, 80});
+		ScanProxyStore scanProxyStore = ScanProxyStore.get(file, ENTRY_NAME);
+		assertSame("Store", scanProxyStore, ScanProxyStore.get(file, ENTRY_NAME));
+		assertEquals("Value", 20, read(scanProxyStore, 80));
+		assertEquals("Value", 10, read(scanProxyStore, 40));
+		assertEquals("Value", 0, read(scanProxyStore, 0));
+	}
+
+	public void testRelease_1() throws IOException {
+
+		ScanProxyStore.register(file, ENTRY_NAME, chromatogram, new int[]{0, 4});
+		ScanProxyStore scanProxyStore = ScanProxyStore.get(file, ENTRY_NAME);
+		read(scanProxyStore, 0);
+		/*
+		 * A copy of the proxy releases the same offset again.
+		 */
+		scanProxyStore.release(0);
+		scanProxyStore.release(0);
+		assertSame("Store", scanProxyStore, ScanProxyStore.get(file, ENTRY_NAME));
+		assertEquals("Value", 1, read(scanProxyStore, 4));
+		scanProxyStore.release(4);
+		assertNotSame("Store", scanProxyStore, ScanProxyStore.get(file, ENTRY_NAME));
+	}
+
+	public void testModified_1() throws IOException {
+
+		ScanProxyStore.register(file, ENTRY_NAME, chromatogram, new int[]{0, 4});
+		ScanProxyStore scanProxyStore = ScanProxyStore.get(file, ENTRY_NAME);
+		read(scanProxyStore, 0);
+		assertTrue("Modified", file.setLastModified(file.lastModified() + 10000));
+		assertNotSame("Store", scanProxyStore, ScanProxyStore.get(file, ENTRY_NAME));
+	}
+
+	public void testDispose_1() throws IOException {
+
+		ScanProxyStore.register(file, ENTRY_NAME, chromatogram, new int[]{0, 4});
+		ScanProxyStore scanProxyStore = ScanProxyStore.get(file, ENTRY_NAME);
+		read(scanProxyStore, 0);
+		chromatogram.dispose();
+		assertNotSame("Store", scanProxyStore, ScanProxyStore.get(file, ENTRY_NAME));
+		/*
+		 * The proxies are still readable via a temporary store.
+		 */
+		ScanProxyStore temporaryStore = ScanProxyStore.get(file, ENTRY_NAME);
+		assertEquals("Value", 1, read(temporaryStore, 4));
+		temporaryStore.release(4);
+		assertTrue("Deleted", file.delete());
+	}
+
+	private int read(ScanProxyStore scanProxyStore, int offset) throws IOException {
+
+		scanProxyStore.readMassSpectrum(offset, new VendorScanProxy(file, offset, "1.3.0.1", null), readerProxy, null);
+		return value;
+	}
+}